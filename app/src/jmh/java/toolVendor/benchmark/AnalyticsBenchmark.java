@@ -0,0 +1,67 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.data.analytics.AgreementColumnStore;
+import toolVendor.data.analytics.AgreementColumnStore.Dimension;
+import toolVendor.data.analytics.RevenueGroup;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+/**
+ * Benchmarks revenue reports over 10 million stored agreements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AnalyticsBenchmark {
+    private static final String[] TOOL_CODES = { "CHNS", "LADW", "JAKD", "JAKR" };
+    private static final ToolType[] TOOL_TYPES = { ToolType.CHAINSAW, ToolType.LADDER, ToolType.JACKHAMMER, ToolType.JACKHAMMER };
+    private static final ToolBrand[] TOOL_BRANDS = { ToolBrand.STIHL, ToolBrand.WERNER, ToolBrand.DEWALT, ToolBrand.RIDGID };
+
+    private AgreementColumnStore theColumnStore;
+
+    @Setup
+    public void setUp() {
+        theColumnStore = new AgreementColumnStore();
+        LocalDate firstDate = LocalDate.of(2015, 1, 1);
+
+        for (int i = 0; i < 10_000_000; ++i) {
+            int tool = i & 3;
+            int chargableDays = 1 + i % 7;
+            long finalChargeCents = chargableDays * 199L;
+            theColumnStore.append(TOOL_CODES[tool], TOOL_TYPES[tool], TOOL_BRANDS[tool], firstDate.plusDays(i % 3650), chargableDays, finalChargeCents, 0, finalChargeCents);
+        }
+    }
+
+    @Benchmark
+    public List<RevenueGroup> groupByTypeAndMonth() {
+        return theColumnStore.groupBy(Dimension.TOOL_TYPE, Dimension.MONTH);
+    }
+
+    @Benchmark
+    public List<RevenueGroup> groupByBrand() {
+        return theColumnStore.groupBy(Dimension.TOOL_BRAND);
+    }
+
+    @Benchmark
+    public long sumFinalCharge() {
+        return theColumnStore.sumFinalChargeCents(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 12, 31));
+    }
+}
@@ -0,0 +1,99 @@
+package toolVendor.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.util.CalendarUtility;
+
+/**
+ * Benchmarks counting chargeable days across rental lengths from a day to ten years, comparing
+ * the original day by day loop with the index, closed form, and bitmask counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+    // Rental lengths in days
+    @Param({ "1", "7", "30", "365", "3650" })
+    public int theRentalDayCount;
+
+    // Charges every kind of day, so no count can be skipped
+    private Tool theTool;
+    private LocalDate theCheckoutDate;
+    private String theCheckoutDateString;
+
+    /**
+     * The original count, classifying the rental window one day at a time.
+     */
+    private static int countChargableDaysDayByDay(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent) {
+        int chargableDayCount = 0;
+
+        for (int i = 1; i <= numberOfDaysFromStart; ++i) {
+            LocalDate dateToExamine = startDate.plusDays(i);
+            DayOfWeek dayOfWeek = dateToExamine.getDayOfWeek();
+            boolean isHoliday = dateToExamine.equals(CalendarUtility.getObservedFourthOfJuly(dateToExamine.getYear())) ||
+                                dateToExamine.equals(CalendarUtility.getLaborDay(dateToExamine.getYear()));
+
+            if (isHoliday) {
+                chargableDayCount += toolToRent.doHolidayRatesApply() ? 1 : 0;
+            }
+            else if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+                chargableDayCount += toolToRent.doWeekendRatesApply() ? 1 : 0;
+            }
+            else {
+                chargableDayCount += toolToRent.doWeekdayRatesApply() ? 1 : 0;
+            }
+        }
+
+        return chargableDayCount;
+    }
+
+    @Setup
+    public void setUp() {
+        theTool = new Tool("CHNS");
+        theCheckoutDate = LocalDate.of(2020, 7, 2);
+        theCheckoutDateString = "07/02/20";
+    }
+
+    @Benchmark
+    public int getChargableDays() {
+        return CalendarUtility.getChargableDays(theCheckoutDate, theRentalDayCount, theTool);
+    }
+
+    @Benchmark
+    public int getChargableDaysFromString() {
+        return CalendarUtility.getChargableDays(theCheckoutDateString, theRentalDayCount, theTool);
+    }
+
+    @Benchmark
+    public int getChargableDaysBitmask() {
+        return CalendarUtility.getChargableDaysBitmask(theCheckoutDate, theRentalDayCount, theTool);
+    }
+
+    @Benchmark
+    public int dayByDayLoop() {
+        return countChargableDaysDayByDay(theCheckoutDate, theRentalDayCount, theTool);
+    }
+
+    @Benchmark
+    public int getChargableDaysClosedForm() {
+        return CalendarUtility.getChargableDaysClosedForm(theCheckoutDate, theRentalDayCount, theTool);
+    }
+}
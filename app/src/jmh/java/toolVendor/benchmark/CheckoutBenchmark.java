@@ -0,0 +1,82 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolCatalog;
+import toolVendor.exceptions.DiscountOutOfBoundsException;
+import toolVendor.exceptions.InvalidRentalDayException;
+
+/**
+ * Benchmarks a whole checkout and the pieces around it: tool lookup and construction, and rejecting
+ * bad input with and without exceptions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckoutBenchmark {
+    private ToolVendor theToolVendor;
+    private ToolCatalog theToolCatalog;
+    private LocalDate theCheckoutDate;
+
+    @Setup
+    public void setUp() {
+        theToolVendor = new ToolVendor();
+        theToolCatalog = ToolCatalog.getDefaultCatalog();
+        theCheckoutDate = LocalDate.of(2020, 7, 2);
+    }
+
+    @Benchmark
+    public RentalAgreement checkoutTool() throws InvalidRentalDayException, DiscountOutOfBoundsException {
+        return theToolVendor.checkoutTool("JAKR", "7/2/20", 9, 25);
+    }
+
+    @Benchmark
+    public RentalAgreement checkoutToolWithLocalDate() throws InvalidRentalDayException, DiscountOutOfBoundsException {
+        return theToolVendor.checkoutTool("JAKR", theCheckoutDate, 9, 25);
+    }
+
+    @Benchmark
+    public CheckoutResult tryCheckoutToolInvalid() {
+        return theToolVendor.tryCheckoutTool("JAKR", "7/2/20", 0, 25);
+    }
+
+    @Benchmark
+    public RuntimeException checkoutToolInvalid() {
+        try {
+            theToolVendor.checkoutTool("JAKR", "7/2/20", 0, 25);
+            return null;
+        }
+        catch (InvalidRentalDayException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Tool catalogLookup() {
+        return theToolCatalog.getTool("JAKR");
+    }
+
+    @Benchmark
+    public Tool toolConstruction() {
+        return new Tool("JAKR");
+    }
+}
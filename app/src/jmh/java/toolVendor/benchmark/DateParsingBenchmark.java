@@ -0,0 +1,93 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.util.CalendarUtility;
+import toolVendor.util.DateStringParser;
+
+/**
+ * Benchmarks parsing checkout date strings, comparing the old formatter cascade with the DateStringParser.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+    // One date in each of the accepted shapes
+    @Param({ "06/12/23", "6/12/23", "06/2/23", "6/2/23", "06/12/2023", "6/12/2023", "06/2/2023", "6/2/2023" })
+    public String theDateString;
+
+    // The patterns tried in order by the old cascade
+    private static final String[] theLegacyPatterns = {
+        "MM/dd/yy",
+        "M/d/yy",
+        "MM/d/yy",
+        "M/dd/yy",
+        "M/dd/yyyy",
+        "M/d/yyyy",
+        "MM/d/yyyy",
+        "MM/dd/yyyy"
+    };
+
+    /**
+     * The old getStartDateString: build each formatter, try it, then parse again with the winner.
+     */
+    private static String legacyGetStartDateString(String dateString) {
+        DateTimeFormatter formatter = null;
+
+        for (String pattern : theLegacyPatterns) {
+            try {
+                formatter = DateTimeFormatter.ofPattern(pattern);
+                LocalDate.parse(dateString, formatter);
+                break;
+            }
+            catch (DateTimeParseException e) {
+                formatter = null;
+            }
+        }
+
+        LocalDate parsedDate = LocalDate.parse(dateString, formatter);
+        return parsedDate.format(DateTimeFormatter.ofPattern("MM/dd/yy"));
+    }
+
+    @Benchmark
+    public String legacyCascade() {
+        return legacyGetStartDateString(theDateString);
+    }
+
+    @Benchmark
+    public DateTimeFormatter generateFormatterBasedonDateString() {
+        return CalendarUtility.generateFormatterBasedonDateString(theDateString);
+    }
+
+    @Benchmark
+    public String getStartDateString() {
+        return CalendarUtility.getStartDateString(theDateString);
+    }
+
+    @Benchmark
+    public LocalDate parseLocalDate() {
+        return DateStringParser.parseLocalDate(theDateString);
+    }
+
+    @Benchmark
+    public long parseEpochDay() {
+        return DateStringParser.parseEpochDay(theDateString);
+    }
+}
@@ -0,0 +1,87 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.data.inventory.InventoryLedger;
+import toolVendor.data.inventory.Reservation;
+
+/**
+ * Benchmarks availability lookups on a ledger holding 200,000 reservations, and reserving and
+ * releasing from several threads at once, on the same tool and on different tools.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBenchmark {
+    private static final String[] TOOL_CODES = { "CHNS", "LADW", "JAKD", "JAKR" };
+
+    private InventoryLedger theInventoryLedger;
+    private LocalDate theFirstDate;
+
+    @Setup
+    public void setUp() {
+        theInventoryLedger = new InventoryLedger();
+        theFirstDate = LocalDate.of(2000, 1, 1);
+
+        // 20 units of each tool, each out for a week then in for a week
+        for (String toolCode : TOOL_CODES) {
+            theInventoryLedger.setUnitCount(toolCode, 20);
+            for (int day = 0; day < 50000; day += 14) {
+                for (int unit = 0; unit < 20; ++unit) {
+                    theInventoryLedger.reserve(toolCode, theFirstDate.plusDays(day), theFirstDate.plusDays(day + 7));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int availableUnitCount() {
+        return theInventoryLedger.getAvailableUnitCount("CHNS", theFirstDate.plusDays(25207), theFirstDate.plusDays(25214));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean reserveAndReleaseSameTool() {
+        Reservation reservation = theInventoryLedger.reserve("LADW", theFirstDate.plusDays(25207), theFirstDate.plusDays(25210));
+        return reservation != null && theInventoryLedger.release(reservation);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean reserveAndReleaseOwnTool(ThreadTool threadTool) {
+        Reservation reservation = theInventoryLedger.reserve(threadTool.theToolCode, theFirstDate.plusDays(25207), theFirstDate.plusDays(25210));
+        return reservation != null && theInventoryLedger.release(reservation);
+    }
+
+    /**
+     * Gives each benchmark thread its own tool.
+     */
+    @State(Scope.Thread)
+    public static class ThreadTool {
+        private static final AtomicInteger NEXT_TOOL = new AtomicInteger();
+
+        String theToolCode;
+
+        @Setup
+        public void setUp() {
+            theToolCode = TOOL_CODES[NEXT_TOOL.getAndIncrement() % TOOL_CODES.length];
+        }
+    }
+}
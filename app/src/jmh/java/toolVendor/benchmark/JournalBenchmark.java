@@ -0,0 +1,59 @@
+package toolVendor.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.journal.AgreementJournal;
+
+/**
+ * Benchmarks appending agreements to the journal, without waiting and waiting for each append to be
+ * forced from several threads, where the appends share forces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark {
+    private AgreementJournal theAgreementJournal;
+    private RentalAgreement theRentalAgreement;
+
+    @Setup
+    public void setUp() throws IOException {
+        theAgreementJournal = new AgreementJournal(Files.createTempDirectory("journalBenchmark"));
+        theRentalAgreement = new ToolVendor().checkoutTool("JAKR", "7/2/20", 9, 25);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        theAgreementJournal.close();
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        return theAgreementJournal.append(theRentalAgreement);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long appendAndSync() throws IOException, InterruptedException {
+        return theAgreementJournal.appendAndSync(theRentalAgreement);
+    }
+}
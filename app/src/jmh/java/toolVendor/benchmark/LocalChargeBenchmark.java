@@ -0,0 +1,86 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.pricing.ChargeLocalizer;
+import toolVendor.pricing.ExchangeRateTable;
+import toolVendor.pricing.LocalCharge;
+import toolVendor.pricing.TaxTable;
+
+/**
+ * Benchmarks localizing a million already priced charges with new rate tables, against localizing one charge.
+ * Rates change monthly over ten years in three currencies and eight tax regions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalChargeBenchmark {
+    private static final int CHARGE_COUNT = 1_000_000;
+    private static final String[] CURRENCY_CODES = { "USD", "EUR", "JPY", "GBP" };
+
+    private ChargeLocalizer theChargeLocalizer;
+    private long[] theFinalChargeCents;
+    private int[] theCheckoutEpochDays;
+    private int[] theRegionIndexes;
+    private long[] theChargeMinorUnits;
+    private long[] theTaxMinorUnits;
+
+    @Setup
+    public void setUp() {
+        LocalDate firstMonth = LocalDate.of(2015, 1, 1);
+        ExchangeRateTable.Builder exchangeRates = ExchangeRateTable.builder();
+        TaxTable.Builder taxRates = TaxTable.builder();
+        for (int month = 0; month < 120; ++month) {
+            LocalDate monthStart = firstMonth.plusMonths(month);
+            exchangeRates.addRate("EUR", monthStart, monthStart.plusMonths(1).minusDays(1), 880000 + month * 500);
+            exchangeRates.addRate("JPY", monthStart, monthStart.plusMonths(1).minusDays(1), 105000000 + month * 70000);
+            exchangeRates.addRate("GBP", monthStart, monthStart.plusMonths(1).minusDays(1), 760000 + month * 300);
+        }
+        for (int region = 0; region < 8; ++region) {
+            taxRates.addRate("R-" + region, CURRENCY_CODES[region % CURRENCY_CODES.length], firstMonth, null, 50000 + region * 12500);
+        }
+        theChargeLocalizer = new ChargeLocalizer(exchangeRates.build(), taxRates.build());
+
+        Random random = new Random(42);
+        theFinalChargeCents = new long[CHARGE_COUNT];
+        theCheckoutEpochDays = new int[CHARGE_COUNT];
+        theRegionIndexes = new int[CHARGE_COUNT];
+        for (int i = 0; i < CHARGE_COUNT; ++i) {
+            theFinalChargeCents[i] = 100 + random.nextInt(50000);
+            theCheckoutEpochDays[i] = (int) firstMonth.plusDays(random.nextInt(3650)).toEpochDay();
+            theRegionIndexes[i] = random.nextInt(8);
+        }
+        theChargeMinorUnits = new long[CHARGE_COUNT];
+        theTaxMinorUnits = new long[CHARGE_COUNT];
+    }
+
+    @Benchmark
+    public LocalCharge localizeOne() {
+        return theChargeLocalizer.localize(theFinalChargeCents[0], theCheckoutEpochDays[0], theRegionIndexes[0]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARGE_COUNT)
+    public long[] localizeMillion() {
+        theChargeLocalizer.localizeAll(theFinalChargeCents, theCheckoutEpochDays, theRegionIndexes, CHARGE_COUNT,
+                                       theChargeMinorUnits, theTaxMinorUnits);
+        return theTaxMinorUnits;
+    }
+}
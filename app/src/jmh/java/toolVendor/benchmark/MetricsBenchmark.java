@@ -0,0 +1,61 @@
+package toolVendor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.metrics.CheckoutMetrics;
+import toolVendor.metrics.LatencyHistogram;
+
+/**
+ * Benchmarks what checkout metrics cost: a checkout with no metrics, with metrics switched off, and
+ * with them on, plus recording into a histogram from several threads at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+    @Param({ "none", "off", "on" })
+    public String theMetricsMode;
+
+    private ToolVendor theToolVendor;
+    private LatencyHistogram theLatencyHistogram;
+
+    @Setup
+    public void setUp() {
+        theToolVendor = new ToolVendor();
+        if (!theMetricsMode.equals("none")) {
+            CheckoutMetrics checkoutMetrics = new CheckoutMetrics();
+            checkoutMetrics.setEnabled(theMetricsMode.equals("on"));
+            theToolVendor.setCheckoutMetrics(checkoutMetrics);
+        }
+        theLatencyHistogram = new LatencyHistogram();
+    }
+
+    @Benchmark
+    public CheckoutResult tryCheckoutTool() {
+        return theToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordLatency() {
+        theLatencyHistogram.record(System.nanoTime() & 0xFFFFF);
+    }
+}
@@ -0,0 +1,61 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.order.OrderRequest;
+import toolVendor.data.order.OrderResult;
+
+/**
+ * Benchmarks checking out a chainsaw, a ladder, and a jackhammer as one order against three single checkouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBenchmark {
+    private static final String[] TOOL_CODES = { "CHNS", "LADW", "JAKR" };
+
+    private ToolVendor theToolVendor;
+    private LocalDate theCheckoutDate;
+    private OrderRequest theOrderRequest;
+
+    @Setup
+    public void setUp() {
+        theToolVendor = new ToolVendor();
+        theCheckoutDate = LocalDate.of(2020, 7, 2);
+
+        OrderRequest.Builder orderBuilder = OrderRequest.builder().setCheckoutDate(theCheckoutDate).setRentalDayCount(30).setOrderDiscount(10);
+        for (String toolCode : TOOL_CODES) {
+            orderBuilder.addLine(toolCode, 5);
+        }
+        theOrderRequest = orderBuilder.build();
+    }
+
+    @Benchmark
+    public OrderResult order() {
+        return theToolVendor.tryCheckoutOrder(theOrderRequest);
+    }
+
+    @Benchmark
+    public void singleCheckouts(Blackhole blackhole) {
+        for (String toolCode : TOOL_CODES) {
+            blackhole.consume(theToolVendor.tryCheckoutTool(toolCode, theCheckoutDate, 30, 5));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package toolVendor.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+import toolVendor.pricing.PricingRule;
+import toolVendor.pricing.PricingRuleSet;
+
+/**
+ * Benchmarks pricing with a rule set of 1,000 rules, mostly monthly promotions and surcharges, against
+ * charging the daily rate, both on their own and as part of a checkout.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+    private PricingRuleSet thePricingRules;
+    private Tool theTool;
+    private long theCheckoutEpochDay;
+    private ToolVendor theToolVendor;
+    private ToolVendor thePricedToolVendor;
+
+    @Setup
+    public void setUp() {
+        ToolType[] toolTypes = ToolType.values();
+        ToolBrand[] toolBrands = ToolBrand.values();
+        List<PricingRule> rules = new ArrayList<>();
+        rules.add(PricingRule.tier(null, null, 7, 1000));
+        rules.add(PricingRule.tier(null, null, 30, 3500));
+        rules.add(PricingRule.minimum(null, null, 500));
+
+        // A promotion and surcharge a month, each for a different type or brand
+        LocalDate firstMonth = LocalDate.of(2000, 1, 1);
+        for (int month = 0; rules.size() < 1000; ++month) {
+            LocalDate monthStart = firstMonth.plusMonths(month);
+            rules.add(PricingRule.promotion(null, toolBrands[month % toolBrands.length], monthStart, monthStart.plusDays(20), 500 + month % 10 * 100));
+            rules.add(PricingRule.surcharge(toolTypes[month % toolTypes.length], null, monthStart.plusDays(10), monthStart.plusDays(40), 250));
+        }
+
+        thePricingRules = new PricingRuleSet(1, rules);
+        theTool = new Tool("JAKR");
+        theCheckoutEpochDay = LocalDate.of(2020, 7, 2).toEpochDay();
+        theToolVendor = new ToolVendor();
+        thePricedToolVendor = new ToolVendor();
+        thePricedToolVendor.setPricingRules(thePricingRules);
+    }
+
+    @Benchmark
+    public long dailyRatePrice() {
+        return Math.multiplyExact(theTool.getDailyChargeRateCents(), 40L);
+    }
+
+    @Benchmark
+    public long ruleSetPrice() {
+        return thePricingRules.getPriceCents(theTool, theCheckoutEpochDay, 40);
+    }
+
+    @Benchmark
+    public CheckoutResult checkoutAtDailyRate() {
+        return theToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25);
+    }
+
+    @Benchmark
+    public CheckoutResult checkoutWithRules() {
+        return thePricedToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25);
+    }
+}
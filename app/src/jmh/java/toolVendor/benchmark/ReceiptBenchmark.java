@@ -0,0 +1,59 @@
+package toolVendor.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import toolVendor.data.agreement.ReceiptRenderer;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.tool.Tool;
+
+/**
+ * Benchmarks rendering a receipt as a String and into reused buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+    private RentalAgreement theRentalAgreement;
+    private StringBuilder theBuilder;
+    private ByteBuffer theBuffer;
+
+    @Setup
+    public void setUp() {
+        theRentalAgreement = RentalAgreement.builder().setTool(new Tool("JAKR")).setCheckoutDate("7/2/20").setRentalDayCount(9).setDiscountRate(25).compute();
+        theBuilder = new StringBuilder(ReceiptRenderer.getMaxReceiptBytes(theRentalAgreement));
+        theBuffer = ByteBuffer.allocateDirect(ReceiptRenderer.getMaxReceiptBytes(theRentalAgreement));
+    }
+
+    @Benchmark
+    public String toStringReceipt() {
+        return theRentalAgreement.toString();
+    }
+
+    @Benchmark
+    public StringBuilder renderToReusedBuilder() {
+        theBuilder.setLength(0);
+        return ReceiptRenderer.render(theRentalAgreement, theBuilder);
+    }
+
+    @Benchmark
+    public ByteBuffer renderToReusedBuffer() {
+        theBuffer.clear();
+        ReceiptRenderer.render(theRentalAgreement, theBuffer);
+        return theBuffer;
+    }
+}
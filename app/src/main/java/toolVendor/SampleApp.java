@@ -3,13 +3,30 @@
  */
 package toolVendor;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import toolVendor.data.agreement.RentalAgreement;
 import toolVendor.exceptions.DiscountOutOfBoundsException;
 import toolVendor.exceptions.InvalidRentalDayException;
+import toolVendor.reprice.BulkRepricer;
+import toolVendor.server.CheckoutServer;
 
 public class SampleApp {   
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // Run the checkout server with "serve [port] [max in flight requests]"
+        if (args.length > 0 && args[0].equals("serve")) {
+            CheckoutServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        // Re-price a CSV of requests with "reprice <requests.csv> [output] [--receipts] [--workers N] [--catalog FILE]"
+        if (args.length > 0 && args[0].equals("reprice")) {
+            BulkRepricer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Initial Test code to see if the basics work. 
         ToolVendor toolVendor = new ToolVendor();
         
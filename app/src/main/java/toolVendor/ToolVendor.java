@@ -1,71 +1,1075 @@
 package toolVendor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.security.InvalidParameterException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
+import toolVendor.data.agreement.AgreementAmendment;
 import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.agreement.RentalAgreementCache;
+import toolVendor.data.checkout.CheckoutErrorCode;
+import toolVendor.data.checkout.CheckoutRequest;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.data.inventory.InventoryLedger;
+import toolVendor.data.journal.AgreementJournal;
+import toolVendor.data.inventory.Reservation;
+import toolVendor.data.order.OrderInvoice;
+import toolVendor.data.order.OrderRequest;
+import toolVendor.data.order.OrderResult;
 import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolCatalog;
 import toolVendor.exceptions.DiscountOutOfBoundsException;
 import toolVendor.exceptions.InvalidRentalDayException;
+import toolVendor.exceptions.OutOfStockException;
+import toolVendor.metrics.CheckoutMetrics;
+import toolVendor.metrics.CheckoutStage;
+import toolVendor.pricing.ChargeLocalizer;
+import toolVendor.pricing.LocalCharge;
+import toolVendor.pricing.PricingRuleSet;
+import toolVendor.util.CalendarUtility;
+import toolVendor.util.ChargeCalendarIndex;
+import toolVendor.util.DateStringParser;
+import toolVendor.util.HolidayCalendar;
+import toolVendor.util.RentalWindow;
 
 /**
  * Class acting as a Vendor application to generate rental agreements for tools.
  */
-public class ToolVendor {   
-   
+public class ToolVendor {
+    // Smallest # of batch items worth handing to another thread
+    private static final int MIN_BATCH_CHUNK_SIZE = 64;
+
+    // Rejections that don't depend on the input, shared instead of created per request.
+    private static final CheckoutResult MISSING_TOOL_CODE_RESULT = CheckoutResult.failure(CheckoutErrorCode.MISSING_TOOL_CODE, () -> "Tool code was empty. Please provide a tool code.");
+    private static final CheckoutResult MISSING_CHECKOUT_DATE_RESULT = CheckoutResult.failure(CheckoutErrorCode.MISSING_CHECKOUT_DATE, () -> "Checkout date was empty. Please provide a valid checkout date.");
+
+    // Supplies the tools available to rent, asked once per checkout so catalogs can be swapped at runtime.
+    private final Supplier<ToolCatalog> theToolCatalogSource;
+
+    // The holidays observed where the tools are rented
+    private final HolidayCalendar theHolidayCalendar;
+
+    // Optional cache of generated agreements, null when quotes aren't cached.
+    private volatile RentalAgreementCache theAgreementCache = null;
+
+    // Optional ledger of the units in stock, null when stock isn't tracked.
+    private volatile InventoryLedger theInventoryLedger = null;
+
+    // Optional journal every generated agreement is appended to, null when agreements aren't recorded.
+    private volatile AgreementJournal theAgreementJournal = null;
+
+    // Optional rules agreements are priced with, null when they're charged at the daily rates.
+    private volatile PricingRuleSet thePricingRules = null;
+
+    // Optional exchange and tax rates charges are localized with, null when checkouts are only charged in USD.
+    private volatile ChargeLocalizer theChargeLocalizer = null;
+
+    // Optional metrics checkouts are timed and counted in, null when there are none.
+    private volatile CheckoutMetrics theCheckoutMetrics = null;
+
+    // Whether the exceptions thrown by checkoutTool fill in their stack traces.
+    private volatile boolean theFillingStackTraces = true;
+
+    /**
+     * Constructor using the built in tools.
+     */
+    public ToolVendor() {
+        this(ToolCatalog.getDefaultCatalog());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param toolCatalog: The tools available to rent
+     */
+    public ToolVendor(ToolCatalog toolCatalog) {
+        this(() -> toolCatalog);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param toolCatalogSource: Supplies the tools available to rent, e.g. a ReloadingToolCatalog
+     */
+    public ToolVendor(Supplier<ToolCatalog> toolCatalogSource) {
+        this(toolCatalogSource, HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param toolCatalogSource: Supplies the tools available to rent, e.g. a ReloadingToolCatalog
+     * @param holidayCalendar: The holidays observed where the tools are rented
+     */
+    public ToolVendor(Supplier<ToolCatalog> toolCatalogSource, HolidayCalendar holidayCalendar) {
+        theToolCatalogSource = toolCatalogSource;
+        theHolidayCalendar = holidayCalendar;
+    }
+
     /**
      * Method to checkout tools
-     * 
-     * @param toolCode: A code matching to a tool to checkout 
+     *
+     * @param toolCode: A code matching to a tool to checkout
      * @param checkoutDate: A string formatted like "mm/dd/yy" to describe the checkout date
      * @param rentalDayCount: The # of days to rent the tool.
      * @param discount: A discount percentage rate
-     * 
-     * @return: A rental Aggreement that matches the parameters or null if invalid.
-     * 
+     *
+     * @return: A rental Aggreement that matches the parameters.
+     *
+     * @throws InvalidParameterException if the tool code or date is missing, or the tool code isn't in the catalog.
+     * @throws DateTimeParseException if the date isn't valid.
      * @throws InvalidRentalDayException
      * @throws DiscountOutOfBoundsException
+     * @throws OutOfStockException if every unit of the tool is reserved for the rental days.
      */
     public RentalAgreement checkoutTool(String toolCode, String checkoutDate, int rentalDayCount, double discount) throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        return getAgreementOrThrow(tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount), checkoutDate);
+    }
+
+    /**
+     * Method to checkout tools
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     *
+     * @return: A rental Aggreement that matches the parameters.
+     *
+     * @throws InvalidParameterException if the tool code or date is missing, or the tool code isn't in the catalog.
+     * @throws InvalidRentalDayException
+     * @throws DiscountOutOfBoundsException
+     * @throws OutOfStockException if every unit of the tool is reserved for the rental days.
+     */
+    public RentalAgreement checkoutTool(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discount) throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        return getAgreementOrThrow(tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount), null);
+    }
+
+    /**
+     * Method to checkout tools without throwing on bad input.
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: A string formatted like "mm/dd/yy" to describe the checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     *
+     * @return: The rental agreement, or the error code and message of the first invalid parameter.
+     */
+    public CheckoutResult tryCheckoutTool(String toolCode, String checkoutDate, int rentalDayCount, double discount) {
+        return tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount, (String) null);
+    }
+
+    /**
+     * Method to checkout tools charged in the currency of a tax region, without throwing on bad input.
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: A string formatted like "mm/dd/yy" to describe the checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     * @param taxRegion: The region charged in, e.g. "US-CA", or null to only charge in USD
+     *
+     * @return: The rental agreement and its local charge, or the error code and message of the first invalid parameter.
+     */
+    public CheckoutResult tryCheckoutTool(String toolCode, String checkoutDate, int rentalDayCount, double discount, String taxRegion) {
+        CheckoutMetrics.Timer checkoutTimer = CheckoutMetrics.startTimer(theCheckoutMetrics);
+        return checkoutTimer.finish(toolCode, rentalDayCount, tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount, taxRegion, checkoutTimer));
+    }
+
+    /**
+     * Method to checkout tools without throwing on bad input.
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     *
+     * @return: The rental agreement, or the error code and message of the first invalid parameter.
+     */
+    public CheckoutResult tryCheckoutTool(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discount) {
+        return tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount, null);
+    }
+
+    /**
+     * Method to checkout tools charged in the currency of a tax region, without throwing on bad input.
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     * @param taxRegion: The region charged in, e.g. "US-CA", or null to only charge in USD
+     *
+     * @return: The rental agreement and its local charge, or the error code and message of the first invalid parameter.
+     */
+    public CheckoutResult tryCheckoutTool(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discount, String taxRegion) {
+        CheckoutMetrics.Timer checkoutTimer = CheckoutMetrics.startTimer(theCheckoutMetrics);
+        return checkoutTimer.finish(toolCode, rentalDayCount, tryCheckoutTool(toolCode, checkoutDate, rentalDayCount, discount, taxRegion, checkoutTimer));
+    }
+
+    /**
+     * Helper method to checkout tools from a date string, timing each stage.
+     */
+    private CheckoutResult tryCheckoutTool(String toolCode, String checkoutDate, int rentalDayCount, double discount, String taxRegion, CheckoutMetrics.Timer checkoutTimer) {
+        // Check Parameters before parsing the date
+        CheckoutResult parameterError = validateParameters(toolCode, checkoutDate, rentalDayCount, discount);
+        if (parameterError != null)
+        {
+            return parameterError;
+        }
+
+        LocalDate parsedCheckoutDate = DateStringParser.parseLocalDate(checkoutDate);
+        if (parsedCheckoutDate == null)
+        {
+            return CheckoutResult.failure(CheckoutErrorCode.INVALID_CHECKOUT_DATE, () -> describeInvalidCheckoutDate(checkoutDate));
+        }
+        checkoutTimer.endStage(CheckoutStage.PARSE_DATE);
+
+        return tryCheckoutTool(toolCode, parsedCheckoutDate, rentalDayCount, discount, taxRegion, checkoutTimer);
+    }
+
+    /**
+     * Helper method to checkout tools, timing each stage.
+     */
+    private CheckoutResult tryCheckoutTool(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discount, String taxRegion, CheckoutMetrics.Timer checkoutTimer) {
         // Check Parameters
+        CheckoutResult parameterError = validateParameters(toolCode, checkoutDate, rentalDayCount, discount);
+        if (parameterError != null)
+        {
+            return parameterError;
+        }
+
+        // Look up the shared tool
+        Tool toolToRent = getToolCatalog().getTool(toolCode);
+        if (toolToRent == null)
+        {
+            return CheckoutResult.failure(CheckoutErrorCode.UNKNOWN_TOOL_CODE, () -> describeUnknownToolCode(toolCode));
+        }
+        checkoutTimer.endStage(CheckoutStage.LOOKUP_TOOL);
+
+        // Find the region's rates before holding anything, the same tables are used to localize the charge
+        ChargeLocalizer chargeLocalizer = null;
+        int regionIndex = -1;
+        if (taxRegion != null)
+        {
+            chargeLocalizer = theChargeLocalizer;
+            regionIndex = chargeLocalizer != null ? chargeLocalizer.getRegionIndex(taxRegion) : -1;
+            if (regionIndex < 0)
+            {
+                return CheckoutResult.failure(CheckoutErrorCode.UNKNOWN_TAX_REGION, () -> describeUnknownTaxRegion(taxRegion));
+            }
+            if (!chargeLocalizer.hasRates(regionIndex, checkoutDate.toEpochDay()))
+            {
+                return CheckoutResult.failure(CheckoutErrorCode.NO_RATES_IN_EFFECT, () -> describeNoRatesInEffect(taxRegion, checkoutDate));
+            }
+        }
+
+        // Hold a unit of the tool for the rental days
+        InventoryLedger inventoryLedger = theInventoryLedger;
+        Reservation reservation = null;
+        if (inventoryLedger != null)
+        {
+            reservation = inventoryLedger.reserve(toolToRent.getToolCode(), checkoutDate, checkoutDate.plusDays(rentalDayCount));
+            if (reservation == null)
+            {
+                return CheckoutResult.failure(CheckoutErrorCode.OUT_OF_STOCK, () -> describeOutOfStock(toolCode, checkoutDate, rentalDayCount));
+            }
+            checkoutTimer.endStage(CheckoutStage.RESERVE);
+        }
+
+        // Hand back the same quote if it was already made with the current rules
+        PricingRuleSet pricingRules = thePricingRules;
+        RentalAgreementCache agreementCache = theAgreementCache;
+        RentalAgreement toolRentalAgreement = null;
+        if (agreementCache != null)
+        {
+            toolRentalAgreement = agreementCache.get(toolToRent, checkoutDate, rentalDayCount, discount, pricingRules);
+        }
+
+        try
+        {
+            // Create the Rental Agreement with our holidays
+            if (toolRentalAgreement == null)
+            {
+                int chargableDayCount = CalendarUtility.getChargableDays(checkoutDate, rentalDayCount, toolToRent, theHolidayCalendar);
+                checkoutTimer.endStage(CheckoutStage.COUNT_DAYS);
+
+                toolRentalAgreement = RentalAgreement.builder()
+                    .setTool(toolToRent)
+                    .setCheckoutDate(checkoutDate)
+                    .setRentalDayCount(rentalDayCount)
+                    .setDiscountRate(discount)
+                    .setChargableDayCount(chargableDayCount)
+                    .setPricingRules(pricingRules)
+                    .compute();
+
+                if (agreementCache != null)
+                {
+                    agreementCache.put(toolRentalAgreement);
+                }
+            }
+            checkoutTimer.endStage(CheckoutStage.PRICE);
+
+            if (recordAgreement(toolRentalAgreement))
+            {
+                checkoutTimer.endStage(CheckoutStage.JOURNAL);
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // Don't keep a unit held for a rental that never happened
+            if (reservation != null)
+            {
+                inventoryLedger.release(reservation);
+            }
+            throw e;
+        }
+
+        // Charge in the region's currency with its tax
+        LocalCharge localCharge = null;
+        if (chargeLocalizer != null)
+        {
+            localCharge = chargeLocalizer.localize(toolRentalAgreement, regionIndex);
+        }
+
+        // return the new agreement.
+        return CheckoutResult.success(toolRentalAgreement, reservation, localCharge);
+    }
+
+    /**
+     * Extends a rental that doesn't hold a unit of stock, see extendRental(RentalAgreement, Reservation, int).
+     *
+     * @param rentalAgreement: The agreement to extend
+     * @param extraDayCount: The # of days to add
+     *
+     * @return: The amendment, holding the extended agreement
+     *
+     * @throws IllegalArgumentException if the # of days isn't positive, or stock is tracked.
+     */
+    public AgreementAmendment extendRental(RentalAgreement rentalAgreement, int extraDayCount) {
+        return extendRental(rentalAgreement, null, extraDayCount);
+    }
+
+    /**
+     * Extends a rental with this vendor's holidays, counting only the added days. See RentalAgreement.extend.
+     *
+     * When stock is tracked, the unit held for the rental is kept for the added days, and the extension
+     * is turned down if that unit is reserved for any of them. The extended agreement is journaled like a checkout.
+     *
+     * @param rentalAgreement: The agreement to extend
+     * @param reservation: The unit held for the rental, see CheckoutResult.getReservation, or null if stock isn't tracked
+     * @param extraDayCount: The # of days to add
+     *
+     * @return: The amendment, holding the extended agreement and the moved reservation
+     *
+     * @throws IllegalArgumentException if the # of days isn't positive, or stock is tracked and the reservation isn't the rental's.
+     * @throws OutOfStockException if the rental's unit is reserved for some of the added days.
+     * @throws UncheckedIOException if the journal can't be written, the unit isn't kept for the added days.
+     */
+    public AgreementAmendment extendRental(RentalAgreement rentalAgreement, Reservation reservation, int extraDayCount) {
+        AgreementAmendment agreementAmendment = rentalAgreement.extend(extraDayCount, theHolidayCalendar);
+        RentalAgreement amendedAgreement = agreementAmendment.getAmendedAgreement();
+
+        // Keep the same unit for the added days
+        InventoryLedger inventoryLedger = theInventoryLedger;
+        Reservation amendedReservation = null;
+        if (inventoryLedger != null)
+        {
+            checkRentalReservation(rentalAgreement, reservation);
+            amendedReservation = inventoryLedger.changeEndDate(reservation, amendedAgreement.getReturnDate());
+            if (amendedReservation == null)
+            {
+                throw new OutOfStockException(describeOutOfStock(rentalAgreement.getTool().getToolCode(), rentalAgreement.getReturnDate(), extraDayCount), theFillingStackTraces);
+            }
+        }
+
+        try
+        {
+            recordAgreement(amendedAgreement);
+        }
+        catch (RuntimeException e)
+        {
+            // Hand the added days back for an extension that never happened
+            if (amendedReservation != null)
+            {
+                inventoryLedger.changeEndDate(amendedReservation, reservation.getEndDate());
+            }
+            throw e;
+        }
+
+        return agreementAmendment.withReservation(amendedReservation);
+    }
+
+    /**
+     * Shortens a rental that doesn't hold a unit of stock, see shortenRental(RentalAgreement, Reservation, int).
+     *
+     * @param rentalAgreement: The agreement to shorten
+     * @param fewerDayCount: The # of days to take off
+     *
+     * @return: The amendment, holding the shortened agreement
+     *
+     * @throws IllegalArgumentException if the # of days isn't positive, would leave less than one rental day, or stock is tracked.
+     */
+    public AgreementAmendment shortenRental(RentalAgreement rentalAgreement, int fewerDayCount) {
+        return shortenRental(rentalAgreement, null, fewerDayCount);
+    }
+
+    /**
+     * Shortens a rental with this vendor's holidays, counting only the days taken off. See RentalAgreement.shorten.
+     *
+     * When stock is tracked, the days taken off are released from the unit held for the rental.
+     * The shortened agreement is journaled like a checkout, before the days are released.
+     *
+     * @param rentalAgreement: The agreement to shorten
+     * @param reservation: The unit held for the rental, see CheckoutResult.getReservation, or null if stock isn't tracked
+     * @param fewerDayCount: The # of days to take off
+     *
+     * @return: The amendment, holding the shortened agreement and the moved reservation
+     *
+     * @throws IllegalArgumentException if the # of days isn't positive, would leave less than one rental day, or
+     *                                  stock is tracked and the reservation isn't the rental's.
+     * @throws UncheckedIOException if the journal can't be written, the unit stays held for every day.
+     */
+    public AgreementAmendment shortenRental(RentalAgreement rentalAgreement, Reservation reservation, int fewerDayCount) {
+        AgreementAmendment agreementAmendment = rentalAgreement.shorten(fewerDayCount, theHolidayCalendar);
+        RentalAgreement amendedAgreement = agreementAmendment.getAmendedAgreement();
+
+        InventoryLedger inventoryLedger = theInventoryLedger;
+        if (inventoryLedger != null)
+        {
+            checkRentalReservation(rentalAgreement, reservation);
+        }
+
+        recordAgreement(amendedAgreement);
+
+        // Shortening always fits in the days already held
+        Reservation amendedReservation = null;
+        if (inventoryLedger != null)
+        {
+            amendedReservation = inventoryLedger.changeEndDate(reservation, amendedAgreement.getReturnDate());
+        }
+
+        return agreementAmendment.withReservation(amendedReservation);
+    }
+
+    /**
+     * Checks out every tool of an order, see tryCheckoutOrder.
+     *
+     * @param orderRequest: The order
+     *
+     * @return: The combined invoice
+     *
+     * @throws InvalidParameterException if the order has no tools, a tool code or the date is missing, or a tool code isn't in the catalog.
+     * @throws DateTimeParseException if the date isn't valid.
+     * @throws InvalidRentalDayException
+     * @throws DiscountOutOfBoundsException if the order discount or a line discount is out of bounds.
+     * @throws OutOfStockException if every unit of a tool is reserved for the rental days.
+     */
+    public OrderInvoice checkoutOrder(OrderRequest orderRequest) throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        OrderResult orderResult = tryCheckoutOrder(orderRequest);
+        if (!orderResult.isSuccess())
+        {
+            throwCheckoutError(orderResult.getErrorCode(), orderResult.getErrorMessage(), orderRequest.getCheckoutDateString());
+        }
+        return orderResult.getInvoice();
+    }
+
+    /**
+     * Checks out every tool of an order without throwing on bad input.
+     *
+     * The rental days are classified into weekdays, weekend days, and holidays once for the whole order,
+     * and each tool's chargable days come from those counts, see RentalWindow. The order goes through
+     * whole or not at all: when stock is tracked and a tool is out, the units already held are released.
+     *
+     * @param orderRequest: The order
+     *
+     * @return: The combined invoice, or the error code, line, and message of the first invalid parameter.
+     */
+    public OrderResult tryCheckoutOrder(OrderRequest orderRequest) {
+        List<OrderRequest.Line> orderLines = orderRequest.getLines();
+        if (orderLines.isEmpty())
+        {
+            return OrderResult.failure(CheckoutErrorCode.EMPTY_ORDER, -1, () -> "Order has no tools. Please add at least one tool to rent.");
+        }
+
+        // Check the order discount, then every line the same way as a single checkout
+        double orderDiscount = orderRequest.getOrderDiscount();
+        if (!(orderDiscount >= 0.0 && orderDiscount <= 100.0))
+        {
+            return OrderResult.failure(CheckoutErrorCode.DISCOUNT_OUT_OF_BOUNDS, -1, () -> String.format("Order discount of %.1f is invalid. Please input a discount between 0 and 100 inclusively.", orderDiscount));
+        }
+
+        Object checkoutDateParameter = orderRequest.getCheckoutDate() != null ? orderRequest.getCheckoutDate() : orderRequest.getCheckoutDateString();
+        for (int i = 0; i < orderLines.size(); ++i)
+        {
+            OrderRequest.Line orderLine = orderLines.get(i);
+            CheckoutResult parameterError = validateParameters(orderLine.getToolCode(), checkoutDateParameter, orderRequest.getRentalDayCount(), orderLine.getDiscount());
+            if (parameterError != null)
+            {
+                return OrderResult.failure(parameterError.getErrorCode(), i, parameterError::getErrorMessage);
+            }
+        }
+
+        LocalDate checkoutDate = orderRequest.getCheckoutDate();
+        if (checkoutDate == null)
+        {
+            checkoutDate = DateStringParser.parseLocalDate(orderRequest.getCheckoutDateString());
+            if (checkoutDate == null)
+            {
+                return OrderResult.failure(CheckoutErrorCode.INVALID_CHECKOUT_DATE, -1, () -> describeInvalidCheckoutDate(orderRequest.getCheckoutDateString()));
+            }
+        }
+
+        // Use the same catalog and rules for the whole order
+        ToolCatalog toolCatalog = getToolCatalog();
+        PricingRuleSet pricingRules = thePricingRules;
+        InventoryLedger inventoryLedger = theInventoryLedger;
 
-        // Check valid parameters
-        if (toolCode != null && checkoutDate != null && rentalDayCount > 0 && discount >= 0.0 && discount <= 100.0){
-            // Initial valid paramter check passed! 
+        Tool[] toolsToRent = new Tool[orderLines.size()];
+        for (int i = 0; i < orderLines.size(); ++i)
+        {
+            String toolCode = orderLines.get(i).getToolCode();
+            toolsToRent[i] = toolCatalog.getTool(toolCode);
+            if (toolsToRent[i] == null)
+            {
+                return OrderResult.failure(CheckoutErrorCode.UNKNOWN_TOOL_CODE, i, () -> describeUnknownToolCode(toolCode));
+            }
+        }
 
-            // Create a new tool 
-            Tool toolToRent = new Tool(toolCode);
+        // Hold a unit of every tool, letting go of them all if one is out
+        int rentalDayCount = orderRequest.getRentalDayCount();
+        List<Reservation> reservations = null;
+        if (inventoryLedger != null)
+        {
+            reservations = new ArrayList<>(toolsToRent.length);
+            for (int i = 0; i < toolsToRent.length; ++i)
+            {
+                Reservation reservation = inventoryLedger.reserve(toolsToRent[i].getToolCode(), checkoutDate, checkoutDate.plusDays(rentalDayCount));
+                if (reservation == null)
+                {
+                    for (Reservation heldReservation : reservations)
+                    {
+                        inventoryLedger.release(heldReservation);
+                    }
 
-            // Create the Rental Agreement
-            RentalAgreement toolRentalAgreement = new RentalAgreement(toolToRent, checkoutDate, rentalDayCount, discount);
+                    String toolCode = orderLines.get(i).getToolCode();
+                    LocalDate outOfStockDate = checkoutDate;
+                    return OrderResult.failure(CheckoutErrorCode.OUT_OF_STOCK, i, () -> describeOutOfStock(toolCode, outOfStockDate, rentalDayCount));
+                }
+                reservations.add(reservation);
+            }
+        }
 
-            // Generate the agreement
-            toolRentalAgreement.generateAgreement();
+        // Classify the rental days once, then price each line from the counts
+        RentalWindow rentalWindow = RentalWindow.classify(checkoutDate, rentalDayCount, theHolidayCalendar);
+        List<RentalAgreement> lineAgreements = new ArrayList<>(toolsToRent.length);
+        OrderInvoice orderInvoice;
+        try
+        {
+            for (int i = 0; i < toolsToRent.length; ++i)
+            {
+                lineAgreements.add(RentalAgreement.builder()
+                    .setTool(toolsToRent[i])
+                    .setCheckoutDate(checkoutDate)
+                    .setRentalDayCount(rentalDayCount)
+                    .setDiscountRate(orderLines.get(i).getDiscount())
+                    .setChargableDayCount(rentalWindow.getChargableDays(toolsToRent[i]))
+                    .setPricingRules(pricingRules)
+                    .compute());
+            }
+            orderInvoice = new OrderInvoice(rentalWindow, lineAgreements, reservations, orderDiscount);
 
-            // return the new agreement. 
-            return toolRentalAgreement;
+            // Every line goes into the journal together, so a failed order leaves none of them behind
+            recordAgreements(lineAgreements);
         }
-        // else some parameters are off. 
-        // Check for null 
-        else if (toolCode == null)
+        catch (RuntimeException e)
         {
-            throw new InvalidParameterException("Tool code was empty. Please provide a tool code.");
+            // Don't keep units held for an order that never happened
+            if (reservations != null)
+            {
+                for (Reservation reservation : reservations)
+                {
+                    inventoryLedger.release(reservation);
+                }
+            }
+            throw e;
+        }
+
+        return OrderResult.success(orderInvoice);
+    }
+
+    /**
+     * Checks out a batch of tools in parallel on the common fork join pool.
+     * See checkoutBatch(List, Executor).
+     *
+     * @param checkoutRequests: The checkouts to make
+     *
+     * @return: One result per request, in the same order as the requests.
+     */
+    public List<CheckoutResult> checkoutBatch(List<CheckoutRequest> checkoutRequests) {
+        return checkoutBatch(checkoutRequests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Checks out a batch of tools.
+     *
+     * Every request is validated up front without throwing, and invalid requests get a failed result.
+     * When stock is tracked, units are reserved in the order of the requests.
+     * The valid requests are grouped by checkout date, rental day count, and charge profile so each
+     * group counts its chargable days once, then the agreements are generated in parallel.
+     *
+     * @param checkoutRequests: The checkouts to make
+     * @param executor: Runs the parallel work, e.g. a ForkJoinPool or a virtual thread per task executor
+     *
+     * @return: One result per request, in the same order as the requests.
+     */
+    public List<CheckoutResult> checkoutBatch(List<CheckoutRequest> checkoutRequests, Executor executor) {
+        int requestCount = checkoutRequests.size();
+        CheckoutResult[] checkoutResults = new CheckoutResult[requestCount];
+        RentalAgreement.Builder[] agreementBuilders = new RentalAgreement.Builder[requestCount];
+        Reservation[] reservations = new Reservation[requestCount];
+        int[] groupIndexes = new int[requestCount];
+
+        // Use the same catalog, rules, and cache for the whole batch
+        ToolCatalog toolCatalog = getToolCatalog();
+        PricingRuleSet pricingRules = thePricingRules;
+        RentalAgreementCache agreementCache = theAgreementCache;
+        InventoryLedger inventoryLedger = theInventoryLedger;
+
+        // Validate and group the requests
+        Map<BatchGroupKey, Integer> groupIndexByKey = new HashMap<>();
+        List<BatchGroupKey> groupKeys = new ArrayList<>();
+        for (int i = 0; i < requestCount; ++i) {
+            CheckoutRequest checkoutRequest = checkoutRequests.get(i);
+            Object checkoutDateParameter = checkoutRequest.getCheckoutDate() != null ? checkoutRequest.getCheckoutDate() : checkoutRequest.getCheckoutDateString();
+
+            CheckoutResult parameterError = validateParameters(checkoutRequest.getToolCode(), checkoutDateParameter, checkoutRequest.getRentalDayCount(), checkoutRequest.getDiscount());
+            if (parameterError != null) {
+                checkoutResults[i] = parameterError;
+                continue;
+            }
+
+            LocalDate checkoutDate = checkoutRequest.getCheckoutDate();
+            if (checkoutDate == null) {
+                checkoutDate = DateStringParser.parseLocalDate(checkoutRequest.getCheckoutDateString());
+                if (checkoutDate == null) {
+                    checkoutResults[i] = CheckoutResult.failure(CheckoutErrorCode.INVALID_CHECKOUT_DATE, () -> describeInvalidCheckoutDate(checkoutRequest.getCheckoutDateString()));
+                    continue;
+                }
+            }
+
+            Tool toolToRent = toolCatalog.getTool(checkoutRequest.getToolCode());
+            if (toolToRent == null) {
+                checkoutResults[i] = CheckoutResult.failure(CheckoutErrorCode.UNKNOWN_TOOL_CODE, () -> describeUnknownToolCode(checkoutRequest.getToolCode()));
+                continue;
+            }
+
+            if (inventoryLedger != null) {
+                reservations[i] = inventoryLedger.reserve(toolToRent.getToolCode(), checkoutDate, checkoutDate.plusDays(checkoutRequest.getRentalDayCount()));
+                if (reservations[i] == null) {
+                    LocalDate outOfStockDate = checkoutDate;
+                    checkoutResults[i] = CheckoutResult.failure(CheckoutErrorCode.OUT_OF_STOCK, () -> describeOutOfStock(checkoutRequest.getToolCode(), outOfStockDate, checkoutRequest.getRentalDayCount()));
+                    continue;
+                }
+            }
+
+            if (agreementCache != null) {
+                RentalAgreement cachedAgreement = agreementCache.get(toolToRent, checkoutDate, checkoutRequest.getRentalDayCount(), checkoutRequest.getDiscount(), pricingRules);
+                if (cachedAgreement != null) {
+                    try {
+                        recordAgreement(cachedAgreement);
+                        checkoutResults[i] = CheckoutResult.success(cachedAgreement, reservations[i]);
+                    }
+                    catch (RuntimeException e) {
+                        checkoutResults[i] = failBatchCheckout(checkoutRequest, inventoryLedger, reservations[i], e);
+                    }
+                    continue;
+                }
+            }
+
+            agreementBuilders[i] = RentalAgreement.builder()
+                .setTool(toolToRent)
+                .setCheckoutDate(checkoutDate)
+                .setRentalDayCount(checkoutRequest.getRentalDayCount())
+                .setDiscountRate(checkoutRequest.getDiscount())
+                .setPricingRules(pricingRules);
+
+            BatchGroupKey groupKey = new BatchGroupKey(checkoutDate, checkoutRequest.getRentalDayCount(), ChargeCalendarIndex.getChargeProfile(toolToRent));
+            Integer groupIndex = groupIndexByKey.get(groupKey);
+            if (groupIndex == null) {
+                groupIndex = groupKeys.size();
+                groupIndexByKey.put(groupKey, groupIndex);
+                groupKeys.add(groupKey);
+            }
+            groupIndexes[i] = groupIndex;
+        }
+
+        // Count the chargable days once per group
+        ChargeCalendarIndex chargeCalendarIndex = ChargeCalendarIndex.getIndex(theHolidayCalendar);
+        int[] groupChargableDays = new int[groupKeys.size()];
+        runInParallel(groupKeys.size(), executor, groupIndex -> {
+            BatchGroupKey groupKey = groupKeys.get(groupIndex);
+            LocalDate firstDay = groupKey.theCheckoutDate.plusDays(1);
+            LocalDate lastDay = groupKey.theCheckoutDate.plusDays(groupKey.theRentalDayCount);
+            groupChargableDays[groupIndex] = chargeCalendarIndex.getChargableDays(firstDay, lastDay, groupKey.theChargeProfile);
+        });
+
+        // Generate the agreements, a request that fails only fails its own result
+        runInParallel(requestCount, executor, i -> {
+            if (agreementBuilders[i] != null) {
+                try {
+                    RentalAgreement rentalAgreement = agreementBuilders[i].setChargableDayCount(groupChargableDays[groupIndexes[i]]).compute();
+                    recordAgreement(rentalAgreement);
+                    checkoutResults[i] = CheckoutResult.success(rentalAgreement, reservations[i]);
+
+                    if (agreementCache != null) {
+                        agreementCache.put(rentalAgreement);
+                    }
+                }
+                catch (RuntimeException e) {
+                    checkoutResults[i] = failBatchCheckout(checkoutRequests.get(i), inventoryLedger, reservations[i], e);
+                }
+            }
+        });
+
+        CheckoutMetrics checkoutMetrics = theCheckoutMetrics;
+        if (checkoutMetrics != null) {
+            for (CheckoutResult checkoutResult : checkoutResults) {
+                checkoutMetrics.recordResult(checkoutResult);
+            }
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(checkoutResults));
+    }
+
+    /**
+     * Helper method to turn a batch checkout that threw into a failed result, releasing the unit held for it.
+     */
+    private static CheckoutResult failBatchCheckout(CheckoutRequest checkoutRequest, InventoryLedger inventoryLedger, Reservation reservation, RuntimeException failure) {
+        // Don't keep a unit held for a rental that never happened
+        if (reservation != null) {
+            inventoryLedger.release(reservation);
+        }
+        return CheckoutResult.failure(CheckoutErrorCode.CHECKOUT_FAILED, () -> "Checkout of tool code " + checkoutRequest.getToolCode() + " could not be completed: " + failure.getMessage());
+    }
+
+    /**
+     * Helper method to run a task for every index in [0, count), split into chunks across the executor.
+     * Returns once every index is done.
+     */
+    private static void runInParallel(int count, Executor executor, IntConsumer task) {
+        int chunkCount = Math.min(Runtime.getRuntime().availableProcessors() * 4, (count + MIN_BATCH_CHUNK_SIZE - 1) / MIN_BATCH_CHUNK_SIZE);
+
+        // Small batches aren't worth the hand off
+        if (chunkCount <= 1) {
+            for (int i = 0; i < count; ++i) {
+                task.accept(i);
+            }
+            return;
+        }
+
+        int chunkSize = (count + chunkCount - 1) / chunkCount;
+        List<CompletableFuture<Void>> chunks = new ArrayList<>(chunkCount);
+        for (int chunkStart = 0; chunkStart < count; chunkStart += chunkSize) {
+            int start = chunkStart;
+            int end = Math.min(count, chunkStart + chunkSize);
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = start; i < end; ++i) {
+                    task.accept(i);
+                }
+            }, executor));
+        }
+
+        CompletableFuture.allOf(chunks.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * Helper method to check a reservation is the one held for a rental, before amending the rental while stock is tracked.
+     *
+     * @throws IllegalArgumentException if the reservation is missing or covers another tool or other days.
+     */
+    private static void checkRentalReservation(RentalAgreement rentalAgreement, Reservation reservation) {
+        if (reservation == null)
+        {
+            throw new IllegalArgumentException("Stock is tracked, so the reservation of the rental is needed to amend it.");
+        }
+        if (!reservation.getToolCode().equalsIgnoreCase(rentalAgreement.getTool().getToolCode()) ||
+            !reservation.getStartDate().equals(rentalAgreement.getCheckoutDate()) ||
+            !reservation.getEndDate().equals(rentalAgreement.getReturnDate()))
+        {
+            throw new IllegalArgumentException(reservation + " is not held for the rental of " + rentalAgreement.getTool().getToolCode() + " from " + rentalAgreement.getCheckoutDate() + ".");
+        }
+    }
+
+    /**
+     * Helper method to append an agreement to the journal, if there is one.
+     * Returns whether there was a journal.
+     *
+     * @throws UncheckedIOException if the journal can't be written.
+     */
+    private boolean recordAgreement(RentalAgreement rentalAgreement) {
+        AgreementJournal agreementJournal = theAgreementJournal;
+        if (agreementJournal == null) {
+            return false;
+        }
+
+        try {
+            agreementJournal.append(rentalAgreement);
+            return true;
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to append the agreements of an order to the journal together, if there is one.
+     * Either every agreement is recorded or none is.
+     *
+     * @throws UncheckedIOException if the journal can't be written.
+     */
+    private void recordAgreements(List<RentalAgreement> rentalAgreements) {
+        AgreementJournal agreementJournal = theAgreementJournal;
+        if (agreementJournal == null) {
+            return;
+        }
+
+        try {
+            agreementJournal.appendAll(rentalAgreements);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to hand back the agreement of a checkout, throwing the matching exception if it was rejected.
+     *
+     * @param checkoutResult: The outcome of the checkout
+     * @param checkoutDateString: The date string checked out with, for date parsing errors
+     *
+     * @return: The rental agreement
+     *
+     * @throws InvalidParameterException
+     * @throws DateTimeParseException
+     * @throws InvalidRentalDayException
+     * @throws DiscountOutOfBoundsException
+     * @throws OutOfStockException
+     */
+    private RentalAgreement getAgreementOrThrow(CheckoutResult checkoutResult, String checkoutDateString) throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        if (!checkoutResult.isSuccess())
+        {
+            throwCheckoutError(checkoutResult.getErrorCode(), checkoutResult.getErrorMessage(), checkoutDateString);
+        }
+        return checkoutResult.getRentalAgreement();
+    }
+
+    /**
+     * Helper method to throw the exception matching a rejected checkout or order.
+     */
+    private void throwCheckoutError(CheckoutErrorCode errorCode, String errorMessage, String checkoutDateString) throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        switch (errorCode)
+        {
+            case INVALID_RENTAL_DAY_COUNT:
+                throw new InvalidRentalDayException(errorMessage, theFillingStackTraces);
+            case DISCOUNT_OUT_OF_BOUNDS:
+                throw new DiscountOutOfBoundsException(errorMessage, theFillingStackTraces);
+            case OUT_OF_STOCK:
+                throw new OutOfStockException(errorMessage, theFillingStackTraces);
+            case INVALID_CHECKOUT_DATE:
+                throw new DateTimeParseException(errorMessage, String.valueOf(checkoutDateString), 0);
+            default:
+                throw new InvalidParameterException(errorMessage);
+        }
+    }
+
+    /**
+     * Helper method to check the checkout parameters without throwing.
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: The checkout date, as a string or a LocalDate
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     *
+     * @return: A failed result for the first invalid parameter, or null if they're all valid.
+     */
+    private static CheckoutResult validateParameters(String toolCode, Object checkoutDate, int rentalDayCount, double discount) {
+        // Check for null
+        if (toolCode == null)
+        {
+            return MISSING_TOOL_CODE_RESULT;
         }
         else if (checkoutDate == null)
         {
-            throw new InvalidParameterException("Checkout date was empty. Please provide a valid checkout date.");
+            return MISSING_CHECKOUT_DATE_RESULT;
         }
         else if (rentalDayCount <= 0)
         {
-            String errorString = String.format("Rental day count of %d is invalid. Please have at least one day for tool rental.", rentalDayCount);
-            throw new InvalidRentalDayException(errorString);
+            return CheckoutResult.failure(CheckoutErrorCode.INVALID_RENTAL_DAY_COUNT, () -> String.format("Rental day count of %d is invalid. Please have at least one day for tool rental.", rentalDayCount));
         }
-        else if (discount < 0.0 || discount > 100.0)
+        // Written so that NaN is out of bounds too
+        else if (!(discount >= 0.0 && discount <= 100.0))
         {
-            String errorString = String.format("Discount of %.1f is invalid. Please input a discount between 0 and 100 inclusively.", discount);
-            throw new DiscountOutOfBoundsException(errorString);
+            return CheckoutResult.failure(CheckoutErrorCode.DISCOUNT_OUT_OF_BOUNDS, () -> String.format("Discount of %.1f is invalid. Please input a discount between 0 and 100 inclusively.", discount));
         }
 
-        // If nothing else hits, return null.
         return null;
     }
+
+    /**
+     * Helper methods to describe checkout errors found after the parameter checks.
+     */
+    private static String describeInvalidCheckoutDate(String checkoutDate) {
+        return "Checkout date " + checkoutDate + " is invalid. Please provide a date formatted like mm/dd/yy.";
+    }
+
+    private static String describeUnknownToolCode(String toolCode) {
+        return "Tool code " + toolCode + " is not a tool we rent. Please provide a valid tool code.";
+    }
+
+    private static String describeOutOfStock(String toolCode, LocalDate checkoutDate, int rentalDayCount) {
+        return "Tool code " + toolCode + " is out of stock for " + rentalDayCount + " days from " + checkoutDate + ". Please try other dates.";
+    }
+
+    /**
+     * Helper method to describe a tax region without rates.
+     */
+    private static String describeUnknownTaxRegion(String taxRegion) {
+        return "Tax region " + taxRegion + " isn't charged in. Please provide a known tax region.";
+    }
+
+    /**
+     * Helper method to describe a tax region without rates on the checkout date.
+     */
+    private static String describeNoRatesInEffect(String taxRegion, LocalDate checkoutDate) {
+        return "Tax region " + taxRegion + " has no exchange or tax rate in effect on " + checkoutDate + ". Please try another date.";
+    }
+
+    /**
+     * Sets the cache generated agreements are kept in, so repeated quotes are only priced once.
+     * A cache should only be shared between vendors with the same holiday calendar.
+     *
+     * @param agreementCache: The cache to use, or null to stop caching
+     */
+    public void setAgreementCache(RentalAgreementCache agreementCache) {
+        theAgreementCache = agreementCache;
+    }
+
+    /**
+     * Sets the ledger units of each tool are reserved in. Once set, a checkout only goes through when
+     * a unit is free from the checkout date up to the due date, and tools without units are out of stock.
+     *
+     * @param inventoryLedger: The ledger to reserve in, or null to stop tracking stock
+     */
+    public void setInventoryLedger(InventoryLedger inventoryLedger) {
+        theInventoryLedger = inventoryLedger;
+    }
+
+    /**
+     * Sets the journal every agreement handed out is appended to, cached quotes included. Appends
+     * don't wait for the disk, the journal forces them in groups in the background.
+     *
+     * @param agreementJournal: The journal to append to, or null to stop recording agreements
+     */
+    public void setAgreementJournal(AgreementJournal agreementJournal) {
+        theAgreementJournal = agreementJournal;
+    }
+
+    /**
+     * Sets the rules agreements are priced with. The rules are swapped in one write: a checkout prices
+     * with the rules set when it started, and a batch prices every checkout with the same rules.
+     * Cached quotes priced with other rules aren't handed out.
+     *
+     * @param pricingRules: The rules to price with, or null to charge the daily rates
+     */
+    public void setPricingRules(PricingRuleSet pricingRules) {
+        thePricingRules = pricingRules;
+    }
+
+    /**
+     * Sets the exchange and tax rates checkouts with a tax region are charged with. New tables are swapped
+     * in one write by setting a new localizer, a checkout localizes with the tables set when it reached them.
+     *
+     * @param chargeLocalizer: The rates to localize with, or null to reject checkouts with a tax region
+     */
+    public void setChargeLocalizer(ChargeLocalizer chargeLocalizer) {
+        theChargeLocalizer = chargeLocalizer;
+    }
+
+    /**
+     * Sets the metrics checkouts are timed and counted in. Single checkouts are timed stage by stage,
+     * batch checkouts are only counted. Nothing is recorded while the metrics are switched off.
+     *
+     * @param checkoutMetrics: The metrics to record into, or null to stop recording
+     */
+    public void setCheckoutMetrics(CheckoutMetrics checkoutMetrics) {
+        theCheckoutMetrics = checkoutMetrics;
+    }
+
+    /**
+     * Sets whether the InvalidRentalDayException, DiscountOutOfBoundsException, and OutOfStockException thrown by checkoutTool
+     * fill in their stack traces. Turning this off makes rejecting bad input much cheaper, tryCheckoutTool
+     * skips exceptions altogether.
+     *
+     * @param fillingStackTraces: False to throw without stack traces
+     */
+    public void setFillingStackTraces(boolean fillingStackTraces) {
+        theFillingStackTraces = fillingStackTraces;
+    }
+
+    /**
+     * Getters
+     */
+    public ToolCatalog getToolCatalog() { return theToolCatalogSource.get(); }
+    public HolidayCalendar getHolidayCalendar() { return theHolidayCalendar; }
+    public RentalAgreementCache getAgreementCache() { return theAgreementCache; }
+    public InventoryLedger getInventoryLedger() { return theInventoryLedger; }
+    public AgreementJournal getAgreementJournal() { return theAgreementJournal; }
+    public CheckoutMetrics getCheckoutMetrics() { return theCheckoutMetrics; }
+    public PricingRuleSet getPricingRules() { return thePricingRules; }
+    public ChargeLocalizer getChargeLocalizer() { return theChargeLocalizer; }
+
+    /**
+     * Key for batch checkouts that share the same calendar work.
+     */
+    private static final class BatchGroupKey {
+        private final LocalDate theCheckoutDate;
+        private final int theRentalDayCount;
+        private final int theChargeProfile;
+
+        BatchGroupKey(LocalDate checkoutDate, int rentalDayCount, int chargeProfile) {
+            theCheckoutDate = checkoutDate;
+            theRentalDayCount = rentalDayCount;
+            theChargeProfile = chargeProfile;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof BatchGroupKey)) {
+                return false;
+            }
+
+            BatchGroupKey otherKey = (BatchGroupKey) other;
+            return theCheckoutDate.equals(otherKey.theCheckoutDate) &&
+                   theRentalDayCount == otherKey.theRentalDayCount &&
+                   theChargeProfile == otherKey.theChargeProfile;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(theCheckoutDate, theRentalDayCount, theChargeProfile);
+        }
+    }
 }
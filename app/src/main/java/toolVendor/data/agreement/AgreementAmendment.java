@@ -0,0 +1,81 @@
+package toolVendor.data.agreement;
+
+import toolVendor.data.inventory.Reservation;
+import toolVendor.util.CalendarUtility;
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Record of a rental being extended or shortened, see RentalAgreement.extend and RentalAgreement.shorten.
+ *
+ * Holds the agreement before and after the change, and what changed: the rental days, the chargable days,
+ * and the final charge. Deltas are positive for an extension and negative for a shortening.
+ * When the rental holds a unit of stock, the amendment also holds the reservation moved to the new due date.
+ */
+public class AgreementAmendment {
+    // Member variables
+    private final RentalAgreement theOriginalAgreement;
+    private final RentalAgreement theAmendedAgreement;
+    private final int theChargableDayDelta;
+    private final Reservation theReservation;
+
+    /**
+     * Constructor
+     *
+     * @param originalAgreement: The agreement before the change
+     * @param amendedAgreement: The agreement after the change
+     * @param chargableDayDelta: The # of chargable days added, negative when taken off
+     */
+    AgreementAmendment(RentalAgreement originalAgreement, RentalAgreement amendedAgreement, int chargableDayDelta) {
+        this(originalAgreement, amendedAgreement, chargableDayDelta, null);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param originalAgreement: The agreement before the change
+     * @param amendedAgreement: The agreement after the change
+     * @param chargableDayDelta: The # of chargable days added, negative when taken off
+     * @param reservation: The unit held for the amended rental, or null if stock isn't tracked
+     */
+    private AgreementAmendment(RentalAgreement originalAgreement, RentalAgreement amendedAgreement, int chargableDayDelta, Reservation reservation) {
+        theOriginalAgreement = originalAgreement;
+        theAmendedAgreement = amendedAgreement;
+        theChargableDayDelta = chargableDayDelta;
+        theReservation = reservation;
+    }
+
+    /**
+     * Creates the same amendment holding the unit reserved for the amended rental.
+     *
+     * @param reservation: The unit held for the amended rental, or null if stock isn't tracked
+     *
+     * @return: The amendment with the reservation
+     */
+    public AgreementAmendment withReservation(Reservation reservation) {
+        return new AgreementAmendment(theOriginalAgreement, theAmendedAgreement, theChargableDayDelta, reservation);
+    }
+
+    /**
+     * Getters
+     */
+    public RentalAgreement getOriginalAgreement() { return theOriginalAgreement; }
+    public RentalAgreement getAmendedAgreement() { return theAmendedAgreement; }
+    public int getRentalDayDelta() { return theAmendedAgreement.getRentalDayCount() - theOriginalAgreement.getRentalDayCount(); }
+    public int getChargableDayDelta() { return theChargableDayDelta; }
+    public long getChargeDeltaCents() { return theAmendedAgreement.getFinalChargeCents() - theOriginalAgreement.getFinalChargeCents(); }
+    public Reservation getReservation() { return theReservation; }
+
+    /**
+     * Generates a string formatted to look like the amendment's line on a receipt.
+     */
+    @Override
+    public String toString() {
+        long chargeDeltaCents = getChargeDeltaCents();
+
+        return "Amended rental days: " + theOriginalAgreement.getRentalDayCount() + " to " + theAmendedAgreement.getRentalDayCount() + "\n" +
+               "Amended due date: " + CalendarUtility.formatDate(theAmendedAgreement.getReturnDate()) + "\n" +
+               "Charge days change: " + (theChargableDayDelta > 0 ? "+" : "") + theChargableDayDelta + "\n" +
+               "Charge change: " + (chargeDeltaCents < 0 ? "-$" : "$") + MoneyUtility.formatCents(Math.abs(chargeDeltaCents)) + "\n" +
+               "Final Charge: $" + MoneyUtility.formatCents(theAmendedAgreement.getFinalChargeCents());
+    }
+}
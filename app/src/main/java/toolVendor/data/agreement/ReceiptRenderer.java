@@ -0,0 +1,128 @@
+package toolVendor.data.agreement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.util.AsciiFormatter;
+import toolVendor.util.ByteBufferAppender;
+
+/**
+ * Renders rental agreement receipts straight into a caller supplied StringBuilder, Appendable, or ByteBuffer.
+ *
+ * Numbers, prices, and dates are appended digit by digit, so rendering doesn't create any intermediate strings.
+ * The layout is only written once, against an Appendable, and a ByteBuffer is written through a ByteBufferAppender
+ * as UTF-8, so every form gives the same receipt. The output is the receipt layout of RentalAgreement.toString.
+ */
+public class ReceiptRenderer {
+    // Receipt labels, in order
+    private static final String TOOL_CODE_LABEL = "Tool Code: ";
+    private static final String TOOL_TYPE_LABEL = "Tool Type: ";
+    private static final String TOOL_BRAND_LABEL = "Tool Brand: ";
+    private static final String RENTAL_DAYS_LABEL = "Rental days: ";
+    private static final String CHECKOUT_DATE_LABEL = "Checkout date: ";
+    private static final String DUE_DATE_LABEL = "Due date: ";
+    private static final String DAILY_RATE_LABEL = "Daily rental rate: $";
+    private static final String CHARGE_DAYS_LABEL = "Charge days: ";
+    private static final String PRE_DISCOUNT_LABEL = "Pre-discount cost: $";
+    private static final String DISCOUNT_PERCENT_LABEL = "Discount percent: ";
+    private static final String DISCOUNT_AMOUNT_LABEL = "Discount amount: $";
+    private static final String FINAL_CHARGE_LABEL = "Final Charge: $";
+
+    // Bytes of a receipt other than the tool code, type, and brand: the labels, eight numbers and dates, and the separators
+    private static final int FIXED_RECEIPT_BYTES = (TOOL_CODE_LABEL + TOOL_TYPE_LABEL + TOOL_BRAND_LABEL + RENTAL_DAYS_LABEL +
+        CHECKOUT_DATE_LABEL + DUE_DATE_LABEL + DAILY_RATE_LABEL + CHARGE_DAYS_LABEL + PRE_DISCOUNT_LABEL +
+        DISCOUNT_PERCENT_LABEL + DISCOUNT_AMOUNT_LABEL + FINAL_CHARGE_LABEL).length() + 8 * AsciiFormatter.MAX_NUMBER_LENGTH + 12;
+
+    /**
+     * Works out how many bytes the receipt of an agreement can take at most, to size a ByteBuffer for it.
+     * Only the tool code, type, and brand vary in length, so this doesn't render anything.
+     *
+     * @param rentalAgreement: The agreement to render
+     *
+     * @return: Room that is always enough for its receipt
+     */
+    public static int getMaxReceiptBytes(RentalAgreement rentalAgreement) {
+        Tool tool = rentalAgreement.getTool();
+        int toolTextLength = tool.getToolCode().length() + tool.getToolTypeString().length() + tool.getToolBrandString().length();
+        return FIXED_RECEIPT_BYTES + toolTextLength * ByteBufferAppender.MAX_BYTES_PER_CHAR;
+    }
+
+    /**
+     * Renders a receipt into a StringBuilder.
+     *
+     * @param rentalAgreement: The agreement to render
+     * @param builder: Where to append the receipt
+     *
+     * @return: The builder, for chaining
+     */
+    public static StringBuilder render(RentalAgreement rentalAgreement, StringBuilder builder) {
+        try {
+            render(rentalAgreement, (Appendable) builder);
+        }
+        catch (IOException e) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder;
+    }
+
+    /**
+     * Renders a receipt as UTF-8 bytes into a ByteBuffer at its position. That is plain US-ASCII unless the tool
+     * code, type, or brand has other characters.
+     *
+     * @param rentalAgreement: The agreement to render
+     * @param buffer: Where to put the receipt, getMaxReceiptBytes of room is always enough
+     *
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room.
+     */
+    public static void render(RentalAgreement rentalAgreement, ByteBuffer buffer) {
+        try {
+            render(rentalAgreement, new ByteBufferAppender(buffer));
+        }
+        catch (IOException e) {
+            // A ByteBufferAppender never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Renders a receipt into any Appendable, e.g. a Writer.
+     *
+     * @param rentalAgreement: The agreement to render
+     * @param appendable: Where to append the receipt
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void render(RentalAgreement rentalAgreement, Appendable appendable) throws IOException {
+        Tool tool = rentalAgreement.getTool();
+
+        // Tool code, type, and brand
+        appendable.append(TOOL_CODE_LABEL).append(tool.getToolCode()).append('\n');
+        appendable.append(TOOL_TYPE_LABEL).append(tool.getToolTypeString()).append('\n');
+        appendable.append(TOOL_BRAND_LABEL).append(tool.getToolBrandString()).append('\n');
+
+        // Checkout date, due date, and rental day count
+        appendable.append(RENTAL_DAYS_LABEL);
+        AsciiFormatter.appendLong(appendable, rentalAgreement.getRentalDayCount());
+        appendable.append('\n').append(CHECKOUT_DATE_LABEL);
+        AsciiFormatter.appendDate(appendable, rentalAgreement.getCheckoutDate());
+        appendable.append('\n').append(DUE_DATE_LABEL);
+        AsciiFormatter.appendDate(appendable, rentalAgreement.getReturnDate());
+        appendable.append('\n').append(DAILY_RATE_LABEL);
+        AsciiFormatter.appendCents(appendable, tool.getDailyChargeRateCents());
+        appendable.append('\n').append(CHARGE_DAYS_LABEL);
+        AsciiFormatter.appendLong(appendable, rentalAgreement.getChargableDayCount());
+
+        // The cost itemization
+        appendable.append('\n').append(PRE_DISCOUNT_LABEL);
+        AsciiFormatter.appendCents(appendable, rentalAgreement.getInitialPriceCents());
+        appendable.append('\n').append(DISCOUNT_PERCENT_LABEL);
+        AsciiFormatter.appendPercent(appendable, rentalAgreement.getDiscountBasisPoints());
+        appendable.append('%').append('\n').append(DISCOUNT_AMOUNT_LABEL);
+        AsciiFormatter.appendCents(appendable, rentalAgreement.getDiscountAmountCents());
+        appendable.append('\n').append(FINAL_CHARGE_LABEL);
+        AsciiFormatter.appendCents(appendable, rentalAgreement.getFinalChargeCents());
+    }
+}
@@ -0,0 +1,122 @@
+package toolVendor.data.agreement;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streams many receipts to a file, socket, or any other channel through one reused buffer.
+ *
+ * Receipts are rendered by the ReceiptRenderer straight into the buffer, which is written out whenever
+ * it can't hold the next receipt, so writing thousands of receipts doesn't allocate per receipt. The buffer
+ * only grows for a receipt that wouldn't fit even when empty, i.e. a tool with a very long code or name.
+ * Receipts are separated by a blank line by default.
+ */
+public class ReceiptWriter implements AutoCloseable {
+    // Default buffer size
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // Written between receipts by default
+    private static final byte[] DEFAULT_SEPARATOR = "\n\n".getBytes(StandardCharsets.US_ASCII);
+
+    // Member variables
+    private final WritableByteChannel theChannel;
+    private ByteBuffer theBuffer;
+    private final byte[] theSeparator;
+    private long theReceiptCount = 0;
+
+    /**
+     * Constructor
+     *
+     * @param outputStream: Where to write the receipts
+     */
+    public ReceiptWriter(OutputStream outputStream) {
+        this(Channels.newChannel(outputStream));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param channel: Where to write the receipts
+     */
+    public ReceiptWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE, DEFAULT_SEPARATOR);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param channel: Where to write the receipts
+     * @param bufferSize: Size of the reused buffer
+     * @param separator: Bytes written between receipts
+     */
+    public ReceiptWriter(WritableByteChannel channel, int bufferSize, byte[] separator) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size of " + bufferSize + " can't hold a receipt.");
+        }
+
+        theChannel = channel;
+        theBuffer = ByteBuffer.allocateDirect(bufferSize);
+        theSeparator = separator.clone();
+    }
+
+    /**
+     * Writes one receipt.
+     *
+     * @param rentalAgreement: The agreement to write the receipt of
+     *
+     * @throws IOException if the channel fails.
+     */
+    public void write(RentalAgreement rentalAgreement) throws IOException {
+        // Make room for the separator and the receipt
+        int receiptBytes = theSeparator.length + ReceiptRenderer.getMaxReceiptBytes(rentalAgreement);
+        if (theBuffer.remaining() < receiptBytes) {
+            flush();
+            if (theBuffer.capacity() < receiptBytes) {
+                theBuffer = ByteBuffer.allocateDirect(receiptBytes);
+            }
+        }
+
+        if (theReceiptCount > 0) {
+            theBuffer.put(theSeparator);
+        }
+        ReceiptRenderer.render(rentalAgreement, theBuffer);
+        theReceiptCount++;
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     *
+     * @throws IOException if the channel fails.
+     */
+    public void flush() throws IOException {
+        theBuffer.flip();
+        while (theBuffer.hasRemaining()) {
+            theChannel.write(theBuffer);
+        }
+        theBuffer.clear();
+    }
+
+    /**
+     * Flushes and closes the channel.
+     *
+     * @throws IOException if the channel fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        }
+        finally {
+            theChannel.close();
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public long getReceiptCount() { return theReceiptCount; }
+}
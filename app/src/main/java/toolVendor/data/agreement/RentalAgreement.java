@@ -1,65 +1,271 @@
 package toolVendor.data.agreement;
 
+import java.time.LocalDate;
+
 import toolVendor.data.tool.Tool;
+import toolVendor.pricing.PricingRuleSet;
 import toolVendor.util.CalendarUtility;
+import toolVendor.util.HolidayCalendar;
+import toolVendor.util.MoneyUtility;
 
 /**
  * Model for a rental agreement for tools
+ * 
+ * Prices are kept in USD cents and the discount in basis points, see MoneyUtility.
+ * 
+ * Agreements are immutable: every field is final and filled in by a single compute step, see Builder.
+ * They can be cached, published, and shared across threads as is. Extending or shortening a rental
+ * makes a new agreement, see extend and shorten.
  */
 public class RentalAgreement {
     // Member variables
     
     // Input members
-    private Tool theToolToRent = null;
-    private int theRentalDayCount = 0;
-    private String theCheckOutDateString = "";
+    private final Tool theToolToRent;
+    private final int theRentalDayCount;
+    private final LocalDate theCheckOutDate;
     // The discount rate is a whole number e.g. 20 == 20%
-    private double theDiscountRate = 0.0;
+    private final double theDiscountRate;
+    // The discount rate used for pricing, e.g. 2000 == 20%
+    private final int theDiscountBasisPoints;
+    // The rules the chargable days were priced with, null when they're charged at the daily rate
+    private final PricingRuleSet thePricingRules;
     
     // Output members
-    private int theChargableDayCount = 0;
-    private double theInitialPrice = 0.0;
-    private String theReturnDateString = "";
-    private double theAmountOffFromDiscount = 0.0;
-    private double theTotalPrice = 0.0;
+    private final int theChargableDayCount;
+    private final long theInitialPriceCents;
+    private final LocalDate theReturnDate;
+    private final long theAmountOffFromDiscountCents;
+    private final long theTotalPriceCents;
+
+    /**
+     * Builds an agreement from its inputs in one compute step.
+     * 
+     * The tool and checkout date are required. The chargable days are counted with the holiday
+     * calendar unless they're already known, e.g. when checkouts in a batch share the calendar work.
+     * Without pricing rules the chargable days are charged at the tool's daily rate.
+     */
+    public static class Builder {
+        private Tool theToolToRent = null;
+        private LocalDate theCheckOutDate = null;
+        private int theRentalDayCount = 0;
+        private double theDiscountRate = 0.0;
+        private HolidayCalendar theHolidayCalendar = HolidayCalendar.getDefaultCalendar();
+        private int theChargableDayCount = -1;
+        private PricingRuleSet thePricingRules = null;
+
+        /**
+         * Setters, each returning the builder.
+         */
+        public Builder setTool(Tool tool) { theToolToRent = tool; return this; }
+        public Builder setCheckoutDate(LocalDate checkoutDate) { theCheckOutDate = checkoutDate; return this; }
+        public Builder setCheckoutDate(String checkoutDateString) { theCheckOutDate = CalendarUtility.getStartDate(checkoutDateString); return this; }
+        public Builder setRentalDayCount(int rentalDayCount) { theRentalDayCount = rentalDayCount; return this; }
+        public Builder setDiscountRate(double discountRate) { theDiscountRate = discountRate; return this; }
+        public Builder setHolidayCalendar(HolidayCalendar holidayCalendar) { theHolidayCalendar = holidayCalendar; return this; }
+        public Builder setPricingRules(PricingRuleSet pricingRules) { thePricingRules = pricingRules; return this; }
+
+        /**
+         * Sets an already known # of chargable days, skipping the calendar work.
+         * 
+         * @param chargableDayCount: The # of chargable days, as given by CalendarUtility.getChargableDays
+         * 
+         * @return: The builder
+         */
+        public Builder setChargableDayCount(int chargableDayCount) {
+            if (chargableDayCount < 0) {
+                throw new IllegalArgumentException("Chargable day count of " + chargableDayCount + " is negative.");
+            }
+            theChargableDayCount = chargableDayCount;
+            return this;
+        }
+
+        /**
+         * Computes the agreement.
+         * 
+         * @return: The finished agreement
+         * 
+         * @throws IllegalStateException if the tool or checkout date weren't set.
+         */
+        public RentalAgreement compute() {
+            if (theToolToRent == null || theCheckOutDate == null) {
+                throw new IllegalStateException("A rental agreement needs a tool and a checkout date.");
+            }
+
+            int chargableDayCount = theChargableDayCount;
+            if (chargableDayCount < 0) {
+                chargableDayCount = CalendarUtility.getChargableDays(theCheckOutDate, theRentalDayCount, theToolToRent, theHolidayCalendar);
+            }
+
+            return new RentalAgreement(theToolToRent, theCheckOutDate, theRentalDayCount, theDiscountRate, chargableDayCount, thePricingRules);
+        }
+    }
+
+    /**
+     * Creates a builder for an agreement.
+     * 
+     * @return: An empty Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
     
     /**
      * Constructor
-     * 
+     *
      * @param tool: Tool to rent out 
      * @param checkoutDateString: A string representation of the checkout out date
      * @param rentalDayCount: The # of days the tool is being rented. 
      * @param discountRate: Rate of discount on the tool. 
+     * 
+     * @deprecated The agreement is computed right away now, use builder() instead.
      */
+    @Deprecated
     public RentalAgreement(Tool tool, String checkoutDateString, int rentalDayCount, double discountRate)
+    {
+        // Parse the input once up front
+        this(tool, CalendarUtility.getStartDate(checkoutDateString), rentalDayCount, discountRate);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param tool: Tool to rent out 
+     * @param checkoutDate: The checkout out date
+     * @param rentalDayCount: The # of days the tool is being rented. 
+     * @param discountRate: Rate of discount on the tool. 
+     * 
+     * @deprecated The agreement is computed right away now, use builder() instead.
+     */
+    @Deprecated
+    public RentalAgreement(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate)
+    {
+        this(tool, checkoutDate, rentalDayCount, discountRate, CalendarUtility.getChargableDays(checkoutDate, rentalDayCount, tool), null);
+    }
+
+    /**
+     * Constructor doing the compute step, see Builder.
+     */
+    private RentalAgreement(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate, int chargableDayCount, PricingRuleSet pricingRules)
     {
         // Set parameters
         theToolToRent = tool;
+        theCheckOutDate = checkoutDate;
         theRentalDayCount = rentalDayCount;
         theDiscountRate = discountRate;
+        theDiscountBasisPoints = MoneyUtility.toBasisPoints(discountRate);
+        thePricingRules = pricingRules;
 
-        // Put the input in a friendly format
-        theCheckOutDateString = CalendarUtility.getStartDateString(checkoutDateString);
+        // Generate the end date and set the chargable days
+        theReturnDate = CalendarUtility.getEndDate(theCheckOutDate, theRentalDayCount);
+        theChargableDayCount = chargableDayCount;
+
+        // Generate the initial price
+        if (thePricingRules != null)
+        {
+            theInitialPriceCents = thePricingRules.getPriceCents(theToolToRent, theCheckOutDate, theChargableDayCount);
+        }
+        else
+        {
+            theInitialPriceCents = Math.multiplyExact(theToolToRent.getDailyChargeRateCents(), (long) theChargableDayCount);
+        }
+
+        // Calculate the cents off, rounded half up to the cent.
+        theAmountOffFromDiscountCents = MoneyUtility.percentageOf(theInitialPriceCents, theDiscountBasisPoints);
+
+        // Generate the total price
+        theTotalPriceCents = theInitialPriceCents - theAmountOffFromDiscountCents;
     }
 
     /**
      * Generates a rental agreement. 
+     * 
+     * @deprecated Agreements are computed when they're created, so this does nothing.
      */
+    @Deprecated
     public void generateAgreement()
     {
-        // Generate the end date and the chargable days
-        theReturnDateString = CalendarUtility.getEndDateString(theCheckOutDateString, theRentalDayCount);
-        theChargableDayCount = CalendarUtility.getChargableDays(theCheckOutDateString, theRentalDayCount, theToolToRent);
+        // Already generated
+    }
 
-        // Generate the initial price
-        theInitialPrice = theChargableDayCount * theToolToRent.getDailyChargeRate();
+    /**
+     * Extends the rental with the default holidays, see extend(int, HolidayCalendar).
+     * 
+     * @param extraDayCount: The # of days to add
+     * 
+     * @return: The amendment, holding the extended agreement
+     */
+    public AgreementAmendment extend(int extraDayCount)
+    {
+        return extend(extraDayCount, HolidayCalendar.getDefaultCalendar());
+    }
 
-        // Calculate dollars off. 
-        // The Discount rate is a whole number so in order to get the actual percentage, divide by 100.
-        theAmountOffFromDiscount = Math.round((theInitialPrice *  (theDiscountRate / 100.0))* 100) / 100.0;
+    /**
+     * Extends the rental past its due date. Only the added days are counted, from the day after the
+     * current due date, and added to the chargable days this agreement already has. The discount and
+     * pricing rules carry over.
+     * 
+     * @param extraDayCount: The # of days to add
+     * @param holidayCalendar: The holidays observed where the tool is rented
+     * 
+     * @return: The amendment, holding the extended agreement
+     * 
+     * @throws IllegalArgumentException if the # of days isn't positive.
+     */
+    public AgreementAmendment extend(int extraDayCount, HolidayCalendar holidayCalendar)
+    {
+        if (extraDayCount <= 0)
+        {
+            throw new IllegalArgumentException("Extension of " + extraDayCount + " days should be at least one day.");
+        }
 
-        // Generate the total price
-        theTotalPrice = theInitialPrice - theAmountOffFromDiscount;
+        int addedChargableDayCount = CalendarUtility.getChargableDays(theReturnDate, extraDayCount, theToolToRent, holidayCalendar);
+        return amend(Math.addExact(theRentalDayCount, extraDayCount), addedChargableDayCount);
+    }
+
+    /**
+     * Shortens the rental with the default holidays, see shorten(int, HolidayCalendar).
+     * 
+     * @param fewerDayCount: The # of days to take off
+     * 
+     * @return: The amendment, holding the shortened agreement
+     */
+    public AgreementAmendment shorten(int fewerDayCount)
+    {
+        return shorten(fewerDayCount, HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Shortens the rental before its due date. Only the days taken off the end are counted, and taken
+     * off the chargable days this agreement already has. The discount and pricing rules carry over.
+     * 
+     * @param fewerDayCount: The # of days to take off
+     * @param holidayCalendar: The holidays the agreement was counted with
+     * 
+     * @return: The amendment, holding the shortened agreement
+     * 
+     * @throws IllegalArgumentException if the # of days isn't positive, or would leave less than one rental day.
+     */
+    public AgreementAmendment shorten(int fewerDayCount, HolidayCalendar holidayCalendar)
+    {
+        if (fewerDayCount <= 0 || fewerDayCount >= theRentalDayCount)
+        {
+            throw new IllegalArgumentException("Shortening " + theRentalDayCount + " rental days by " + fewerDayCount + " days should leave at least one day.");
+        }
+
+        LocalDate newReturnDate = theReturnDate.minusDays(fewerDayCount);
+        int removedChargableDayCount = CalendarUtility.getChargableDays(newReturnDate, fewerDayCount, theToolToRent, holidayCalendar);
+        return amend(theRentalDayCount - fewerDayCount, -removedChargableDayCount);
+    }
+
+    /**
+     * Helper method to make the amended agreement from the new # of rental days and the change in chargable days.
+     */
+    private AgreementAmendment amend(int rentalDayCount, int chargableDayDelta)
+    {
+        RentalAgreement amendedAgreement = new RentalAgreement(theToolToRent, theCheckOutDate, rentalDayCount, theDiscountRate,
+                                                               theChargableDayCount + chargableDayDelta, thePricingRules);
+        return new AgreementAmendment(this, amendedAgreement, chargableDayDelta);
     }
 
     /**
@@ -67,45 +273,31 @@ public class RentalAgreement {
      */
     public Tool getTool() { return theToolToRent; }
     public int getRentalDayCount() { return theRentalDayCount; }
-    public String getCheckoutDateString() { return theCheckOutDateString; }
+    public LocalDate getCheckoutDate() { return theCheckOutDate; }
+    public String getCheckoutDateString() { return CalendarUtility.formatDate(theCheckOutDate); }
+    public LocalDate getReturnDate() { return theReturnDate; }
     public double getDiscountRate() { return theDiscountRate; }
+    public int getDiscountBasisPoints() { return theDiscountBasisPoints; }
+    public PricingRuleSet getPricingRules() { return thePricingRules; }
+    public int getChargableDayCount() { return theChargableDayCount; }
+    public long getInitialPriceCents() { return theInitialPriceCents; }
+    public long getDiscountAmountCents() { return theAmountOffFromDiscountCents; }
+    public long getFinalChargeCents() { return theTotalPriceCents; }
+
+    /**
+     * Dollar views of the prices
+     */
+    public double getInitialPrice() { return MoneyUtility.toDollars(theInitialPriceCents); }
+    public double getDiscountAmount() { return MoneyUtility.toDollars(theAmountOffFromDiscountCents); }
+    public double getFinalCharge() { return MoneyUtility.toDollars(theTotalPriceCents); }
 
     /**
      * Generates a string formatted to look like a reciept.
+     *
+     * See ReceiptRenderer to render into an existing buffer instead.
      */
     @Override
     public String toString(){
-        StringBuilder builder = new StringBuilder("");
-        String formatString = "";
-
-        // Tool code, type, and brand
-        builder.append("Tool Code: " + theToolToRent.getToolCode() + "\n");
-        builder.append("Tool Type: " + theToolToRent.getToolTypeString() + "\n");
-        builder.append("Tool Brand: " + theToolToRent.getToolBrandString() + "\n");
-        
-        // Checkout date, due date, and rental day count 
-        builder.append("Rental days: " + theRentalDayCount + "\n");
-        builder.append("Checkout date: " + theCheckOutDateString + "\n");
-        builder.append("Due date: " + theReturnDateString + "\n");
-        formatString = String.format("%.2f", theToolToRent.getDailyChargeRate());
-        builder.append("Daily rental rate: $" + formatString + "\n");
-        builder.append("Charge days: " + theChargableDayCount + "\n");        
-        
-        // The cost itemization
-
-        // Pre-discount cost
-        formatString = String.format("%.2f", theInitialPrice);
-        builder.append("Pre-discount cost: $" + formatString + "\n");
-        // Discount rate 
-        formatString = String.format("%.1f", theDiscountRate);
-        builder.append("Discount percent: " + formatString + "%\n");
-        // Money off from Discount 
-        formatString = String.format("%.2f", theAmountOffFromDiscount);
-        builder.append("Discount amount: $" + formatString + "\n");
-        // Total cost
-        formatString = String.format("%.2f", theTotalPrice);
-        builder.append("Final Charge: $" + formatString);
-
-        return builder.toString();
+        return ReceiptRenderer.render(this, new StringBuilder(256)).toString();
     }
 }
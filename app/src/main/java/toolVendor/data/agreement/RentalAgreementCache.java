@@ -0,0 +1,308 @@
+package toolVendor.data.agreement;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolCatalog;
+import toolVendor.pricing.PricingRuleSet;
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Bounded cache of rental agreements, so the same quote asked for again and again is
+ * only priced once.
+ *
+ * Agreements are keyed by the packed tool code, checkout epoch day, rental day count, and discount in
+ * basis points, packed into two longs. The entries are spread over lock striped segments, each one a
+ * least recently used map holding its share of the maximum size, and optionally expire a fixed time
+ * after they were added. Hits, misses, and evictions are counted.
+ *
+ * A hit is only handed out when it was priced with the same Tool instance, discount, and pricing rules
+ * asked for, so reloading the tool catalog or swapping the rules never serves an agreement priced with
+ * an old rate.
+ */
+public class RentalAgreementCache {
+    // Default # of segments
+    private static final int DEFAULT_SEGMENT_COUNT = 16;
+
+    // Member variables
+    private final int theMaximumSize;
+    private final long theExpireAfterWriteNanos;
+    private final Segment[] theSegments;
+    private final LongAdder theHitCount = new LongAdder();
+    private final LongAdder theMissCount = new LongAdder();
+    private final LongAdder theEvictionCount = new LongAdder();
+
+    /**
+     * Constructor for a cache that only evicts by size.
+     *
+     * @param maximumSize: The most agreements to keep
+     */
+    public RentalAgreementCache(int maximumSize) {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maximumSize: The most agreements to keep
+     * @param expireAfterWrite: How long an agreement is kept after it's added, 0 to keep it until evicted by size
+     * @param unit: Unit of expireAfterWrite
+     */
+    public RentalAgreementCache(int maximumSize, long expireAfterWrite, TimeUnit unit) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size of " + maximumSize + " should be positive.");
+        }
+        if (expireAfterWrite < 0) {
+            throw new IllegalArgumentException("Expiry of " + expireAfterWrite + " should not be negative.");
+        }
+
+        // Keep at least a few entries per segment so small caches still behave like LRU caches.
+        int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(DEFAULT_SEGMENT_COUNT, maximumSize / 4)));
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+
+        theMaximumSize = maximumSize;
+        theExpireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+        theSegments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; ++i) {
+            theSegments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Looks up an agreement priced at the daily rates.
+     *
+     * @param tool: The tool being rented
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days the tool is rented
+     * @param discountRate: The discount percentage, where 20 == 20%
+     *
+     * @return: The cached agreement, or null on a miss.
+     */
+    public RentalAgreement get(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate) {
+        return get(tool, checkoutDate, rentalDayCount, discountRate, null);
+    }
+
+    /**
+     * Looks up an agreement.
+     *
+     * @param tool: The tool being rented
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days the tool is rented
+     * @param discountRate: The discount percentage, where 20 == 20%
+     * @param pricingRules: The rules the agreement should be priced with, null for the daily rates
+     *
+     * @return: The cached agreement, or null on a miss.
+     */
+    public RentalAgreement get(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate, PricingRuleSet pricingRules) {
+        CacheKey cacheKey = createKey(tool, checkoutDate, rentalDayCount, discountRate);
+        if (cacheKey == null) {
+            theMissCount.increment();
+            return null;
+        }
+
+        Segment segment = getSegment(cacheKey);
+        CacheEntry cacheEntry;
+        synchronized (segment) {
+            cacheEntry = segment.get(cacheKey);
+
+            if (cacheEntry != null && isExpired(cacheEntry, System.nanoTime())) {
+                segment.remove(cacheKey);
+                theEvictionCount.increment();
+                cacheEntry = null;
+            }
+        }
+
+        // Only hand out agreements priced for exactly what was asked for
+        if (cacheEntry == null ||
+            cacheEntry.theRentalAgreement.getTool() != tool ||
+            cacheEntry.theRentalAgreement.getDiscountRate() != discountRate ||
+            cacheEntry.theRentalAgreement.getPricingRules() != pricingRules) {
+            theMissCount.increment();
+            return null;
+        }
+
+        theHitCount.increment();
+        return cacheEntry.theRentalAgreement;
+    }
+
+    /**
+     * Adds an agreement, replacing any agreement with the same key.
+     *
+     * @param rentalAgreement: The agreement to add
+     */
+    public void put(RentalAgreement rentalAgreement) {
+        CacheKey cacheKey = createKey(rentalAgreement.getTool(), rentalAgreement.getCheckoutDate(), rentalAgreement.getRentalDayCount(), rentalAgreement.getDiscountRate());
+        if (cacheKey == null) {
+            return;
+        }
+
+        Segment segment = getSegment(cacheKey);
+        synchronized (segment) {
+            segment.put(cacheKey, new CacheEntry(rentalAgreement, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Removes expired agreements. Expired agreements are also dropped when they're looked up,
+     * so calling this is only needed to free memory sooner.
+     */
+    public void removeExpired() {
+        if (theExpireAfterWriteNanos == 0) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        for (Segment segment : theSegments) {
+            synchronized (segment) {
+                Iterator<CacheEntry> entries = segment.values().iterator();
+                while (entries.hasNext()) {
+                    if (isExpired(entries.next(), now)) {
+                        entries.remove();
+                        theEvictionCount.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes every agreement, e.g. after the prices change. Not counted as evictions.
+     */
+    public void clear() {
+        for (Segment segment : theSegments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the # of agreements held.
+     *
+     * @return: The # of agreements held, expired ones included until they're removed.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : theSegments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Getters
+     */
+    public int getMaximumSize() { return theMaximumSize; }
+    public long getHitCount() { return theHitCount.sum(); }
+    public long getMissCount() { return theMissCount.sum(); }
+    public long getEvictionCount() { return theEvictionCount.sum(); }
+
+    /**
+     * Helper method to build the key of a quote, or null if it can't be cached.
+     */
+    private static CacheKey createKey(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate) {
+        int packedCode = ToolCatalog.packToolCode(tool.getToolCode());
+        if (packedCode == ToolCatalog.INVALID_PACKED_CODE || checkoutDate == null) {
+            return null;
+        }
+
+        // Epoch days past an int are too far out to be worth caching.
+        long epochDay = checkoutDate.toEpochDay();
+        if ((int) epochDay != epochDay) {
+            return null;
+        }
+
+        // Packed code and epoch day in one long, the day count and discount in the other.
+        long codeAndDay = ((long) packedCode << 32) | (epochDay & 0xFFFFFFFFL);
+        long daysAndDiscount = ((long) rentalDayCount << 32) | (MoneyUtility.toBasisPoints(discountRate) & 0xFFFFFFFFL);
+        return new CacheKey(codeAndDay, daysAndDiscount);
+    }
+
+    /**
+     * Helper method to pick the segment of a key.
+     */
+    private Segment getSegment(CacheKey cacheKey) {
+        return theSegments[cacheKey.hashCode() & (theSegments.length - 1)];
+    }
+
+    /**
+     * Helper method to check if an entry is past its expiry.
+     */
+    private boolean isExpired(CacheEntry cacheEntry, long now) {
+        return theExpireAfterWriteNanos != 0 && now - cacheEntry.theWriteNanos >= theExpireAfterWriteNanos;
+    }
+
+    /**
+     * A least recently used map holding one segment of the cache. Guarded by its own lock.
+     */
+    private final class Segment extends LinkedHashMap<CacheKey, CacheEntry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int theSegmentSize;
+
+        Segment(int segmentSize) {
+            super(16, 0.75f, true);
+            theSegmentSize = segmentSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+            if (size() > theSegmentSize) {
+                theEvictionCount.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Key of a cached agreement, see createKey.
+     */
+    private static final class CacheKey {
+        private final long theCodeAndDay;
+        private final long theDaysAndDiscount;
+
+        CacheKey(long codeAndDay, long daysAndDiscount) {
+            theCodeAndDay = codeAndDay;
+            theDaysAndDiscount = daysAndDiscount;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+
+            CacheKey otherKey = (CacheKey) other;
+            return theCodeAndDay == otherKey.theCodeAndDay && theDaysAndDiscount == otherKey.theDaysAndDiscount;
+        }
+
+        @Override
+        public int hashCode() {
+            // Mix the bits so nearby days and discounts spread across segments.
+            long hash = theCodeAndDay * 0x9E3779B97F4A7C15L + theDaysAndDiscount;
+            hash ^= hash >>> 29;
+            return (int) (hash ^ (hash >>> 32));
+        }
+    }
+
+    /**
+     * A cached agreement and when it was added.
+     */
+    private static final class CacheEntry {
+        private final RentalAgreement theRentalAgreement;
+        private final long theWriteNanos;
+
+        CacheEntry(RentalAgreement rentalAgreement, long writeNanos) {
+            theRentalAgreement = rentalAgreement;
+            theWriteNanos = writeNanos;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package toolVendor.data.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.journal.AgreementRecord;
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolCatalog;
+import toolVendor.data.tool.ToolType;
+
+/**
+ * In memory columnar store of historical agreements for revenue reports.
+ *
+ * Every field is kept in its own primitive array, split into fixed size chunks so the store grows
+ * without copying. Tool codes are dictionary encoded into small ids, types and brands are kept as
+ * enum ordinals, and the checkout month is kept as year * 12 + month - 1, so grouping never looks at
+ * an object. Group-by aggregations split the chunks across the cores, each core sums into its own
+ * dense arrays indexed by the group key, and the partial sums are merged at the end.
+ *
+ * Appends are synchronized. Aggregations read the rows appended before they started and can run
+ * alongside appends.
+ */
+public class AgreementColumnStore {
+    // Rows per chunk
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    // Most groups a single aggregation can have
+    private static final int MAX_GROUP_COUNT = 1 << 22;
+
+    // Enum values, cached once
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+    private static final ToolBrand[] TOOL_BRANDS = ToolBrand.values();
+
+    /**
+     * What agreements can be grouped by.
+     */
+    public enum Dimension {
+        TOOL_CODE,
+        TOOL_TYPE,
+        TOOL_BRAND,
+        MONTH
+    }
+
+    // Tool code dictionary, guarded by this
+    private final Map<String, Integer> theToolCodeIds = new HashMap<>();
+    private final List<String> theToolCodes = new ArrayList<>();
+
+    // Column chunks and the # of rows, guarded by this
+    private final List<ColumnChunk> theChunks = new ArrayList<>();
+    private long theRowCount = 0;
+    private int theFirstMonth = Integer.MAX_VALUE;
+    private int theLastMonth = Integer.MIN_VALUE;
+
+    /**
+     * Adds an agreement.
+     *
+     * @param rentalAgreement: The agreement to add
+     */
+    public void append(RentalAgreement rentalAgreement) {
+        Tool tool = rentalAgreement.getTool();
+        append(tool.getToolCode(), tool.getToolType(), tool.getToolBrand(), rentalAgreement.getCheckoutDate(),
+            rentalAgreement.getChargableDayCount(), rentalAgreement.getInitialPriceCents(),
+            rentalAgreement.getDiscountAmountCents(), rentalAgreement.getFinalChargeCents());
+    }
+
+    /**
+     * Adds an agreement replayed from the AgreementJournal.
+     *
+     * @param agreementRecord: The record to add
+     * @param toolCatalog: Where to find the type and brand of the tool, tools no longer in it get NONE
+     */
+    public void append(AgreementRecord agreementRecord, ToolCatalog toolCatalog) {
+        Tool tool = toolCatalog.getTool(agreementRecord.getPackedToolCode());
+        append(agreementRecord.getToolCode(), tool != null ? tool.getToolType() : ToolType.NONE, tool != null ? tool.getToolBrand() : ToolBrand.NONE,
+            agreementRecord.getCheckoutDate(), agreementRecord.getChargableDayCount(), agreementRecord.getInitialPriceCents(),
+            agreementRecord.getDiscountAmountCents(), agreementRecord.getFinalChargeCents());
+    }
+
+    /**
+     * Adds one row.
+     *
+     * @param toolCode: The tool code
+     * @param toolType: The tool type
+     * @param toolBrand: The tool brand
+     * @param checkoutDate: The checkout date
+     * @param chargableDayCount: The # of chargable days
+     * @param initialPriceCents: The pre-discount price in cents
+     * @param discountAmountCents: The discount in cents
+     * @param finalChargeCents: The final charge in cents
+     *
+     * @throws IllegalArgumentException if the checkout date is too far out to store.
+     */
+    public synchronized void append(String toolCode, ToolType toolType, ToolBrand toolBrand, LocalDate checkoutDate, int chargableDayCount,
+                                    long initialPriceCents, long discountAmountCents, long finalChargeCents) {
+        long checkoutEpochDay = checkoutDate.toEpochDay();
+        if ((int) checkoutEpochDay != checkoutEpochDay) {
+            throw new IllegalArgumentException(checkoutDate + " is too far out to store.");
+        }
+
+        Integer toolCodeId = theToolCodeIds.get(toolCode);
+        if (toolCodeId == null) {
+            toolCodeId = theToolCodes.size();
+            theToolCodeIds.put(toolCode, toolCodeId);
+            theToolCodes.add(toolCode);
+        }
+
+        int row = (int) (theRowCount % CHUNK_SIZE);
+        if (row == 0) {
+            theChunks.add(new ColumnChunk());
+        }
+        ColumnChunk chunk = theChunks.get(theChunks.size() - 1);
+
+        int month = checkoutDate.getYear() * 12 + checkoutDate.getMonthValue() - 1;
+        theFirstMonth = Math.min(theFirstMonth, month);
+        theLastMonth = Math.max(theLastMonth, month);
+
+        chunk.theToolCodeIds[row] = toolCodeId;
+        chunk.theToolTypes[row] = (byte) toolType.ordinal();
+        chunk.theToolBrands[row] = (byte) toolBrand.ordinal();
+        chunk.theCheckoutEpochDays[row] = (int) checkoutEpochDay;
+        chunk.theMonths[row] = month;
+        chunk.theChargableDayCounts[row] = chargableDayCount;
+        chunk.theInitialPriceCents[row] = initialPriceCents;
+        chunk.theDiscountAmountCents[row] = discountAmountCents;
+        chunk.theFinalChargeCents[row] = finalChargeCents;
+        theRowCount++;
+    }
+
+    /**
+     * Totals every agreement by the given dimensions, see groupBy(LocalDate, LocalDate, Dimension...).
+     *
+     * @param dimensions: What to group by, none for one grand total
+     *
+     * @return: One group per combination that has agreements.
+     */
+    public List<RevenueGroup> groupBy(Dimension... dimensions) {
+        return groupBy(LocalDate.MIN, LocalDate.MAX, dimensions);
+    }
+
+    /**
+     * Totals the agreements checked out in a date range by the given dimensions.
+     *
+     * @param firstCheckoutDate: First checkout date to include
+     * @param lastCheckoutDate: Last checkout date to include
+     * @param dimensions: What to group by, none for one grand total
+     *
+     * @return: One group per combination that has agreements, ordered by the dimensions in the order given
+     *          with tool codes in the order they were first added.
+     *
+     * @throws IllegalArgumentException if the dimensions make too many groups.
+     */
+    public List<RevenueGroup> groupBy(LocalDate firstCheckoutDate, LocalDate lastCheckoutDate, Dimension... dimensions) {
+        // Take what's been appended so far
+        ColumnChunk[] chunks;
+        long rowCount;
+        String[] toolCodes;
+        int firstMonth;
+        int lastMonth;
+        synchronized (this) {
+            chunks = theChunks.toArray(new ColumnChunk[0]);
+            rowCount = theRowCount;
+            toolCodes = theToolCodes.toArray(new String[0]);
+            firstMonth = theFirstMonth;
+            lastMonth = theLastMonth;
+        }
+
+        if (rowCount == 0) {
+            return new ArrayList<>();
+        }
+
+        // Mixed radix group key, the first dimension varies slowest. Dimensions not grouped by have a stride of 0.
+        int[] cardinalities = new int[Dimension.values().length];
+        cardinalities[Dimension.TOOL_CODE.ordinal()] = toolCodes.length;
+        cardinalities[Dimension.TOOL_TYPE.ordinal()] = TOOL_TYPES.length;
+        cardinalities[Dimension.TOOL_BRAND.ordinal()] = TOOL_BRANDS.length;
+        cardinalities[Dimension.MONTH.ordinal()] = lastMonth - firstMonth + 1;
+
+        int[] strides = new int[cardinalities.length];
+        long groupCount = 1;
+        for (int i = dimensions.length - 1; i >= 0; --i) {
+            int dimension = dimensions[i].ordinal();
+            if (strides[dimension] != 0) {
+                throw new IllegalArgumentException("Dimension " + dimensions[i] + " is given twice.");
+            }
+
+            strides[dimension] = (int) groupCount;
+            groupCount *= cardinalities[dimension];
+            if (groupCount > MAX_GROUP_COUNT) {
+                throw new IllegalArgumentException("Grouping by " + Arrays.toString(dimensions) + " makes too many groups.");
+            }
+        }
+
+        // Split the chunks across the cores
+        int taskCount = Math.min(chunks.length, Runtime.getRuntime().availableProcessors());
+        int chunksPerTask = (chunks.length + taskCount - 1) / taskCount;
+        long firstEpochDay = firstCheckoutDate.toEpochDay();
+        long lastEpochDay = lastCheckoutDate.toEpochDay();
+        int groupArraySize = (int) groupCount;
+
+        GroupTotals totals = IntStream.range(0, taskCount).parallel()
+            .mapToObj(task -> {
+                GroupTotals taskTotals = new GroupTotals(groupArraySize);
+                int endChunk = Math.min(chunks.length, (task + 1) * chunksPerTask);
+                for (int chunkIndex = task * chunksPerTask; chunkIndex < endChunk; ++chunkIndex) {
+                    int chunkRowCount = (int) Math.min(CHUNK_SIZE, rowCount - (long) chunkIndex * CHUNK_SIZE);
+                    taskTotals.add(chunks[chunkIndex], chunkRowCount, strides, firstMonth, firstEpochDay, lastEpochDay);
+                }
+                return taskTotals;
+            })
+            .reduce(GroupTotals::merge)
+            .get();
+
+        // Turn the non empty groups back into dimension values
+        List<RevenueGroup> revenueGroups = new ArrayList<>();
+        for (int groupKey = 0; groupKey < groupArraySize; ++groupKey) {
+            if (totals.theAgreementCounts[groupKey] == 0) {
+                continue;
+            }
+
+            int[] values = new int[cardinalities.length];
+            for (Dimension dimension : dimensions) {
+                values[dimension.ordinal()] = (groupKey / strides[dimension.ordinal()]) % cardinalities[dimension.ordinal()];
+            }
+
+            int month = firstMonth + values[Dimension.MONTH.ordinal()];
+            revenueGroups.add(new RevenueGroup(
+                strides[Dimension.TOOL_CODE.ordinal()] != 0 ? toolCodes[values[Dimension.TOOL_CODE.ordinal()]] : null,
+                strides[Dimension.TOOL_TYPE.ordinal()] != 0 ? TOOL_TYPES[values[Dimension.TOOL_TYPE.ordinal()]] : null,
+                strides[Dimension.TOOL_BRAND.ordinal()] != 0 ? TOOL_BRANDS[values[Dimension.TOOL_BRAND.ordinal()]] : null,
+                strides[Dimension.MONTH.ordinal()] != 0 ? YearMonth.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1) : null,
+                totals.theAgreementCounts[groupKey],
+                totals.theChargableDayCounts[groupKey],
+                totals.theInitialPriceCents[groupKey],
+                totals.theDiscountAmountCents[groupKey],
+                totals.theFinalChargeCents[groupKey]));
+        }
+
+        return revenueGroups;
+    }
+
+    /**
+     * Sums the final charge of the agreements checked out in a date range, a straight scan over two columns.
+     *
+     * @param firstCheckoutDate: First checkout date to include
+     * @param lastCheckoutDate: Last checkout date to include
+     *
+     * @return: The total final charge in cents.
+     */
+    public long sumFinalChargeCents(LocalDate firstCheckoutDate, LocalDate lastCheckoutDate) {
+        ColumnChunk[] chunks;
+        long rowCount;
+        synchronized (this) {
+            chunks = theChunks.toArray(new ColumnChunk[0]);
+            rowCount = theRowCount;
+        }
+
+        long firstEpochDay = firstCheckoutDate.toEpochDay();
+        long lastEpochDay = lastCheckoutDate.toEpochDay();
+        return IntStream.range(0, chunks.length).parallel()
+            .mapToLong(chunkIndex -> {
+                ColumnChunk chunk = chunks[chunkIndex];
+                int chunkRowCount = (int) Math.min(CHUNK_SIZE, rowCount - (long) chunkIndex * CHUNK_SIZE);
+                long sum = 0;
+                for (int row = 0; row < chunkRowCount; ++row) {
+                    long epochDay = chunk.theCheckoutEpochDays[row];
+                    sum += (epochDay >= firstEpochDay & epochDay <= lastEpochDay) ? chunk.theFinalChargeCents[row] : 0;
+                }
+                return sum;
+            })
+            .sum();
+    }
+
+    /**
+     * Gets the # of agreements held.
+     *
+     * @return: The # of agreements held.
+     */
+    public synchronized long size() {
+        return theRowCount;
+    }
+
+    /**
+     * One chunk of every column.
+     */
+    private static final class ColumnChunk {
+        private final int[] theToolCodeIds = new int[CHUNK_SIZE];
+        private final byte[] theToolTypes = new byte[CHUNK_SIZE];
+        private final byte[] theToolBrands = new byte[CHUNK_SIZE];
+        private final int[] theCheckoutEpochDays = new int[CHUNK_SIZE];
+        private final int[] theMonths = new int[CHUNK_SIZE];
+        private final int[] theChargableDayCounts = new int[CHUNK_SIZE];
+        private final long[] theInitialPriceCents = new long[CHUNK_SIZE];
+        private final long[] theDiscountAmountCents = new long[CHUNK_SIZE];
+        private final long[] theFinalChargeCents = new long[CHUNK_SIZE];
+    }
+
+    /**
+     * Sums per group key, one per aggregation task.
+     */
+    private static final class GroupTotals {
+        private final long[] theAgreementCounts;
+        private final long[] theChargableDayCounts;
+        private final long[] theInitialPriceCents;
+        private final long[] theDiscountAmountCents;
+        private final long[] theFinalChargeCents;
+
+        GroupTotals(int groupCount) {
+            theAgreementCounts = new long[groupCount];
+            theChargableDayCounts = new long[groupCount];
+            theInitialPriceCents = new long[groupCount];
+            theDiscountAmountCents = new long[groupCount];
+            theFinalChargeCents = new long[groupCount];
+        }
+
+        /**
+         * Adds the rows of a chunk checked out in the date range.
+         */
+        void add(ColumnChunk chunk, int rowCount, int[] strides, int firstMonth, long firstEpochDay, long lastEpochDay) {
+            int toolCodeStride = strides[Dimension.TOOL_CODE.ordinal()];
+            int toolTypeStride = strides[Dimension.TOOL_TYPE.ordinal()];
+            int toolBrandStride = strides[Dimension.TOOL_BRAND.ordinal()];
+            int monthStride = strides[Dimension.MONTH.ordinal()];
+
+            for (int row = 0; row < rowCount; ++row) {
+                long epochDay = chunk.theCheckoutEpochDays[row];
+                if (epochDay < firstEpochDay || epochDay > lastEpochDay) {
+                    continue;
+                }
+
+                int groupKey = chunk.theToolCodeIds[row] * toolCodeStride +
+                               chunk.theToolTypes[row] * toolTypeStride +
+                               chunk.theToolBrands[row] * toolBrandStride +
+                               (chunk.theMonths[row] - firstMonth) * monthStride;
+
+                theAgreementCounts[groupKey]++;
+                theChargableDayCounts[groupKey] += chunk.theChargableDayCounts[row];
+                theInitialPriceCents[groupKey] += chunk.theInitialPriceCents[row];
+                theDiscountAmountCents[groupKey] += chunk.theDiscountAmountCents[row];
+                theFinalChargeCents[groupKey] += chunk.theFinalChargeCents[row];
+            }
+        }
+
+        /**
+         * Adds another task's sums into these.
+         */
+        GroupTotals merge(GroupTotals other) {
+            for (int groupKey = 0; groupKey < theAgreementCounts.length; ++groupKey) {
+                theAgreementCounts[groupKey] += other.theAgreementCounts[groupKey];
+                theChargableDayCounts[groupKey] += other.theChargableDayCounts[groupKey];
+                theInitialPriceCents[groupKey] += other.theInitialPriceCents[groupKey];
+                theDiscountAmountCents[groupKey] += other.theDiscountAmountCents[groupKey];
+                theFinalChargeCents[groupKey] += other.theFinalChargeCents[groupKey];
+            }
+            return this;
+        }
+    }
+}
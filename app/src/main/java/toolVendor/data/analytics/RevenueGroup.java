@@ -0,0 +1,59 @@
+package toolVendor.data.analytics;
+
+import java.time.YearMonth;
+
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+/**
+ * Totals of the agreements sharing a tool code, type, brand, and/or checkout month, see AgreementColumnStore.groupBy.
+ * Dimensions that weren't grouped by are null.
+ */
+public class RevenueGroup {
+    // Member variables
+    private final String theToolCode;
+    private final ToolType theToolType;
+    private final ToolBrand theToolBrand;
+    private final YearMonth theMonth;
+    private final long theAgreementCount;
+    private final long theChargableDayCount;
+    private final long theInitialPriceCents;
+    private final long theDiscountAmountCents;
+    private final long theFinalChargeCents;
+
+    /**
+     * Constructor
+     */
+    RevenueGroup(String toolCode, ToolType toolType, ToolBrand toolBrand, YearMonth month, long agreementCount,
+                 long chargableDayCount, long initialPriceCents, long discountAmountCents, long finalChargeCents) {
+        theToolCode = toolCode;
+        theToolType = toolType;
+        theToolBrand = toolBrand;
+        theMonth = month;
+        theAgreementCount = agreementCount;
+        theChargableDayCount = chargableDayCount;
+        theInitialPriceCents = initialPriceCents;
+        theDiscountAmountCents = discountAmountCents;
+        theFinalChargeCents = finalChargeCents;
+    }
+
+    /**
+     * Getters
+     */
+    public String getToolCode() { return theToolCode; }
+    public ToolType getToolType() { return theToolType; }
+    public ToolBrand getToolBrand() { return theToolBrand; }
+    public YearMonth getMonth() { return theMonth; }
+    public long getAgreementCount() { return theAgreementCount; }
+    public long getChargableDayCount() { return theChargableDayCount; }
+    public long getInitialPriceCents() { return theInitialPriceCents; }
+    public long getDiscountAmountCents() { return theDiscountAmountCents; }
+    public long getFinalChargeCents() { return theFinalChargeCents; }
+
+    @Override
+    public String toString() {
+        return "RevenueGroup[toolCode=" + theToolCode + ", toolType=" + theToolType + ", toolBrand=" + theToolBrand +
+            ", month=" + theMonth + ", agreements=" + theAgreementCount + ", chargableDays=" + theChargableDayCount +
+            ", finalChargeCents=" + theFinalChargeCents + "]";
+    }
+}
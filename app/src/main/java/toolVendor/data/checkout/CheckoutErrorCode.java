@@ -0,0 +1,18 @@
+package toolVendor.data.checkout;
+
+/**
+ * Why a checkout was rejected.
+ */
+public enum CheckoutErrorCode {
+    MISSING_TOOL_CODE,
+    MISSING_CHECKOUT_DATE,
+    INVALID_RENTAL_DAY_COUNT,
+    DISCOUNT_OUT_OF_BOUNDS,
+    INVALID_CHECKOUT_DATE,
+    UNKNOWN_TOOL_CODE,
+    OUT_OF_STOCK,
+    UNKNOWN_TAX_REGION,
+    NO_RATES_IN_EFFECT,
+    EMPTY_ORDER,
+    CHECKOUT_FAILED
+}
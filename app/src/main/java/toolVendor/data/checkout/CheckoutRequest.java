@@ -0,0 +1,58 @@
+package toolVendor.data.checkout;
+
+import java.time.LocalDate;
+
+/**
+ * Model for one checkout in a batch, holding the same parameters as ToolVendor.checkoutTool.
+ */
+public class CheckoutRequest {
+    // Member variables
+    private final String theToolCode;
+    // Only one of the checkout date forms is set
+    private final String theCheckoutDateString;
+    private final LocalDate theCheckoutDate;
+    private final int theRentalDayCount;
+    // The discount rate is a whole number e.g. 20 == 20%
+    private final double theDiscount;
+
+    /**
+     * Constructor
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDateString: A string formatted like "mm/dd/yy" to describe the checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     */
+    public CheckoutRequest(String toolCode, String checkoutDateString, int rentalDayCount, double discount) {
+        theToolCode = toolCode;
+        theCheckoutDateString = checkoutDateString;
+        theCheckoutDate = null;
+        theRentalDayCount = rentalDayCount;
+        theDiscount = discount;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param toolCode: A code matching to a tool to checkout
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days to rent the tool.
+     * @param discount: A discount percentage rate
+     */
+    public CheckoutRequest(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discount) {
+        theToolCode = toolCode;
+        theCheckoutDateString = null;
+        theCheckoutDate = checkoutDate;
+        theRentalDayCount = rentalDayCount;
+        theDiscount = discount;
+    }
+
+    /**
+     * Getters
+     */
+    public String getToolCode() { return theToolCode; }
+    public String getCheckoutDateString() { return theCheckoutDateString; }
+    public LocalDate getCheckoutDate() { return theCheckoutDate; }
+    public int getRentalDayCount() { return theRentalDayCount; }
+    public double getDiscount() { return theDiscount; }
+}
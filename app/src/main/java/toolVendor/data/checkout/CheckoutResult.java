@@ -0,0 +1,99 @@
+package toolVendor.data.checkout;
+
+import java.util.function.Supplier;
+
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.inventory.Reservation;
+import toolVendor.pricing.LocalCharge;
+
+/**
+ * Outcome of a checkout: either the rental agreement or why the checkout was rejected.
+ *
+ * A rejection carries an error code and a supplier of the message, so rejecting a checkout doesn't
+ * format a message nobody reads.
+ */
+public class CheckoutResult {
+    // Member variables, either the agreement or the error code and message are set
+    private final RentalAgreement theRentalAgreement;
+    private final Reservation theReservation;
+    private final LocalCharge theLocalCharge;
+    private final CheckoutErrorCode theErrorCode;
+    private final Supplier<String> theErrorMessageSupplier;
+
+    /**
+     * Constructor, see the success and failure factories.
+     */
+    private CheckoutResult(RentalAgreement rentalAgreement, Reservation reservation, LocalCharge localCharge, CheckoutErrorCode errorCode, Supplier<String> errorMessageSupplier) {
+        theRentalAgreement = rentalAgreement;
+        theReservation = reservation;
+        theLocalCharge = localCharge;
+        theErrorCode = errorCode;
+        theErrorMessageSupplier = errorMessageSupplier;
+    }
+
+    /**
+     * Creates the result of a checkout that went through.
+     *
+     * @param rentalAgreement: The generated agreement
+     *
+     * @return: A successful result
+     */
+    public static CheckoutResult success(RentalAgreement rentalAgreement) {
+        return success(rentalAgreement, null);
+    }
+
+    /**
+     * Creates the result of a checkout that went through and holds a unit of the tool.
+     *
+     * @param rentalAgreement: The generated agreement
+     * @param reservation: The unit held for the rental, or null if stock isn't tracked
+     *
+     * @return: A successful result
+     */
+    public static CheckoutResult success(RentalAgreement rentalAgreement, Reservation reservation) {
+        return success(rentalAgreement, reservation, null);
+    }
+
+    /**
+     * Creates the result of a checkout that went through, charged in the currency of a tax region.
+     *
+     * @param rentalAgreement: The generated agreement
+     * @param reservation: The unit held for the rental, or null if stock isn't tracked
+     * @param localCharge: The final charge in the region's currency with tax, or null if no region was asked for
+     *
+     * @return: A successful result
+     */
+    public static CheckoutResult success(RentalAgreement rentalAgreement, Reservation reservation, LocalCharge localCharge) {
+        return new CheckoutResult(rentalAgreement, reservation, localCharge, null, null);
+    }
+
+    /**
+     * Creates the result of a rejected checkout.
+     *
+     * @param errorCode: Why the checkout was rejected
+     * @param errorMessageSupplier: Describes the rejection when asked
+     *
+     * @return: A failed result
+     */
+    public static CheckoutResult failure(CheckoutErrorCode errorCode, Supplier<String> errorMessageSupplier) {
+        return new CheckoutResult(null, null, null, errorCode, errorMessageSupplier);
+    }
+
+    /**
+     * Gets the message describing why the checkout was rejected.
+     *
+     * @return: The message, or null if the checkout went through.
+     */
+    public String getErrorMessage() {
+        return theErrorMessageSupplier != null ? theErrorMessageSupplier.get() : null;
+    }
+
+    /**
+     * Getters
+     */
+    public boolean isSuccess() { return theRentalAgreement != null; }
+    public RentalAgreement getRentalAgreement() { return theRentalAgreement; }
+    public Reservation getReservation() { return theReservation; }
+    public LocalCharge getLocalCharge() { return theLocalCharge; }
+    public CheckoutErrorCode getErrorCode() { return theErrorCode; }
+}
@@ -0,0 +1,351 @@
+package toolVendor.data.inventory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import toolVendor.data.tool.ToolCatalog;
+
+/**
+ * Tracks the physical units of each tool and the days each unit is reserved.
+ *
+ * Every unit keeps its reservations as sorted arrays of start and end epoch days. A reservation
+ * covers [start, end), the unit is free again on the end day, so a rental due back on a day
+ * doesn't block a rental starting that day. Reservations of a unit never overlap, so the arrays
+ * are sorted by both start and end and checking a unit is one binary search.
+ *
+ * Each tool code has its own lock, so checkouts of different tools never contend. Tool codes are
+ * matched the same way as in the ToolCatalog, ignoring case.
+ */
+public class InventoryLedger {
+    // Inventory of each tool, keyed by packed tool code
+    private final ConcurrentHashMap<Integer, ToolInventory> theToolInventories = new ConcurrentHashMap<>();
+
+    // Reservations held across every tool
+    private final AtomicInteger theReservationCount = new AtomicInteger();
+
+    /**
+     * Sets how many units of a tool are in stock.
+     *
+     * Units can always be added. Units can only be taken away when they have no reservations,
+     * the highest numbered units are taken away first.
+     *
+     * @param toolCode: The tool code
+     * @param unitCount: The # of units in stock
+     *
+     * @throws IllegalArgumentException if the tool code isn't valid or the count is negative.
+     * @throws IllegalStateException if a unit being taken away still has reservations.
+     */
+    public void setUnitCount(String toolCode, int unitCount) {
+        int packedCode = ToolCatalog.packToolCode(toolCode);
+        if (packedCode == ToolCatalog.INVALID_PACKED_CODE) {
+            throw new IllegalArgumentException("Tool code '" + toolCode + "' is not a valid tool code.");
+        }
+        if (unitCount < 0) {
+            throw new IllegalArgumentException("Unit count of " + unitCount + " should not be negative.");
+        }
+
+        ToolInventory toolInventory = theToolInventories.computeIfAbsent(packedCode, code -> new ToolInventory(ToolCatalog.unpackToolCode(code)));
+        synchronized (toolInventory) {
+            toolInventory.setUnitCount(unitCount);
+        }
+    }
+
+    /**
+     * Reserves a free unit of a tool.
+     *
+     * @param toolCode: The tool code
+     * @param startDate: First day of the rental
+     * @param endDate: Day the unit is due back, not included in the reservation
+     *
+     * @return: The reservation, or null if every unit is taken for some of the days or the tool isn't stocked.
+     */
+    public Reservation reserve(String toolCode, LocalDate startDate, LocalDate endDate) {
+        ToolInventory toolInventory = getToolInventory(toolCode);
+        if (toolInventory == null) {
+            return null;
+        }
+
+        int startEpochDay = toEpochDay(startDate);
+        int endEpochDay = toEpochDay(endDate);
+        checkRange(startEpochDay, endEpochDay);
+
+        synchronized (toolInventory) {
+            UnitSchedule[] unitSchedules = toolInventory.theUnitSchedules;
+
+            for (int unitIndex = 0; unitIndex < toolInventory.theUnitCount; ++unitIndex) {
+                if (unitSchedules[unitIndex].add(startEpochDay, endEpochDay)) {
+                    theReservationCount.incrementAndGet();
+                    return new Reservation(toolInventory.theToolCode, unitIndex, startEpochDay, endEpochDay);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Releases a reservation, e.g. when a checkout is cancelled or the tool comes back early.
+     *
+     * @param reservation: The reservation to release
+     *
+     * @return: True if the reservation was held and is now released.
+     */
+    public boolean release(Reservation reservation) {
+        ToolInventory toolInventory = getToolInventory(reservation.getToolCode());
+        if (toolInventory == null) {
+            return false;
+        }
+
+        synchronized (toolInventory) {
+            if (reservation.getUnitIndex() >= toolInventory.theUnitCount) {
+                return false;
+            }
+
+            boolean released = toolInventory.theUnitSchedules[reservation.getUnitIndex()].remove(reservation.getStartEpochDay(), reservation.getEndEpochDay());
+            if (released) {
+                theReservationCount.decrementAndGet();
+            }
+            return released;
+        }
+    }
+
+    /**
+     * Moves the day a reservation's unit is due back, e.g. when a rental is extended or shortened.
+     * The same unit stays held, so an extension only goes through if that unit is free for the added days.
+     *
+     * @param reservation: The reservation to move
+     * @param endDate: New day the unit is due back, not included in the reservation
+     *
+     * @return: The moved reservation, or null if the unit is reserved for some of the added days.
+     *
+     * @throws IllegalArgumentException if the reservation isn't held or the new end isn't after its start.
+     */
+    public Reservation changeEndDate(Reservation reservation, LocalDate endDate) {
+        int endEpochDay = toEpochDay(endDate);
+        checkRange(reservation.getStartEpochDay(), endEpochDay);
+
+        ToolInventory toolInventory = getToolInventory(reservation.getToolCode());
+        if (toolInventory != null) {
+            synchronized (toolInventory) {
+                if (reservation.getUnitIndex() < toolInventory.theUnitCount) {
+                    int moved = toolInventory.theUnitSchedules[reservation.getUnitIndex()].changeEnd(reservation.getStartEpochDay(), reservation.getEndEpochDay(), endEpochDay);
+                    if (moved > 0) {
+                        return new Reservation(toolInventory.theToolCode, reservation.getUnitIndex(), reservation.getStartEpochDay(), endEpochDay);
+                    }
+                    if (moved == 0) {
+                        return null;
+                    }
+                }
+            }
+        }
+
+        throw new IllegalArgumentException(reservation + " is not held.");
+    }
+
+    /**
+     * Counts the units of a tool free for a whole date range.
+     *
+     * @param toolCode: The tool code
+     * @param startDate: First day of the range
+     * @param endDate: Day after the last day of the range
+     *
+     * @return: The # of units free on every day of the range, 0 if the tool isn't stocked.
+     */
+    public int getAvailableUnitCount(String toolCode, LocalDate startDate, LocalDate endDate) {
+        ToolInventory toolInventory = getToolInventory(toolCode);
+        if (toolInventory == null) {
+            return 0;
+        }
+
+        int startEpochDay = toEpochDay(startDate);
+        int endEpochDay = toEpochDay(endDate);
+        checkRange(startEpochDay, endEpochDay);
+
+        int availableUnitCount = 0;
+        synchronized (toolInventory) {
+            for (int unitIndex = 0; unitIndex < toolInventory.theUnitCount; ++unitIndex) {
+                if (toolInventory.theUnitSchedules[unitIndex].isFree(startEpochDay, endEpochDay)) {
+                    availableUnitCount++;
+                }
+            }
+        }
+
+        return availableUnitCount;
+    }
+
+    /**
+     * Gets how many units of a tool are in stock.
+     *
+     * @param toolCode: The tool code
+     *
+     * @return: The # of units, 0 if the tool isn't stocked.
+     */
+    public int getUnitCount(String toolCode) {
+        ToolInventory toolInventory = getToolInventory(toolCode);
+        if (toolInventory == null) {
+            return 0;
+        }
+
+        synchronized (toolInventory) {
+            return toolInventory.theUnitCount;
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public int getReservationCount() { return theReservationCount.get(); }
+
+    /**
+     * Helper method to find the inventory of a tool code.
+     */
+    private ToolInventory getToolInventory(String toolCode) {
+        int packedCode = ToolCatalog.packToolCode(toolCode);
+        if (packedCode == ToolCatalog.INVALID_PACKED_CODE) {
+            return null;
+        }
+        return theToolInventories.get(packedCode);
+    }
+
+    /**
+     * Helper method to turn a date into an int epoch day.
+     */
+    private static int toEpochDay(LocalDate date) {
+        long epochDay = date.toEpochDay();
+        if ((int) epochDay != epochDay) {
+            throw new IllegalArgumentException(date + " is too far out to reserve.");
+        }
+        return (int) epochDay;
+    }
+
+    /**
+     * Helper method to reject empty or backwards ranges.
+     */
+    private static void checkRange(int startEpochDay, int endEpochDay) {
+        if (endEpochDay <= startEpochDay) {
+            throw new IllegalArgumentException("Reservations need at least one day.");
+        }
+    }
+
+    /**
+     * The units of one tool. Guarded by its own lock.
+     */
+    private static final class ToolInventory {
+        private final String theToolCode;
+        private UnitSchedule[] theUnitSchedules = new UnitSchedule[0];
+        private int theUnitCount = 0;
+
+        ToolInventory(String toolCode) {
+            theToolCode = toolCode;
+        }
+
+        void setUnitCount(int unitCount) {
+            // Only empty units can be taken away
+            for (int unitIndex = unitCount; unitIndex < theUnitCount; ++unitIndex) {
+                if (theUnitSchedules[unitIndex].theReservationCount > 0) {
+                    throw new IllegalStateException(theToolCode + " unit " + unitIndex + " still has reservations.");
+                }
+            }
+
+            if (unitCount > theUnitSchedules.length) {
+                int oldLength = theUnitSchedules.length;
+                theUnitSchedules = Arrays.copyOf(theUnitSchedules, unitCount);
+                for (int unitIndex = oldLength; unitIndex < unitCount; ++unitIndex) {
+                    theUnitSchedules[unitIndex] = new UnitSchedule();
+                }
+            }
+            theUnitCount = unitCount;
+        }
+    }
+
+    /**
+     * The reservations of one unit, as sorted arrays of start and end epoch days.
+     */
+    private static final class UnitSchedule {
+        private int[] theStartDays = new int[4];
+        private int[] theEndDays = new int[4];
+        private int theReservationCount = 0;
+
+        /**
+         * Finds the first reservation ending after a day, theReservationCount if there's none.
+         */
+        private int findFirstEndingAfter(int epochDay) {
+            int low = 0;
+            int high = theReservationCount;
+
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (theEndDays[middle] <= epochDay) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+
+        boolean isFree(int startEpochDay, int endEpochDay) {
+            int index = findFirstEndingAfter(startEpochDay);
+            return index == theReservationCount || theStartDays[index] >= endEpochDay;
+        }
+
+        /**
+         * Adds a reservation if the unit is free for it.
+         */
+        boolean add(int startEpochDay, int endEpochDay) {
+            int index = findFirstEndingAfter(startEpochDay);
+            if (index < theReservationCount && theStartDays[index] < endEpochDay) {
+                return false;
+            }
+
+            if (theReservationCount == theStartDays.length) {
+                theStartDays = Arrays.copyOf(theStartDays, theReservationCount * 2);
+                theEndDays = Arrays.copyOf(theEndDays, theReservationCount * 2);
+            }
+
+            System.arraycopy(theStartDays, index, theStartDays, index + 1, theReservationCount - index);
+            System.arraycopy(theEndDays, index, theEndDays, index + 1, theReservationCount - index);
+            theStartDays[index] = startEpochDay;
+            theEndDays[index] = endEpochDay;
+            theReservationCount++;
+            return true;
+        }
+
+        /**
+         * Moves the end of a reservation if it's held and the unit is free up to the new end.
+         * Returns 1 if it moved, 0 if the unit is taken, and -1 if the reservation isn't held.
+         */
+        int changeEnd(int startEpochDay, int endEpochDay, int newEndEpochDay) {
+            int index = findFirstEndingAfter(startEpochDay);
+            if (index == theReservationCount || theStartDays[index] != startEpochDay || theEndDays[index] != endEpochDay) {
+                return -1;
+            }
+            if (index + 1 < theReservationCount && theStartDays[index + 1] < newEndEpochDay) {
+                return 0;
+            }
+
+            // Still sorted, the next reservation starts on or after the new end
+            theEndDays[index] = newEndEpochDay;
+            return 1;
+        }
+
+        /**
+         * Removes a reservation if it's held.
+         */
+        boolean remove(int startEpochDay, int endEpochDay) {
+            int index = findFirstEndingAfter(startEpochDay);
+            if (index == theReservationCount || theStartDays[index] != startEpochDay || theEndDays[index] != endEpochDay) {
+                return false;
+            }
+
+            System.arraycopy(theStartDays, index + 1, theStartDays, index, theReservationCount - index - 1);
+            System.arraycopy(theEndDays, index + 1, theEndDays, index, theReservationCount - index - 1);
+            theReservationCount--;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package toolVendor.data.inventory;
+
+import java.time.LocalDate;
+
+/**
+ * One physical unit of a tool held for a rental, from the checkout date up to but not including
+ * the due date, see InventoryLedger.
+ */
+public class Reservation {
+    // Member variables
+    private final String theToolCode;
+    private final int theUnitIndex;
+    private final int theStartEpochDay;
+    private final int theEndEpochDay;
+
+    /**
+     * Constructor
+     *
+     * @param toolCode: Code of the reserved tool
+     * @param unitIndex: Which unit of the tool is reserved
+     * @param startEpochDay: First day reserved
+     * @param endEpochDay: Day the unit is free again
+     */
+    Reservation(String toolCode, int unitIndex, int startEpochDay, int endEpochDay) {
+        theToolCode = toolCode;
+        theUnitIndex = unitIndex;
+        theStartEpochDay = startEpochDay;
+        theEndEpochDay = endEpochDay;
+    }
+
+    /**
+     * Getters
+     */
+    public String getToolCode() { return theToolCode; }
+    public int getUnitIndex() { return theUnitIndex; }
+    public int getStartEpochDay() { return theStartEpochDay; }
+    public int getEndEpochDay() { return theEndEpochDay; }
+    public LocalDate getStartDate() { return LocalDate.ofEpochDay(theStartEpochDay); }
+    public LocalDate getEndDate() { return LocalDate.ofEpochDay(theEndEpochDay); }
+
+    @Override
+    public String toString() {
+        return theToolCode + " unit " + theUnitIndex + " from " + getStartDate() + " until " + getEndDate();
+    }
+}
@@ -0,0 +1,563 @@
+package toolVendor.data.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+import toolVendor.data.agreement.RentalAgreement;
+
+/**
+ * Append only journal of rental agreements, so there's a durable record to rebuild from after a restart.
+ *
+ * Every agreement is written as one fixed size AgreementRecord into memory mapped segment files named
+ * agreements-0000000001.seg, agreements-0000000002.seg, and so on. Appending only copies the record into
+ * the mapped segment, a background thread forces the segment to disk and everything appended while it
+ * was forcing goes out with the next force, so many appends share one fsync. Callers that need a record
+ * on disk before going on wait for it with awaitDurable.
+ *
+ * A segment holds up to a fixed # of records, a new segment is started once it's full or when the records
+ * of an order appended together don't fit in the rest of it. Every record carries a checksum, replay reads
+ * the segments in order and stops a segment at the first record that isn't whole, so a crash mid write
+ * loses at most the records that weren't durable yet. Finished segments can be compacted to drop records
+ * that aren't needed anymore.
+ */
+public class AgreementJournal implements AutoCloseable {
+    // Default # of records per segment, 64MB segments
+    public static final int DEFAULT_SEGMENT_RECORD_COUNT = 1 << 20;
+
+    // Segment file names
+    private static final String SEGMENT_PREFIX = "agreements-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String COMPACTING_SUFFIX = ".tmp";
+
+    // Member variables
+    private final Path theDirectory;
+    private final int theSegmentRecordCount;
+    private final Thread theForceThread;
+
+    // Reused to lay out a record before copying it into the segment, guarded by this
+    private final ByteBuffer theRecordBuffer = ByteBuffer.allocate(AgreementRecord.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C theChecksum = new CRC32C();
+
+    // Segment being appended to, guarded by this
+    private long theSegmentNumber;
+    private FileChannel theSegmentChannel;
+    private MappedByteBuffer theSegmentBuffer;
+    private int theSegmentRecordIndex;
+
+    // # of records appended and forced to disk since the journal was opened, guarded by this
+    private long theAppendedCount = 0;
+    private long theDurableCount = 0;
+    private IOException theForceFailure = null;
+    private boolean theClosed = false;
+
+    /**
+     * Constructor with the default segment size.
+     *
+     * @param directory: Where the segments are kept, created if missing
+     *
+     * @throws IOException if the segments can't be opened.
+     */
+    public AgreementJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_RECORD_COUNT);
+    }
+
+    /**
+     * Constructor
+     *
+     * Opens the segments already in the directory and carries on appending after the last whole record,
+     * dropping anything left after it in the last segment.
+     *
+     * @param directory: Where the segments are kept, created if missing
+     * @param segmentRecordCount: The # of records per segment
+     *
+     * @throws IOException if the segments can't be opened.
+     */
+    public AgreementJournal(Path directory, int segmentRecordCount) throws IOException {
+        if (segmentRecordCount <= 0 || segmentRecordCount > Integer.MAX_VALUE / AgreementRecord.RECORD_SIZE) {
+            throw new IllegalArgumentException("Segment record count of " + segmentRecordCount + " is out of range.");
+        }
+
+        theDirectory = directory;
+        theSegmentRecordCount = segmentRecordCount;
+        Files.createDirectories(directory);
+
+        // Leftovers of a compaction that didn't finish, the segments they came from are still whole
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + COMPACTING_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.delete(leftover);
+            }
+        }
+
+        // Carry on after the last whole record of the last segment
+        List<Long> segmentNumbers = listSegmentNumbers();
+        long lastSegmentNumber = segmentNumbers.isEmpty() ? 1 : segmentNumbers.get(segmentNumbers.size() - 1);
+        int wholeRecordCount = 0;
+        if (!segmentNumbers.isEmpty()) {
+            wholeRecordCount = (int) readSegment(getSegmentPath(lastSegmentNumber), theSegmentRecordCount, agreementRecord -> {});
+            truncateSegment(getSegmentPath(lastSegmentNumber), wholeRecordCount);
+        }
+        openSegment(lastSegmentNumber);
+        theSegmentRecordIndex = wholeRecordCount;
+
+        theForceThread = new Thread(this::runForceLoop, "agreement-journal-force");
+        theForceThread.setDaemon(true);
+        theForceThread.start();
+    }
+
+    /**
+     * Appends an agreement. The record is durable once awaitDurable returns for the sequence handed back.
+     *
+     * @param rentalAgreement: The agreement to record
+     *
+     * @return: The sequence of the record, counting from 1 since the journal was opened.
+     *
+     * @throws IOException if a new segment is needed and can't be started.
+     */
+    public long append(RentalAgreement rentalAgreement) throws IOException {
+        return append(AgreementRecord.fromAgreement(rentalAgreement));
+    }
+
+    /**
+     * Appends a record, see append(RentalAgreement).
+     *
+     * @param agreementRecord: The record to append
+     *
+     * @return: The sequence of the record, counting from 1 since the journal was opened.
+     *
+     * @throws IOException if a new segment is needed and can't be started.
+     */
+    public synchronized long append(AgreementRecord agreementRecord) throws IOException {
+        if (theClosed) {
+            throw new IllegalStateException("Journal is closed.");
+        }
+
+        if (theSegmentRecordIndex == theSegmentRecordCount) {
+            rollSegment();
+        }
+
+        putRecord(agreementRecord);
+        return countAppended(1);
+    }
+
+    /**
+     * Appends the agreements of one order together, so they're either all recorded or none are.
+     *
+     * When they don't all fit in the rest of the segment the next segment is started before any of them
+     * is written, so failing to start it leaves nothing of the order behind. The records are then only
+     * copied into the mapped segment, which can't fail part way.
+     *
+     * @param rentalAgreements: The agreements to record, at most a segment's worth
+     *
+     * @return: The sequence of the last record, counting from 1 since the journal was opened.
+     *
+     * @throws IOException if a new segment is needed and can't be started, nothing is appended then.
+     * @throws IllegalArgumentException if there are more agreements than a segment holds.
+     */
+    public long appendAll(List<RentalAgreement> rentalAgreements) throws IOException {
+        if (rentalAgreements.size() > theSegmentRecordCount) {
+            throw new IllegalArgumentException(rentalAgreements.size() + " agreements don't fit in a segment of " + theSegmentRecordCount + " records.");
+        }
+
+        AgreementRecord[] agreementRecords = new AgreementRecord[rentalAgreements.size()];
+        for (int i = 0; i < agreementRecords.length; ++i) {
+            agreementRecords[i] = AgreementRecord.fromAgreement(rentalAgreements.get(i));
+        }
+
+        synchronized (this) {
+            if (theClosed) {
+                throw new IllegalStateException("Journal is closed.");
+            }
+
+            if (theSegmentRecordCount - theSegmentRecordIndex < agreementRecords.length) {
+                rollSegment();
+            }
+
+            for (AgreementRecord agreementRecord : agreementRecords) {
+                putRecord(agreementRecord);
+            }
+            return countAppended(agreementRecords.length);
+        }
+    }
+
+    /**
+     * Appends an agreement and waits for it to be durable.
+     *
+     * @param rentalAgreement: The agreement to record
+     *
+     * @return: The sequence of the record
+     *
+     * @throws IOException if the record can't be written or forced.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public long appendAndSync(RentalAgreement rentalAgreement) throws IOException, InterruptedException {
+        long sequence = append(rentalAgreement);
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    /**
+     * Waits until a record is forced to disk.
+     *
+     * @param sequence: The sequence handed back by append
+     *
+     * @throws IOException if forcing the segment failed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public synchronized void awaitDurable(long sequence) throws IOException, InterruptedException {
+        if (sequence > theAppendedCount) {
+            throw new IllegalArgumentException("Sequence " + sequence + " hasn't been appended.");
+        }
+
+        while (theDurableCount < sequence && theForceFailure == null) {
+            wait();
+        }
+
+        if (theDurableCount < sequence) {
+            throw theForceFailure;
+        }
+    }
+
+    /**
+     * Reads every record in the journal, oldest first.
+     *
+     * @param recordConsumer: Handed each record
+     *
+     * @return: The # of records read.
+     *
+     * @throws IOException if a segment can't be read.
+     */
+    public long replay(Consumer<AgreementRecord> recordConsumer) throws IOException {
+        long activeSegmentNumber;
+        int activeRecordCount;
+        synchronized (this) {
+            activeSegmentNumber = theSegmentNumber;
+            activeRecordCount = theSegmentRecordIndex;
+        }
+
+        long recordCount = 0;
+        for (long segmentNumber : listSegmentNumbers()) {
+            if (segmentNumber > activeSegmentNumber) {
+                break;
+            }
+
+            int maxRecordCount = segmentNumber == activeSegmentNumber ? activeRecordCount : Integer.MAX_VALUE;
+            recordCount += readSegment(getSegmentPath(segmentNumber), maxRecordCount, recordConsumer);
+        }
+
+        return recordCount;
+    }
+
+    /**
+     * Drops records that aren't needed anymore, e.g. agreements returned long ago, from the full segments.
+     * Each segment is rewritten on its own and swapped in with an atomic move, segments left empty are deleted.
+     * The segment being appended to isn't touched.
+     *
+     * @param keepRecord: True for the records to keep
+     *
+     * @return: The # of records dropped.
+     *
+     * @throws IOException if a segment can't be rewritten.
+     */
+    public long compact(Predicate<AgreementRecord> keepRecord) throws IOException {
+        long activeSegmentNumber;
+        synchronized (this) {
+            activeSegmentNumber = theSegmentNumber;
+        }
+
+        long droppedCount = 0;
+        for (long segmentNumber : listSegmentNumbers()) {
+            if (segmentNumber >= activeSegmentNumber) {
+                break;
+            }
+
+            Path segmentPath = getSegmentPath(segmentNumber);
+            List<AgreementRecord> keptRecords = new ArrayList<>();
+            long recordCount = readSegment(segmentPath, Integer.MAX_VALUE, agreementRecord -> {
+                if (keepRecord.test(agreementRecord)) {
+                    keptRecords.add(agreementRecord);
+                }
+            });
+
+            if (keptRecords.size() == recordCount) {
+                continue;
+            }
+            droppedCount += recordCount - keptRecords.size();
+
+            if (keptRecords.isEmpty()) {
+                Files.delete(segmentPath);
+                continue;
+            }
+
+            // Write the kept records next to the segment, then swap it in
+            Path compactingPath = theDirectory.resolve(segmentPath.getFileName() + COMPACTING_SUFFIX);
+            ByteBuffer compactedBuffer = ByteBuffer.allocate(keptRecords.size() * AgreementRecord.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C checksum = new CRC32C();
+            for (AgreementRecord agreementRecord : keptRecords) {
+                int recordStart = compactedBuffer.position();
+                agreementRecord.writeFields(compactedBuffer);
+                checksum.reset();
+                checksum.update(compactedBuffer.array(), recordStart, AgreementRecord.CHECKSUM_OFFSET);
+                compactedBuffer.putInt((int) checksum.getValue());
+                compactedBuffer.putInt(AgreementRecord.RECORD_MAGIC);
+            }
+            compactedBuffer.flip();
+
+            try (FileChannel compactingChannel = FileChannel.open(compactingPath, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (compactedBuffer.hasRemaining()) {
+                    compactingChannel.write(compactedBuffer);
+                }
+                compactingChannel.force(true);
+            }
+            Files.move(compactingPath, segmentPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        return droppedCount;
+    }
+
+    /**
+     * Forces everything appended, stops the force thread, and closes the segment. Appending after
+     * closing throws an IllegalStateException.
+     *
+     * @throws IOException if the segment can't be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (theClosed) {
+                return;
+            }
+            theClosed = true;
+            notifyAll();
+        }
+
+        try {
+            theForceThread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this) {
+            theSegmentChannel.close();
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public Path getDirectory() { return theDirectory; }
+    public int getSegmentRecordCount() { return theSegmentRecordCount; }
+    public synchronized long getAppendedCount() { return theAppendedCount; }
+    public synchronized long getDurableCount() { return theDurableCount; }
+
+    /**
+     * Forces appended records to disk until the journal is closed and everything is forced. Appends
+     * made while a force runs are picked up by the next one.
+     */
+    private void runForceLoop() {
+        while (true) {
+            MappedByteBuffer segmentBuffer;
+            long appendedCount;
+            synchronized (this) {
+                while (theAppendedCount == theDurableCount && !theClosed) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                // Once closed, stop after the last force
+                if (theAppendedCount == theDurableCount) {
+                    return;
+                }
+
+                segmentBuffer = theSegmentBuffer;
+                appendedCount = theAppendedCount;
+            }
+
+            IOException forceFailure = null;
+            try {
+                forceSegment(segmentBuffer);
+            }
+            catch (IOException e) {
+                forceFailure = e;
+            }
+
+            synchronized (this) {
+                if (forceFailure != null) {
+                    theForceFailure = forceFailure;
+                    notifyAll();
+                    return;
+                }
+                theDurableCount = Math.max(theDurableCount, appendedCount);
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Helper method to force a segment, segments that were rolled past are forced when they fill up.
+     */
+    private static void forceSegment(MappedByteBuffer segmentBuffer) throws IOException {
+        try {
+            segmentBuffer.force();
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Helper method to lay out a record and its checksum, then copy it into the segment in one go.
+     * The segment must have room for it. Called holding the lock.
+     */
+    private void putRecord(AgreementRecord agreementRecord) {
+        theRecordBuffer.clear();
+        agreementRecord.writeFields(theRecordBuffer);
+        theChecksum.reset();
+        theChecksum.update(theRecordBuffer.array(), 0, AgreementRecord.CHECKSUM_OFFSET);
+        theRecordBuffer.putInt((int) theChecksum.getValue());
+        theRecordBuffer.putInt(AgreementRecord.RECORD_MAGIC);
+
+        theSegmentBuffer.position(theSegmentRecordIndex * AgreementRecord.RECORD_SIZE);
+        theSegmentBuffer.put(theRecordBuffer.array());
+        theSegmentRecordIndex++;
+    }
+
+    /**
+     * Helper method to count records as appended, waking the force thread if it's idle. Called holding the lock.
+     */
+    private long countAppended(int recordCount) {
+        if (theAppendedCount == theDurableCount) {
+            notifyAll();
+        }
+        theAppendedCount += recordCount;
+        return theAppendedCount;
+    }
+
+    /**
+     * Helper method to finish the segment and start the next one. Called holding the lock.
+     */
+    private void rollSegment() throws IOException {
+        forceSegment(theSegmentBuffer);
+        theSegmentChannel.close();
+        openSegment(theSegmentNumber + 1);
+    }
+
+    /**
+     * Helper method to map a segment for appending, growing the file to a full segment. Called holding the lock.
+     */
+    private void openSegment(long segmentNumber) throws IOException {
+        FileChannel segmentChannel = FileChannel.open(getSegmentPath(segmentNumber), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer segmentBuffer = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, (long) theSegmentRecordCount * AgreementRecord.RECORD_SIZE);
+            segmentBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            theSegmentNumber = segmentNumber;
+            theSegmentChannel = segmentChannel;
+            theSegmentBuffer = segmentBuffer;
+            theSegmentRecordIndex = 0;
+        }
+        catch (IOException | RuntimeException e) {
+            segmentChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Helper method to cut a segment off after its whole records, so records past a torn one can't
+     * show up again once appends write over the torn one. Mapping the segment grows it back with zeros.
+     */
+    private static void truncateSegment(Path segmentPath, int wholeRecordCount) throws IOException {
+        try (FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+            long wholeRecordsSize = (long) wholeRecordCount * AgreementRecord.RECORD_SIZE;
+            if (segmentChannel.size() > wholeRecordsSize) {
+                segmentChannel.truncate(wholeRecordsSize);
+                segmentChannel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Helper method to read the whole records at the start of a segment.
+     */
+    private static long readSegment(Path segmentPath, int maxRecordCount, Consumer<AgreementRecord> recordConsumer) throws IOException {
+        try (FileChannel segmentChannel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            MappedByteBuffer segmentBuffer = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+            segmentBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            ByteBuffer recordBuffer = ByteBuffer.allocate(AgreementRecord.RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C checksum = new CRC32C();
+            long recordCount = Math.min(maxRecordCount, segmentBuffer.capacity() / AgreementRecord.RECORD_SIZE);
+
+            for (int recordIndex = 0; recordIndex < recordCount; ++recordIndex) {
+                segmentBuffer.position(recordIndex * AgreementRecord.RECORD_SIZE);
+                segmentBuffer.get(recordBuffer.array());
+
+                if (!isWholeRecord(recordBuffer, checksum)) {
+                    return recordIndex;
+                }
+                recordConsumer.accept(AgreementRecord.readFields(recordBuffer));
+            }
+
+            return recordCount;
+        }
+    }
+
+    /**
+     * Helper method to check a record was written in full, with its magic and a matching checksum.
+     */
+    private static boolean isWholeRecord(ByteBuffer recordBuffer, CRC32C checksum) {
+        if (recordBuffer.getInt(AgreementRecord.CHECKSUM_OFFSET + 4) != AgreementRecord.RECORD_MAGIC) {
+            return false;
+        }
+
+        checksum.reset();
+        checksum.update(recordBuffer.array(), 0, AgreementRecord.CHECKSUM_OFFSET);
+        return recordBuffer.getInt(AgreementRecord.CHECKSUM_OFFSET) == (int) checksum.getValue();
+    }
+
+    /**
+     * Helper method to list the segment numbers in the directory, in order.
+     */
+    private List<Long> listSegmentNumbers() throws IOException {
+        List<Long> segmentNumbers = new ArrayList<>();
+        try (DirectoryStream<Path> segmentPaths = Files.newDirectoryStream(theDirectory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path segmentPath : segmentPaths) {
+                String fileName = segmentPath.getFileName().toString();
+                try {
+                    segmentNumbers.add(Long.parseLong(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length())));
+                }
+                catch (NumberFormatException e) {
+                    // Not one of ours
+                }
+            }
+        }
+
+        Collections.sort(segmentNumbers);
+        return segmentNumbers;
+    }
+
+    /**
+     * Helper method to get the file of a segment.
+     */
+    private Path getSegmentPath(long segmentNumber) {
+        return theDirectory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+    }
+}
@@ -0,0 +1,128 @@
+package toolVendor.data.journal;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.tool.ToolCatalog;
+
+/**
+ * One rental agreement as written to the AgreementJournal.
+ *
+ * A record is RECORD_SIZE bytes, little endian:
+ *   0  packed tool code        (int)
+ *   4  checkout epoch day      (int)
+ *   8  rental day count        (int)
+ *  12  discount basis points   (int)
+ *  16  chargable day count     (int)
+ *  20  reserved, always 0      (int)
+ *  24  daily rate in cents     (long)
+ *  32  pre-discount cents      (long)
+ *  40  discount amount cents   (long)
+ *  48  final charge cents      (long)
+ *  56  CRC32C of bytes 0 to 55 (int)
+ *  60  RECORD_MAGIC            (int)
+ */
+public class AgreementRecord {
+    // Size of a record in bytes
+    public static final int RECORD_SIZE = 64;
+
+    // Bytes covered by the checksum
+    static final int CHECKSUM_OFFSET = 56;
+
+    // Marks a written record, an unwritten part of a segment is all zeros
+    static final int RECORD_MAGIC = 0x31474152;
+
+    // Member variables
+    private final int thePackedToolCode;
+    private final int theCheckoutEpochDay;
+    private final int theRentalDayCount;
+    private final int theDiscountBasisPoints;
+    private final int theChargableDayCount;
+    private final long theDailyRateCents;
+    private final long theInitialPriceCents;
+    private final long theDiscountAmountCents;
+    private final long theFinalChargeCents;
+
+    /**
+     * Constructor, see fromAgreement and the AgreementJournal.
+     */
+    AgreementRecord(int packedToolCode, int checkoutEpochDay, int rentalDayCount, int discountBasisPoints, int chargableDayCount,
+                    long dailyRateCents, long initialPriceCents, long discountAmountCents, long finalChargeCents) {
+        thePackedToolCode = packedToolCode;
+        theCheckoutEpochDay = checkoutEpochDay;
+        theRentalDayCount = rentalDayCount;
+        theDiscountBasisPoints = discountBasisPoints;
+        theChargableDayCount = chargableDayCount;
+        theDailyRateCents = dailyRateCents;
+        theInitialPriceCents = initialPriceCents;
+        theDiscountAmountCents = discountAmountCents;
+        theFinalChargeCents = finalChargeCents;
+    }
+
+    /**
+     * Creates the record of an agreement.
+     *
+     * @param rentalAgreement: The agreement to record
+     *
+     * @return: The record
+     *
+     * @throws IllegalArgumentException if the tool code can't be packed or the checkout date is too far out.
+     */
+    public static AgreementRecord fromAgreement(RentalAgreement rentalAgreement) {
+        int packedToolCode = ToolCatalog.packToolCode(rentalAgreement.getTool().getToolCode());
+        if (packedToolCode == ToolCatalog.INVALID_PACKED_CODE) {
+            throw new IllegalArgumentException("Tool code '" + rentalAgreement.getTool().getToolCode() + "' can't be recorded.");
+        }
+
+        long checkoutEpochDay = rentalAgreement.getCheckoutDate().toEpochDay();
+        if ((int) checkoutEpochDay != checkoutEpochDay) {
+            throw new IllegalArgumentException(rentalAgreement.getCheckoutDate() + " is too far out to record.");
+        }
+
+        return new AgreementRecord(packedToolCode, (int) checkoutEpochDay, rentalAgreement.getRentalDayCount(),
+            rentalAgreement.getDiscountBasisPoints(), rentalAgreement.getChargableDayCount(), rentalAgreement.getTool().getDailyChargeRateCents(),
+            rentalAgreement.getInitialPriceCents(), rentalAgreement.getDiscountAmountCents(), rentalAgreement.getFinalChargeCents());
+    }
+
+    /**
+     * Writes the record, without the checksum and magic, at the buffer's position.
+     * The buffer needs to be little endian.
+     */
+    void writeFields(ByteBuffer buffer) {
+        buffer.putInt(thePackedToolCode);
+        buffer.putInt(theCheckoutEpochDay);
+        buffer.putInt(theRentalDayCount);
+        buffer.putInt(theDiscountBasisPoints);
+        buffer.putInt(theChargableDayCount);
+        buffer.putInt(0);
+        buffer.putLong(theDailyRateCents);
+        buffer.putLong(theInitialPriceCents);
+        buffer.putLong(theDiscountAmountCents);
+        buffer.putLong(theFinalChargeCents);
+    }
+
+    /**
+     * Reads a record written by writeFields from the start of a little endian buffer.
+     */
+    static AgreementRecord readFields(ByteBuffer buffer) {
+        return new AgreementRecord(buffer.getInt(0), buffer.getInt(4), buffer.getInt(8), buffer.getInt(12), buffer.getInt(16),
+            buffer.getLong(24), buffer.getLong(32), buffer.getLong(40), buffer.getLong(48));
+    }
+
+    /**
+     * Getters
+     */
+    public String getToolCode() { return ToolCatalog.unpackToolCode(thePackedToolCode); }
+    public int getPackedToolCode() { return thePackedToolCode; }
+    public LocalDate getCheckoutDate() { return LocalDate.ofEpochDay(theCheckoutEpochDay); }
+    public LocalDate getReturnDate() { return LocalDate.ofEpochDay((long) theCheckoutEpochDay + theRentalDayCount); }
+    public int getCheckoutEpochDay() { return theCheckoutEpochDay; }
+    public int getRentalDayCount() { return theRentalDayCount; }
+    public int getDiscountBasisPoints() { return theDiscountBasisPoints; }
+    public int getChargableDayCount() { return theChargableDayCount; }
+    public long getDailyRateCents() { return theDailyRateCents; }
+    public long getInitialPriceCents() { return theInitialPriceCents; }
+    public long getDiscountAmountCents() { return theDiscountAmountCents; }
+    public long getFinalChargeCents() { return theFinalChargeCents; }
+}
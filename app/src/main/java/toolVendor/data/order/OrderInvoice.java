@@ -0,0 +1,98 @@
+package toolVendor.data.order;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.inventory.Reservation;
+import toolVendor.util.CalendarUtility;
+import toolVendor.util.MoneyUtility;
+import toolVendor.util.RentalWindow;
+
+/**
+ * Combined invoice for an order: one rental agreement per line, each with its line discount, and the
+ * order discount taken off their total.
+ *
+ * Prices are kept in USD cents and the discount in basis points, see MoneyUtility.
+ */
+public class OrderInvoice {
+    // Member variables
+    private final RentalWindow theRentalWindow;
+    private final List<RentalAgreement> theLineAgreements;
+    private final List<Reservation> theReservations;
+    // The discount rate is a whole number e.g. 20 == 20%
+    private final double theOrderDiscount;
+    private final int theOrderDiscountBasisPoints;
+    private final long theSubtotalCents;
+    private final long theOrderDiscountAmountCents;
+
+    /**
+     * Constructor
+     *
+     * @param rentalWindow: The classified days every line is rented over
+     * @param lineAgreements: The agreement of each line, in order
+     * @param reservations: The unit held for each line, or null if stock isn't tracked
+     * @param orderDiscount: A discount percentage rate taken off the total of the lines
+     */
+    public OrderInvoice(RentalWindow rentalWindow, List<RentalAgreement> lineAgreements, List<Reservation> reservations, double orderDiscount) {
+        theRentalWindow = rentalWindow;
+        theLineAgreements = Collections.unmodifiableList(lineAgreements);
+        theReservations = reservations != null ? Collections.unmodifiableList(reservations) : null;
+        theOrderDiscount = orderDiscount;
+        theOrderDiscountBasisPoints = MoneyUtility.toBasisPoints(orderDiscount);
+
+        long subtotalCents = 0;
+        for (RentalAgreement lineAgreement : lineAgreements) {
+            subtotalCents = Math.addExact(subtotalCents, lineAgreement.getFinalChargeCents());
+        }
+        theSubtotalCents = subtotalCents;
+
+        // Calculate the cents off, rounded half up to the cent.
+        theOrderDiscountAmountCents = MoneyUtility.percentageOf(theSubtotalCents, theOrderDiscountBasisPoints);
+    }
+
+    /**
+     * Getters
+     */
+    public RentalWindow getRentalWindow() { return theRentalWindow; }
+    public LocalDate getCheckoutDate() { return theRentalWindow.getCheckoutDate(); }
+    public LocalDate getReturnDate() { return theRentalWindow.getReturnDate(); }
+    public int getRentalDayCount() { return theRentalWindow.getRentalDayCount(); }
+    public List<RentalAgreement> getLineAgreements() { return theLineAgreements; }
+    public List<Reservation> getReservations() { return theReservations; }
+    public double getOrderDiscount() { return theOrderDiscount; }
+    public int getOrderDiscountBasisPoints() { return theOrderDiscountBasisPoints; }
+    public long getSubtotalCents() { return theSubtotalCents; }
+    public long getOrderDiscountAmountCents() { return theOrderDiscountAmountCents; }
+    public long getFinalChargeCents() { return theSubtotalCents - theOrderDiscountAmountCents; }
+
+    /**
+     * Generates a string formatted to look like an invoice, one line per tool then the order totals.
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(128 + theLineAgreements.size() * 96);
+        builder.append("Checkout date: ").append(CalendarUtility.formatDate(getCheckoutDate())).append('\n');
+        builder.append("Due date: ").append(CalendarUtility.formatDate(getReturnDate())).append('\n');
+        builder.append("Rental days: ").append(getRentalDayCount()).append('\n');
+
+        for (int i = 0; i < theLineAgreements.size(); ++i) {
+            RentalAgreement lineAgreement = theLineAgreements.get(i);
+            builder.append("Line ").append(i + 1).append(": ")
+                   .append(lineAgreement.getTool().getToolCode()).append(' ')
+                   .append(lineAgreement.getTool().getToolTypeString()).append(' ')
+                   .append(lineAgreement.getTool().getToolBrandString()).append(", ")
+                   .append(lineAgreement.getChargableDayCount()).append(" charge days, $")
+                   .append(MoneyUtility.formatCents(lineAgreement.getInitialPriceCents())).append(" less ")
+                   .append(MoneyUtility.formatPercent(lineAgreement.getDiscountBasisPoints())).append("% is $")
+                   .append(MoneyUtility.formatCents(lineAgreement.getFinalChargeCents())).append('\n');
+        }
+
+        builder.append("Subtotal: $").append(MoneyUtility.formatCents(theSubtotalCents)).append('\n');
+        builder.append("Order discount percent: ").append(MoneyUtility.formatPercent(theOrderDiscountBasisPoints)).append("%\n");
+        builder.append("Order discount amount: $").append(MoneyUtility.formatCents(theOrderDiscountAmountCents)).append('\n');
+        builder.append("Final Charge: $").append(MoneyUtility.formatCents(getFinalChargeCents()));
+        return builder.toString();
+    }
+}
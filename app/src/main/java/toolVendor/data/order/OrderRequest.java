@@ -0,0 +1,129 @@
+package toolVendor.data.order;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Model for an order renting several tools over the same days, see ToolVendor.checkoutOrder.
+ *
+ * Each line rents one tool and can have its own discount, and the order discount comes off the
+ * total of the discounted lines.
+ */
+public class OrderRequest {
+    // Member variables
+    // Only one of the checkout date forms is set
+    private final String theCheckoutDateString;
+    private final LocalDate theCheckoutDate;
+    private final int theRentalDayCount;
+    // The discount rates are whole numbers e.g. 20 == 20%
+    private final double theOrderDiscount;
+    private final List<Line> theLines;
+
+    /**
+     * One tool rented in an order.
+     */
+    public static class Line {
+        private final String theToolCode;
+        private final double theDiscount;
+
+        /**
+         * Constructor
+         *
+         * @param toolCode: A code matching to a tool to checkout
+         * @param discount: A discount percentage rate for the line
+         */
+        public Line(String toolCode, double discount) {
+            theToolCode = toolCode;
+            theDiscount = discount;
+        }
+
+        /**
+         * Getters
+         */
+        public String getToolCode() { return theToolCode; }
+        public double getDiscount() { return theDiscount; }
+    }
+
+    /**
+     * Collects the parameters and lines of an order.
+     */
+    public static class Builder {
+        private String theCheckoutDateString = null;
+        private LocalDate theCheckoutDate = null;
+        private int theRentalDayCount = 0;
+        private double theOrderDiscount = 0.0;
+        private final List<Line> theLines = new ArrayList<>();
+
+        /**
+         * Setters, each returning the builder. Setting either checkout date form clears the other.
+         */
+        public Builder setCheckoutDate(String checkoutDateString) { theCheckoutDateString = checkoutDateString; theCheckoutDate = null; return this; }
+        public Builder setCheckoutDate(LocalDate checkoutDate) { theCheckoutDate = checkoutDate; theCheckoutDateString = null; return this; }
+        public Builder setRentalDayCount(int rentalDayCount) { theRentalDayCount = rentalDayCount; return this; }
+        public Builder setOrderDiscount(double orderDiscount) { theOrderDiscount = orderDiscount; return this; }
+
+        /**
+         * Adds a tool to the order without a line discount.
+         *
+         * @param toolCode: A code matching to a tool to checkout
+         *
+         * @return: The builder
+         */
+        public Builder addLine(String toolCode) {
+            return addLine(toolCode, 0.0);
+        }
+
+        /**
+         * Adds a tool to the order.
+         *
+         * @param toolCode: A code matching to a tool to checkout
+         * @param discount: A discount percentage rate for the line
+         *
+         * @return: The builder
+         */
+        public Builder addLine(String toolCode, double discount) {
+            theLines.add(new Line(toolCode, discount));
+            return this;
+        }
+
+        /**
+         * Builds the order. The parameters are checked when it's checked out.
+         *
+         * @return: The order
+         */
+        public OrderRequest build() {
+            return new OrderRequest(theCheckoutDateString, theCheckoutDate, theRentalDayCount, theOrderDiscount, new ArrayList<>(theLines));
+        }
+    }
+
+    /**
+     * Creates a builder for an order.
+     *
+     * @return: An empty Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Constructor, see Builder.
+     */
+    private OrderRequest(String checkoutDateString, LocalDate checkoutDate, int rentalDayCount, double orderDiscount, List<Line> lines) {
+        theCheckoutDateString = checkoutDateString;
+        theCheckoutDate = checkoutDate;
+        theRentalDayCount = rentalDayCount;
+        theOrderDiscount = orderDiscount;
+        theLines = Collections.unmodifiableList(lines);
+    }
+
+    /**
+     * Getters
+     */
+    public String getCheckoutDateString() { return theCheckoutDateString; }
+    public LocalDate getCheckoutDate() { return theCheckoutDate; }
+    public int getRentalDayCount() { return theRentalDayCount; }
+    public double getOrderDiscount() { return theOrderDiscount; }
+    public List<Line> getLines() { return theLines; }
+}
@@ -0,0 +1,69 @@
+package toolVendor.data.order;
+
+import java.util.function.Supplier;
+
+import toolVendor.data.checkout.CheckoutErrorCode;
+
+/**
+ * Outcome of an order: either the invoice or why the order was rejected, and which line it was rejected for.
+ *
+ * Orders go through whole or not at all, so a rejected order holds no units and records no agreements.
+ */
+public class OrderResult {
+    // Member variables, either the invoice or the error code and message are set
+    private final OrderInvoice theInvoice;
+    private final CheckoutErrorCode theErrorCode;
+    private final int theErrorLineIndex;
+    private final Supplier<String> theErrorMessageSupplier;
+
+    /**
+     * Constructor, see the success and failure factories.
+     */
+    private OrderResult(OrderInvoice invoice, CheckoutErrorCode errorCode, int errorLineIndex, Supplier<String> errorMessageSupplier) {
+        theInvoice = invoice;
+        theErrorCode = errorCode;
+        theErrorLineIndex = errorLineIndex;
+        theErrorMessageSupplier = errorMessageSupplier;
+    }
+
+    /**
+     * Creates the result of an order that went through.
+     *
+     * @param invoice: The invoice of the order
+     *
+     * @return: A successful result
+     */
+    public static OrderResult success(OrderInvoice invoice) {
+        return new OrderResult(invoice, null, -1, null);
+    }
+
+    /**
+     * Creates the result of a rejected order.
+     *
+     * @param errorCode: Why the order was rejected
+     * @param errorLineIndex: The index of the line rejected, or -1 if the order as a whole was
+     * @param errorMessageSupplier: Describes the rejection when asked
+     *
+     * @return: A failed result
+     */
+    public static OrderResult failure(CheckoutErrorCode errorCode, int errorLineIndex, Supplier<String> errorMessageSupplier) {
+        return new OrderResult(null, errorCode, errorLineIndex, errorMessageSupplier);
+    }
+
+    /**
+     * Gets the message describing why the order was rejected.
+     *
+     * @return: The message, or null if the order went through.
+     */
+    public String getErrorMessage() {
+        return theErrorMessageSupplier != null ? theErrorMessageSupplier.get() : null;
+    }
+
+    /**
+     * Getters
+     */
+    public boolean isSuccess() { return theInvoice != null; }
+    public OrderInvoice getInvoice() { return theInvoice; }
+    public CheckoutErrorCode getErrorCode() { return theErrorCode; }
+    public int getErrorLineIndex() { return theErrorLineIndex; }
+}
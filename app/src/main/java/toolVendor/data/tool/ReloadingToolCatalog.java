@@ -0,0 +1,127 @@
+package toolVendor.data.tool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Supplies the tool catalog loaded from a file, reloading it when the file changes.
+ *
+ * The current catalog is held in a volatile field and replaced in one write once a new catalog is fully
+ * built, so callers asking for the catalog never wait on a reload and always see a complete catalog.
+ * When a reload fails the previous catalog stays in use and the error is kept for getLastReloadError.
+ */
+public class ReloadingToolCatalog implements Supplier<ToolCatalog>, AutoCloseable {
+    // The file the catalog comes from
+    private final Path theCatalogFile;
+
+    // The catalog currently handed out
+    private volatile ToolCatalog theToolCatalog;
+
+    // The last reload error, null when the last reload worked
+    private volatile IOException theLastReloadError = null;
+
+    // What the file looked like at the last load, to spot changes
+    private long theLoadedModifiedTime;
+    private long theLoadedFileSize;
+
+    // Polls the file when watching
+    private ScheduledExecutorService theWatchExecutor = null;
+
+    /**
+     * Constructor, loads the catalog right away.
+     *
+     * @param catalogFile: The CSV or binary catalog file, see ToolCatalogLoader
+     *
+     * @throws IOException if the initial catalog can't be loaded.
+     */
+    public ReloadingToolCatalog(Path catalogFile) throws IOException {
+        theCatalogFile = catalogFile;
+
+        BasicFileAttributes attributes = Files.readAttributes(catalogFile, BasicFileAttributes.class);
+        theToolCatalog = ToolCatalogLoader.load(catalogFile);
+        theLoadedModifiedTime = attributes.lastModifiedTime().toMillis();
+        theLoadedFileSize = attributes.size();
+    }
+
+    /**
+     * Gets the current catalog.
+     *
+     * @return: The most recently loaded catalog
+     */
+    @Override
+    public ToolCatalog get() {
+        return theToolCatalog;
+    }
+
+    /**
+     * Reloads the catalog if the file changed since the last load.
+     *
+     * @return: True if a new catalog was swapped in.
+     */
+    public synchronized boolean checkForChanges() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(theCatalogFile, BasicFileAttributes.class);
+            long modifiedTime = attributes.lastModifiedTime().toMillis();
+            long fileSize = attributes.size();
+
+            if (modifiedTime == theLoadedModifiedTime && fileSize == theLoadedFileSize) {
+                return false;
+            }
+
+            // Build the new catalog completely before handing it out
+            ToolCatalog reloadedCatalog = ToolCatalogLoader.load(theCatalogFile);
+            theToolCatalog = reloadedCatalog;
+            theLoadedModifiedTime = modifiedTime;
+            theLoadedFileSize = fileSize;
+            theLastReloadError = null;
+            return true;
+        }
+        catch (IOException e) {
+            // Keep serving the previous catalog
+            theLastReloadError = e;
+            return false;
+        }
+    }
+
+    /**
+     * Starts checking the file for changes on a background thread.
+     *
+     * @param period: Time between checks
+     * @param unit: Unit of the period
+     */
+    public synchronized void startWatching(long period, TimeUnit unit) {
+        if (theWatchExecutor != null) {
+            return;
+        }
+
+        theWatchExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread watchThread = new Thread(runnable, "tool-catalog-reload");
+            watchThread.setDaemon(true);
+            return watchThread;
+        });
+        theWatchExecutor.scheduleWithFixedDelay(this::checkForChanges, period, period, unit);
+    }
+
+    /**
+     * Stops checking the file for changes.
+     */
+    @Override
+    public synchronized void close() {
+        if (theWatchExecutor != null) {
+            theWatchExecutor.shutdownNow();
+            theWatchExecutor = null;
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public Path getCatalogFile() { return theCatalogFile; }
+    public IOException getLastReloadError() { return theLastReloadError; }
+}
@@ -2,8 +2,12 @@ package toolVendor.data.tool;
 
 import java.util.Locale;
 
+import toolVendor.util.MoneyUtility;
+
 /**
  * Model Class for Tool objects
+ * 
+ * Tools are immutable, so a single instance per tool code can be shared, see ToolCatalog.
  */
 public class Tool {
     /**
@@ -11,66 +15,98 @@ public class Tool {
      */
 
     // Character code denoting the tool to checkout 
-    private String theToolCode = "";
+    private final String theToolCode;
 
     // Enumerations to check the Tool's type and brand
-    private ToolType theToolType = ToolType.NONE; 
-    private ToolBrand theToolBrand = ToolBrand.NONE;
+    private final ToolType theToolType; 
+    private final ToolBrand theToolBrand;
     
-    // The tool's charge rate in USD.
-    private double theDailyChargeRate = 0.0;
+    // The tool's charge rate in USD cents.
+    private final long theDailyChargeRateCents;
 
     // Flags indicating when to apply the charge.
-    // Set the weekday charge flag to true by default
-    // because all tools, at least for now, have a rate during the weekday. 
-    private boolean theApplyWeekdayChargeFlag = true;
-    private boolean theApplyWeekendChargeFlag = false;
-    private boolean theApplyHolidayChargeFlag = false;
+    private final boolean theApplyWeekdayChargeFlag;
+    private final boolean theApplyWeekendChargeFlag;
+    private final boolean theApplyHolidayChargeFlag;
 
     /**
      * Tool Constructor 
      */
     public Tool(String code) { 
+        // Sanity check input, else leave the code as empty string.
+        String toolCode = code != null ? code.toUpperCase(Locale.getDefault()) : "";
 
-        // Sanity check input
-        if (code != null) {
-            // Set the code
-            theToolCode = code.toUpperCase(Locale.getDefault());    
-        }
-        // else leave the code as empty string.
+        ToolType toolType = ToolType.NONE;
+        ToolBrand toolBrand = ToolBrand.NONE;
+        long dailyChargeRateCents = 0;
+
+        // Set the weekday charge flag to true by default
+        // because all tools, at least for now, have a rate during the weekday. 
+        boolean applyWeekendChargeFlag = false;
+        boolean applyHolidayChargeFlag = false;
 
         // Fill out remaining fields based on the tool code.
-        switch (theToolCode) {
+        switch (toolCode) {
             case "CHNS":
-                theToolType = ToolType.CHAINSAW;
-                theToolBrand = ToolBrand.STIHL;
-                theDailyChargeRate = 1.49;
+                toolType = ToolType.CHAINSAW;
+                toolBrand = ToolBrand.STIHL;
+                dailyChargeRateCents = 149;
                 // Chainsaws currently charge on Weekdays and Holidays
-                theApplyHolidayChargeFlag = true;
+                applyHolidayChargeFlag = true;
                 break;
             case "LADW":
-                theToolType = ToolType.LADDER;
-                theToolBrand = ToolBrand.WERNER;
-                theDailyChargeRate = 1.99;
+                toolType = ToolType.LADDER;
+                toolBrand = ToolBrand.WERNER;
+                dailyChargeRateCents = 199;
                 // Ladders currently charge on Weekdays and Weekends
-                theApplyWeekendChargeFlag = true;
+                applyWeekendChargeFlag = true;
                 break;
             case "JAKD":
-                theToolType = ToolType.JACKHAMMER;
-                theToolBrand = ToolBrand.DEWALT;
-                theDailyChargeRate = 2.99;
+                toolType = ToolType.JACKHAMMER;
+                toolBrand = ToolBrand.DEWALT;
+                dailyChargeRateCents = 299;
                 // Jackhammers don't have weekend or holiday charge rates
                 break;
             case "JAKR":
-                theToolType = ToolType.JACKHAMMER;
-                theToolBrand = ToolBrand.RIDGID;
-                theDailyChargeRate = 2.99;
+                toolType = ToolType.JACKHAMMER;
+                toolBrand = ToolBrand.RIDGID;
+                dailyChargeRateCents = 299;
                 // Jackhammers don't have weekend or holiday charge rates
                 break;
             default:
                 // Do nothing
                 break;
         }
+
+        theToolCode = toolCode;
+        theToolType = toolType;
+        theToolBrand = toolBrand;
+        theDailyChargeRateCents = dailyChargeRateCents;
+        theApplyWeekdayChargeFlag = true;
+        theApplyWeekendChargeFlag = applyWeekendChargeFlag;
+        theApplyHolidayChargeFlag = applyHolidayChargeFlag;
+    }
+
+    /**
+     * Tool Constructor taking every field, for tools defined outside of the code.
+     * 
+     * @param code: Character code denoting the tool, stored as given
+     * @param toolType: The tool's type
+     * @param toolBrand: The tool's brand
+     * @param dailyChargeRateCents: The tool's charge rate in USD cents
+     * @param applyWeekdayCharge: True if the tool charges on weekdays
+     * @param applyWeekendCharge: True if the tool charges on weekends
+     * @param applyHolidayCharge: True if the tool charges on holidays
+     */
+    public Tool(String code, ToolType toolType, ToolBrand toolBrand, long dailyChargeRateCents,
+                boolean applyWeekdayCharge, boolean applyWeekendCharge, boolean applyHolidayCharge) {
+        theToolCode = code != null ? code : "";
+        theToolType = toolType != null ? toolType : ToolType.NONE;
+        theToolBrand = toolBrand != null ? toolBrand : ToolBrand.NONE;
+        theDailyChargeRateCents = dailyChargeRateCents;
+        theApplyWeekdayChargeFlag = applyWeekdayCharge;
+        theApplyWeekendChargeFlag = applyWeekendCharge;
+        theApplyHolidayChargeFlag = applyHolidayCharge;
     }
 
     /**
@@ -84,11 +120,21 @@ public class Tool {
             this.theToolCode = toolToCopy.theToolCode;
             this.theToolType = toolToCopy.theToolType;
             this.theToolBrand = toolToCopy.theToolBrand;
-            this.theDailyChargeRate = toolToCopy.theDailyChargeRate;
+            this.theDailyChargeRateCents = toolToCopy.theDailyChargeRateCents;
             this.theApplyHolidayChargeFlag = toolToCopy.theApplyHolidayChargeFlag;
             this.theApplyWeekdayChargeFlag = toolToCopy.theApplyWeekdayChargeFlag;
             this.theApplyWeekendChargeFlag = toolToCopy.theApplyWeekendChargeFlag;
         }
+        else {
+            // Same as an unknown tool code
+            this.theToolCode = "";
+            this.theToolType = ToolType.NONE;
+            this.theToolBrand = ToolBrand.NONE;
+            this.theDailyChargeRateCents = 0;
+            this.theApplyHolidayChargeFlag = false;
+            this.theApplyWeekdayChargeFlag = true;
+            this.theApplyWeekendChargeFlag = false;
+        }
     }
 
     /**
@@ -97,7 +143,8 @@ public class Tool {
     public String getToolCode() { return theToolCode; }
     public ToolType getToolType() { return theToolType; }
     public ToolBrand getToolBrand() { return theToolBrand; }
-    public double getDailyChargeRate() { return theDailyChargeRate; }
+    public double getDailyChargeRate() { return MoneyUtility.toDollars(theDailyChargeRateCents); }
+    public long getDailyChargeRateCents() { return theDailyChargeRateCents; }
     public boolean doWeekdayRatesApply() { return theApplyWeekdayChargeFlag; }
     public boolean doWeekendRatesApply() { return theApplyWeekendChargeFlag; }
     public boolean doHolidayRatesApply() { return theApplyHolidayChargeFlag; }
@@ -0,0 +1,187 @@
+package toolVendor.data.tool;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable catalog holding one shared Tool per tool code.
+ *
+ * Tool codes are up to 4 ASCII letters or digits. Each code is packed into an int, folding lower case
+ * letters to upper case as it goes, and looked up in an open addressed table. A lookup doesn't allocate
+ * and doesn't depend on the default Locale.
+ */
+public class ToolCatalog {
+    // Longest tool code that fits in a packed int
+    public static final int MAX_TOOL_CODE_LENGTH = 4;
+
+    // Packed code returned for codes that can't be in a catalog. Never used by a valid code.
+    public static final int INVALID_PACKED_CODE = 0;
+
+    // The catalog with the tools known to the Tool constructor
+    private static final ToolCatalog theDefaultCatalog = new ToolCatalog(Arrays.asList(
+        new Tool("CHNS"),
+        new Tool("LADW"),
+        new Tool("JAKD"),
+        new Tool("JAKR")
+    ));
+
+    // Open addressed table, an empty slot has a key of INVALID_PACKED_CODE
+    private final int[] thePackedCodes;
+    private final Tool[] theTools;
+    private final int theSlotMask;
+
+    // The tools in the order given
+    private final List<Tool> theToolList;
+
+    /**
+     * Constructor
+     *
+     * @param tools: The tools to put in the catalog
+     *
+     * @throws IllegalArgumentException if a tool code is invalid or shows up twice.
+     */
+    public ToolCatalog(Collection<Tool> tools) {
+        // Size the table to at most half full
+        int slotCount = Integer.highestOneBit(Math.max(tools.size(), 1) * 2 - 1) << 1;
+        thePackedCodes = new int[slotCount];
+        theTools = new Tool[slotCount];
+        theSlotMask = slotCount - 1;
+
+        for (Tool tool : tools) {
+            int packedCode = packToolCode(tool.getToolCode());
+            if (packedCode == INVALID_PACKED_CODE) {
+                throw new IllegalArgumentException("Tool code '" + tool.getToolCode() + "' is invalid. Tool codes are 1 to 4 letters or digits.");
+            }
+
+            // Find the open slot
+            int slot = getHomeSlot(packedCode);
+            while (thePackedCodes[slot] != INVALID_PACKED_CODE) {
+                if (thePackedCodes[slot] == packedCode) {
+                    throw new IllegalArgumentException("Tool code '" + tool.getToolCode() + "' is in the catalog more than once.");
+                }
+                slot = (slot + 1) & theSlotMask;
+            }
+
+            thePackedCodes[slot] = packedCode;
+            theTools[slot] = tool;
+        }
+
+        theToolList = Collections.unmodifiableList(new ArrayList<>(tools));
+    }
+
+    /**
+     * Gets the catalog with the built in tools.
+     *
+     * @return: The default catalog
+     */
+    public static ToolCatalog getDefaultCatalog() { return theDefaultCatalog; }
+
+    /**
+     * Looks up a tool by code, ignoring the case of the code.
+     *
+     * @param toolCode: The code of the tool
+     *
+     * @return: The shared Tool for the code, or null if the code isn't in the catalog.
+     */
+    public Tool getTool(CharSequence toolCode) {
+        return getTool(packToolCode(toolCode));
+    }
+
+    /**
+     * Looks up a tool by packed code.
+     *
+     * @param packedCode: The code of the tool, packed by packToolCode
+     *
+     * @return: The shared Tool for the code, or null if the code isn't in the catalog.
+     */
+    public Tool getTool(int packedCode) {
+        if (packedCode == INVALID_PACKED_CODE) {
+            return null;
+        }
+
+        int slot = getHomeSlot(packedCode);
+        while (thePackedCodes[slot] != INVALID_PACKED_CODE) {
+            if (thePackedCodes[slot] == packedCode) {
+                return theTools[slot];
+            }
+            slot = (slot + 1) & theSlotMask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Getters
+     */
+    public int size() { return theToolList.size(); }
+    public List<Tool> getTools() { return theToolList; }
+
+    /**
+     * Packs a tool code into an int, one byte per character, with lower case letters folded to upper case.
+     *
+     * @param toolCode: The code to pack
+     *
+     * @return: The packed code, or INVALID_PACKED_CODE if the code is null, empty, too long, or has
+     *          characters other than ASCII letters and digits.
+     */
+    public static int packToolCode(CharSequence toolCode) {
+        if (toolCode == null) {
+            return INVALID_PACKED_CODE;
+        }
+
+        int length = toolCode.length();
+        if (length == 0 || length > MAX_TOOL_CODE_LENGTH) {
+            return INVALID_PACKED_CODE;
+        }
+
+        int packedCode = 0;
+        for (int i = 0; i < length; ++i) {
+            char character = toolCode.charAt(i);
+
+            if (character >= 'a' && character <= 'z') {
+                // Fold to upper case
+                character -= 'a' - 'A';
+            }
+            else if (!(character >= 'A' && character <= 'Z') && !(character >= '0' && character <= '9')) {
+                return INVALID_PACKED_CODE;
+            }
+
+            packedCode = (packedCode << 8) | character;
+        }
+
+        return packedCode;
+    }
+
+    /**
+     * Turns a packed code back into the (upper case) tool code.
+     *
+     * @param packedCode: The code packed by packToolCode
+     *
+     * @return: The tool code
+     */
+    public static String unpackToolCode(int packedCode) {
+        char[] characters = new char[MAX_TOOL_CODE_LENGTH];
+        int length = 0;
+
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            char character = (char) ((packedCode >>> shift) & 0xFF);
+            if (character != 0) {
+                characters[length++] = character;
+            }
+        }
+
+        return new String(characters, 0, length);
+    }
+
+    /**
+     * Helper method to get the first slot to look at for a packed code.
+     */
+    private int getHomeSlot(int packedCode) {
+        // Spread the bits of the code so neighbouring codes don't collide
+        int hash = packedCode * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & theSlotMask;
+    }
+}
@@ -0,0 +1,354 @@
+package toolVendor.data.tool;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Loads tool catalogs from files so inventory can change without a redeploy.
+ *
+ * Two formats are supported:
+ *  - CSV, one tool per line: code,type,brand,dailyRate,weekday,weekend,holiday
+ *    e.g. "LADW,LADDER,WERNER,1.99,true,true,false". Blank lines, lines starting with '#',
+ *    and a header line starting with "code,type" are skipped.
+ *  - A compact binary form written by writeBinary, which is memory mapped when loaded so large
+ *    catalogs start quickly. The header carries the names of the types and brands and records
+ *    refer to them by their place in the header, so reordering the enumerations doesn't change
+ *    what an existing file means.
+ *
+ * Types and brands are the names of the ToolType and ToolBrand enumerations, so a new type or brand
+ * still needs a code change.
+ */
+public class ToolCatalogLoader {
+    // Binary header: magic, version, record size, record count, name table size in bytes
+    public static final int BINARY_MAGIC = 0x54434154; // "TCAT"
+    public static final short BINARY_VERSION = 2;
+    public static final int BINARY_HEADER_SIZE = 16;
+
+    // Binary name table after the header: type count, type names, brand count, brand names.
+    // Counts are one byte, names are a one byte length then the name in ASCII.
+    // Version 1 had no name table and stored enumeration ordinals, it isn't read anymore.
+
+    // Binary record after the name table: packed code, type index, brand index, charge flags, padding, daily rate in cents
+    public static final short BINARY_RECORD_SIZE = 16;
+
+    // Charge flag bits of a binary record
+    private static final int WEEKDAY_FLAG = 1;
+    private static final int WEEKEND_FLAG = 2;
+    private static final int HOLIDAY_FLAG = 4;
+
+    // Number of fields on a CSV line
+    private static final int CSV_FIELD_COUNT = 7;
+
+    /**
+     * Loads a catalog, telling the formats apart by the binary magic number.
+     *
+     * @param catalogFile: The file to load
+     *
+     * @return: The loaded catalog
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static ToolCatalog load(Path catalogFile) throws IOException {
+        if (isBinaryCatalog(catalogFile)) {
+            return loadBinary(catalogFile);
+        }
+        return loadCsv(catalogFile);
+    }
+
+    /**
+     * Loads a catalog from a CSV file.
+     *
+     * @param catalogFile: The CSV file to load
+     *
+     * @return: The loaded catalog
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static ToolCatalog loadCsv(Path catalogFile) throws IOException {
+        List<Tool> tools = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(catalogFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                // Skip blank lines, comments, and the header
+                if (line.isEmpty() || line.startsWith("#") || line.regionMatches(true, 0, "code,type", 0, 9)) {
+                    continue;
+                }
+
+                tools.add(parseCsvLine(line, lineNumber, catalogFile));
+            }
+        }
+
+        return createCatalog(tools, catalogFile);
+    }
+
+    /**
+     * Loads a catalog from the binary form by memory mapping the file.
+     *
+     * @param catalogFile: The binary file to load
+     *
+     * @return: The loaded catalog
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static ToolCatalog loadBinary(Path catalogFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(catalogFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.BIG_ENDIAN);
+
+            // Check the header
+            if (buffer.remaining() < BINARY_HEADER_SIZE || buffer.getInt(0) != BINARY_MAGIC) {
+                throw new IOException(catalogFile + " is not a binary tool catalog.");
+            }
+            short version = buffer.getShort(4);
+            short recordSize = buffer.getShort(6);
+            int recordCount = buffer.getInt(8);
+            int nameTableSize = buffer.getInt(12);
+            if (version != BINARY_VERSION || recordSize != BINARY_RECORD_SIZE) {
+                throw new IOException(catalogFile + " has unsupported version " + version + " or record size " + recordSize + ". Please write it again with writeBinary.");
+            }
+            if (recordCount < 0 || nameTableSize < 0 || (long) recordCount * recordSize + nameTableSize > buffer.capacity() - BINARY_HEADER_SIZE) {
+                throw new IOException(catalogFile + " is truncated.");
+            }
+
+            // Match the names in the file to the enumerations, names that aren't known are null
+            buffer.position(BINARY_HEADER_SIZE);
+            buffer.limit(BINARY_HEADER_SIZE + nameTableSize);
+            String[] typeNames = readNames(buffer, catalogFile);
+            String[] brandNames = readNames(buffer, catalogFile);
+            buffer.clear();
+            ToolType[] toolTypes = new ToolType[typeNames.length];
+            for (int i = 0; i < typeNames.length; ++i) {
+                toolTypes[i] = findConstant(ToolType.class, typeNames[i]);
+            }
+            ToolBrand[] toolBrands = new ToolBrand[brandNames.length];
+            for (int i = 0; i < brandNames.length; ++i) {
+                toolBrands[i] = findConstant(ToolBrand.class, brandNames[i]);
+            }
+
+            int recordStart = BINARY_HEADER_SIZE + nameTableSize;
+            List<Tool> tools = new ArrayList<>(recordCount);
+
+            for (int i = 0; i < recordCount; ++i) {
+                int offset = recordStart + i * recordSize;
+                int packedCode = buffer.getInt(offset);
+                int typeIndex = buffer.get(offset + 4) & 0xFF;
+                int brandIndex = buffer.get(offset + 5) & 0xFF;
+                int chargeFlags = buffer.get(offset + 6);
+                long dailyRateCents = buffer.getLong(offset + 8);
+
+                if (typeIndex >= toolTypes.length || brandIndex >= toolBrands.length) {
+                    throw new IOException(catalogFile + " has a type or brand outside of its name table in record " + i + ".");
+                }
+                if (toolTypes[typeIndex] == null || toolBrands[brandIndex] == null) {
+                    throw new IOException(catalogFile + " has unknown type " + typeNames[typeIndex] + " or brand " + brandNames[brandIndex] + " in record " + i + ".");
+                }
+
+                tools.add(new Tool(ToolCatalog.unpackToolCode(packedCode),
+                                   toolTypes[typeIndex],
+                                   toolBrands[brandIndex],
+                                   dailyRateCents,
+                                   (chargeFlags & WEEKDAY_FLAG) != 0,
+                                   (chargeFlags & WEEKEND_FLAG) != 0,
+                                   (chargeFlags & HOLIDAY_FLAG) != 0));
+            }
+
+            return createCatalog(tools, catalogFile);
+        }
+    }
+
+    /**
+     * Writes a catalog in the binary form.
+     *
+     * The catalog is written to a temporary file next to the target and moved over it, so a
+     * ReloadingToolCatalog watching the target never sees a half written file.
+     *
+     * @param toolCatalog: The catalog to write
+     * @param catalogFile: The file to write to, replaced if it exists
+     *
+     * @throws IOException if the file can't be written.
+     */
+    public static void writeBinary(ToolCatalog toolCatalog, Path catalogFile) throws IOException {
+        List<Tool> tools = toolCatalog.getTools();
+        ToolType[] toolTypes = ToolType.values();
+        ToolBrand[] toolBrands = ToolBrand.values();
+        int nameTableSize = getNameTableSize(toolTypes) + getNameTableSize(toolBrands);
+        ByteBuffer buffer = ByteBuffer.allocate(BINARY_HEADER_SIZE + nameTableSize + tools.size() * BINARY_RECORD_SIZE);
+
+        // Header
+        buffer.putInt(BINARY_MAGIC);
+        buffer.putShort(BINARY_VERSION);
+        buffer.putShort(BINARY_RECORD_SIZE);
+        buffer.putInt(tools.size());
+        buffer.putInt(nameTableSize);
+
+        // Name table, records refer to these by ordinal as they're written
+        writeNames(buffer, toolTypes);
+        writeNames(buffer, toolBrands);
+
+        // Records
+        for (Tool tool : tools) {
+            int chargeFlags = (tool.doWeekdayRatesApply() ? WEEKDAY_FLAG : 0) |
+                              (tool.doWeekendRatesApply() ? WEEKEND_FLAG : 0) |
+                              (tool.doHolidayRatesApply() ? HOLIDAY_FLAG : 0);
+
+            buffer.putInt(ToolCatalog.packToolCode(tool.getToolCode()));
+            buffer.put((byte) tool.getToolType().ordinal());
+            buffer.put((byte) tool.getToolBrand().ordinal());
+            buffer.put((byte) chargeFlags);
+            buffer.put((byte) 0);
+            buffer.putLong(tool.getDailyChargeRateCents());
+        }
+
+        buffer.flip();
+        Path absoluteCatalogFile = catalogFile.toAbsolutePath();
+        Path temporaryFile = Files.createTempFile(absoluteCatalogFile.getParent(), absoluteCatalogFile.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temporaryFile, absoluteCatalogFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Helper method to get the size of the names of an enumeration in the name table.
+     */
+    private static int getNameTableSize(Enum<?>[] constants) {
+        int size = 1;
+        for (Enum<?> constant : constants) {
+            size += 1 + constant.name().length();
+        }
+        return size;
+    }
+
+    /**
+     * Helper method to write the names of an enumeration to the name table.
+     */
+    private static void writeNames(ByteBuffer buffer, Enum<?>[] constants) {
+        buffer.put((byte) constants.length);
+        for (Enum<?> constant : constants) {
+            byte[] name = constant.name().getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) name.length);
+            buffer.put(name);
+        }
+    }
+
+    /**
+     * Helper method to read one list of names from the name table.
+     */
+    private static String[] readNames(ByteBuffer buffer, Path catalogFile) throws IOException {
+        try {
+            String[] names = new String[buffer.get() & 0xFF];
+            for (int i = 0; i < names.length; ++i) {
+                byte[] name = new byte[buffer.get() & 0xFF];
+                buffer.get(name);
+                names[i] = new String(name, StandardCharsets.US_ASCII);
+            }
+            return names;
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException(catalogFile + " has a truncated name table.", e);
+        }
+    }
+
+    /**
+     * Helper method to find the constant of an enumeration by name, null if there's none.
+     */
+    private static <E extends Enum<E>> E findConstant(Class<E> enumClass, String name) {
+        try {
+            return Enum.valueOf(enumClass, name);
+        }
+        catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Helper method to check for the binary magic number at the start of a file.
+     */
+    private static boolean isBinaryCatalog(Path catalogFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(catalogFile, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until the magic is filled or the file ends
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == BINARY_MAGIC;
+        }
+    }
+
+    /**
+     * Helper method to turn one CSV line into a tool.
+     */
+    private static Tool parseCsvLine(String line, int lineNumber, Path catalogFile) throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != CSV_FIELD_COUNT) {
+            throw new IOException(String.format("%s line %d: expected %d fields but found %d.", catalogFile, lineNumber, CSV_FIELD_COUNT, fields.length));
+        }
+
+        try {
+            return new Tool(fields[0].trim().toUpperCase(Locale.ROOT),
+                            ToolType.valueOf(fields[1].trim().toUpperCase(Locale.ROOT)),
+                            ToolBrand.valueOf(fields[2].trim().toUpperCase(Locale.ROOT)),
+                            MoneyUtility.parseCents(fields[3]),
+                            parseFlag(fields[4]),
+                            parseFlag(fields[5]),
+                            parseFlag(fields[6]));
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException(String.format("%s line %d: %s", catalogFile, lineNumber, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Helper method to parse a true/false charge flag.
+     */
+    private static boolean parseFlag(String field) {
+        String flag = field.trim();
+
+        if (flag.equalsIgnoreCase("true")) {
+            return true;
+        }
+        else if (flag.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Charge flag '" + flag + "' should be true or false.");
+    }
+
+    /**
+     * Helper method to build the catalog, reporting bad codes as a malformed file.
+     */
+    private static ToolCatalog createCatalog(List<Tool> tools, Path catalogFile) throws IOException {
+        try {
+            return new ToolCatalog(tools);
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException(catalogFile + ": " + e.getMessage(), e);
+        }
+    }
+}
@@ -7,5 +7,16 @@ package toolVendor.exceptions;
 public class DiscountOutOfBoundsException extends RuntimeException {
     public DiscountOutOfBoundsException(String errorMsgString){
         super(errorMsgString);
-    }   
-}
\ No newline at end of file
+    }
+
+    /**
+     * Constructor that can skip filling in the stack trace, which is most of the cost of
+     * throwing when a lot of bad requests come in.
+     *
+     * @param errorMsgString: The error message
+     * @param fillStackTrace: False to leave the stack trace empty
+     */
+    public DiscountOutOfBoundsException(String errorMsgString, boolean fillStackTrace){
+        super(errorMsgString, null, true, fillStackTrace);
+    }
+}
\ No newline at end of file
@@ -6,5 +6,16 @@ package toolVendor.exceptions;
 public class InvalidRentalDayException extends RuntimeException {
     public InvalidRentalDayException(String errorMsgString){
         super(errorMsgString);
-    }   
+    }
+
+    /**
+     * Constructor that can skip filling in the stack trace, which is most of the cost of
+     * throwing when a lot of bad requests come in.
+     *
+     * @param errorMsgString: The error message
+     * @param fillStackTrace: False to leave the stack trace empty
+     */
+    public InvalidRentalDayException(String errorMsgString, boolean fillStackTrace){
+        super(errorMsgString, null, true, fillStackTrace);
+    }
 }
@@ -0,0 +1,20 @@
+package toolVendor.exceptions;
+
+/**
+ * Custom Exception to reprsent the scenario when every unit of a tool is reserved for the rental days
+ */
+public class OutOfStockException extends RuntimeException {
+    public OutOfStockException(String errorMsgString){
+        super(errorMsgString);
+    }
+
+    /**
+     * Constructor that can skip filling in the stack trace, see InvalidRentalDayException.
+     *
+     * @param errorMsgString: The error message
+     * @param fillStackTrace: False to leave the stack trace empty
+     */
+    public OutOfStockException(String errorMsgString, boolean fillStackTrace){
+        super(errorMsgString, null, true, fillStackTrace);
+    }
+}
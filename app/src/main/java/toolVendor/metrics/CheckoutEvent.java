@@ -0,0 +1,34 @@
+package toolVendor.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one checkout, committed by CheckoutMetrics while metrics are on.
+ * Costs next to nothing unless a recording has the event enabled.
+ */
+@Name("toolVendor.Checkout")
+@Label("Checkout")
+@Category("Tool Vendor")
+@Description("A tool checkout, from the parameters to the agreement or the rejection")
+@StackTrace(false)
+class CheckoutEvent extends Event {
+    @Label("Tool Code")
+    String toolCode;
+
+    @Label("Rental Days")
+    int rentalDayCount;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error Code")
+    String errorCode;
+
+    @Label("Final Charge Cents")
+    long finalChargeCents;
+}
@@ -0,0 +1,350 @@
+package toolVendor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import toolVendor.data.checkout.CheckoutErrorCode;
+import toolVendor.data.checkout.CheckoutResult;
+
+/**
+ * Latency and count metrics for the checkout pipeline.
+ *
+ * Each checkout is timed stage by stage (see CheckoutStage) into lock free LatencyHistograms, counted per
+ * tool code and per error code, and reported as a CheckoutEvent to the flight recorder. The metrics can
+ * be read through JMX once registerMBean is called, or as text through dump.
+ *
+ * Metrics start off and can be switched on and off at any time. While they're off a checkout only reads
+ * one volatile flag, startTimer hands back a shared timer that ignores everything.
+ */
+public class CheckoutMetrics implements CheckoutMetricsMXBean {
+    // Timer handed out while metrics are off
+    private static final Timer DISABLED_TIMER = new Timer(null);
+
+    // Cached values
+    private static final CheckoutStage[] STAGES = CheckoutStage.values();
+    private static final CheckoutErrorCode[] ERROR_CODES = CheckoutErrorCode.values();
+
+    // Member variables
+    private volatile boolean theEnabled = false;
+    private final LatencyHistogram[] theStageHistograms = new LatencyHistogram[STAGES.length];
+    private final LongAdder[] theErrorCounts = new LongAdder[ERROR_CODES.length];
+    private final ConcurrentHashMap<String, LongAdder> theCheckoutCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor, metrics start off.
+     */
+    public CheckoutMetrics() {
+        for (int i = 0; i < STAGES.length; ++i) {
+            theStageHistograms[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < ERROR_CODES.length; ++i) {
+            theErrorCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Starts timing a checkout.
+     *
+     * @param checkoutMetrics: The metrics to record into, or null if there are none
+     *
+     * @return: A timer for the checkout, one that ignores everything if there are no metrics or they're off.
+     */
+    public static Timer startTimer(CheckoutMetrics checkoutMetrics) {
+        if (checkoutMetrics == null || !checkoutMetrics.theEnabled) {
+            return DISABLED_TIMER;
+        }
+        return new Timer(checkoutMetrics);
+    }
+
+    /**
+     * Records the latency of one stage, for stages timed outside a Timer.
+     *
+     * @param checkoutStage: The stage
+     * @param nanos: How long it took
+     */
+    public void recordStage(CheckoutStage checkoutStage, long nanos) {
+        if (theEnabled) {
+            theStageHistograms[checkoutStage.ordinal()].record(nanos);
+        }
+    }
+
+    /**
+     * Counts the outcome of a checkout that wasn't timed, e.g. one in a batch.
+     *
+     * @param checkoutResult: The outcome
+     */
+    public void recordResult(CheckoutResult checkoutResult) {
+        if (theEnabled) {
+            countResult(checkoutResult);
+        }
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     *
+     * @param name: Tells these metrics apart from others, used as the name key of the ObjectName
+     *
+     * @return: The name the metrics were registered under
+     *
+     * @throws JMException if the metrics can't be registered, e.g. the name is taken.
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("toolVendor:type=CheckoutMetrics,name=" + ObjectName.quote(name));
+        mBeanServer.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Gets the latencies of a stage.
+     *
+     * @param checkoutStage: The stage
+     *
+     * @return: The histogram of the stage
+     */
+    public LatencyHistogram getStageHistogram(CheckoutStage checkoutStage) {
+        return theStageHistograms[checkoutStage.ordinal()];
+    }
+
+    /**
+     * Gets the # of checkouts of a tool that went through.
+     *
+     * @param toolCode: The tool code as it's in the catalog
+     *
+     * @return: The # of checkouts
+     */
+    public long getCheckoutCount(String toolCode) {
+        LongAdder checkoutCount = theCheckoutCounts.get(toolCode);
+        return checkoutCount != null ? checkoutCount.sum() : 0;
+    }
+
+    /**
+     * Gets the # of checkouts rejected for a reason.
+     *
+     * @param errorCode: The reason
+     *
+     * @return: The # of rejections
+     */
+    public long getErrorCount(CheckoutErrorCode errorCode) {
+        return theErrorCounts[errorCode.ordinal()].sum();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return theEnabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        theEnabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        for (LatencyHistogram stageHistogram : theStageHistograms) {
+            stageHistogram.reset();
+        }
+        for (LongAdder errorCount : theErrorCounts) {
+            errorCount.reset();
+        }
+        theCheckoutCounts.clear();
+    }
+
+    @Override
+    public long getCheckoutCount() {
+        long checkoutCount = 0;
+        for (LongAdder toolCheckoutCount : theCheckoutCounts.values()) {
+            checkoutCount += toolCheckoutCount.sum();
+        }
+        return checkoutCount;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long errorCount = 0;
+        for (LongAdder codeErrorCount : theErrorCounts) {
+            errorCount += codeErrorCount.sum();
+        }
+        return errorCount;
+    }
+
+    @Override
+    public Map<String, Long> getCheckoutCountsByToolCode() {
+        Map<String, Long> checkoutCounts = new TreeMap<>();
+        theCheckoutCounts.forEach((toolCode, checkoutCount) -> checkoutCounts.put(toolCode, checkoutCount.sum()));
+        return checkoutCounts;
+    }
+
+    @Override
+    public Map<String, Long> getErrorCountsByCode() {
+        Map<String, Long> errorCounts = new TreeMap<>();
+        for (CheckoutErrorCode errorCode : ERROR_CODES) {
+            errorCounts.put(errorCode.name(), getErrorCount(errorCode));
+        }
+        return errorCounts;
+    }
+
+    @Override
+    public Map<String, Long> getStageCounts() {
+        return mapStages(LatencyHistogram::getCount);
+    }
+
+    @Override
+    public Map<String, Double> getStageMeanNanos() {
+        Map<String, Double> stageMeans = new TreeMap<>();
+        for (CheckoutStage checkoutStage : STAGES) {
+            stageMeans.put(checkoutStage.name(), getStageHistogram(checkoutStage).getMeanNanos());
+        }
+        return stageMeans;
+    }
+
+    @Override
+    public Map<String, Long> getStageP50Nanos() {
+        return mapStages(stageHistogram -> stageHistogram.getValueAtPercentile(50.0));
+    }
+
+    @Override
+    public Map<String, Long> getStageP99Nanos() {
+        return mapStages(stageHistogram -> stageHistogram.getValueAtPercentile(99.0));
+    }
+
+    @Override
+    public Map<String, Long> getStageMaxNanos() {
+        return mapStages(LatencyHistogram::getMaxNanos);
+    }
+
+    /**
+     * Writes every metric as text, one stage or counter per line.
+     *
+     * @return: The text
+     */
+    @Override
+    public String dump() {
+        StringBuilder dump = new StringBuilder();
+        dump.append("Checkout metrics (").append(theEnabled ? "on" : "off").append(")\n");
+
+        dump.append(String.format("%-12s %10s %10s %10s %10s %10s %10s%n", "stage", "count", "mean ns", "p50 ns", "p90 ns", "p99 ns", "max ns"));
+        for (CheckoutStage checkoutStage : STAGES) {
+            LatencyHistogram stageHistogram = getStageHistogram(checkoutStage);
+            dump.append(String.format("%-12s %10d %10.0f %10d %10d %10d %10d%n", checkoutStage.name(), stageHistogram.getCount(),
+                stageHistogram.getMeanNanos(), stageHistogram.getValueAtPercentile(50.0), stageHistogram.getValueAtPercentile(90.0),
+                stageHistogram.getValueAtPercentile(99.0), stageHistogram.getMaxNanos()));
+        }
+
+        dump.append("checkouts ").append(getCheckoutCount()).append('\n');
+        getCheckoutCountsByToolCode().forEach((toolCode, checkoutCount) -> dump.append("  ").append(toolCode).append(' ').append(checkoutCount).append('\n'));
+        dump.append("errors ").append(getErrorCount()).append('\n');
+        getErrorCountsByCode().forEach((errorCode, errorCount) -> dump.append("  ").append(errorCode).append(' ').append(errorCount).append('\n'));
+        return dump.toString();
+    }
+
+    @Override
+    public String toString() {
+        return dump();
+    }
+
+    /**
+     * Helper method to count a checkout's outcome.
+     */
+    private void countResult(CheckoutResult checkoutResult) {
+        if (checkoutResult.isSuccess()) {
+            theCheckoutCounts.computeIfAbsent(checkoutResult.getRentalAgreement().getTool().getToolCode(), toolCode -> new LongAdder()).increment();
+        }
+        else {
+            theErrorCounts[checkoutResult.getErrorCode().ordinal()].increment();
+        }
+    }
+
+    /**
+     * Helper method to read one number per stage.
+     */
+    private Map<String, Long> mapStages(ToLongFunction<LatencyHistogram> stageValue) {
+        Map<String, Long> stageValues = new TreeMap<>();
+        for (CheckoutStage checkoutStage : STAGES) {
+            stageValues.put(checkoutStage.name(), stageValue.applyAsLong(getStageHistogram(checkoutStage)));
+        }
+        return stageValues;
+    }
+
+    /**
+     * Times the stages of one checkout. Each call to endStage records the time since the last one.
+     * Not shared between threads.
+     */
+    public static final class Timer {
+        private final CheckoutMetrics theCheckoutMetrics;
+        private final CheckoutEvent theCheckoutEvent;
+        private final long theStartNanos;
+        private long theStageStartNanos;
+
+        Timer(CheckoutMetrics checkoutMetrics) {
+            theCheckoutMetrics = checkoutMetrics;
+            if (checkoutMetrics == null) {
+                theCheckoutEvent = null;
+                theStartNanos = 0;
+                return;
+            }
+
+            theCheckoutEvent = new CheckoutEvent();
+            theCheckoutEvent.begin();
+            theStartNanos = System.nanoTime();
+            theStageStartNanos = theStartNanos;
+        }
+
+        /**
+         * Records the time since the last stage ended, or since the timer started.
+         *
+         * @param checkoutStage: The stage that just ended
+         */
+        public void endStage(CheckoutStage checkoutStage) {
+            if (theCheckoutMetrics == null) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            theCheckoutMetrics.theStageHistograms[checkoutStage.ordinal()].record(now - theStageStartNanos);
+            theStageStartNanos = now;
+        }
+
+        /**
+         * Records the whole checkout and its outcome.
+         *
+         * @param toolCode: The tool code checked out with
+         * @param rentalDayCount: The # of rental days checked out with
+         * @param checkoutResult: The outcome
+         *
+         * @return: The outcome, for chaining
+         */
+        public CheckoutResult finish(String toolCode, int rentalDayCount, CheckoutResult checkoutResult) {
+            if (theCheckoutMetrics == null) {
+                return checkoutResult;
+            }
+
+            theCheckoutMetrics.theStageHistograms[CheckoutStage.TOTAL.ordinal()].record(System.nanoTime() - theStartNanos);
+            theCheckoutMetrics.countResult(checkoutResult);
+
+            theCheckoutEvent.end();
+            if (theCheckoutEvent.shouldCommit()) {
+                theCheckoutEvent.toolCode = toolCode;
+                theCheckoutEvent.rentalDayCount = rentalDayCount;
+                theCheckoutEvent.success = checkoutResult.isSuccess();
+                theCheckoutEvent.errorCode = checkoutResult.isSuccess() ? null : checkoutResult.getErrorCode().name();
+                theCheckoutEvent.finalChargeCents = checkoutResult.isSuccess() ? checkoutResult.getRentalAgreement().getFinalChargeCents() : 0;
+                theCheckoutEvent.commit();
+            }
+            return checkoutResult;
+        }
+
+        /**
+         * Getters
+         */
+        public boolean isTiming() { return theCheckoutMetrics != null; }
+    }
+}
@@ -0,0 +1,25 @@
+package toolVendor.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of CheckoutMetrics, registered with CheckoutMetrics.registerMBean.
+ */
+public interface CheckoutMetricsMXBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+    void reset();
+
+    long getCheckoutCount();
+    long getErrorCount();
+    Map<String, Long> getCheckoutCountsByToolCode();
+    Map<String, Long> getErrorCountsByCode();
+
+    Map<String, Long> getStageCounts();
+    Map<String, Double> getStageMeanNanos();
+    Map<String, Long> getStageP50Nanos();
+    Map<String, Long> getStageP99Nanos();
+    Map<String, Long> getStageMaxNanos();
+
+    String dump();
+}
@@ -0,0 +1,15 @@
+package toolVendor.metrics;
+
+/**
+ * The stages of a checkout timed by CheckoutMetrics.
+ */
+public enum CheckoutStage {
+    PARSE_DATE,
+    LOOKUP_TOOL,
+    RESERVE,
+    COUNT_DAYS,
+    PRICE,
+    JOURNAL,
+    RENDER,
+    TOTAL
+}
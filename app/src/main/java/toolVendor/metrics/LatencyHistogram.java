@@ -0,0 +1,127 @@
+package toolVendor.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of latencies in nanoseconds, laid out like an HdrHistogram.
+ *
+ * Values below 64 get a bucket each. Above that every power of two is split into 32 equal buckets, so a
+ * recorded value is off by at most about 3%. Recording is one bucket increment, and any number of threads
+ * can record at once. Values past MAX_TRACKABLE_NANOS are counted in the last bucket.
+ */
+public class LatencyHistogram {
+    // Buckets per power of two, as a # of bits
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    // Largest value told apart from larger ones, about 18 minutes
+    public static final long MAX_TRACKABLE_NANOS = (1L << 40) - 1;
+
+    // 64 single value buckets, then 32 buckets for each power of two up to 2^40
+    private static final int BUCKET_COUNT = getBucketIndex(MAX_TRACKABLE_NANOS) + 1;
+
+    // Member variables
+    private final AtomicLongArray theBucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder theCount = new LongAdder();
+    private final LongAdder theTotalNanos = new LongAdder();
+    private final LongAccumulator theMaxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos: The latency in nanoseconds, negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        theBucketCounts.incrementAndGet(getBucketIndex(Math.min(value, MAX_TRACKABLE_NANOS)));
+        theCount.increment();
+        theTotalNanos.add(value);
+        theMaxNanos.accumulate(value);
+    }
+
+    /**
+     * Gets the latency a percentage of the recorded values are at or below.
+     *
+     * @param percentile: The percentage, e.g. 99.9
+     *
+     * @return: The highest value of the bucket the percentile falls in, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        // Counts recorded while reading may be missed, which is fine for a report
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            bucketCounts[i] = theBucketCounts.get(i);
+            count += bucketCounts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(getBucketHighestValue(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return: The mean in nanoseconds, 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        long count = theCount.sum();
+        return count == 0 ? 0.0 : theTotalNanos.sum() / (double) count;
+    }
+
+    /**
+     * Clears every recorded value. Values recorded while clearing may be kept.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            theBucketCounts.set(i, 0);
+        }
+        theCount.reset();
+        theTotalNanos.reset();
+        theMaxNanos.reset();
+    }
+
+    /**
+     * Getters
+     */
+    public long getCount() { return theCount.sum(); }
+    public long getMaxNanos() { return theMaxNanos.get(); }
+
+    /**
+     * Helper method to find the bucket of a value.
+     */
+    static int getBucketIndex(long value) {
+        if (value < 2 * SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        // Shift the value down so it's in [32, 64), then index within its power of two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return 2 * SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Helper method to get the highest value counted in a bucket.
+     */
+    static long getBucketHighestValue(int bucketIndex) {
+        if (bucketIndex < 2 * SUB_BUCKET_COUNT) {
+            return bucketIndex;
+        }
+
+        int shift = (bucketIndex - 2 * SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + 1;
+        long subBucket = (bucketIndex - 2 * SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
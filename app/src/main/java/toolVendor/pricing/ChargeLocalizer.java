@@ -0,0 +1,176 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.journal.AgreementRecord;
+
+/**
+ * Converts USD charges to the currency of a tax region and adds the region's tax.
+ *
+ * The region to currency mapping is worked out once when the localizer is made, so localizing a charge is
+ * an index lookup for the currency, one array read each for the exchange and tax rates, and two exact
+ * fixed point multiplications. Nothing about the rental's calendar is looked at, so agreements that were
+ * already priced, e.g. replayed from an AgreementJournal, can be localized with new tables through
+ * localizeAll without counting their days again.
+ *
+ * Localizers are immutable, so new tables are swapped in by swapping the localizer, see ToolVendor.setChargeLocalizer.
+ */
+public class ChargeLocalizer {
+    // Member variables
+    private final ExchangeRateTable theExchangeRateTable;
+    private final TaxTable theTaxTable;
+    private final int[] theRegionCurrencyIndexes;
+    private final int[] theRegionFractionDigits;
+
+    /**
+     * Constructor
+     *
+     * @param exchangeRateTable: The exchange rates
+     * @param taxTable: The tax regions and rates
+     *
+     * @throws IllegalArgumentException if a region charges in a currency without exchange rates.
+     */
+    public ChargeLocalizer(ExchangeRateTable exchangeRateTable, TaxTable taxTable) {
+        theExchangeRateTable = exchangeRateTable;
+        theTaxTable = taxTable;
+        theRegionCurrencyIndexes = new int[taxTable.size()];
+        theRegionFractionDigits = new int[taxTable.size()];
+
+        for (int regionIndex = 0; regionIndex < taxTable.size(); ++regionIndex) {
+            Currency currency = taxTable.getCurrency(regionIndex);
+            theRegionCurrencyIndexes[regionIndex] = exchangeRateTable.getCurrencyIndex(currency.getCurrencyCode());
+            theRegionFractionDigits[regionIndex] = currency.getDefaultFractionDigits();
+
+            if (theRegionCurrencyIndexes[regionIndex] < 0) {
+                throw new IllegalArgumentException("Tax region " + taxTable.getRegion(regionIndex) + " charges in " + currency + ", which has no exchange rates.");
+            }
+        }
+    }
+
+    /**
+     * Gets the index of a tax region.
+     *
+     * @param taxRegion: The region code, e.g. "US-CA"
+     *
+     * @return: The index, or -1 if there's no such region.
+     */
+    public int getRegionIndex(String taxRegion) {
+        return theTaxTable.getRegionIndex(taxRegion);
+    }
+
+    /**
+     * Checks if a region has an exchange rate and a tax rate in effect on a day.
+     *
+     * @param regionIndex: The index of the region
+     * @param epochDay: The day
+     *
+     * @return: True if charges on the day can be localized.
+     */
+    public boolean hasRates(int regionIndex, long epochDay) {
+        return theTaxTable.getRateMicros(regionIndex, epochDay) >= 0 &&
+               theExchangeRateTable.getRateMicros(theRegionCurrencyIndexes[regionIndex], epochDay) >= 0;
+    }
+
+    /**
+     * Localizes an agreement's final charge at the rates of its checkout date.
+     *
+     * @param rentalAgreement: The agreement
+     * @param regionIndex: The index of the region
+     *
+     * @return: The charge in the region's currency with tax
+     *
+     * @throws IllegalArgumentException if the region has no rates on the checkout date.
+     */
+    public LocalCharge localize(RentalAgreement rentalAgreement, int regionIndex) {
+        return localize(rentalAgreement.getFinalChargeCents(), rentalAgreement.getCheckoutDate().toEpochDay(), regionIndex);
+    }
+
+    /**
+     * Localizes a journaled agreement's final charge at the rates of its checkout date.
+     *
+     * @param agreementRecord: The journaled agreement
+     * @param regionIndex: The index of the region
+     *
+     * @return: The charge in the region's currency with tax
+     *
+     * @throws IllegalArgumentException if the region has no rates on the checkout date.
+     */
+    public LocalCharge localize(AgreementRecord agreementRecord, int regionIndex) {
+        return localize(agreementRecord.getFinalChargeCents(), agreementRecord.getCheckoutEpochDay(), regionIndex);
+    }
+
+    /**
+     * Localizes a final charge at the rates of a day.
+     *
+     * @param finalChargeCents: The charge in USD cents
+     * @param checkoutEpochDay: The day whose rates apply
+     * @param regionIndex: The index of the region
+     *
+     * @return: The charge in the region's currency with tax
+     *
+     * @throws IllegalArgumentException if the region has no rates on the day.
+     */
+    public LocalCharge localize(long finalChargeCents, long checkoutEpochDay, int regionIndex) {
+        long exchangeRateMicros = getExchangeRateMicros(regionIndex, checkoutEpochDay);
+        long taxRateMicros = getTaxRateMicros(regionIndex, checkoutEpochDay);
+        long chargeMinorUnits = ExchangeRateTable.convert(finalChargeCents, exchangeRateMicros, theRegionFractionDigits[regionIndex]);
+        long taxMinorUnits = TaxTable.taxOf(chargeMinorUnits, taxRateMicros);
+
+        return new LocalCharge(theTaxTable.getRegion(regionIndex), theTaxTable.getCurrency(regionIndex), exchangeRateMicros,
+                               taxRateMicros, chargeMinorUnits, taxMinorUnits);
+    }
+
+    /**
+     * Localizes many charges into caller supplied arrays, without allocating.
+     *
+     * @param finalChargeCents: The charges in USD cents
+     * @param checkoutEpochDays: The day whose rates apply to each charge
+     * @param regionIndexes: The index of the region of each charge
+     * @param count: The # of charges
+     * @param chargeMinorUnits: Filled in with each converted charge before tax
+     * @param taxMinorUnits: Filled in with the tax on each converted charge
+     *
+     * @throws IllegalArgumentException if a region has no rates on a day, the charges before it are filled in.
+     */
+    public void localizeAll(long[] finalChargeCents, int[] checkoutEpochDays, int[] regionIndexes, int count,
+                            long[] chargeMinorUnits, long[] taxMinorUnits) {
+        for (int i = 0; i < count; ++i) {
+            int regionIndex = regionIndexes[i];
+            long exchangeRateMicros = getExchangeRateMicros(regionIndex, checkoutEpochDays[i]);
+            long taxRateMicros = getTaxRateMicros(regionIndex, checkoutEpochDays[i]);
+
+            chargeMinorUnits[i] = ExchangeRateTable.convert(finalChargeCents[i], exchangeRateMicros, theRegionFractionDigits[regionIndex]);
+            taxMinorUnits[i] = TaxTable.taxOf(chargeMinorUnits[i], taxRateMicros);
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public ExchangeRateTable getExchangeRateTable() { return theExchangeRateTable; }
+    public TaxTable getTaxTable() { return theTaxTable; }
+
+    /**
+     * Helper method to get the exchange rate of a region's currency, throwing when there's none.
+     */
+    private long getExchangeRateMicros(int regionIndex, long epochDay) {
+        long exchangeRateMicros = theExchangeRateTable.getRateMicros(theRegionCurrencyIndexes[regionIndex], epochDay);
+        if (exchangeRateMicros < 0) {
+            throw new IllegalArgumentException("No " + theTaxTable.getCurrency(regionIndex) + " exchange rate on " + LocalDate.ofEpochDay(epochDay) + ".");
+        }
+        return exchangeRateMicros;
+    }
+
+    /**
+     * Helper method to get the tax rate of a region, throwing when there's none.
+     */
+    private long getTaxRateMicros(int regionIndex, long epochDay) {
+        long taxRateMicros = theTaxTable.getRateMicros(regionIndex, epochDay);
+        if (taxRateMicros < 0) {
+            throw new IllegalArgumentException("No " + theTaxTable.getRegion(regionIndex) + " tax rate on " + LocalDate.ofEpochDay(epochDay) + ".");
+        }
+        return taxRateMicros;
+    }
+}
@@ -0,0 +1,109 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A rate that changes over time, laid out as one value per day so looking up a date is an array read.
+ *
+ * Rates are added as ranges of effective dates, later ranges overriding earlier ones where they overlap.
+ * The days array covers the first start date up to the last date any range starts or ends on. Past that
+ * the rate of the last open ended range applies.
+ */
+final class EffectiveDateSeries {
+    // Value of a day without a rate
+    static final long NO_VALUE = Long.MIN_VALUE;
+
+    // Member variables
+    private final long theFirstEpochDay;
+    private final long[] theDailyValues;
+    private final long theOpenEndValue;
+
+    /**
+     * Constructor, see Builder.
+     */
+    private EffectiveDateSeries(long firstEpochDay, long[] dailyValues, long openEndValue) {
+        theFirstEpochDay = firstEpochDay;
+        theDailyValues = dailyValues;
+        theOpenEndValue = openEndValue;
+    }
+
+    /**
+     * Gets the rate in effect on a day.
+     *
+     * @param epochDay: The day
+     *
+     * @return: The rate, or NO_VALUE if none is in effect.
+     */
+    long get(long epochDay) {
+        long dayIndex = epochDay - theFirstEpochDay;
+        if (dayIndex < 0) {
+            return NO_VALUE;
+        }
+        if (dayIndex >= theDailyValues.length) {
+            return theOpenEndValue;
+        }
+        return theDailyValues[(int) dayIndex];
+    }
+
+    /**
+     * Getters
+     */
+    int getDayCount() { return theDailyValues.length; }
+
+    /**
+     * Collects the ranges of a series.
+     */
+    static final class Builder {
+        private final List<long[]> theRanges = new ArrayList<>();
+
+        /**
+         * Adds a range of effective dates.
+         *
+         * @param firstDate: The first day the rate applies
+         * @param lastDate: The last day the rate applies, or null if it's still in effect
+         * @param value: The rate
+         */
+        void add(LocalDate firstDate, LocalDate lastDate, long value) {
+            if (lastDate != null && lastDate.isBefore(firstDate)) {
+                throw new IllegalArgumentException("Rate ends on " + lastDate + " before it starts on " + firstDate + ".");
+            }
+            theRanges.add(new long[] { firstDate.toEpochDay(), lastDate != null ? lastDate.toEpochDay() : Long.MAX_VALUE, value });
+        }
+
+        /**
+         * Lays the ranges out by day.
+         *
+         * @return: The series
+         */
+        EffectiveDateSeries build() {
+            if (theRanges.isEmpty()) {
+                return new EffectiveDateSeries(0, new long[0], NO_VALUE);
+            }
+
+            long firstEpochDay = Long.MAX_VALUE;
+            long lastEpochDay = Long.MIN_VALUE;
+            for (long[] range : theRanges) {
+                firstEpochDay = Math.min(firstEpochDay, range[0]);
+                lastEpochDay = Math.max(lastEpochDay, range[1] != Long.MAX_VALUE ? range[1] : range[0]);
+            }
+
+            long[] dailyValues = new long[Math.toIntExact(lastEpochDay - firstEpochDay + 1)];
+            Arrays.fill(dailyValues, NO_VALUE);
+            long openEndValue = NO_VALUE;
+            for (long[] range : theRanges) {
+                int fromIndex = (int) (range[0] - firstEpochDay);
+                int toIndex = (int) (Math.min(range[1], lastEpochDay) - firstEpochDay) + 1;
+                Arrays.fill(dailyValues, fromIndex, toIndex, range[2]);
+
+                if (range[1] == Long.MAX_VALUE) {
+                    openEndValue = range[2];
+                }
+            }
+
+            return new EffectiveDateSeries(firstEpochDay, dailyValues, openEndValue);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Exchange rates from USD to other currencies, by effective date.
+ *
+ * Rates are fixed point, in millionths of the other currency per dollar, e.g. 921345 is 0.921345 EUR per
+ * USD. Each currency gets an index, and its rates are laid out one per day (see EffectiveDateSeries),
+ * so a conversion is two array reads and exact integer arithmetic. USD always converts at 1.
+ */
+public class ExchangeRateTable {
+    // Rates are in millionths
+    public static final long RATE_SCALE = 1_000_000L;
+
+    // The currency agreements are priced in
+    public static final Currency BASE_CURRENCY = Currency.getInstance("USD");
+
+    // Member variables
+    private final Map<String, Integer> theCurrencyIndexes;
+    private final Currency[] theCurrencies;
+    private final EffectiveDateSeries[] theRateSeries;
+
+    /**
+     * Constructor, see Builder.
+     */
+    private ExchangeRateTable(Map<String, Integer> currencyIndexes, Currency[] currencies, EffectiveDateSeries[] rateSeries) {
+        theCurrencyIndexes = currencyIndexes;
+        theCurrencies = currencies;
+        theRateSeries = rateSeries;
+    }
+
+    /**
+     * Creates a builder for a table.
+     *
+     * @return: An empty Builder, which already has USD
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the index of a currency, to look its rates up without a map lookup.
+     *
+     * @param currencyCode: The ISO 4217 code, e.g. "EUR"
+     *
+     * @return: The index, or -1 if the table has no rates for it.
+     */
+    public int getCurrencyIndex(String currencyCode) {
+        Integer currencyIndex = theCurrencyIndexes.get(currencyCode);
+        return currencyIndex != null ? currencyIndex : -1;
+    }
+
+    /**
+     * Gets the rate of a currency on a day.
+     *
+     * @param currencyIndex: The index of the currency, see getCurrencyIndex
+     * @param epochDay: The day
+     *
+     * @return: The rate in millionths per dollar, or -1 if no rate is in effect.
+     */
+    public long getRateMicros(int currencyIndex, long epochDay) {
+        long rateMicros = theRateSeries[currencyIndex].get(epochDay);
+        return rateMicros != EffectiveDateSeries.NO_VALUE ? rateMicros : -1;
+    }
+
+    /**
+     * Converts cents to the minor units of a currency at a rate, rounding half up.
+     *
+     * @param cents: The amount in USD cents
+     * @param rateMicros: The rate in millionths per dollar
+     * @param fractionDigits: The # of decimals of the currency, e.g. 0 for JPY
+     *
+     * @return: The amount in minor units of the currency
+     */
+    public static long convert(long cents, long rateMicros, int fractionDigits) {
+        // cents * rate / RATE_SCALE is the amount in hundredths of the currency, then shift to its decimals
+        int scaleShift = fractionDigits - BASE_CURRENCY.getDefaultFractionDigits();
+        if (scaleShift >= 0) {
+            return MoneyUtility.multiplyRoundHalfUp(cents, Math.multiplyExact(rateMicros, pow10(scaleShift)), RATE_SCALE);
+        }
+        return MoneyUtility.multiplyRoundHalfUp(cents, rateMicros, Math.multiplyExact(RATE_SCALE, pow10(-scaleShift)));
+    }
+
+    /**
+     * Getters
+     */
+    public Currency getCurrency(int currencyIndex) { return theCurrencies[currencyIndex]; }
+    public int size() { return theCurrencies.length; }
+    public List<Currency> getCurrencies() { return Collections.unmodifiableList(Arrays.asList(theCurrencies)); }
+
+    /**
+     * Helper method to raise 10 to a small power.
+     */
+    private static long pow10(int exponent) {
+        long power = 1;
+        for (int i = 0; i < exponent; ++i) {
+            power *= 10;
+        }
+        return power;
+    }
+
+    /**
+     * Collects the rates of a table.
+     */
+    public static class Builder {
+        private final Map<String, Integer> theCurrencyIndexes = new HashMap<>();
+        private final List<Currency> theCurrencies = new ArrayList<>();
+        private final List<EffectiveDateSeries.Builder> theRateSeries = new ArrayList<>();
+
+        /**
+         * Constructor, USD converts to itself at 1 on every day.
+         */
+        Builder() {
+            EffectiveDateSeries.Builder baseSeries = getSeries(BASE_CURRENCY);
+            baseSeries.add(LocalDate.ofEpochDay(0), null, RATE_SCALE);
+        }
+
+        /**
+         * Adds the rate of a currency over a range of dates, overriding earlier rates where they overlap.
+         *
+         * @param currencyCode: The ISO 4217 code, e.g. "EUR"
+         * @param firstDate: The first day the rate applies
+         * @param lastDate: The last day the rate applies, or null if it's still in effect
+         * @param rateMicros: The rate in millionths of the currency per dollar
+         *
+         * @return: The builder
+         */
+        public Builder addRate(String currencyCode, LocalDate firstDate, LocalDate lastDate, long rateMicros) {
+            Currency currency = Currency.getInstance(currencyCode);
+            if (currency.equals(BASE_CURRENCY)) {
+                throw new IllegalArgumentException(currencyCode + " is the base currency, its rate is always 1.");
+            }
+            if (rateMicros <= 0) {
+                throw new IllegalArgumentException("Rate of " + rateMicros + " for " + currencyCode + " should be positive.");
+            }
+            if (currency.getDefaultFractionDigits() < 0) {
+                throw new IllegalArgumentException(currencyCode + " has no minor units.");
+            }
+
+            getSeries(currency).add(firstDate, lastDate, rateMicros);
+            return this;
+        }
+
+        /**
+         * Builds the table.
+         *
+         * @return: The table
+         */
+        public ExchangeRateTable build() {
+            EffectiveDateSeries[] rateSeries = new EffectiveDateSeries[theRateSeries.size()];
+            for (int i = 0; i < rateSeries.length; ++i) {
+                rateSeries[i] = theRateSeries.get(i).build();
+            }
+            return new ExchangeRateTable(new HashMap<>(theCurrencyIndexes), theCurrencies.toArray(new Currency[0]), rateSeries);
+        }
+
+        /**
+         * Helper method to find or add the rates of a currency.
+         */
+        private EffectiveDateSeries.Builder getSeries(Currency currency) {
+            Integer currencyIndex = theCurrencyIndexes.get(currency.getCurrencyCode());
+            if (currencyIndex == null) {
+                currencyIndex = theCurrencies.size();
+                theCurrencyIndexes.put(currency.getCurrencyCode(), currencyIndex);
+                theCurrencies.add(currency);
+                theRateSeries.add(new EffectiveDateSeries.Builder());
+            }
+            return theRateSeries.get(currencyIndex);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package toolVendor.pricing;
+
+import java.util.Currency;
+
+import toolVendor.util.MoneyUtility;
+
+/**
+ * An agreement's final charge in the currency of a tax region, with the region's tax added, see ChargeLocalizer.
+ *
+ * Amounts are in minor units of the currency, e.g. cents or yen. The final charge is converted as a whole
+ * and then taxed, both rounded half up, so the converted charge plus the tax always adds up to the total.
+ */
+public class LocalCharge {
+    // Member variables
+    private final String theTaxRegion;
+    private final Currency theCurrency;
+    private final long theExchangeRateMicros;
+    private final long theTaxRateMicros;
+    private final long theChargeMinorUnits;
+    private final long theTaxMinorUnits;
+
+    /**
+     * Constructor
+     *
+     * @param taxRegion: The region charged in
+     * @param currency: The currency of the region
+     * @param exchangeRateMicros: The rate the USD charge was converted at, see ExchangeRateTable
+     * @param taxRateMicros: The tax rate, see TaxTable
+     * @param chargeMinorUnits: The converted charge before tax
+     * @param taxMinorUnits: The tax on the converted charge
+     */
+    LocalCharge(String taxRegion, Currency currency, long exchangeRateMicros, long taxRateMicros, long chargeMinorUnits, long taxMinorUnits) {
+        theTaxRegion = taxRegion;
+        theCurrency = currency;
+        theExchangeRateMicros = exchangeRateMicros;
+        theTaxRateMicros = taxRateMicros;
+        theChargeMinorUnits = chargeMinorUnits;
+        theTaxMinorUnits = taxMinorUnits;
+    }
+
+    /**
+     * Getters
+     */
+    public String getTaxRegion() { return theTaxRegion; }
+    public Currency getCurrency() { return theCurrency; }
+    public long getExchangeRateMicros() { return theExchangeRateMicros; }
+    public long getTaxRateMicros() { return theTaxRateMicros; }
+    public long getChargeMinorUnits() { return theChargeMinorUnits; }
+    public long getTaxMinorUnits() { return theTaxMinorUnits; }
+    public long getTotalMinorUnits() { return theChargeMinorUnits + theTaxMinorUnits; }
+
+    /**
+     * Generates the lines added under a receipt, e.g. "Local charge: EUR 12.34".
+     */
+    @Override
+    public String toString() {
+        int fractionDigits = theCurrency.getDefaultFractionDigits();
+        String currencyCode = theCurrency.getCurrencyCode();
+
+        return "Tax region: " + theTaxRegion + "\n" +
+               "Exchange rate: " + MoneyUtility.formatMinorUnits(theExchangeRateMicros, 6) + " " + currencyCode + "/USD\n" +
+               "Local charge: " + currencyCode + " " + MoneyUtility.formatMinorUnits(theChargeMinorUnits, fractionDigits) + "\n" +
+               "Tax rate: " + MoneyUtility.formatMinorUnits(theTaxRateMicros, 4).replaceFirst("\\.?0+$", "") + "%\n" +
+               "Tax amount: " + currencyCode + " " + MoneyUtility.formatMinorUnits(theTaxMinorUnits, fractionDigits) + "\n" +
+               "Total due: " + currencyCode + " " + MoneyUtility.formatMinorUnits(getTotalMinorUnits(), fractionDigits);
+    }
+}
@@ -0,0 +1,172 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Definition of one pricing rule, see PricingRuleSet for how rules are combined.
+ *
+ * A rule matches tools by type and brand, where null matches any. Promotions and surcharges also only
+ * apply to checkouts within their dates, where a null date leaves that end open.
+ */
+public class PricingRule {
+    /**
+     * What a rule does to the price.
+     */
+    public enum Kind {
+        // Charges a block of chargable days at a set price, e.g. 7 days for the price of 5
+        TIER,
+        // Charges at least a set amount
+        MINIMUM,
+        // Takes a percentage off while it runs
+        PROMOTION,
+        // Adds a percentage while it runs
+        SURCHARGE
+    }
+
+    // Member variables
+    private final Kind theKind;
+    private final ToolType theToolType;
+    private final ToolBrand theToolBrand;
+    private final LocalDate theFirstDate;
+    private final LocalDate theLastDate;
+    private final int theDayCount;
+    private final long theAmountCents;
+    private final int theBasisPoints;
+
+    /**
+     * Constructor, see the factory methods for the fields each kind uses.
+     */
+    private PricingRule(Kind kind, ToolType toolType, ToolBrand toolBrand, LocalDate firstDate, LocalDate lastDate,
+                        int dayCount, long amountCents, int basisPoints) {
+        if (firstDate != null && lastDate != null && lastDate.isBefore(firstDate)) {
+            throw new IllegalArgumentException("Rule ends on " + lastDate + " before it starts on " + firstDate + ".");
+        }
+
+        theKind = kind;
+        theToolType = toolType;
+        theToolBrand = toolBrand;
+        theFirstDate = firstDate;
+        theLastDate = lastDate;
+        theDayCount = dayCount;
+        theAmountCents = amountCents;
+        theBasisPoints = basisPoints;
+    }
+
+    /**
+     * Creates a tiered rate. Chargable days are charged in the largest blocks that fit first, so a 7 day
+     * tier and a 30 day tier charge 40 days as one month, one week, and 3 days at the daily rate.
+     *
+     * @param toolType: The type to match, or null for any
+     * @param toolBrand: The brand to match, or null for any
+     * @param dayCount: The # of chargable days in a block
+     * @param blockPriceCents: The price of a block in cents
+     *
+     * @return: The rule
+     */
+    public static PricingRule tier(ToolType toolType, ToolBrand toolBrand, int dayCount, long blockPriceCents) {
+        if (dayCount <= 1) {
+            throw new IllegalArgumentException("Tier of " + dayCount + " days should cover more than one day.");
+        }
+        if (blockPriceCents < 0) {
+            throw new IllegalArgumentException("Tier price of " + MoneyUtility.formatCents(blockPriceCents) + " is negative.");
+        }
+        return new PricingRule(Kind.TIER, toolType, toolBrand, null, null, dayCount, blockPriceCents, 0);
+    }
+
+    /**
+     * Creates a minimum charge, applied after promotions and surcharges.
+     *
+     * @param toolType: The type to match, or null for any
+     * @param toolBrand: The brand to match, or null for any
+     * @param minimumCents: The least a rental is charged in cents
+     *
+     * @return: The rule
+     */
+    public static PricingRule minimum(ToolType toolType, ToolBrand toolBrand, long minimumCents) {
+        if (minimumCents < 0) {
+            throw new IllegalArgumentException("Minimum charge of " + MoneyUtility.formatCents(minimumCents) + " is negative.");
+        }
+        return new PricingRule(Kind.MINIMUM, toolType, toolBrand, null, null, 0, minimumCents, 0);
+    }
+
+    /**
+     * Creates a promotion for checkouts within a range of dates.
+     *
+     * @param toolType: The type to match, or null for any
+     * @param toolBrand: The brand to match, or null for any
+     * @param firstDate: The first checkout date it applies to, or null for no start
+     * @param lastDate: The last checkout date it applies to, or null for no end
+     * @param basisPoints: The percentage taken off in basis points, up to 100%
+     *
+     * @return: The rule
+     */
+    public static PricingRule promotion(ToolType toolType, ToolBrand toolBrand, LocalDate firstDate, LocalDate lastDate, int basisPoints) {
+        if (basisPoints < 0 || basisPoints > MoneyUtility.BASIS_POINTS_PER_WHOLE) {
+            throw new IllegalArgumentException("Promotion of " + MoneyUtility.formatPercent(basisPoints) + "% should be between 0% and 100%.");
+        }
+        return new PricingRule(Kind.PROMOTION, toolType, toolBrand, firstDate, lastDate, 0, 0, basisPoints);
+    }
+
+    /**
+     * Creates a surcharge for checkouts within a range of dates.
+     *
+     * @param toolType: The type to match, or null for any
+     * @param toolBrand: The brand to match, or null for any
+     * @param firstDate: The first checkout date it applies to, or null for no start
+     * @param lastDate: The last checkout date it applies to, or null for no end
+     * @param basisPoints: The percentage added in basis points
+     *
+     * @return: The rule
+     */
+    public static PricingRule surcharge(ToolType toolType, ToolBrand toolBrand, LocalDate firstDate, LocalDate lastDate, int basisPoints) {
+        if (basisPoints < 0) {
+            throw new IllegalArgumentException("Surcharge of " + MoneyUtility.formatPercent(basisPoints) + "% is negative.");
+        }
+        return new PricingRule(Kind.SURCHARGE, toolType, toolBrand, firstDate, lastDate, 0, 0, basisPoints);
+    }
+
+    /**
+     * Checks if the rule applies to a type and brand.
+     *
+     * @param toolType: The type
+     * @param toolBrand: The brand
+     *
+     * @return: True if both match.
+     */
+    public boolean matches(ToolType toolType, ToolBrand toolBrand) {
+        return (theToolType == null || theToolType == toolType) && (theToolBrand == null || theToolBrand == toolBrand);
+    }
+
+    /**
+     * Gets how narrowly the rule matches tools, rules matching both type and brand being the most specific.
+     *
+     * @return: The # of fields matched on, from 0 to 2
+     */
+    public int getSpecificity() {
+        return (theToolType != null ? 1 : 0) + (theToolBrand != null ? 1 : 0);
+    }
+
+    /**
+     * Getters
+     */
+    public Kind getKind() { return theKind; }
+    public ToolType getToolType() { return theToolType; }
+    public ToolBrand getToolBrand() { return theToolBrand; }
+    public LocalDate getFirstDate() { return theFirstDate; }
+    public LocalDate getLastDate() { return theLastDate; }
+    public int getDayCount() { return theDayCount; }
+    public long getAmountCents() { return theAmountCents; }
+    public int getBasisPoints() { return theBasisPoints; }
+
+    @Override
+    public String toString() {
+        String amount = (theKind == Kind.TIER || theKind == Kind.MINIMUM) ? MoneyUtility.formatCents(theAmountCents) : MoneyUtility.formatPercent(theBasisPoints) + "%";
+        return "PricingRule[" + theKind + ", toolType=" + (theToolType != null ? theToolType : "*") +
+            ", toolBrand=" + (theToolBrand != null ? theToolBrand : "*") + ", dates=" + (theFirstDate != null ? theFirstDate : "*") +
+            ".." + (theLastDate != null ? theLastDate : "*") + (theKind == Kind.TIER ? ", days=" + theDayCount : "") + ", amount=" + amount + "]";
+    }
+}
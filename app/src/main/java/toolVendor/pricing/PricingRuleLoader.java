@@ -0,0 +1,140 @@
+package toolVendor.pricing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Loads pricing rule sets from CSV files so prices can change without a redeploy.
+ *
+ * The file starts with a "version,N" line, then has one rule per line: kind,type,brand,first,last,days,amount
+ *  - TIER,LADDER,*,,,7,9.99 charges every 7 chargable days of a ladder $9.99.
+ *  - MINIMUM,*,*,,,,4.99 charges every rental at least $4.99.
+ *  - PROMOTION,*,STIHL,2020-07-01,2020-07-31,,10 takes 10% off Stihl tools checked out in July 2020.
+ *  - SURCHARGE,*,*,2020-12-20,,,15 adds 15% to every tool checked out from December 20th 2020 on.
+ * Types and brands are the names of the ToolType and ToolBrand enumerations, with * or nothing matching
+ * any. Dates are ISO dates, left empty for an open end. Tier and minimum amounts are dollars, promotion
+ * and surcharge amounts are percentages. Blank lines, lines starting with '#', and a header line starting
+ * with "kind,type" are skipped.
+ */
+public class PricingRuleLoader {
+    // Number of fields on a rule line
+    private static final int CSV_FIELD_COUNT = 7;
+
+    /**
+     * Loads a rule set from a CSV file.
+     *
+     * @param rulesFile: The CSV file to load
+     *
+     * @return: The compiled rule set
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static PricingRuleSet load(Path rulesFile) throws IOException {
+        List<PricingRule> rules = new ArrayList<>();
+        Long version = null;
+
+        try (BufferedReader reader = Files.newBufferedReader(rulesFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                // Skip blank lines, comments, and the header
+                if (line.isEmpty() || line.startsWith("#") || line.regionMatches(true, 0, "kind,type", 0, 9)) {
+                    continue;
+                }
+
+                if (version == null) {
+                    version = parseVersion(line, lineNumber, rulesFile);
+                    continue;
+                }
+
+                rules.add(parseCsvLine(line, lineNumber, rulesFile));
+            }
+        }
+
+        if (version == null) {
+            throw new IOException(rulesFile + " has no version line.");
+        }
+        return new PricingRuleSet(version, rules);
+    }
+
+    /**
+     * Helper method to parse the "version,N" line.
+     */
+    private static long parseVersion(String line, int lineNumber, Path rulesFile) throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 2 || !fields[0].trim().equalsIgnoreCase("version")) {
+            throw new IOException(String.format("%s line %d: expected a version line like \"version,1\" first.", rulesFile, lineNumber));
+        }
+
+        try {
+            return Long.parseLong(fields[1].trim());
+        }
+        catch (NumberFormatException e) {
+            throw new IOException(String.format("%s line %d: version '%s' is not a number.", rulesFile, lineNumber, fields[1].trim()), e);
+        }
+    }
+
+    /**
+     * Helper method to turn one CSV line into a rule.
+     */
+    private static PricingRule parseCsvLine(String line, int lineNumber, Path rulesFile) throws IOException {
+        String[] fields = line.split(",", -1);
+        if (fields.length != CSV_FIELD_COUNT) {
+            throw new IOException(String.format("%s line %d: expected %d fields but found %d.", rulesFile, lineNumber, CSV_FIELD_COUNT, fields.length));
+        }
+
+        try {
+            PricingRule.Kind kind = PricingRule.Kind.valueOf(fields[0].trim().toUpperCase(Locale.ROOT));
+            ToolType toolType = isWildcard(fields[1]) ? null : ToolType.valueOf(fields[1].trim().toUpperCase(Locale.ROOT));
+            ToolBrand toolBrand = isWildcard(fields[2]) ? null : ToolBrand.valueOf(fields[2].trim().toUpperCase(Locale.ROOT));
+            LocalDate firstDate = parseDate(fields[3]);
+            LocalDate lastDate = parseDate(fields[4]);
+
+            switch (kind) {
+                case TIER:
+                    return PricingRule.tier(toolType, toolBrand, Integer.parseInt(fields[5].trim()), MoneyUtility.parseCents(fields[6]));
+                case MINIMUM:
+                    return PricingRule.minimum(toolType, toolBrand, MoneyUtility.parseCents(fields[6]));
+                case PROMOTION:
+                    return PricingRule.promotion(toolType, toolBrand, firstDate, lastDate, MoneyUtility.toBasisPoints(Double.parseDouble(fields[6].trim())));
+                default:
+                    return PricingRule.surcharge(toolType, toolBrand, firstDate, lastDate, MoneyUtility.toBasisPoints(Double.parseDouble(fields[6].trim())));
+            }
+        }
+        catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IOException(String.format("%s line %d: %s", rulesFile, lineNumber, e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Helper method to check for a type or brand matching anything.
+     */
+    private static boolean isWildcard(String field) {
+        String trimmedField = field.trim();
+        return trimmedField.isEmpty() || trimmedField.equals("*");
+    }
+
+    /**
+     * Helper method to parse an ISO date, empty meaning no date.
+     */
+    private static LocalDate parseDate(String field) {
+        String trimmedField = field.trim();
+        return trimmedField.isEmpty() ? null : LocalDate.parse(trimmedField);
+    }
+}
@@ -0,0 +1,273 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+import toolVendor.util.MoneyUtility;
+
+/**
+ * A versioned set of pricing rules, compiled up front so pricing a rental only looks at the rules for
+ * its tool.
+ *
+ * The rules are compiled once per tool type and brand pair into flat arrays: the tiers sorted from the
+ * largest block down, the minimum charge, and the promotion and surcharge percentages for every range
+ * of checkout dates where they don't change. Pricing picks the pair by ordinal, walks its tiers, and
+ * finds the checkout date with one binary search, without allocating.
+ *
+ * How rules combine:
+ *  - Tiers of the same length and minimum charges: the most specific rule wins, the later one on a tie.
+ *  - Promotions: only the largest one running applies.
+ *  - Surcharges: every one running is added up.
+ * The price is the tiered price, plus surcharges, less the promotion, and no less than the minimum.
+ *
+ * Rule sets are immutable, so a new version can be swapped in while checkouts price with the old one,
+ * see ToolVendor.setPricingRules.
+ */
+public class PricingRuleSet {
+    // Cached values
+    private static final ToolType[] TOOL_TYPES = ToolType.values();
+    private static final ToolBrand[] TOOL_BRANDS = ToolBrand.values();
+
+    // Member variables
+    private final long theVersion;
+    private final List<PricingRule> theRules;
+    private final CompiledRules[] theCompiledRules;
+
+    /**
+     * Constructor, compiles the rules.
+     *
+     * @param version: Tells this rule set apart from earlier and later ones
+     * @param rules: The rules, later rules winning ties
+     */
+    public PricingRuleSet(long version, Collection<PricingRule> rules) {
+        theVersion = version;
+        theRules = Collections.unmodifiableList(new ArrayList<>(rules));
+        theCompiledRules = new CompiledRules[TOOL_TYPES.length * TOOL_BRANDS.length];
+
+        for (ToolType toolType : TOOL_TYPES) {
+            for (ToolBrand toolBrand : TOOL_BRANDS) {
+                theCompiledRules[getSlot(toolType, toolBrand)] = compile(toolType, toolBrand);
+            }
+        }
+    }
+
+    /**
+     * Prices the chargable days of a rental, before the customer's discount.
+     *
+     * @param tool: The tool being rented
+     * @param checkoutDate: The checkout date, which picks the promotions and surcharges
+     * @param chargableDayCount: The # of chargable days
+     *
+     * @return: The price in cents
+     */
+    public long getPriceCents(Tool tool, LocalDate checkoutDate, int chargableDayCount) {
+        return getPriceCents(tool, checkoutDate.toEpochDay(), chargableDayCount);
+    }
+
+    /**
+     * Prices the chargable days of a rental, before the customer's discount.
+     *
+     * @param tool: The tool being rented
+     * @param checkoutEpochDay: The checkout date as an epoch day
+     * @param chargableDayCount: The # of chargable days
+     *
+     * @return: The price in cents
+     */
+    public long getPriceCents(Tool tool, long checkoutEpochDay, int chargableDayCount) {
+        CompiledRules compiledRules = theCompiledRules[getSlot(tool.getToolType(), tool.getToolBrand())];
+
+        // Charge the largest blocks first, the rest at the daily rate
+        long priceCents = 0;
+        int remainingDayCount = chargableDayCount;
+        for (int i = 0; i < compiledRules.theTierDayCounts.length; ++i) {
+            int tierDayCount = compiledRules.theTierDayCounts[i];
+            if (remainingDayCount >= tierDayCount) {
+                int blockCount = remainingDayCount / tierDayCount;
+                priceCents = Math.addExact(priceCents, Math.multiplyExact(compiledRules.theTierPriceCents[i], (long) blockCount));
+                remainingDayCount -= blockCount * tierDayCount;
+            }
+        }
+        priceCents = Math.addExact(priceCents, Math.multiplyExact(tool.getDailyChargeRateCents(), (long) remainingDayCount));
+
+        // Then the percentages running on the checkout date
+        int segment = findSegment(compiledRules.theSegmentStartDays, checkoutEpochDay);
+        priceCents += MoneyUtility.percentageOf(priceCents, compiledRules.theSurchargeBasisPoints[segment]);
+        priceCents -= MoneyUtility.percentageOf(priceCents, compiledRules.thePromotionBasisPoints[segment]);
+
+        return Math.max(priceCents, compiledRules.theMinimumCents);
+    }
+
+    /**
+     * Gets the rules that apply to a type and brand, in the order they were given.
+     *
+     * @param toolType: The type
+     * @param toolBrand: The brand
+     *
+     * @return: The matching rules
+     */
+    public List<PricingRule> getMatchingRules(ToolType toolType, ToolBrand toolBrand) {
+        List<PricingRule> matchingRules = new ArrayList<>();
+        for (PricingRule rule : theRules) {
+            if (rule.matches(toolType, toolBrand)) {
+                matchingRules.add(rule);
+            }
+        }
+        return matchingRules;
+    }
+
+    /**
+     * Getters
+     */
+    public long getVersion() { return theVersion; }
+    public List<PricingRule> getRules() { return theRules; }
+    public int size() { return theRules.size(); }
+
+    @Override
+    public String toString() {
+        return "PricingRuleSet[version=" + theVersion + ", rules=" + theRules.size() + "]";
+    }
+
+    /**
+     * Helper method to compile the rules for one type and brand.
+     */
+    private CompiledRules compile(ToolType toolType, ToolBrand toolBrand) {
+        List<PricingRule> matchingRules = getMatchingRules(toolType, toolBrand);
+
+        // Keep the most specific tier of each length, and the most specific minimum
+        TreeMap<Integer, PricingRule> tiersByDayCount = new TreeMap<>(Collections.reverseOrder());
+        PricingRule minimumRule = null;
+        TreeSet<Long> segmentStartDays = new TreeSet<>();
+        segmentStartDays.add(Long.MIN_VALUE);
+
+        for (PricingRule rule : matchingRules) {
+            switch (rule.getKind()) {
+                case TIER:
+                    PricingRule currentTier = tiersByDayCount.get(rule.getDayCount());
+                    if (currentTier == null || rule.getSpecificity() >= currentTier.getSpecificity()) {
+                        tiersByDayCount.put(rule.getDayCount(), rule);
+                    }
+                    break;
+                case MINIMUM:
+                    if (minimumRule == null || rule.getSpecificity() >= minimumRule.getSpecificity()) {
+                        minimumRule = rule;
+                    }
+                    break;
+                default:
+                    // Promotions and surcharges split the calendar where they start and after they end
+                    if (rule.getFirstDate() != null) {
+                        segmentStartDays.add(rule.getFirstDate().toEpochDay());
+                    }
+                    if (rule.getLastDate() != null) {
+                        segmentStartDays.add(rule.getLastDate().toEpochDay() + 1);
+                    }
+                    break;
+            }
+        }
+
+        int[] tierDayCounts = new int[tiersByDayCount.size()];
+        long[] tierPriceCents = new long[tiersByDayCount.size()];
+        int tierIndex = 0;
+        for (PricingRule tierRule : tiersByDayCount.values()) {
+            tierDayCounts[tierIndex] = tierRule.getDayCount();
+            tierPriceCents[tierIndex] = tierRule.getAmountCents();
+            tierIndex++;
+        }
+
+        // Work out the percentages of every date range, merging neighbors that are the same
+        long[] startDays = new long[segmentStartDays.size()];
+        int[] promotionBasisPoints = new int[segmentStartDays.size()];
+        int[] surchargeBasisPoints = new int[segmentStartDays.size()];
+        int segmentCount = 0;
+        for (long startDay : segmentStartDays) {
+            int promotion = 0;
+            int surcharge = 0;
+            for (PricingRule rule : matchingRules) {
+                if (!isRunning(rule, startDay)) {
+                    continue;
+                }
+                if (rule.getKind() == PricingRule.Kind.PROMOTION) {
+                    promotion = Math.max(promotion, rule.getBasisPoints());
+                }
+                else if (rule.getKind() == PricingRule.Kind.SURCHARGE) {
+                    surcharge = Math.addExact(surcharge, rule.getBasisPoints());
+                }
+            }
+
+            if (segmentCount > 0 && promotionBasisPoints[segmentCount - 1] == promotion && surchargeBasisPoints[segmentCount - 1] == surcharge) {
+                continue;
+            }
+            startDays[segmentCount] = startDay;
+            promotionBasisPoints[segmentCount] = promotion;
+            surchargeBasisPoints[segmentCount] = surcharge;
+            segmentCount++;
+        }
+
+        return new CompiledRules(tierDayCounts, tierPriceCents, minimumRule != null ? minimumRule.getAmountCents() : 0,
+                                 Arrays.copyOf(startDays, segmentCount), Arrays.copyOf(promotionBasisPoints, segmentCount),
+                                 Arrays.copyOf(surchargeBasisPoints, segmentCount));
+    }
+
+    /**
+     * Helper method to check if a promotion or surcharge runs on a day.
+     */
+    private static boolean isRunning(PricingRule rule, long epochDay) {
+        return (rule.getFirstDate() == null || rule.getFirstDate().toEpochDay() <= epochDay) &&
+               (rule.getLastDate() == null || epochDay <= rule.getLastDate().toEpochDay());
+    }
+
+    /**
+     * Helper method to find the last segment starting on or before a day.
+     */
+    private static int findSegment(long[] segmentStartDays, long epochDay) {
+        int low = 0;
+        int high = segmentStartDays.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segmentStartDays[middle] <= epochDay) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Helper method to find the compiled rules of a type and brand.
+     */
+    private static int getSlot(ToolType toolType, ToolBrand toolBrand) {
+        return toolType.ordinal() * TOOL_BRANDS.length + toolBrand.ordinal();
+    }
+
+    /**
+     * The rules of one type and brand, flattened for pricing.
+     */
+    private static final class CompiledRules {
+        private final int[] theTierDayCounts;
+        private final long[] theTierPriceCents;
+        private final long theMinimumCents;
+        private final long[] theSegmentStartDays;
+        private final int[] thePromotionBasisPoints;
+        private final int[] theSurchargeBasisPoints;
+
+        CompiledRules(int[] tierDayCounts, long[] tierPriceCents, long minimumCents, long[] segmentStartDays,
+                      int[] promotionBasisPoints, int[] surchargeBasisPoints) {
+            theTierDayCounts = tierDayCounts;
+            theTierPriceCents = tierPriceCents;
+            theMinimumCents = minimumCents;
+            theSegmentStartDays = segmentStartDays;
+            thePromotionBasisPoints = promotionBasisPoints;
+            theSurchargeBasisPoints = surchargeBasisPoints;
+        }
+    }
+}
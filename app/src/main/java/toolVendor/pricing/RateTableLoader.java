@@ -0,0 +1,132 @@
+package toolVendor.pricing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Loads exchange rate and tax tables from CSV files kept next to the app.
+ *
+ *  - Exchange rates, one range per line: currency,first,last,rate
+ *    e.g. "EUR,2020-01-01,2020-06-30,0.921345" for 0.921345 euros per dollar.
+ *  - Tax rates, one range per line: region,currency,first,last,percent
+ *    e.g. "US-NY,USD,2020-01-01,,8.875" for 8.875% in New York.
+ * Dates are ISO dates, and an empty last date leaves the rate in effect. Later lines override earlier ones
+ * where their dates overlap. Blank lines, lines starting with '#', and a header line starting with
+ * "currency," or "region," are skipped.
+ */
+public class RateTableLoader {
+    // Number of fields on a line of each file
+    private static final int EXCHANGE_RATE_FIELD_COUNT = 4;
+    private static final int TAX_RATE_FIELD_COUNT = 5;
+
+    /**
+     * Loads an exchange rate table.
+     *
+     * @param ratesFile: The CSV file to load
+     *
+     * @return: The table
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static ExchangeRateTable loadExchangeRates(Path ratesFile) throws IOException {
+        ExchangeRateTable.Builder builder = ExchangeRateTable.builder();
+
+        try (BufferedReader reader = Files.newBufferedReader(ratesFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = splitLine(line, "currency,", EXCHANGE_RATE_FIELD_COUNT, lineNumber, ratesFile);
+                if (fields == null) {
+                    continue;
+                }
+
+                try {
+                    builder.addRate(fields[0].trim(), LocalDate.parse(fields[1].trim()), parseLastDate(fields[2]),
+                                    parseFixedPoint(fields[3], 6));
+                }
+                catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    throw new IOException(String.format("%s line %d: %s", ratesFile, lineNumber, e.getMessage()), e);
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Loads a tax table.
+     *
+     * @param ratesFile: The CSV file to load
+     *
+     * @return: The table
+     *
+     * @throws IOException if the file can't be read or is malformed.
+     */
+    public static TaxTable loadTaxRates(Path ratesFile) throws IOException {
+        TaxTable.Builder builder = TaxTable.builder();
+
+        try (BufferedReader reader = Files.newBufferedReader(ratesFile, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = splitLine(line, "region,", TAX_RATE_FIELD_COUNT, lineNumber, ratesFile);
+                if (fields == null) {
+                    continue;
+                }
+
+                try {
+                    // Percentages in millionths of the whole are ten thousandths of a percent
+                    builder.addRate(fields[0], fields[1].trim(), LocalDate.parse(fields[2].trim()), parseLastDate(fields[3]),
+                                    parseFixedPoint(fields[4], 4));
+                }
+                catch (IllegalArgumentException | DateTimeParseException | ArithmeticException e) {
+                    throw new IOException(String.format("%s line %d: %s", ratesFile, lineNumber, e.getMessage()), e);
+                }
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Helper method to split a line into its fields, or null for lines that are skipped.
+     */
+    private static String[] splitLine(String line, String headerStart, int fieldCount, int lineNumber, Path ratesFile) throws IOException {
+        String trimmedLine = line.trim();
+        if (trimmedLine.isEmpty() || trimmedLine.startsWith("#") || trimmedLine.regionMatches(true, 0, headerStart, 0, headerStart.length())) {
+            return null;
+        }
+
+        String[] fields = trimmedLine.split(",", -1);
+        if (fields.length != fieldCount) {
+            throw new IOException(String.format("%s line %d: expected %d fields but found %d.", ratesFile, lineNumber, fieldCount, fields.length));
+        }
+        return fields;
+    }
+
+    /**
+     * Helper method to parse an optional last date.
+     */
+    private static LocalDate parseLastDate(String field) {
+        String trimmedField = field.trim();
+        return trimmedField.isEmpty() ? null : LocalDate.parse(trimmedField);
+    }
+
+    /**
+     * Helper method to parse a decimal exactly into a fixed point long, rounding half up past its decimals.
+     */
+    private static long parseFixedPoint(String field, int decimals) {
+        return new BigDecimal(field.trim()).setScale(decimals, RoundingMode.HALF_UP).movePointRight(decimals).longValueExact();
+    }
+}
@@ -0,0 +1,156 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import toolVendor.util.MoneyUtility;
+
+/**
+ * Tax regions, the currency each one charges in, and their tax rates by effective date.
+ *
+ * Tax rates are fixed point, in millionths, e.g. 72500 is 7.25%, so rates with fractions of a basis point
+ * are exact. Each region gets an index, and its rates are laid out one per day (see EffectiveDateSeries),
+ * so looking a rate up is two array reads.
+ */
+public class TaxTable {
+    // Tax rates are in millionths
+    public static final long RATE_SCALE = 1_000_000L;
+
+    // Member variables
+    private final Map<String, Integer> theRegionIndexes;
+    private final String[] theRegions;
+    private final Currency[] theCurrencies;
+    private final EffectiveDateSeries[] theRateSeries;
+
+    /**
+     * Constructor, see Builder.
+     */
+    private TaxTable(Map<String, Integer> regionIndexes, String[] regions, Currency[] currencies, EffectiveDateSeries[] rateSeries) {
+        theRegionIndexes = regionIndexes;
+        theRegions = regions;
+        theCurrencies = currencies;
+        theRateSeries = rateSeries;
+    }
+
+    /**
+     * Creates a builder for a table.
+     *
+     * @return: An empty Builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the index of a region, to look its rates up without a map lookup.
+     *
+     * @param region: The region code, e.g. "US-CA", case doesn't matter
+     *
+     * @return: The index, or -1 if the table doesn't have the region.
+     */
+    public int getRegionIndex(String region) {
+        if (region == null) {
+            return -1;
+        }
+        Integer regionIndex = theRegionIndexes.get(region.toUpperCase(Locale.ROOT));
+        return regionIndex != null ? regionIndex : -1;
+    }
+
+    /**
+     * Gets the tax rate of a region on a day.
+     *
+     * @param regionIndex: The index of the region, see getRegionIndex
+     * @param epochDay: The day
+     *
+     * @return: The rate in millionths, or -1 if no rate is in effect.
+     */
+    public long getRateMicros(int regionIndex, long epochDay) {
+        long rateMicros = theRateSeries[regionIndex].get(epochDay);
+        return rateMicros != EffectiveDateSeries.NO_VALUE ? rateMicros : -1;
+    }
+
+    /**
+     * Takes tax on an amount, rounding half up.
+     *
+     * @param minorUnits: The amount in minor units of its currency
+     * @param rateMicros: The tax rate in millionths
+     *
+     * @return: The tax in the same minor units
+     */
+    public static long taxOf(long minorUnits, long rateMicros) {
+        return MoneyUtility.multiplyRoundHalfUp(minorUnits, rateMicros, RATE_SCALE);
+    }
+
+    /**
+     * Getters
+     */
+    public String getRegion(int regionIndex) { return theRegions[regionIndex]; }
+    public Currency getCurrency(int regionIndex) { return theCurrencies[regionIndex]; }
+    public int size() { return theRegions.length; }
+
+    /**
+     * Collects the regions and rates of a table.
+     */
+    public static class Builder {
+        private final Map<String, Integer> theRegionIndexes = new HashMap<>();
+        private final List<String> theRegions = new ArrayList<>();
+        private final List<Currency> theCurrencies = new ArrayList<>();
+        private final List<EffectiveDateSeries.Builder> theRateSeries = new ArrayList<>();
+
+        /**
+         * Adds the tax rate of a region over a range of dates, overriding earlier rates where they overlap.
+         * The first rate of a region sets its currency.
+         *
+         * @param region: The region code, e.g. "US-CA"
+         * @param currencyCode: The ISO 4217 code of the currency the region charges in
+         * @param firstDate: The first day the rate applies
+         * @param lastDate: The last day the rate applies, or null if it's still in effect
+         * @param rateMicros: The tax rate in millionths
+         *
+         * @return: The builder
+         */
+        public Builder addRate(String region, String currencyCode, LocalDate firstDate, LocalDate lastDate, long rateMicros) {
+            String regionCode = region.trim().toUpperCase(Locale.ROOT);
+            Currency currency = Currency.getInstance(currencyCode);
+            if (regionCode.isEmpty()) {
+                throw new IllegalArgumentException("Tax region is empty.");
+            }
+            if (rateMicros < 0) {
+                throw new IllegalArgumentException("Tax rate of " + rateMicros + " for " + regionCode + " is negative.");
+            }
+
+            Integer regionIndex = theRegionIndexes.get(regionCode);
+            if (regionIndex == null) {
+                regionIndex = theRegions.size();
+                theRegionIndexes.put(regionCode, regionIndex);
+                theRegions.add(regionCode);
+                theCurrencies.add(currency);
+                theRateSeries.add(new EffectiveDateSeries.Builder());
+            }
+            else if (!theCurrencies.get(regionIndex).equals(currency)) {
+                throw new IllegalArgumentException("Tax region " + regionCode + " charges in " + theCurrencies.get(regionIndex) + ", not " + currency + ".");
+            }
+
+            theRateSeries.get(regionIndex).add(firstDate, lastDate, rateMicros);
+            return this;
+        }
+
+        /**
+         * Builds the table.
+         *
+         * @return: The table
+         */
+        public TaxTable build() {
+            EffectiveDateSeries[] rateSeries = new EffectiveDateSeries[theRateSeries.size()];
+            for (int i = 0; i < rateSeries.length; ++i) {
+                rateSeries[i] = theRateSeries.get(i).build();
+            }
+            return new TaxTable(new HashMap<>(theRegionIndexes), theRegions.toArray(new String[0]), theCurrencies.toArray(new Currency[0]), rateSeries);
+        }
+    }
+}
@@ -0,0 +1,698 @@
+package toolVendor.reprice;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.ReceiptRenderer;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolCatalog;
+import toolVendor.data.tool.ToolCatalogLoader;
+import toolVendor.pricing.PricingRuleLoader;
+import toolVendor.util.AsciiFormatter;
+import toolVendor.util.ByteBufferAppender;
+import toolVendor.util.DateStringParser;
+
+/**
+ * Re-prices a CSV of rental requests, one "tool,date,days,discount" line per request, e.g. after the rates change.
+ *
+ * The input is streamed through a read, price, write pipeline:
+ *  - A reader thread fills fixed size batches straight from the channel, cut at the last whole line.
+ *  - Worker threads price the lines of a batch in place, slicing the fields out of the batch's bytes
+ *    instead of building strings, and render a result line or receipt per request into the batch's output buffer.
+ *  - The calling thread writes the batches out in input order.
+ * Batches come from a fixed pool handed around through bounded queues, so memory doesn't grow with the file size.
+ *
+ * Result lines are the request line followed by the status (OK or the error code), the charge days, and the
+ * pre-discount, discount, and final amounts. Blank lines and a "tool,..." header are skipped.
+ */
+public class BulkRepricer {
+    // Default size of an input batch
+    public static final int DEFAULT_BATCH_SIZE = 1 << 20;
+
+    // Written in front of the result lines
+    private static final byte[] RESULT_HEADER = toAsciiBytes("tool,date,days,discount,status,charge_days,pre_discount,discount_amount,final_charge\n");
+    private static final byte[] OK_STATUS = toAsciiBytes(",OK,");
+    private static final byte[] EMPTY_AMOUNTS = toAsciiBytes(",,,,\n");
+    private static final byte[] REJECTED_LABEL = toAsciiBytes("Rejected: ");
+    private static final String MALFORMED_LINE = "MALFORMED_LINE";
+
+    // Room for the result fields after the request line
+    private static final int RESULT_FIELDS_BYTES = 128;
+
+    // Member variables
+    private final ToolVendor theToolVendor;
+    private final int theWorkerCount;
+    private final boolean theWritingReceipts;
+    private final int theBatchSize;
+
+    /**
+     * Constructor with the default batch size.
+     *
+     * @param toolVendor: Prices the requests
+     * @param workerCount: The # of pricing threads
+     * @param writingReceipts: True to write a receipt per request instead of a result line
+     */
+    public BulkRepricer(ToolVendor toolVendor, int workerCount, boolean writingReceipts) {
+        this(toolVendor, workerCount, writingReceipts, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param toolVendor: Prices the requests
+     * @param workerCount: The # of pricing threads
+     * @param writingReceipts: True to write a receipt per request instead of a result line
+     * @param batchSize: Bytes read per batch, longer lines grow their batch
+     */
+    public BulkRepricer(ToolVendor toolVendor, int workerCount, boolean writingReceipts, int batchSize) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count of " + workerCount + " should be positive.");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size of " + batchSize + " should be positive.");
+        }
+
+        theToolVendor = toolVendor;
+        theWorkerCount = workerCount;
+        theWritingReceipts = writingReceipts;
+        theBatchSize = batchSize;
+    }
+
+    /**
+     * Re-prices every request read from the input.
+     *
+     * @param input: Where the request lines are read from
+     * @param output: Where the results or receipts are written
+     *
+     * @return: What was read, priced, and written.
+     *
+     * @throws IOException if reading or writing fails.
+     * @throws InterruptedException if interrupted while waiting on the pipeline.
+     */
+    public RepriceStats reprice(ReadableByteChannel input, WritableByteChannel output) throws IOException, InterruptedException {
+        long startNanos = System.nanoTime();
+
+        // Enough batches for every worker to have one while the reader and writer hold one each
+        int batchCount = theWorkerCount * 2 + 2;
+        BlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(batchCount);
+        for (int i = 0; i < batchCount; ++i) {
+            freeBatches.add(new Batch(theBatchSize));
+        }
+        BlockingQueue<Batch> pricingQueue = new ArrayBlockingQueue<>(batchCount + theWorkerCount);
+        BlockingQueue<Batch> pricedQueue = new ArrayBlockingQueue<>(batchCount + 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        long[] bytesRead = new long[1];
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(() -> readBatches(input, freeBatches, pricingQueue, pricedQueue, failure, bytesRead), "reprice-reader"));
+        for (int i = 0; i < theWorkerCount; ++i) {
+            threads.add(new Thread(() -> priceBatches(pricingQueue, pricedQueue, failure), "reprice-worker-" + i));
+        }
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long lineCount = 0;
+        long pricedCount = 0;
+        long rejectedCount = 0;
+        long bytesWritten = 0;
+        try {
+            if (!theWritingReceipts) {
+                bytesWritten += writeFully(output, ByteBuffer.wrap(RESULT_HEADER));
+            }
+
+            // Write the batches in input order, holding back the ones that finish early
+            PriorityQueue<Batch> finishedBatches = new PriorityQueue<>((first, second) -> Long.compare(first.theSequence, second.theSequence));
+            long nextSequence = 0;
+            long endSequence = Long.MAX_VALUE;
+            while (nextSequence < endSequence) {
+                Batch batch = pricedQueue.take();
+                if (batch.theEndOfInput) {
+                    endSequence = batch.theSequence;
+                    continue;
+                }
+
+                finishedBatches.add(batch);
+                while (!finishedBatches.isEmpty() && finishedBatches.peek().theSequence == nextSequence) {
+                    Batch nextBatch = finishedBatches.poll();
+                    nextBatch.theOutput.flip();
+                    bytesWritten += writeFully(output, nextBatch.theOutput);
+                    lineCount += nextBatch.theLineCount;
+                    pricedCount += nextBatch.thePricedCount;
+                    rejectedCount += nextBatch.theRejectedCount;
+                    freeBatches.add(nextBatch);
+                    nextSequence++;
+                }
+            }
+
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        finally {
+            // Don't leave the pipeline blocked when writing fails
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+
+        Throwable pipelineFailure = failure.get();
+        if (pipelineFailure instanceof IOException) {
+            throw (IOException) pipelineFailure;
+        }
+        else if (pipelineFailure instanceof RuntimeException) {
+            throw (RuntimeException) pipelineFailure;
+        }
+        else if (pipelineFailure instanceof Error) {
+            throw (Error) pipelineFailure;
+        }
+
+        return new RepriceStats(lineCount, pricedCount, rejectedCount, bytesRead[0], bytesWritten, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Reads the input into batches of whole lines, in order, until the end of the input.
+     */
+    private void readBatches(ReadableByteChannel input, BlockingQueue<Batch> freeBatches, BlockingQueue<Batch> pricingQueue,
+                             BlockingQueue<Batch> pricedQueue, AtomicReference<Throwable> failure, long[] bytesRead) {
+        long sequence = 0;
+        try {
+            // The partial line at the end of the last batch
+            byte[] carry = new byte[256];
+            int carryLength = 0;
+            boolean endOfInput = false;
+
+            while (!endOfInput) {
+                Batch batch = freeBatches.take();
+                batch.reset(sequence);
+                if (batch.theInput.length < carryLength * 2) {
+                    batch.theInput = new byte[carryLength * 2];
+                }
+                System.arraycopy(carry, 0, batch.theInput, 0, carryLength);
+                int length = carryLength;
+
+                // Fill the batch, growing it when a single line doesn't fit
+                int lineEnd;
+                while (true) {
+                    while (length < batch.theInput.length) {
+                        int readCount = input.read(ByteBuffer.wrap(batch.theInput, length, batch.theInput.length - length));
+                        if (readCount < 0) {
+                            endOfInput = true;
+                            break;
+                        }
+                        length += readCount;
+                        bytesRead[0] += readCount;
+                    }
+
+                    lineEnd = endOfInput ? length : lastLineEnd(batch.theInput, length);
+                    if (lineEnd > 0 || endOfInput) {
+                        break;
+                    }
+                    batch.theInput = Arrays.copyOf(batch.theInput, batch.theInput.length * 2);
+                }
+
+                // Keep the partial line for the next batch
+                carryLength = length - lineEnd;
+                if (carry.length < carryLength) {
+                    carry = new byte[carryLength * 2];
+                }
+                System.arraycopy(batch.theInput, lineEnd, carry, 0, carryLength);
+
+                batch.theInputLength = lineEnd;
+                pricingQueue.put(batch);
+                sequence++;
+            }
+        }
+        catch (IOException | RuntimeException | Error e) {
+            failure.compareAndSet(null, e);
+        }
+        catch (InterruptedException e) {
+            return;
+        }
+
+        // Stop the workers and tell the writer how many batches there are
+        try {
+            for (int i = 0; i < theWorkerCount; ++i) {
+                pricingQueue.put(Batch.endOfInput(-1));
+            }
+            pricedQueue.put(Batch.endOfInput(sequence));
+        }
+        catch (InterruptedException e) {
+            // The writer gave up
+        }
+    }
+
+    /**
+     * Prices the batches handed over by the reader until the end of the input.
+     */
+    private void priceBatches(BlockingQueue<Batch> pricingQueue, BlockingQueue<Batch> pricedQueue, AtomicReference<Throwable> failure) {
+        AsciiSlice toolCodeSlice = new AsciiSlice();
+        AsciiSlice batchText = new AsciiSlice();
+
+        try {
+            while (true) {
+                Batch batch = pricingQueue.take();
+                if (batch.theEndOfInput) {
+                    return;
+                }
+
+                try {
+                    priceBatch(batch, toolCodeSlice, batchText);
+                }
+                catch (RuntimeException | Error e) {
+                    // Hand the batch on anyway so the writer isn't left waiting for it
+                    failure.compareAndSet(null, e);
+                    batch.theOutput.clear();
+                }
+                pricedQueue.put(batch);
+            }
+        }
+        catch (InterruptedException e) {
+            // The writer gave up
+        }
+    }
+
+    /**
+     * Prices every line of a batch into its output buffer.
+     */
+    private void priceBatch(Batch batch, AsciiSlice toolCodeSlice, AsciiSlice batchText) {
+        byte[] input = batch.theInput;
+        ToolCatalog toolCatalog = theToolVendor.getToolCatalog();
+        batchText.set(input, 0, batch.theInputLength);
+
+        int lineStart = 0;
+        while (lineStart < batch.theInputLength) {
+            int lineEnd = indexOf(input, '\n', lineStart, batch.theInputLength);
+            int nextLineStart = lineEnd + 1;
+
+            // Drop the \r of \r\n line ends and surrounding spaces
+            int contentStart = skipSpaces(input, lineStart, lineEnd);
+            int contentEnd = trimSpaces(input, contentStart, lineEnd);
+
+            if (contentEnd > contentStart && !isHeader(input, contentStart, contentEnd)) {
+                batch.theLineCount++;
+                priceLine(batch, contentStart, contentEnd, toolCatalog, toolCodeSlice, batchText);
+            }
+            lineStart = nextLineStart;
+        }
+    }
+
+    /**
+     * Prices one request line and writes its result.
+     */
+    private void priceLine(Batch batch, int lineStart, int lineEnd, ToolCatalog toolCatalog, AsciiSlice toolCodeSlice, AsciiSlice batchText) {
+        byte[] input = batch.theInput;
+
+        // Slice out the 4 fields
+        int[] fieldBounds = batch.theFieldBounds;
+        int fieldCount = 0;
+        int fieldStart = lineStart;
+        for (int i = lineStart; i <= lineEnd && fieldCount < 4; ++i) {
+            if (i == lineEnd || input[i] == ',') {
+                fieldBounds[fieldCount * 2] = skipSpaces(input, fieldStart, i);
+                fieldBounds[fieldCount * 2 + 1] = trimSpaces(input, fieldBounds[fieldCount * 2], i);
+                fieldCount++;
+                fieldStart = i + 1;
+            }
+        }
+
+        long rentalDayCount = fieldCount == 4 && fieldStart > lineEnd ? parseInt(input, fieldBounds[4], fieldBounds[5]) : Long.MIN_VALUE;
+        double discount = rentalDayCount != Long.MIN_VALUE ? parseDecimal(input, fieldBounds[6], fieldBounds[7]) : Double.NaN;
+        if (rentalDayCount == Long.MIN_VALUE || Double.isNaN(discount)) {
+            writeRejection(batch, lineStart, lineEnd, MALFORMED_LINE);
+            return;
+        }
+
+        // Look up the tool and parse the date without making strings
+        toolCodeSlice.set(input, fieldBounds[0], fieldBounds[1]);
+        Tool tool = toolCatalog.getTool(toolCodeSlice);
+        long checkoutEpochDay = DateStringParser.parseEpochDay(batchText, fieldBounds[2], fieldBounds[3]);
+
+        CheckoutResult checkoutResult;
+        if (tool != null && checkoutEpochDay != DateStringParser.INVALID_EPOCH_DAY) {
+            checkoutResult = theToolVendor.tryCheckoutTool(tool.getToolCode(), LocalDate.ofEpochDay(checkoutEpochDay), (int) rentalDayCount, discount);
+        }
+        else {
+            // Let the vendor say what's wrong
+            checkoutResult = theToolVendor.tryCheckoutTool(toFieldString(input, fieldBounds[0], fieldBounds[1]), toFieldString(input, fieldBounds[2], fieldBounds[3]), (int) rentalDayCount, discount);
+        }
+
+        if (!checkoutResult.isSuccess()) {
+            writeRejection(batch, lineStart, lineEnd, checkoutResult.getErrorCode().name());
+            return;
+        }
+
+        batch.thePricedCount++;
+        RentalAgreement rentalAgreement = checkoutResult.getRentalAgreement();
+        if (theWritingReceipts) {
+            ByteBuffer output = batch.ensureOutput(ReceiptRenderer.getMaxReceiptBytes(rentalAgreement) + 2);
+            ReceiptRenderer.render(rentalAgreement, output);
+            output.put((byte) '\n');
+            output.put((byte) '\n');
+        }
+        else {
+            ByteBuffer output = batch.ensureOutput(lineEnd - lineStart + RESULT_FIELDS_BYTES);
+            output.put(input, lineStart, lineEnd - lineStart);
+            output.put(OK_STATUS);
+            putAmounts(output, rentalAgreement);
+            output.put((byte) '\n');
+        }
+    }
+
+    /**
+     * Helper method to write a rejected line with why it was rejected.
+     */
+    private void writeRejection(Batch batch, int lineStart, int lineEnd, String errorCode) {
+        batch.theRejectedCount++;
+        ByteBuffer output = batch.ensureOutput(lineEnd - lineStart + RESULT_FIELDS_BYTES);
+
+        if (theWritingReceipts) {
+            output.put(REJECTED_LABEL);
+            output.put(batch.theInput, lineStart, lineEnd - lineStart);
+            output.put((byte) ' ');
+            output.put((byte) '(');
+            new ByteBufferAppender(output).append(errorCode);
+            output.put((byte) ')');
+            output.put((byte) '\n');
+            output.put((byte) '\n');
+        }
+        else {
+            output.put(batch.theInput, lineStart, lineEnd - lineStart);
+            output.put((byte) ',');
+            new ByteBufferAppender(output).append(errorCode);
+            output.put(EMPTY_AMOUNTS);
+        }
+    }
+
+    /**
+     * Runs the repricer from the command line.
+     *
+     * @param args: The input CSV, then optionally the output file (stdout when left out or "-"),
+     *              "--receipts" to write receipts, "--workers N", "--catalog FILE" for new rates,
+     *              and "--rules FILE" for pricing rules, see PricingRuleLoader
+     *
+     * @throws IOException if a file can't be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> paths = new ArrayList<>();
+        boolean writingReceipts = false;
+        int workerCount = Runtime.getRuntime().availableProcessors();
+        Path catalogFile = null;
+        Path rulesFile = null;
+
+        for (int i = 0; i < args.length; ++i) {
+            if (args[i].equals("--receipts")) {
+                writingReceipts = true;
+            }
+            else if (args[i].equals("--workers") && i + 1 < args.length) {
+                workerCount = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--catalog") && i + 1 < args.length) {
+                catalogFile = Paths.get(args[++i]);
+            }
+            else if (args[i].equals("--rules") && i + 1 < args.length) {
+                rulesFile = Paths.get(args[++i]);
+            }
+            else {
+                paths.add(args[i]);
+            }
+        }
+
+        if (paths.isEmpty()) {
+            System.err.println("Usage: reprice <requests.csv> [output|-] [--receipts] [--workers N] [--catalog FILE] [--rules FILE]");
+            return;
+        }
+
+        ToolVendor toolVendor = catalogFile != null ? new ToolVendor(ToolCatalogLoader.load(catalogFile)) : new ToolVendor();
+        if (rulesFile != null) {
+            toolVendor.setPricingRules(PricingRuleLoader.load(rulesFile));
+        }
+        BulkRepricer bulkRepricer = new BulkRepricer(toolVendor, workerCount, writingReceipts);
+        boolean writingToStdout = paths.size() < 2 || paths.get(1).equals("-");
+
+        try (FileChannel input = FileChannel.open(Paths.get(paths.get(0)), StandardOpenOption.READ);
+             WritableByteChannel output = writingToStdout ? Channels.newChannel(System.out)
+                 : FileChannel.open(Paths.get(paths.get(1)), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            RepriceStats repriceStats = bulkRepricer.reprice(input, output);
+            System.err.println(repriceStats);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Repricing was interrupted.");
+        }
+    }
+
+    /**
+     * Helper method to write a whole buffer.
+     */
+    private static int writeFully(WritableByteChannel output, ByteBuffer buffer) throws IOException {
+        int byteCount = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            output.write(buffer);
+        }
+        return byteCount;
+    }
+
+    /**
+     * Helper methods to find and trim within the input bytes.
+     */
+    private static int lastLineEnd(byte[] bytes, int length) {
+        for (int i = length - 1; i >= 0; --i) {
+            if (bytes[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(byte[] bytes, char character, int start, int end) {
+        for (int i = start; i < end; ++i) {
+            if (bytes[i] == character) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int skipSpaces(byte[] bytes, int start, int end) {
+        while (start < end && (bytes[start] == ' ' || bytes[start] == '\t' || bytes[start] == '\r')) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimSpaces(byte[] bytes, int start, int end) {
+        while (end > start && (bytes[end - 1] == ' ' || bytes[end - 1] == '\t' || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isHeader(byte[] bytes, int start, int end) {
+        return end - start >= 5 && (bytes[start] | 0x20) == 't' && (bytes[start + 1] | 0x20) == 'o' &&
+               (bytes[start + 2] | 0x20) == 'o' && (bytes[start + 3] | 0x20) == 'l' && bytes[start + 4] == ',';
+    }
+
+    /**
+     * Helper method to turn a field into a string for error reporting, null when empty.
+     */
+    private static String toFieldString(byte[] bytes, int start, int end) {
+        return end > start ? new String(bytes, start, end - start, StandardCharsets.ISO_8859_1) : null;
+    }
+
+    /**
+     * Helper method to parse a whole number field.
+     *
+     * @return: The number, or Long.MIN_VALUE if the field isn't a whole number that fits an int.
+     */
+    private static long parseInt(byte[] bytes, int start, int end) {
+        boolean negative = start < end && bytes[start] == '-';
+        int digitStart = negative ? start + 1 : start;
+        if (digitStart == end || end - digitStart > 10) {
+            return Long.MIN_VALUE;
+        }
+
+        long value = 0;
+        for (int i = digitStart; i < end; ++i) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+        }
+
+        value = negative ? -value : value;
+        return (int) value == value ? value : Long.MIN_VALUE;
+    }
+
+    /**
+     * Helper method to parse a decimal field like "20", "12.5", or "-3".
+     *
+     * @return: The number, or NaN if the field isn't a decimal.
+     */
+    private static double parseDecimal(byte[] bytes, int start, int end) {
+        boolean negative = start < end && bytes[start] == '-';
+        int digitStart = negative ? start + 1 : start;
+
+        long mantissa = 0;
+        int digitCount = 0;
+        int fractionDigitCount = -1;
+        for (int i = digitStart; i < end; ++i) {
+            if (bytes[i] == '.' && fractionDigitCount < 0) {
+                fractionDigitCount = 0;
+                continue;
+            }
+
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || ++digitCount > 15) {
+                return Double.NaN;
+            }
+            mantissa = mantissa * 10 + digit;
+            if (fractionDigitCount >= 0) {
+                fractionDigitCount++;
+            }
+        }
+
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+
+        double value = fractionDigitCount > 0 ? mantissa / Math.pow(10, fractionDigitCount) : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Helper method to write the charge days and amounts of an agreement as CSV fields.
+     */
+    private static void putAmounts(ByteBuffer output, RentalAgreement rentalAgreement) {
+        ByteBufferAppender appender = new ByteBufferAppender(output);
+        try {
+            AsciiFormatter.appendLong(appender, rentalAgreement.getChargableDayCount());
+            appender.append(',');
+            AsciiFormatter.appendCents(appender, rentalAgreement.getInitialPriceCents());
+            appender.append(',');
+            AsciiFormatter.appendCents(appender, rentalAgreement.getDiscountAmountCents());
+            appender.append(',');
+            AsciiFormatter.appendCents(appender, rentalAgreement.getFinalChargeCents());
+        }
+        catch (IOException e) {
+            // A ByteBufferAppender never throws
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Helper method to turn text into bytes, for the fixed parts of the output.
+     */
+    private static byte[] toAsciiBytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A batch of input lines and the output rendered for them, reused across the run.
+     */
+    private static final class Batch {
+        private long theSequence;
+        private byte[] theInput;
+        private int theInputLength;
+        private ByteBuffer theOutput;
+        private final int[] theFieldBounds = new int[8];
+        private long theLineCount;
+        private long thePricedCount;
+        private long theRejectedCount;
+        private boolean theEndOfInput;
+
+        Batch(int batchSize) {
+            theInput = new byte[batchSize];
+            theOutput = ByteBuffer.allocate(batchSize * 2);
+        }
+
+        /**
+         * Creates the marker sent after the last batch.
+         */
+        static Batch endOfInput(long sequence) {
+            Batch batch = new Batch(0);
+            batch.theSequence = sequence;
+            batch.theEndOfInput = true;
+            return batch;
+        }
+
+        void reset(long sequence) {
+            theSequence = sequence;
+            theInputLength = 0;
+            theOutput.clear();
+            theLineCount = 0;
+            thePricedCount = 0;
+            theRejectedCount = 0;
+        }
+
+        /**
+         * Makes room in the output buffer, growing it when needed.
+         */
+        ByteBuffer ensureOutput(int byteCount) {
+            if (theOutput.remaining() < byteCount) {
+                ByteBuffer grownOutput = ByteBuffer.allocate(Math.max(theOutput.capacity() * 2, theOutput.position() + byteCount));
+                theOutput.flip();
+                grownOutput.put(theOutput);
+                theOutput = grownOutput;
+            }
+            return theOutput;
+        }
+    }
+
+    /**
+     * A reusable CharSequence view of ASCII bytes, so fields can be parsed without copying them into strings.
+     */
+    private static final class AsciiSlice implements CharSequence {
+        private byte[] theBytes;
+        private int theStart;
+        private int theLength;
+
+        void set(byte[] bytes, int start, int end) {
+            theBytes = bytes;
+            theStart = start;
+            theLength = end - start;
+        }
+
+        @Override
+        public int length() {
+            return theLength;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (theBytes[theStart + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(theBytes, theStart + start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(theBytes, theStart, theLength, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package toolVendor.reprice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts from one BulkRepricer run.
+ */
+public class RepriceStats {
+    // Member variables
+    private final long theLineCount;
+    private final long thePricedCount;
+    private final long theRejectedCount;
+    private final long theBytesRead;
+    private final long theBytesWritten;
+    private final long theElapsedNanos;
+
+    /**
+     * Constructor
+     *
+     * @param lineCount: The # of request lines read, blank lines and the header left out
+     * @param pricedCount: The # of lines that got an agreement
+     * @param rejectedCount: The # of lines that were malformed or rejected
+     * @param bytesRead: The # of bytes read
+     * @param bytesWritten: The # of bytes written
+     * @param elapsedNanos: How long the run took
+     */
+    RepriceStats(long lineCount, long pricedCount, long rejectedCount, long bytesRead, long bytesWritten, long elapsedNanos) {
+        theLineCount = lineCount;
+        thePricedCount = pricedCount;
+        theRejectedCount = rejectedCount;
+        theBytesRead = bytesRead;
+        theBytesWritten = bytesWritten;
+        theElapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Getters
+     */
+    public long getLineCount() { return theLineCount; }
+    public long getPricedCount() { return thePricedCount; }
+    public long getRejectedCount() { return theRejectedCount; }
+    public long getBytesRead() { return theBytesRead; }
+    public long getBytesWritten() { return theBytesWritten; }
+    public long getElapsedNanos() { return theElapsedNanos; }
+
+    @Override
+    public String toString() {
+        double seconds = Math.max(theElapsedNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        return String.format("Repriced %d lines (%d priced, %d rejected) in %.3f s: %.0f lines/s, %.1f MB/s read, %.1f MB/s written",
+            theLineCount, thePricedCount, theRejectedCount, seconds, theLineCount / seconds,
+            theBytesRead / seconds / (1024 * 1024), theBytesWritten / seconds / (1024 * 1024));
+    }
+}
@@ -0,0 +1,458 @@
+package toolVendor.server;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.ReceiptRenderer;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.checkout.CheckoutRequest;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.metrics.CheckoutMetrics;
+import toolVendor.metrics.CheckoutStage;
+import toolVendor.pricing.LocalCharge;
+
+/**
+ * Embedded HTTP service in front of a ToolVendor, built on the JDK's com.sun.net.httpserver so it
+ * runs without any other dependencies.
+ *
+ * Endpoints:
+ *  - GET or POST /checkout?tool=JAKR&date=7/2/20&days=4&discount=50 returns the agreement as JSON.
+ *    Adding region=DE-BY also charges in the region's currency with its tax, see ToolVendor.setChargeLocalizer.
+ *  - GET or POST /receipt with the same parameters as /checkout, region included, returns the receipt as plain text.
+ *  - POST /checkout/batch with one "tool,date,days,discount" line per checkout returns a JSON array
+ *    with one result per line, in order. Batches over MAX_BATCH_LINES checkouts or MAX_BATCH_BYTES
+ *    get a 413 without any of them being checked out.
+ *  - GET /metrics returns the vendor's CheckoutMetrics as plain text, or a 404 when it has none.
+ * Rejected checkouts come back as a 400 with the error code and message as JSON.
+ *
+ * Each request runs on its own virtual thread when the JVM has them, and on a cached thread pool
+ * otherwise. At most maxInFlight requests are worked on at once, anything past that gets a 503 right
+ * away so a load spike can't pile up unbounded work, and the batch limits keep one request from doing so. JSON is streamed straight to the response.
+ */
+public class CheckoutServer implements AutoCloseable {
+    // Defaults
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    // Largest batch taken, anything bigger gets a 413
+    public static final int MAX_BATCH_LINES = 10000;
+    public static final int MAX_BATCH_BYTES = 1 << 20;
+
+    // Member variables
+    private final ToolVendor theToolVendor;
+    private final HttpServer theHttpServer;
+    private final ExecutorService theRequestExecutor;
+    private final Semaphore theInFlightPermits;
+    private final int theMaxInFlight;
+    private final LongAdder theRejectedCount = new LongAdder();
+
+    /**
+     * Constructor, binds the port but doesn't accept requests until start is called.
+     *
+     * @param toolVendor: The vendor checking out the tools
+     * @param address: Address to listen on, port 0 picks a free port
+     * @param maxInFlight: Most requests worked on at once
+     *
+     * @throws IOException if the address can't be bound.
+     */
+    public CheckoutServer(ToolVendor toolVendor, InetSocketAddress address, int maxInFlight) throws IOException {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in flight requests of " + maxInFlight + " should be positive.");
+        }
+
+        theToolVendor = toolVendor;
+        theMaxInFlight = maxInFlight;
+        theInFlightPermits = new Semaphore(maxInFlight);
+        theRequestExecutor = createRequestExecutor();
+
+        theHttpServer = HttpServer.create(address, 0);
+        theHttpServer.setExecutor(theRequestExecutor);
+        theHttpServer.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        theHttpServer.start();
+    }
+
+    /**
+     * Stops the server, letting requests in progress finish for up to a second.
+     */
+    @Override
+    public void close() {
+        theHttpServer.stop(1);
+        theRequestExecutor.shutdown();
+    }
+
+    /**
+     * Getters
+     */
+    public int getPort() { return theHttpServer.getAddress().getPort(); }
+    public int getMaxInFlight() { return theMaxInFlight; }
+    public long getRejectedCount() { return theRejectedCount.sum(); }
+
+    /**
+     * Runs a server on localhost until the process is stopped.
+     *
+     * @param args: Optional port, then optional max in flight requests
+     *
+     * @throws IOException if the port can't be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_IN_FLIGHT;
+
+        CheckoutServer checkoutServer = new CheckoutServer(new ToolVendor(), new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxInFlight);
+        checkoutServer.start();
+        System.out.println("Checkout server listening on http://localhost:" + checkoutServer.getPort() + "/");
+    }
+
+    /**
+     * Creates a virtual thread per task executor when the JVM has one, looked up reflectively so the
+     * app still builds and runs on older JVMs, or a cached thread pool otherwise.
+     *
+     * @return: The executor requests run on
+     */
+    static ExecutorService createRequestExecutor() {
+        try {
+            Method virtualThreadFactory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtualThreadFactory.invoke(null);
+        }
+        catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread requestThread = new Thread(runnable, "checkout-request");
+                requestThread.setDaemon(true);
+                return requestThread;
+            });
+        }
+    }
+
+    /**
+     * Handles every request, turning it away when too many are in flight.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!theInFlightPermits.tryAcquire()) {
+                theRejectedCount.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                sendError(exchange, 503, "OVERLOADED", "Too many requests in flight, please retry.");
+                return;
+            }
+
+            try {
+                route(exchange);
+            }
+            finally {
+                theInFlightPermits.release();
+            }
+        }
+        catch (RuntimeException e) {
+            sendError(exchange, 500, "INTERNAL_ERROR", String.valueOf(e.getMessage()));
+        }
+        finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Helper method to send a request to its endpoint.
+     */
+    private void route(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        boolean isGetOrPost = method.equals("GET") || method.equals("POST");
+
+        if (path.equals("/checkout") && isGetOrPost) {
+            handleCheckout(exchange);
+        }
+        else if (path.equals("/receipt") && isGetOrPost) {
+            handleReceipt(exchange);
+        }
+        else if (path.equals("/checkout/batch") && method.equals("POST")) {
+            handleBatch(exchange);
+        }
+        else if (path.equals("/metrics") && method.equals("GET")) {
+            handleMetrics(exchange);
+        }
+        else if (path.equals("/checkout") || path.equals("/receipt") || path.equals("/checkout/batch") || path.equals("/metrics")) {
+            sendError(exchange, 405, "METHOD_NOT_ALLOWED", method + " is not supported on " + path + ".");
+        }
+        else {
+            sendError(exchange, 404, "NOT_FOUND", "Nothing is served at " + path + ".");
+        }
+    }
+
+    /**
+     * Checks out one tool, answering with the agreement as JSON.
+     */
+    private void handleCheckout(HttpExchange exchange) throws IOException {
+        CheckoutResult checkoutResult = checkout(exchange);
+        if (checkoutResult == null) {
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(checkoutResult.isSuccess() ? 200 : 400, 0);
+
+        JsonWriter jsonWriter = new JsonWriter(exchange.getResponseBody());
+        writeResult(jsonWriter, checkoutResult);
+        jsonWriter.flush();
+    }
+
+    /**
+     * Checks out one tool, answering with the receipt as plain text.
+     */
+    private void handleReceipt(HttpExchange exchange) throws IOException {
+        CheckoutResult checkoutResult = checkout(exchange);
+        if (checkoutResult == null) {
+            return;
+        }
+        if (!checkoutResult.isSuccess()) {
+            sendError(exchange, 400, checkoutResult.getErrorCode().name(), checkoutResult.getErrorMessage());
+            return;
+        }
+
+        long renderStartNanos = System.nanoTime();
+        RentalAgreement rentalAgreement = checkoutResult.getRentalAgreement();
+        ByteBuffer receiptBuffer = ByteBuffer.allocate(ReceiptRenderer.getMaxReceiptBytes(rentalAgreement));
+        ReceiptRenderer.render(rentalAgreement, receiptBuffer);
+        byte[] localChargeBytes = checkoutResult.getLocalCharge() != null ?
+            ("\n" + checkoutResult.getLocalCharge()).getBytes(StandardCharsets.UTF_8) : new byte[0];
+
+        CheckoutMetrics checkoutMetrics = theToolVendor.getCheckoutMetrics();
+        if (checkoutMetrics != null) {
+            checkoutMetrics.recordStage(CheckoutStage.RENDER, System.nanoTime() - renderStartNanos);
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(200, receiptBuffer.position() + localChargeBytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(receiptBuffer.array(), 0, receiptBuffer.position());
+            responseBody.write(localChargeBytes);
+        }
+    }
+
+    /**
+     * Answers with the vendor's checkout metrics as plain text.
+     */
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        CheckoutMetrics checkoutMetrics = theToolVendor.getCheckoutMetrics();
+        if (checkoutMetrics == null) {
+            sendError(exchange, 404, "NOT_FOUND", "Checkout metrics aren't set up.");
+            return;
+        }
+
+        byte[] metricsBytes = checkoutMetrics.dump().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(200, metricsBytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(metricsBytes);
+        }
+    }
+
+    /**
+     * Checks out every line of the request body, answering with a JSON array of results.
+     */
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        // Read at most a byte past the limit, so an oversized body is never held whole
+        byte[] body;
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            body = requestBody.readNBytes(MAX_BATCH_BYTES + 1);
+        }
+        if (body.length > MAX_BATCH_BYTES) {
+            sendError(exchange, 413, "BATCH_TOO_LARGE", "Batches are limited to " + MAX_BATCH_BYTES + " bytes.");
+            return;
+        }
+
+        List<CheckoutRequest> checkoutRequests = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                // Skip blank lines and a header
+                if (line.isEmpty() || line.regionMatches(true, 0, "tool,", 0, 5)) {
+                    continue;
+                }
+
+                String[] fields = line.split(",", -1);
+                Integer rentalDayCount = fields.length == 4 ? parseInteger(fields[2].trim()) : null;
+                Double discount = fields.length == 4 ? parseDouble(fields[3].trim()) : null;
+                if (rentalDayCount == null || discount == null) {
+                    sendError(exchange, 400, "MALFORMED_REQUEST", "Line " + lineNumber + " should be tool,date,days,discount.");
+                    return;
+                }
+                if (checkoutRequests.size() == MAX_BATCH_LINES) {
+                    sendError(exchange, 413, "BATCH_TOO_LARGE", "Batches are limited to " + MAX_BATCH_LINES + " checkouts.");
+                    return;
+                }
+
+                checkoutRequests.add(new CheckoutRequest(fields[0].trim(), fields[1].trim(), rentalDayCount, discount));
+            }
+        }
+
+        List<CheckoutResult> checkoutResults = theToolVendor.checkoutBatch(checkoutRequests);
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+
+        JsonWriter jsonWriter = new JsonWriter(exchange.getResponseBody());
+        jsonWriter.beginArray();
+        for (CheckoutResult checkoutResult : checkoutResults) {
+            writeResult(jsonWriter, checkoutResult);
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
+    /**
+     * Helper method to check out the tool described by the query parameters. Answers with a 400
+     * and returns null when the numbers can't be parsed.
+     */
+    private CheckoutResult checkout(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        String rentalDayCountParameter = parameters.get("days");
+        String discountParameter = parameters.get("discount");
+        Integer rentalDayCount = rentalDayCountParameter != null ? parseInteger(rentalDayCountParameter) : null;
+        Double discount = discountParameter != null ? parseDouble(discountParameter) : Double.valueOf(0.0);
+
+        if (rentalDayCount == null || discount == null) {
+            sendError(exchange, 400, "MALFORMED_REQUEST", "days should be a whole number and discount a number.");
+            return null;
+        }
+
+        return theToolVendor.tryCheckoutTool(parameters.get("tool"), parameters.get("date"), rentalDayCount, discount, parameters.get("region"));
+    }
+
+    /**
+     * Helper method to write a checkout result as JSON.
+     */
+    private static void writeResult(JsonWriter jsonWriter, CheckoutResult checkoutResult) throws IOException {
+        jsonWriter.beginObject();
+        jsonWriter.name("success").value(checkoutResult.isSuccess());
+
+        if (checkoutResult.isSuccess()) {
+            RentalAgreement rentalAgreement = checkoutResult.getRentalAgreement();
+
+            jsonWriter.name("agreement").beginObject();
+            jsonWriter.name("toolCode").value(rentalAgreement.getTool().getToolCode());
+            jsonWriter.name("toolType").value(rentalAgreement.getTool().getToolTypeString());
+            jsonWriter.name("toolBrand").value(rentalAgreement.getTool().getToolBrandString());
+            jsonWriter.name("rentalDays").value(rentalAgreement.getRentalDayCount());
+            jsonWriter.name("checkoutDate").value(rentalAgreement.getCheckoutDate());
+            jsonWriter.name("dueDate").value(rentalAgreement.getReturnDate());
+            jsonWriter.name("dailyRentalRate").valueHundredths(rentalAgreement.getTool().getDailyChargeRateCents());
+            jsonWriter.name("chargeDays").value(rentalAgreement.getChargableDayCount());
+            jsonWriter.name("preDiscountCost").valueHundredths(rentalAgreement.getInitialPriceCents());
+            jsonWriter.name("discountPercent").valueHundredths(rentalAgreement.getDiscountBasisPoints());
+            jsonWriter.name("discountAmount").valueHundredths(rentalAgreement.getDiscountAmountCents());
+            jsonWriter.name("finalCharge").valueHundredths(rentalAgreement.getFinalChargeCents());
+            jsonWriter.endObject();
+
+            // Local amounts are in minor units, since currencies differ in their # of decimals
+            LocalCharge localCharge = checkoutResult.getLocalCharge();
+            if (localCharge != null) {
+                jsonWriter.name("localCharge").beginObject();
+                jsonWriter.name("taxRegion").value(localCharge.getTaxRegion());
+                jsonWriter.name("currency").value(localCharge.getCurrency().getCurrencyCode());
+                jsonWriter.name("exchangeRateMicros").value(localCharge.getExchangeRateMicros());
+                jsonWriter.name("taxRateMicros").value(localCharge.getTaxRateMicros());
+                jsonWriter.name("chargeMinorUnits").value(localCharge.getChargeMinorUnits());
+                jsonWriter.name("taxMinorUnits").value(localCharge.getTaxMinorUnits());
+                jsonWriter.name("totalMinorUnits").value(localCharge.getTotalMinorUnits());
+                jsonWriter.endObject();
+            }
+        }
+        else {
+            jsonWriter.name("error").value(checkoutResult.getErrorCode().name());
+            jsonWriter.name("message").value(checkoutResult.getErrorMessage());
+        }
+
+        jsonWriter.endObject();
+    }
+
+    /**
+     * Helper method to answer with an error as JSON.
+     */
+    private static void sendError(HttpExchange exchange, int status, String errorCode, String message) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, 0);
+
+        JsonWriter jsonWriter = new JsonWriter(exchange.getResponseBody());
+        jsonWriter.beginObject();
+        jsonWriter.name("success").value(false);
+        jsonWriter.name("error").value(errorCode);
+        jsonWriter.name("message").value(message);
+        jsonWriter.endObject();
+        jsonWriter.flush();
+    }
+
+    /**
+     * Helper method to split a query string into decoded parameters. Later values win.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                               URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+            }
+        }
+
+        return parameters;
+    }
+
+    /**
+     * Helper methods to parse numbers, giving null instead of throwing.
+     */
+    private static Integer parseInteger(String text) {
+        try {
+            return Integer.valueOf(text);
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Double parseDouble(String text) {
+        try {
+            return Double.valueOf(text);
+        }
+        catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package toolVendor.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+import toolVendor.util.AsciiFormatter;
+
+/**
+ * Streams JSON to an OutputStream through a small byte buffer, without building strings.
+ *
+ * Only what the CheckoutServer needs is supported: objects, arrays, strings, whole numbers, and
+ * fixed point decimals. Commas are placed automatically. The output is plain ASCII, anything
+ * else in a string is written as a unicode escape.
+ */
+class JsonWriter {
+    // Size of the output buffer
+    private static final int BUFFER_SIZE = 8192;
+
+    // Deepest nesting supported
+    private static final int MAX_DEPTH = 32;
+
+    // Hex digits for escapes
+    private static final byte[] HEX_DIGITS = { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+    // Member variables
+    private final OutputStream theOutputStream;
+    private final byte[] theBuffer = new byte[BUFFER_SIZE];
+    private int thePosition = 0;
+
+    // Whether the object or array at each depth already has a value, to know when a comma is needed.
+    private final boolean[] theHasValue = new boolean[MAX_DEPTH];
+    private int theDepth = 0;
+
+    // Set after a name is written, so the value that follows doesn't get a comma.
+    private boolean theAfterName = false;
+
+    // The buffer as an Appendable, so numbers are written by the AsciiFormatter
+    private final Appendable theAsciiAppendable = new AsciiAppendable();
+
+    /**
+     * Constructor
+     *
+     * @param outputStream: Where the JSON is written
+     */
+    JsonWriter(OutputStream outputStream) {
+        theOutputStream = outputStream;
+    }
+
+    JsonWriter beginObject() throws IOException {
+        beforeValue();
+        writeByte('{');
+        return push();
+    }
+
+    JsonWriter endObject() throws IOException {
+        theDepth--;
+        writeByte('}');
+        return this;
+    }
+
+    JsonWriter beginArray() throws IOException {
+        beforeValue();
+        writeByte('[');
+        return push();
+    }
+
+    JsonWriter endArray() throws IOException {
+        theDepth--;
+        writeByte(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next member of an object.
+     *
+     * @param name: The member name
+     *
+     * @return: The writer
+     */
+    JsonWriter name(CharSequence name) throws IOException {
+        beforeValue();
+        writeString(name);
+        writeByte(':');
+        theAfterName = true;
+        return this;
+    }
+
+    /**
+     * Writes a string value, or null.
+     */
+    JsonWriter value(CharSequence value) throws IOException {
+        beforeValue();
+        if (value == null) {
+            theAsciiAppendable.append("null");
+        }
+        else {
+            writeString(value);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a whole number value.
+     */
+    JsonWriter value(long value) throws IOException {
+        beforeValue();
+        AsciiFormatter.appendLong(theAsciiAppendable, value);
+        return this;
+    }
+
+    /**
+     * Writes a boolean value.
+     */
+    JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        theAsciiAppendable.append(value ? "true" : "false");
+        return this;
+    }
+
+    /**
+     * Writes a fixed point decimal with two places, e.g. cents as dollars or basis points as a percentage.
+     *
+     * @param hundredths: The value in hundredths, e.g. 1234 for 12.34
+     *
+     * @return: The writer
+     */
+    JsonWriter valueHundredths(long hundredths) throws IOException {
+        beforeValue();
+        AsciiFormatter.appendCents(theAsciiAppendable, hundredths);
+        return this;
+    }
+
+    /**
+     * Writes a date as an ISO string, e.g. "2020-07-02".
+     */
+    JsonWriter value(LocalDate date) throws IOException {
+        if (date == null) {
+            return value((CharSequence) null);
+        }
+
+        beforeValue();
+        writeByte('"');
+        AsciiFormatter.appendLong(theAsciiAppendable, date.getYear());
+        writeByte('-');
+        AsciiFormatter.appendTwoDigits(theAsciiAppendable, date.getMonthValue());
+        writeByte('-');
+        AsciiFormatter.appendTwoDigits(theAsciiAppendable, date.getDayOfMonth());
+        writeByte('"');
+        return this;
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     */
+    void flush() throws IOException {
+        if (thePosition > 0) {
+            theOutputStream.write(theBuffer, 0, thePosition);
+            thePosition = 0;
+        }
+        theOutputStream.flush();
+    }
+
+    /**
+     * Helper method to enter an object or array.
+     */
+    private JsonWriter push() {
+        if (theDepth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested deeper than " + MAX_DEPTH + ".");
+        }
+        theHasValue[theDepth++] = false;
+        return this;
+    }
+
+    /**
+     * Helper method to write the comma before a value when needed.
+     */
+    private void beforeValue() throws IOException {
+        if (theAfterName) {
+            theAfterName = false;
+            return;
+        }
+        if (theDepth > 0) {
+            if (theHasValue[theDepth - 1]) {
+                writeByte(',');
+            }
+            theHasValue[theDepth - 1] = true;
+        }
+    }
+
+    /**
+     * Helper method to write a quoted, escaped string.
+     */
+    private void writeString(CharSequence value) throws IOException {
+        writeByte('"');
+        for (int i = 0; i < value.length(); ++i) {
+            char character = value.charAt(i);
+
+            if (character == '"' || character == '\\') {
+                writeByte('\\');
+                writeByte(character);
+            }
+            else if (character < 0x20 || character > 0x7E) {
+                writeByte('\\');
+                writeByte('u');
+                writeByte(HEX_DIGITS[(character >>> 12) & 0xF]);
+                writeByte(HEX_DIGITS[(character >>> 8) & 0xF]);
+                writeByte(HEX_DIGITS[(character >>> 4) & 0xF]);
+                writeByte(HEX_DIGITS[character & 0xF]);
+            }
+            else {
+                writeByte(character);
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeByte(int value) throws IOException {
+        if (thePosition == theBuffer.length) {
+            theOutputStream.write(theBuffer, 0, thePosition);
+            thePosition = 0;
+        }
+        theBuffer[thePosition++] = (byte) value;
+    }
+
+    /**
+     * Appends straight to the output buffer. Only ASCII is appended through it, strings go through writeString.
+     */
+    private final class AsciiAppendable implements Appendable {
+        @Override
+        public Appendable append(CharSequence text) throws IOException {
+            return append(text, 0, text.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence text, int start, int end) throws IOException {
+            for (int i = start; i < end; ++i) {
+                writeByte(text.charAt(i));
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char character) throws IOException {
+            writeByte(character);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package toolVendor.util;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes numbers, money, and dates as ASCII digits straight into any Appendable.
+ *
+ * Digits are appended one at a time so nothing goes through an intermediate string. This is the one
+ * place the digits of receipts, of the MoneyUtility formatters, and of the repricer and server output
+ * come from, so they always agree. Wrap a ByteBuffer in a ByteBufferAppender to write bytes.
+ */
+public class AsciiFormatter {
+    // Longest a long, cents, or percentage can be when written
+    public static final int MAX_NUMBER_LENGTH = 24;
+
+    /**
+     * Appends a whole number, e.g. -1234 as "-1234".
+     *
+     * @param appendable: Where to write
+     * @param value: The number to write
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void appendLong(Appendable appendable, long value) throws IOException {
+        if (value < 0) {
+            appendable.append('-');
+        }
+
+        // Work with the negative value so Long.MIN_VALUE doesn't overflow
+        long negativeValue = value < 0 ? value : -value;
+        long divisor = 1;
+        while (negativeValue / divisor <= -10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            appendable.append((char) ('0' - negativeValue / divisor));
+            negativeValue %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Appends cents as dollars with two decimals, e.g. 1234 as "12.34", without a currency symbol.
+     *
+     * @param appendable: Where to write
+     * @param cents: The amount in cents
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void appendCents(Appendable appendable, long cents) throws IOException {
+        if (cents < 0) {
+            appendable.append('-');
+        }
+
+        long remainingCents = Math.abs(cents % 100);
+        appendLong(appendable, Math.abs(cents / 100));
+        appendable.append('.');
+        appendTwoDigits(appendable, (int) remainingCents);
+    }
+
+    /**
+     * Appends basis points as a percentage with one decimal, rounding half up, e.g. 1250 as "12.5", without a percent sign.
+     *
+     * @param appendable: Where to write
+     * @param basisPoints: The percentage in basis points
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void appendPercent(Appendable appendable, int basisPoints) throws IOException {
+        int tenths = (Math.abs(basisPoints) + 5) / 10;
+
+        if (basisPoints < 0 && tenths != 0) {
+            appendable.append('-');
+        }
+        appendLong(appendable, tenths / 10);
+        appendable.append('.');
+        appendable.append((char) ('0' + tenths % 10));
+    }
+
+    /**
+     * Appends a date as MM/dd/yy, e.g. "07/02/20". No date writes nothing.
+     *
+     * @param appendable: Where to write
+     * @param date: The date to write, or null
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void appendDate(Appendable appendable, LocalDate date) throws IOException {
+        if (date == null) {
+            return;
+        }
+
+        appendTwoDigits(appendable, date.getMonthValue());
+        appendable.append('/');
+        appendTwoDigits(appendable, date.getDayOfMonth());
+        appendable.append('/');
+        appendTwoDigits(appendable, Math.floorMod(date.getYear(), 100));
+    }
+
+    /**
+     * Appends a number from 0 to 99 as two digits, e.g. 7 as "07".
+     *
+     * @param appendable: Where to write
+     * @param value: The number to write
+     *
+     * @throws IOException if the appendable fails.
+     */
+    public static void appendTwoDigits(Appendable appendable, int value) throws IOException {
+        appendable.append((char) ('0' + value / 10));
+        appendable.append((char) ('0' + value % 10));
+    }
+}
@@ -0,0 +1,114 @@
+package toolVendor.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Appends characters to a ByteBuffer at its position as UTF-8, so text laid out for an Appendable
+ * can go straight into a buffer without a string or a second copy.
+ *
+ * ASCII takes one byte a character and anything else at most three, a surrogate pair taking four
+ * for its two characters. A surrogate without its other half is written as '?', like String.getBytes.
+ */
+public class ByteBufferAppender implements Appendable {
+    // Most bytes one character can take
+    public static final int MAX_BYTES_PER_CHAR = 3;
+
+    // Member variables
+    private final ByteBuffer theBuffer;
+
+    // First half of a surrogate pair waiting for its second half, or 0
+    private char theHighSurrogate = 0;
+
+    /**
+     * Constructor
+     *
+     * @param buffer: Where to put the bytes
+     */
+    public ByteBufferAppender(ByteBuffer buffer) {
+        theBuffer = buffer;
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room.
+     */
+    @Override
+    public ByteBufferAppender append(CharSequence text) {
+        return text == null ? append("null") : append(text, 0, text.length());
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room.
+     */
+    @Override
+    public ByteBufferAppender append(CharSequence text, int start, int end) {
+        if (text == null) {
+            return append("null", start, end);
+        }
+
+        for (int i = start; i < end; ++i) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * @throws java.nio.BufferOverflowException if the buffer runs out of room.
+     */
+    @Override
+    public ByteBufferAppender append(char character) {
+        if (character < 0x80 && theHighSurrogate == 0) {
+            theBuffer.put((byte) character);
+            return this;
+        }
+
+        if (theHighSurrogate != 0) {
+            char highSurrogate = theHighSurrogate;
+            theHighSurrogate = 0;
+            if (Character.isLowSurrogate(character)) {
+                putCodePoint(Character.toCodePoint(highSurrogate, character));
+                return this;
+            }
+            theBuffer.put((byte) '?');
+        }
+
+        if (Character.isHighSurrogate(character)) {
+            theHighSurrogate = character;
+        }
+        else if (Character.isLowSurrogate(character)) {
+            theBuffer.put((byte) '?');
+        }
+        else {
+            putCodePoint(character);
+        }
+        return this;
+    }
+
+    /**
+     * Getters
+     */
+    public ByteBuffer getBuffer() { return theBuffer; }
+
+    /**
+     * Helper method to put the UTF-8 bytes of a code point.
+     */
+    private void putCodePoint(int codePoint) {
+        if (codePoint < 0x80) {
+            theBuffer.put((byte) codePoint);
+        }
+        else if (codePoint < 0x800) {
+            theBuffer.put((byte) (0xC0 | (codePoint >>> 6)));
+            theBuffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+        else if (codePoint < 0x10000) {
+            theBuffer.put((byte) (0xE0 | (codePoint >>> 12)));
+            theBuffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+            theBuffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+        else {
+            theBuffer.put((byte) (0xF0 | (codePoint >>> 18)));
+            theBuffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+            theBuffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+            theBuffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+}
@@ -13,40 +13,93 @@ import toolVendor.data.tool.Tool;
  */
 public class CalendarUtility {
 
+    // Formatters built once up front instead of per call.
+    private static final DateTimeFormatter theAgreementDateFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+    private static final DateTimeFormatter theShortDateFormatter = DateTimeFormatter.ofPattern("M/d/yy");
+    private static final DateTimeFormatter theLongYearDateFormatter = DateTimeFormatter.ofPattern("M/d/yyyy");
+
     /**
      * Generates a format friendly starting date string so that we can take an intial hit up front to save us grief later 
      * 
      * @param inputString: Input string 
-     * @return: Formatted date string as dd/MM/yy
+     * @return: Formatted date string as MM/dd/yy
+     * 
+     * @throws DateTimeParseException when the input string isn't a valid date.
      */
     public static String getStartDateString(String inputString){
-        DateTimeFormatter formatter = CalendarUtility.generateFormatterBasedonDateString(inputString);
-        LocalDate parsedDate = LocalDate.parse(inputString, formatter);
-        formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-        return parsedDate.format(formatter);
+        return formatDate(getStartDate(inputString));
+    }
+
+    /**
+     * Parses a checkout date string in any of the accepted month/day/year formats.
+     * 
+     * @param inputString: Input string 
+     * @return: The parsed date
+     * 
+     * @throws DateTimeParseException when the input string isn't a valid date.
+     */
+    public static LocalDate getStartDate(String inputString){
+        LocalDate parsedDate = DateStringParser.parseLocalDate(inputString);
+
+        if (parsedDate == null) {
+            throw new DateTimeParseException("Text '" + inputString + "' could not be parsed as a date", String.valueOf(inputString), 0);
+        }
+
+        return parsedDate;
+    }
+
+    /**
+     * Formats a date the way it's shown on an agreement, as MM/dd/yy
+     * 
+     * @param date: The date to format
+     * @return: Formatted date string as MM/dd/yy, or an empty string if there is no date yet.
+     */
+    public static String formatDate(LocalDate date){
+        if (date == null) {
+            return "";
+        }
+
+        return date.format(theAgreementDateFormatter);
     }
 
     /**
      * Returns an ending date from a start date and a day count
      * 
-     * @param startDateString: Starting date string represntation
+     * @param startDateString: Starting date string represntation, formatted as MM/dd/yy
      * @param numberOfDaysFromStart: The number of days ahead the end date lies
      * 
      * @return: A string representation of the end date that is n days ahead from the start date. 
      */
     public static String getEndDateString(String startDateString, int numberOfDaysFromStart) {
-        String endDateString = "";
-
-        // generate formatter then parse the date
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-        LocalDate parsedStartDate = LocalDate.parse(startDateString, formatter);
+        LocalDate parsedStartDate = LocalDate.parse(startDateString, theAgreementDateFormatter);
+        return formatDate(getEndDate(parsedStartDate, numberOfDaysFromStart));
+    }
 
-        // Generate the end date
-        LocalDate endDate = parsedStartDate.plusDays(numberOfDaysFromStart);
+    /**
+     * Returns an ending date from a start date and a day count
+     * 
+     * @param startDate: Starting date
+     * @param numberOfDaysFromStart: The number of days ahead the end date lies
+     * 
+     * @return: The end date that is n days ahead from the start date. 
+     */
+    public static LocalDate getEndDate(LocalDate startDate, int numberOfDaysFromStart) {
+        return startDate.plusDays(numberOfDaysFromStart);
+    }
 
-        // Generate the end date string and return it        
-        endDateString = endDate.format(formatter);
-        return endDateString;
+    /**
+     * Gets the # of chargable days based on the start day, # of days, and the tool
+     * being rented. See getChargableDays(LocalDate, int, Tool).
+     * 
+     * @param startDateString: A string representation of the start date to rent, formatted as MM/dd/yy
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDays(String startDateString, int numberOfDaysFromStart, Tool toolToRent) {
+        LocalDate parsedStartDate = LocalDate.parse(startDateString, theAgreementDateFormatter);
+        return getChargableDays(parsedStartDate, numberOfDaysFromStart, toolToRent);
     }
 
     /**
@@ -54,56 +107,256 @@ public class CalendarUtility {
      * being rented. Chargable days start the day after the specified start date and 
      * go up to and include the date specified by start date + n days from start. 
      * 
-     * The Tool has rules on which days are chargable. 
+     * The Tool has rules on which days are chargable. The count is looked up in the
+     * shared ChargeCalendarIndex.
      * 
-     * @param startDateString: A string representation of the start date to rent
+     * @param startDate: The start date to rent
      * @param numberOfDaysFromStart: The number of days to rent 
      * @param toolToRent: A Tool object representing the tool to rent.
      * 
      * @return: The # of chargeable days for the input tool 
      */
-    public static int getChargableDays(String startDateString, int numberOfDaysFromStart, Tool toolToRent) {
+    public static int getChargableDays(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent) {
+        return getChargableDays(startDate, numberOfDaysFromStart, toolToRent, HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Gets the # of chargable days the same way as getChargableDays(LocalDate, int, Tool), with the
+     * holidays of a given calendar.
+     * 
+     * @param startDate: The start date to rent
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * @param holidayCalendar: The holidays observed where the tool is rented
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDays(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent, HolidayCalendar holidayCalendar) {
+        // Chargable days start the day after the start date.
+        LocalDate firstDay = startDate.plusDays(1);
+        LocalDate lastDay = startDate.plusDays(numberOfDaysFromStart);
+
+        return ChargeCalendarIndex.getIndex(holidayCalendar).getChargableDays(firstDay, lastDay, toolToRent);
+    }
+
+    /**
+     * Gets the # of chargable days with the default holidays, see getChargableDaysBitmask(LocalDate, int, Tool, HolidayCalendar).
+     * 
+     * @param startDate: The start date to rent
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDaysBitmask(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent) {
+        return getChargableDaysBitmask(startDate, numberOfDaysFromStart, toolToRent, HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Gets the # of chargable days the same way as getChargableDays(LocalDate, int, Tool, HolidayCalendar),
+     * but counts them with popcounts over the calendar's day masks instead of going through the
+     * ChargeCalendarIndex. Nothing is built per charge profile, and every tool is counted the same way.
+     * 
+     * @param startDate: The start date to rent
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * @param holidayCalendar: The holidays observed where the tool is rented
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDaysBitmask(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent, HolidayCalendar holidayCalendar) {
+        // Chargable days start the day after the start date.
+        LocalDate firstDay = startDate.plusDays(1);
+        LocalDate lastDay = startDate.plusDays(numberOfDaysFromStart);
+
+        return holidayCalendar.countChargableDays(firstDay, lastDay, ChargeCalendarIndex.getChargeProfile(toolToRent));
+    }
+
+    /**
+     * Gets the # of chargable days the same way as getChargableDays(String, int, Tool), but computes
+     * the count arithmetically instead of going through the ChargeCalendarIndex.
+     * 
+     * @param startDateString: A string representation of the start date to rent, formatted as MM/dd/yy
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDaysClosedForm(String startDateString, int numberOfDaysFromStart, Tool toolToRent) {
+        LocalDate parsedStartDate = LocalDate.parse(startDateString, theAgreementDateFormatter);
+        return getChargableDaysClosedForm(parsedStartDate, numberOfDaysFromStart, toolToRent);
+    }
+
+    /**
+     * Gets the # of chargable days the same way as getChargableDays, but computes the count
+     * arithmetically instead of going through the ChargeCalendarIndex. Useful for one-off quotes
+     * in years that aren't worth building an index for.
+     * 
+     * @param parsedStartDate: The start date to rent
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDaysClosedForm(LocalDate parsedStartDate, int numberOfDaysFromStart, Tool toolToRent) {
+        return getChargableDaysClosedForm(parsedStartDate, numberOfDaysFromStart, toolToRent, HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Gets the # of chargable days the same way as getChargableDaysClosedForm(LocalDate, int, Tool), with
+     * the holidays of a given calendar.
+     * 
+     * @param parsedStartDate: The start date to rent
+     * @param numberOfDaysFromStart: The number of days to rent 
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * @param holidayCalendar: The holidays observed where the tool is rented
+     * 
+     * @return: The # of chargeable days for the input tool 
+     */
+    public static int getChargableDaysClosedForm(LocalDate parsedStartDate, int numberOfDaysFromStart, Tool toolToRent, HolidayCalendar holidayCalendar) {
+        // Nothing to charge for an empty window.
+        if (numberOfDaysFromStart <= 0) {
+            return 0;
+        }
+
+        // Chargable days start the day after the start date.
+        LocalDate firstDay = parsedStartDate.plusDays(1);
+        LocalDate lastDay = parsedStartDate.plusDays(numberOfDaysFromStart);
+
+        // Count the weekend days arithmetically, everything else is a weekday.
+        int weekendDayCount = countWeekendDays(firstDay.getDayOfWeek(), numberOfDaysFromStart);
+        int weekdayCount = numberOfDaysFromStart - weekendDayCount;
+
+        // The holidays are counted off of the calendar's day masks.
+        int holidayCount = holidayCalendar.countHolidays(firstDay, lastDay);
+        int weekendHolidayCount = holidayCalendar.countWeekendHolidays(firstDay, lastDay);
+
+        return combineChargableDays(weekdayCount, weekendDayCount, holidayCount - weekendHolidayCount, weekendHolidayCount, toolToRent);
+    }
+
+    /**
+     * Combines the weekday, weekend, and holiday counts of a window into the # of chargable days
+     * for a tool.
+     * 
+     * Observed holidays always land on a weekday, so the holidays are taken out of the weekday
+     * count and only charged when the tool has a holiday rate. This matches examining the window
+     * day by day.
+     * 
+     * @param weekdayCount: The # of weekdays in the window, holidays included
+     * @param weekendDayCount: The # of Saturdays and Sundays in the window
+     * @param holidayCount: The # of observed holidays in the window
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool
+     */
+    public static int combineChargableDays(int weekdayCount, int weekendDayCount, int holidayCount, Tool toolToRent) {
         int chargableDayCount = 0;
 
-        // Generate a DateTimeFormatter
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+        if (toolToRent.doWeekdayRatesApply()) {
+            chargableDayCount += weekdayCount - holidayCount;
+        }
 
-        // Parse the start date as a local date.
-        LocalDate parsedStartDate = LocalDate.parse(startDateString, formatter);
+        if (toolToRent.doWeekendRatesApply()) {
+            chargableDayCount += weekendDayCount;
+        }
 
-        // Start counting days
-        for (int i = 1; i <= numberOfDaysFromStart; ++i) {
-            // Get the date to examine.
-            LocalDate dateToExamine = parsedStartDate.plusDays(i);
+        if (toolToRent.doHolidayRatesApply()) {
+            chargableDayCount += holidayCount;
+        }
 
-            // Check for holidays
-            if (toolToRent.doHolidayRatesApply() && (isFourthOfJulyHoliday(dateToExamine) || isLaborDay(dateToExamine))) {
-                // Increment the # of days
-                chargableDayCount++;
+        return chargableDayCount;
+    }
 
-                // Move forward in the loop and don't bother executing code below
-                continue;
-            }
+    /**
+     * Combines the counts of a window into the # of chargable days for a tool, for calendars with
+     * holidays that can land on a weekend.
+     * 
+     * Holidays are charged at the holiday rate whatever day they land on, so weekday holidays are taken
+     * out of the weekday count and weekend holidays out of the weekend count.
+     * 
+     * @param weekdayCount: The # of weekdays in the window, holidays included
+     * @param weekendDayCount: The # of Saturdays and Sundays in the window, holidays included
+     * @param weekdayHolidayCount: The # of holidays on a weekday in the window
+     * @param weekendHolidayCount: The # of holidays on a Saturday or Sunday in the window
+     * @param toolToRent: A Tool object representing the tool to rent.
+     * 
+     * @return: The # of chargeable days for the input tool
+     */
+    public static int combineChargableDays(int weekdayCount, int weekendDayCount, int weekdayHolidayCount, int weekendHolidayCount, Tool toolToRent) {
+        int chargableDayCount = combineChargableDays(weekdayCount, weekendDayCount, weekdayHolidayCount, toolToRent);
 
-            // If here, we just check for weekends
+        if (toolToRent.doWeekendRatesApply()) {
+            chargableDayCount -= weekendHolidayCount;
+        }
 
-            // Get the day of week.
-            DayOfWeek dayOfWeekForDate = dateToExamine.getDayOfWeek();
+        if (toolToRent.doHolidayRatesApply()) {
+            chargableDayCount += weekendHolidayCount;
+        }
 
-            // Check for weekend rate and if it's a weekend.
-            if (toolToRent.doWeekendRatesApply() && (dayOfWeekForDate == DayOfWeek.SATURDAY || dayOfWeekForDate == DayOfWeek.SUNDAY) && !isFourthOfJulyHoliday(dateToExamine)) {
-                chargableDayCount++;
-                continue;
-            }
+        return chargableDayCount;
+    }
 
-            // If here, check for weekdays that aren't holidays.
-            if (toolToRent.doWeekdayRatesApply() && dayOfWeekForDate != DayOfWeek.SATURDAY && dayOfWeekForDate != DayOfWeek.SUNDAY && !isLaborDay(dateToExamine) && !isFourthOfJulyHoliday(dateToExamine)) {
-                // it's a chargable day
-                chargableDayCount++;
+    /**
+     * Helper method to count the Saturdays and Sundays in a run of consecutive days.
+     * 
+     * Every full week holds exactly two weekend days, so only the leftover days need a look.
+     * 
+     * @param firstDayOfWeek: The day of week of the first day in the run
+     * @param dayCount: The # of consecutive days in the run
+     * 
+     * @return: The # of weekend days in the run
+     */
+    static int countWeekendDays(DayOfWeek firstDayOfWeek, int dayCount) {
+        int weekendDayCount = (dayCount / 7) * 2;
+        int remainingDays = dayCount % 7;
+
+        // Monday is 0 and Sunday is 6, so weekend days are 5 and 6.
+        int dayIndex = firstDayOfWeek.getValue() - 1;
+        for (int i = 0; i < remainingDays; ++i) {
+            if ((dayIndex + i) % 7 >= 5) {
+                weekendDayCount++;
             }
         }
 
-        return chargableDayCount;
+        return weekendDayCount;
+    }
+
+    /**
+     * Gets the day the 4th of July holiday is observed on for a year.
+     * 
+     * When the 4th lands on a Saturday it's observed the Friday before, and when 
+     * it lands on a Sunday it's observed the Monday after.
+     * 
+     * @param year: The year to get the holiday for
+     * 
+     * @return: The observed 4th of July holiday
+     */
+    public static LocalDate getObservedFourthOfJuly(int year) {
+        LocalDate fourthOfJuly = LocalDate.of(year, Month.JULY, 4);
+
+        switch (fourthOfJuly.getDayOfWeek()) {
+            case SATURDAY:
+                return fourthOfJuly.minusDays(1);
+            case SUNDAY:
+                return fourthOfJuly.plusDays(1);
+            default:
+                return fourthOfJuly;
+        }
+    }
+
+    /**
+     * Gets Labor day for a year, the first Monday of September.
+     * 
+     * @param year: The year to get the holiday for
+     * 
+     * @return: Labor day for the year
+     */
+    public static LocalDate getLaborDay(int year) {
+        LocalDate firstOfSeptember = LocalDate.of(year, Month.SEPTEMBER, 1);
+
+        // Days until the Monday, 0 if the 1st is already a Monday.
+        int daysUntilMonday = (8 - firstOfSeptember.getDayOfWeek().getValue()) % 7;
+        return firstOfSeptember.plusDays(daysUntilMonday);
     }
 
     /**
@@ -117,7 +370,7 @@ public class CalendarUtility {
      * 
      * @return: True if the date specified is a 4th of july holiday, false for otherwise.
      */
-    private static boolean isFourthOfJulyHoliday(LocalDate dateToCheck) {
+    static boolean isFourthOfJulyHoliday(LocalDate dateToCheck) {
         if (dateToCheck != null) {
             // Get day of week, day, and month
             Month month = dateToCheck.getMonth();
@@ -163,7 +416,7 @@ public class CalendarUtility {
      * 
      * @return: True if the date is a labor day holiday, false for otherwise.
      */
-    private static boolean isLaborDay(LocalDate dateToCheck) {
+    static boolean isLaborDay(LocalDate dateToCheck) {
         // Check for null 
         if (dateToCheck != null) {
             // Get day of week, day, and month
@@ -192,110 +445,32 @@ public class CalendarUtility {
     /**
      * Helper function that allows some flexibility in generate some Date Fromatters
      * 
-     * The output formatter will allow us to get a date then later convert back into a "dd/MM/yy" format
+     * The string is checked once by the DateStringParser and one of the cached formatters that 
+     * can parse it is handed back, so no parse attempts are thrown away.
      * 
      * @param dateString: initial date string to generate a formatter for.
      * 
-     * @return: A DateTimeFormatter for the initial date string.
+     * @return: A DateTimeFormatter for the initial date string, or null if the string isn't a supported date.
      */
     public static DateTimeFormatter generateFormatterBasedonDateString(String dateString){
-        DateTimeFormatter formatter = null;
-        LocalDate testDateTime;
-
-        // Check for expected MM/dd/yy
-        try {
-            formatter = DateTimeFormatter.ofPattern("MM/dd/yy");
-            testDateTime = LocalDate.parse(dateString, formatter);
-        }
-        catch (DateTimeParseException e)
-        {
-            formatter = null;
-        }
-
-        // Check for M/d/yy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("M/d/yy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
+        if (dateString == null) {
+            return null;
         }
 
-        // Check for MM/d/yy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("MM/d/yy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
-        }
-        
-        // Check for M/dd/yy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("M/dd/yy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
+        long fields = DateStringParser.parseFields(dateString, 0, dateString.length());
+        if (fields == DateStringParser.INVALID_FIELDS) {
+            return null;
         }
 
-        // Check for M/dd/yyyy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("M/dd/yyyy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
+        // Four digit years
+        if (DateStringParser.getYearDigits(fields) == 4) {
+            return theLongYearDateFormatter;
         }
 
-        // Check for M/d/yyyy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("M/d/yyyy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
-        }
-
-        // Check for MM/d/yyyy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("MM/d/yyyy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
+        // Two digit years, with or without padding
+        if (DateStringParser.getMonthDigits(fields) == 2 && DateStringParser.getDayDigits(fields) == 2) {
+            return theAgreementDateFormatter;
         }
-
-        // Check for MM/dd/yyyy
-        if (formatter == null){
-            // Try a different pattern
-            try {
-                formatter = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-                testDateTime = LocalDate.parse(dateString, formatter);
-            }
-            catch (DateTimeParseException e){
-                formatter = null;
-            }
-        }
-
-        return formatter;
+        return theShortDateFormatter;
     }
 }
@@ -0,0 +1,275 @@
+package toolVendor.util;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import toolVendor.data.tool.Tool;
+
+/**
+ * Index of cumulative chargable day counts, built once per year and shared by every quote.
+ *
+ * Each year keeps one prefix sum array per charge profile, a profile being a combination of
+ * the weekday, weekend, and holiday charge flags of a Tool. Counting the chargable days of a
+ * window inside a year is then two array lookups.
+ *
+ * Holidays come from a HolidayCalendar, so each calendar has its own index, see getIndex.
+ * Only the calendar's cached range of years gets prefix sums, built lazily the first time a window
+ * touches them, so the memory held is bounded whatever windows are asked for. Years outside of the
+ * range are counted off of the calendar's masks, which it keeps per place in the 400 year cycle.
+ *
+ * Holiday rules land on the same days every 400 years, since the Gregorian calendar repeats with a
+ * whole # of weeks every 400 years. Full years inside a window are summed from per-year totals over
+ * one such cycle, so a window of any length is counted without walking its years.
+ */
+public class ChargeCalendarIndex {
+    // Bits making up a charge profile
+    public static final int WEEKDAY_PROFILE_BIT = 1;
+    public static final int WEEKEND_PROFILE_BIT = 2;
+    public static final int HOLIDAY_PROFILE_BIT = 4;
+    public static final int PROFILE_COUNT = 8;
+
+    // Years after which the holidays and days of week repeat
+    static final int CYCLE_YEAR_COUNT = 400;
+
+    // The calendar the holidays come from
+    private final HolidayCalendar theHolidayCalendar;
+
+    // The built years of the cached range, indexed from the first cached year.
+    private final int theFirstCachedYear;
+    private final AtomicReferenceArray<int[][]> theYearPrefixCounts;
+
+    // Sums of the yearly totals over a cycle indexed by [profile][year in the cycle], built when first needed.
+    private volatile int[][] theCycleYearPrefixTotals = null;
+
+    /**
+     * Constructor using the default HolidayCalendar.
+     */
+    public ChargeCalendarIndex() {
+        this(HolidayCalendar.getDefaultCalendar());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param holidayCalendar: The calendar the holidays come from
+     */
+    public ChargeCalendarIndex(HolidayCalendar holidayCalendar) {
+        theHolidayCalendar = holidayCalendar;
+        theFirstCachedYear = holidayCalendar.getFirstCachedYear();
+        theYearPrefixCounts = new AtomicReferenceArray<>(holidayCalendar.getLastCachedYear() - theFirstCachedYear + 1);
+    }
+
+    /**
+     * Gets the index shared by the application.
+     *
+     * @return: The shared ChargeCalendarIndex
+     */
+    public static ChargeCalendarIndex getDefaultIndex() { return getIndex(HolidayCalendar.getDefaultCalendar()); }
+
+    /**
+     * Gets the index shared by the application for a holiday calendar. The index is kept by the
+     * calendar, so it goes away with the calendar.
+     *
+     * @param holidayCalendar: The calendar the holidays come from
+     *
+     * @return: The shared ChargeCalendarIndex of the calendar
+     */
+    public static ChargeCalendarIndex getIndex(HolidayCalendar holidayCalendar) {
+        return holidayCalendar.getChargeCalendarIndex();
+    }
+
+    /**
+     * Gets the charge profile of a tool.
+     *
+     * @param tool: The tool to get the profile of
+     *
+     * @return: A value in [0, PROFILE_COUNT) with a bit set for each kind of day the tool charges for.
+     */
+    public static int getChargeProfile(Tool tool) {
+        int chargeProfile = 0;
+
+        if (tool.doWeekdayRatesApply()) {
+            chargeProfile |= WEEKDAY_PROFILE_BIT;
+        }
+        if (tool.doWeekendRatesApply()) {
+            chargeProfile |= WEEKEND_PROFILE_BIT;
+        }
+        if (tool.doHolidayRatesApply()) {
+            chargeProfile |= HOLIDAY_PROFILE_BIT;
+        }
+
+        return chargeProfile;
+    }
+
+    /**
+     * Gets the # of chargable days between two dates for a tool.
+     *
+     * @param firstDay: The first day of the window, inclusive
+     * @param lastDay: The last day of the window, inclusive
+     * @param toolToRent: A Tool object representing the tool to rent.
+     *
+     * @return: The # of chargeable days for the input tool, 0 if the window is empty.
+     */
+    public int getChargableDays(LocalDate firstDay, LocalDate lastDay, Tool toolToRent) {
+        return getChargableDays(firstDay, lastDay, getChargeProfile(toolToRent));
+    }
+
+    /**
+     * Gets the # of chargable days between two dates for a charge profile.
+     *
+     * @param firstDay: The first day of the window, inclusive
+     * @param lastDay: The last day of the window, inclusive
+     * @param chargeProfile: The charge profile, see getChargeProfile
+     *
+     * @return: The # of chargeable days for the profile, 0 if the window is empty.
+     */
+    public int getChargableDays(LocalDate firstDay, LocalDate lastDay, int chargeProfile) {
+        if (lastDay.isBefore(firstDay)) {
+            return 0;
+        }
+
+        int firstYear = firstDay.getYear();
+        int lastYear = lastDay.getYear();
+
+        // Window inside of a single year, the common case.
+        if (firstYear == lastYear) {
+            return countWithinYear(firstYear, firstDay.getDayOfYear(), lastDay.getDayOfYear(), chargeProfile);
+        }
+
+        // Rest of the first year, every full year in between, then the start of the last year.
+        int chargableDayCount = countWithinYear(firstYear, firstDay.getDayOfYear(), firstDay.lengthOfYear(), chargeProfile);
+        chargableDayCount += countFullYears(firstYear + 1, lastYear - 1, chargeProfile);
+        chargableDayCount += countWithinYear(lastYear, 1, lastDay.getDayOfYear(), chargeProfile);
+
+        return chargableDayCount;
+    }
+
+    /**
+     * Helper method to count the chargable days within a range of one year, off of the prefix sums
+     * when the year is in the cached range and off of the calendar's masks otherwise.
+     */
+    private int countWithinYear(int year, int firstDayOfYear, int lastDayOfYear, int chargeProfile) {
+        int cacheIndex = year - theFirstCachedYear;
+
+        if (cacheIndex >= 0 && cacheIndex < theYearPrefixCounts.length()) {
+            int[] prefixCounts = getYearPrefixCounts(cacheIndex)[chargeProfile];
+            return prefixCounts[lastDayOfYear] - prefixCounts[firstDayOfYear - 1];
+        }
+        return theHolidayCalendar.countChargableDays(LocalDate.ofYearDay(year, firstDayOfYear), LocalDate.ofYearDay(year, lastDayOfYear), chargeProfile);
+    }
+
+    /**
+     * Helper method to count the chargable days of every year from firstYear to lastYear, inclusive,
+     * as whole cycles plus the years of a partial cycle.
+     */
+    private int countFullYears(int firstYear, int lastYear, int chargeProfile) {
+        if (lastYear < firstYear) {
+            return 0;
+        }
+
+        int[] cycleTotals = getCycleYearPrefixTotals()[chargeProfile];
+        long yearCount = (long) lastYear - firstYear + 1;
+        long chargableDayCount = (yearCount / CYCLE_YEAR_COUNT) * cycleTotals[CYCLE_YEAR_COUNT];
+
+        // The leftover years, wrapping around the end of the cycle
+        int firstCycleYear = Math.floorMod(firstYear, CYCLE_YEAR_COUNT);
+        int endCycleYear = firstCycleYear + (int) (yearCount % CYCLE_YEAR_COUNT);
+        if (endCycleYear <= CYCLE_YEAR_COUNT) {
+            chargableDayCount += cycleTotals[endCycleYear] - cycleTotals[firstCycleYear];
+        }
+        else {
+            chargableDayCount += cycleTotals[CYCLE_YEAR_COUNT] - cycleTotals[firstCycleYear] + cycleTotals[endCycleYear - CYCLE_YEAR_COUNT];
+        }
+
+        return Math.toIntExact(chargableDayCount);
+    }
+
+    /**
+     * Gets the prefix sums for a year of the cached range, building them if this is the first time the year is used.
+     *
+     * @param cacheIndex: The year, less the first cached year
+     *
+     * @return: The prefix sums indexed by [profile][day of year], where entry n is the count for the first n days.
+     */
+    private int[][] getYearPrefixCounts(int cacheIndex) {
+        int[][] prefixCounts = theYearPrefixCounts.get(cacheIndex);
+
+        if (prefixCounts == null) {
+            // Threads racing to build a year build the same sums, the first one in is kept.
+            theYearPrefixCounts.compareAndSet(cacheIndex, null, buildYearPrefixCounts(theFirstCachedYear + cacheIndex));
+            prefixCounts = theYearPrefixCounts.get(cacheIndex);
+        }
+
+        return prefixCounts;
+    }
+
+    /**
+     * Gets the running totals of whole years over one cycle, building them the first time.
+     *
+     * @return: The totals indexed by [profile][year in the cycle], where entry n is the count of the first n years.
+     */
+    private int[][] getCycleYearPrefixTotals() {
+        int[][] cycleTotals = theCycleYearPrefixTotals;
+
+        if (cycleTotals == null) {
+            // Years in the cycle are years modulo CYCLE_YEAR_COUNT, so year 0 of the cycle is e.g. 2000.
+            cycleTotals = new int[PROFILE_COUNT][CYCLE_YEAR_COUNT + 1];
+            for (int cycleYear = 0; cycleYear < CYCLE_YEAR_COUNT; ++cycleYear) {
+                int year = 2000 + cycleYear;
+                int[][] yearCounts = buildYearPrefixCounts(year);
+                for (int chargeProfile = 0; chargeProfile < PROFILE_COUNT; ++chargeProfile) {
+                    cycleTotals[chargeProfile][cycleYear + 1] = cycleTotals[chargeProfile][cycleYear] + yearCounts[chargeProfile][Year.of(year).length()];
+                }
+            }
+            theCycleYearPrefixTotals = cycleTotals;
+        }
+
+        return cycleTotals;
+    }
+
+    /**
+     * Builds the prefix sums of every charge profile for a year.
+     *
+     * @param year: The year to build
+     *
+     * @return: The prefix sums indexed by [profile][day of year]
+     */
+    private int[][] buildYearPrefixCounts(int year) {
+        int dayCount = Year.of(year).length();
+        int[][] prefixCounts = new int[PROFILE_COUNT][dayCount + 1];
+        long[] holidayMask = theHolidayCalendar.getHolidayMask(year);
+
+        // Monday is 0 and Sunday is 6, so weekend days are 5 and 6.
+        int dayIndex = LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1;
+
+        for (int dayOfYear = 1; dayOfYear <= dayCount; ++dayOfYear) {
+            // Classify the day, holidays take priority over the day of week.
+            int dayKind;
+            if (DayMask.test(holidayMask, dayOfYear)) {
+                dayKind = HOLIDAY_PROFILE_BIT;
+            }
+            else if (dayIndex >= 5) {
+                dayKind = WEEKEND_PROFILE_BIT;
+            }
+            else {
+                dayKind = WEEKDAY_PROFILE_BIT;
+            }
+
+            // Carry every profile forward, counting the day when the profile charges for its kind.
+            for (int chargeProfile = 0; chargeProfile < PROFILE_COUNT; ++chargeProfile) {
+                int chargedDay = (chargeProfile & dayKind) != 0 ? 1 : 0;
+                prefixCounts[chargeProfile][dayOfYear] = prefixCounts[chargeProfile][dayOfYear - 1] + chargedDay;
+            }
+
+            dayIndex = dayIndex == 6 ? 0 : dayIndex + 1;
+        }
+
+        return prefixCounts;
+    }
+
+    /**
+     * Getters
+     */
+    public HolidayCalendar getHolidayCalendar() { return theHolidayCalendar; }
+}
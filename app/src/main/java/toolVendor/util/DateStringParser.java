@@ -0,0 +1,207 @@
+package toolVendor.util;
+
+import java.time.LocalDate;
+
+/**
+ * Hand written parser for the USA aligned (month/day/year) date strings accepted at checkout.
+ *
+ * Accepts a 1 or 2 digit month, a 1 or 2 digit day, and either a 2 digit year (20yy) or a 4 digit year,
+ * separated by '/'. The string is read once, left to right, and invalid input is reported through a return
+ * value instead of an exception.
+ *
+ * Like the DateTimeFormatter patterns it replaces, a day past the end of the month (e.g. 2/30/23)
+ * is moved back to the last day of that month.
+ */
+public class DateStringParser {
+    // Returned by parseEpochDay when the string isn't a valid date
+    public static final long INVALID_EPOCH_DAY = Long.MIN_VALUE;
+
+    // Returned by parseFields when the string isn't a valid date
+    static final long INVALID_FIELDS = -1L;
+
+    // Days between 0000-03-01 and 1970-01-01
+    private static final long DAYS_0000_TO_1970 = 719468L;
+
+    /**
+     * Parses a date string into an epoch day.
+     *
+     * @param dateString: The date string to parse
+     *
+     * @return: The epoch day of the date, or INVALID_EPOCH_DAY when the string isn't a valid date.
+     */
+    public static long parseEpochDay(CharSequence dateString) {
+        if (dateString == null) {
+            return INVALID_EPOCH_DAY;
+        }
+
+        return parseEpochDay(dateString, 0, dateString.length());
+    }
+
+    /**
+     * Parses part of a character sequence into an epoch day.
+     *
+     * @param text: The text holding the date
+     * @param start: The index of the first character of the date
+     * @param end: The index after the last character of the date
+     *
+     * @return: The epoch day of the date, or INVALID_EPOCH_DAY when the characters aren't a valid date.
+     */
+    public static long parseEpochDay(CharSequence text, int start, int end) {
+        long fields = parseFields(text, start, end);
+
+        if (fields == INVALID_FIELDS) {
+            return INVALID_EPOCH_DAY;
+        }
+
+        return toEpochDay(getYear(fields), getMonth(fields), getDay(fields));
+    }
+
+    /**
+     * Parses a date string into a LocalDate.
+     *
+     * @param dateString: The date string to parse
+     *
+     * @return: The parsed date, or null when the string isn't a valid date.
+     */
+    public static LocalDate parseLocalDate(CharSequence dateString) {
+        long epochDay = parseEpochDay(dateString);
+
+        if (epochDay == INVALID_EPOCH_DAY) {
+            return null;
+        }
+
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * Scans the date string once and packs the date fields and digit counts into a long.
+     *
+     * Layout from the low bits: day (5 bits), month (4 bits), year (14 bits), day digits (2 bits),
+     * month digits (2 bits), year digits (3 bits).
+     *
+     * @param text: The text holding the date
+     * @param start: The index of the first character of the date
+     * @param end: The index after the last character of the date
+     *
+     * @return: The packed fields, or INVALID_FIELDS when the characters aren't a valid date.
+     */
+    static long parseFields(CharSequence text, int start, int end) {
+        int month = 0;
+        int day = 0;
+        int year = 0;
+        int monthDigits = 0;
+        int dayDigits = 0;
+        int yearDigits = 0;
+
+        // 0 = month, 1 = day, 2 = year
+        int section = 0;
+
+        for (int i = start; i < end; ++i) {
+            char character = text.charAt(i);
+
+            if (character >= '0' && character <= '9') {
+                int digit = character - '0';
+
+                if (section == 0) {
+                    month = month * 10 + digit;
+                    monthDigits++;
+                }
+                else if (section == 1) {
+                    day = day * 10 + digit;
+                    dayDigits++;
+                }
+                else {
+                    year = year * 10 + digit;
+                    yearDigits++;
+                }
+            }
+            else if (character == '/' && section < 2) {
+                section++;
+            }
+            else {
+                // Not a digit or one separator too many
+                return INVALID_FIELDS;
+            }
+        }
+
+        // Check the shape of the string
+        if (section != 2 ||
+            monthDigits < 1 || monthDigits > 2 ||
+            dayDigits < 1 || dayDigits > 2 ||
+            (yearDigits != 2 && yearDigits != 4)) {
+            return INVALID_FIELDS;
+        }
+
+        // Two digit years are in the 2000s
+        if (yearDigits == 2) {
+            year += 2000;
+        }
+
+        // Check the ranges, a day past the end of the month is moved back to the last day.
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year < 1) {
+            return INVALID_FIELDS;
+        }
+        day = Math.min(day, lengthOfMonth(year, month));
+
+        return day |
+               ((long) month << 5) |
+               ((long) year << 9) |
+               ((long) dayDigits << 23) |
+               ((long) monthDigits << 25) |
+               ((long) yearDigits << 27);
+    }
+
+    /**
+     * Getters for the packed fields made by parseFields
+     */
+    static int getDay(long fields) { return (int) (fields & 0x1F); }
+    static int getMonth(long fields) { return (int) ((fields >>> 5) & 0xF); }
+    static int getYear(long fields) { return (int) ((fields >>> 9) & 0x3FFF); }
+    static int getDayDigits(long fields) { return (int) ((fields >>> 23) & 0x3); }
+    static int getMonthDigits(long fields) { return (int) ((fields >>> 25) & 0x3); }
+    static int getYearDigits(long fields) { return (int) ((fields >>> 27) & 0x7); }
+
+    /**
+     * Gets the # of days in a month.
+     *
+     * @param year: The year of the month
+     * @param month: The month, 1 through 12
+     *
+     * @return: The # of days in the month
+     */
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean isLeapYear = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return isLeapYear ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Converts a valid year, month, and day into an epoch day without creating a LocalDate.
+     *
+     * Counts from March 1st so the leap day is the last day of the counted year.
+     *
+     * @param year: The year
+     * @param month: The month, 1 through 12
+     * @param day: The day of month
+     *
+     * @return: The # of days since 1970-01-01
+     */
+    static long toEpochDay(int year, int month, int day) {
+        long adjustedYear = month <= 2 ? year - 1 : year;
+        long era = adjustedYear / 400;
+        long yearOfEra = adjustedYear - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
@@ -0,0 +1,129 @@
+package toolVendor.util;
+
+/**
+ * Helpers for day masks, one bit per day of a year packed into longs.
+ *
+ * Bit n of a mask is day of year n + 1, so a leap year fits in WORDS_PER_YEAR longs and the days
+ * set within a range of the year are counted with Long.bitCount a word at a time.
+ */
+class DayMask {
+    // Longs needed to hold 366 days
+    static final int WORDS_PER_YEAR = 6;
+
+    /**
+     * Creates an empty mask for a year.
+     */
+    static long[] create() {
+        return new long[WORDS_PER_YEAR];
+    }
+
+    /**
+     * Sets the bit of a day of the year.
+     *
+     * @param mask: The mask to change
+     * @param dayOfYear: The day of the year, from 1
+     */
+    static void set(long[] mask, int dayOfYear) {
+        int bitIndex = dayOfYear - 1;
+        mask[bitIndex >>> 6] |= 1L << bitIndex;
+    }
+
+    /**
+     * Tests the bit of a day of the year.
+     *
+     * @param mask: The mask to test
+     * @param dayOfYear: The day of the year, from 1
+     *
+     * @return: True if the day is set.
+     */
+    static boolean test(long[] mask, int dayOfYear) {
+        int bitIndex = dayOfYear - 1;
+        return (mask[bitIndex >>> 6] & (1L << bitIndex)) != 0;
+    }
+
+    /**
+     * Counts the days set within a range of the year.
+     *
+     * @param mask: The mask to count
+     * @param firstDayOfYear: The first day of the range, inclusive
+     * @param lastDayOfYear: The last day of the range, inclusive
+     *
+     * @return: The # of days set in the range, 0 if the range is empty.
+     */
+    static int count(long[] mask, int firstDayOfYear, int lastDayOfYear) {
+        if (lastDayOfYear < firstDayOfYear) {
+            return 0;
+        }
+
+        int firstBit = firstDayOfYear - 1;
+        int lastBit = lastDayOfYear - 1;
+        int firstWord = firstBit >>> 6;
+        int lastWord = lastBit >>> 6;
+
+        // Shifts only use the low 6 bits, so these keep the bits from firstBit up and through lastBit.
+        long firstWordMask = -1L << firstBit;
+        long lastWordMask = -1L >>> (63 - (lastBit & 63));
+
+        if (firstWord == lastWord) {
+            return Long.bitCount(mask[firstWord] & firstWordMask & lastWordMask);
+        }
+
+        int setCount = Long.bitCount(mask[firstWord] & firstWordMask);
+        for (int word = firstWord + 1; word < lastWord; ++word) {
+            setCount += Long.bitCount(mask[word]);
+        }
+        setCount += Long.bitCount(mask[lastWord] & lastWordMask);
+
+        return setCount;
+    }
+
+    /**
+     * Counts the chargable days within a range of the year for a charge profile.
+     *
+     * The chargable days are combined a word at a time from the day of week and holiday masks,
+     * with each charge flag turned into an all or nothing word mask, so there's no branch per day.
+     * Holidays are charged at the holiday rate whatever day of the week they land on.
+     *
+     * @param weekdayMask: Monday through Friday of the year
+     * @param weekendMask: Saturdays and Sundays of the year
+     * @param holidayMask: The holidays of the year
+     * @param chargeProfile: The charge profile, see ChargeCalendarIndex.getChargeProfile
+     * @param firstDayOfYear: The first day of the range, inclusive
+     * @param lastDayOfYear: The last day of the range, inclusive
+     *
+     * @return: The # of chargable days in the range, 0 if the range is empty.
+     */
+    static int countChargable(long[] weekdayMask, long[] weekendMask, long[] holidayMask, int chargeProfile, int firstDayOfYear, int lastDayOfYear) {
+        if (lastDayOfYear < firstDayOfYear) {
+            return 0;
+        }
+
+        // All ones when the profile charges for the kind of day, all zeros when it doesn't.
+        long weekdayCharged = -(long) (chargeProfile & ChargeCalendarIndex.WEEKDAY_PROFILE_BIT);
+        long weekendCharged = -(long) ((chargeProfile & ChargeCalendarIndex.WEEKEND_PROFILE_BIT) >>> 1);
+        long holidayCharged = -(long) ((chargeProfile & ChargeCalendarIndex.HOLIDAY_PROFILE_BIT) >>> 2);
+
+        int firstBit = firstDayOfYear - 1;
+        int lastBit = lastDayOfYear - 1;
+        int firstWord = firstBit >>> 6;
+        int lastWord = lastBit >>> 6;
+        int chargableCount = 0;
+
+        for (int word = firstWord; word <= lastWord; ++word) {
+            long holidays = holidayMask[word];
+            long chargableDays = (((weekdayMask[word] & weekdayCharged) | (weekendMask[word] & weekendCharged)) & ~holidays) | (holidays & holidayCharged);
+
+            // Trim the ends of the range
+            if (word == firstWord) {
+                chargableDays &= -1L << firstBit;
+            }
+            if (word == lastWord) {
+                chargableDays &= -1L >>> (63 - (lastBit & 63));
+            }
+
+            chargableCount += Long.bitCount(chargableDays);
+        }
+
+        return chargableCount;
+    }
+}
@@ -0,0 +1,296 @@
+package toolVendor.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The holidays observed in a region, compiled from HolidayRules into one day mask per year.
+ *
+ * Each year gets a mask with a bit per day of the year set for the holidays, a second mask of the
+ * holidays landing on a Saturday or Sunday, and masks of the weekdays and weekend days. Checking a day
+ * is then a single bit test, and counting the holidays or chargable days in a window is a popcount
+ * over the masks. Masks for the years in the cached range are built
+ * up front. Years outside of it are built when first asked for and kept by their place in the 400 year
+ * Gregorian cycle, since years 400 apart have the same masks, so at most 400 more years are ever held.
+ */
+public class HolidayCalendar {
+    // Years cached by default
+    public static final int DEFAULT_FIRST_CACHED_YEAR = 1950;
+    public static final int DEFAULT_LAST_CACHED_YEAR = 2150;
+
+    // The calendar used when none is given, the observed 4th of July and Labor day.
+    private static final HolidayCalendar theDefaultCalendar = new HolidayCalendar("US", Arrays.asList(
+        HolidayRule.fixedDate("Independence Day", Month.JULY, 4, true),
+        HolidayRule.nthWeekday("Labor Day", Month.SEPTEMBER, DayOfWeek.MONDAY, 1)));
+
+    // Indexes into the masks of a year
+    private static final int HOLIDAY_MASK = 0;
+    private static final int WEEKEND_HOLIDAY_MASK = 1;
+    private static final int WEEKDAY_MASK = 2;
+    private static final int WEEKEND_MASK = 3;
+
+    // Member variables
+    private final String theName;
+    private final List<HolidayRule> theHolidayRules;
+    private final int theFirstCachedYear;
+    private final long[][][] theCachedYearMasks;
+
+    // Masks of years outside of the cached range, indexed by the year's place in the 400 year cycle
+    private final AtomicReferenceArray<long[][]> theCycleYearMasks = new AtomicReferenceArray<>(ChargeCalendarIndex.CYCLE_YEAR_COUNT);
+
+    // Index of the chargable days over this calendar, built when first asked for, see ChargeCalendarIndex.getIndex
+    private volatile ChargeCalendarIndex theChargeCalendarIndex = null;
+
+    /**
+     * Constructor, caching the default range of years.
+     *
+     * @param name: Name of the calendar, e.g. the region it's for
+     * @param holidayRules: The holidays observed
+     */
+    public HolidayCalendar(String name, List<HolidayRule> holidayRules) {
+        this(name, holidayRules, DEFAULT_FIRST_CACHED_YEAR, DEFAULT_LAST_CACHED_YEAR);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param name: Name of the calendar, e.g. the region it's for
+     * @param holidayRules: The holidays observed
+     * @param firstCachedYear: First year to build masks for up front
+     * @param lastCachedYear: Last year to build masks for up front
+     */
+    public HolidayCalendar(String name, List<HolidayRule> holidayRules, int firstCachedYear, int lastCachedYear) {
+        if (lastCachedYear < firstCachedYear) {
+            throw new IllegalArgumentException("Cached years " + firstCachedYear + " to " + lastCachedYear + " are empty.");
+        }
+
+        theName = name;
+        theHolidayRules = Collections.unmodifiableList(Arrays.asList(holidayRules.toArray(new HolidayRule[0])));
+        theFirstCachedYear = firstCachedYear;
+        theCachedYearMasks = new long[lastCachedYear - firstCachedYear + 1][][];
+
+        for (int i = 0; i < theCachedYearMasks.length; ++i) {
+            theCachedYearMasks[i] = buildYearMasks(firstCachedYear + i);
+        }
+    }
+
+    /**
+     * Gets the calendar used when none is given: the 4th of July, observed on the closest weekday,
+     * and Labor day.
+     *
+     * @return: The default HolidayCalendar
+     */
+    public static HolidayCalendar getDefaultCalendar() { return theDefaultCalendar; }
+
+    /**
+     * Checks if a date is an observed holiday.
+     *
+     * @param date: The date to check
+     *
+     * @return: True if the date is a holiday.
+     */
+    public boolean isHoliday(LocalDate date) {
+        return DayMask.test(getYearMasks(date.getYear())[HOLIDAY_MASK], date.getDayOfYear());
+    }
+
+    /**
+     * Counts the observed holidays between two dates.
+     *
+     * @param firstDay: The first day of the window, inclusive
+     * @param lastDay: The last day of the window, inclusive
+     *
+     * @return: The # of holidays in the window, 0 if the window is empty.
+     */
+    public int countHolidays(LocalDate firstDay, LocalDate lastDay) {
+        return countDays(firstDay, lastDay, HOLIDAY_MASK);
+    }
+
+    /**
+     * Counts the observed holidays landing on a Saturday or Sunday between two dates. These are
+     * always 0 for calendars that only observe holidays on weekdays.
+     *
+     * @param firstDay: The first day of the window, inclusive
+     * @param lastDay: The last day of the window, inclusive
+     *
+     * @return: The # of weekend holidays in the window, 0 if the window is empty.
+     */
+    public int countWeekendHolidays(LocalDate firstDay, LocalDate lastDay) {
+        return countDays(firstDay, lastDay, WEEKEND_HOLIDAY_MASK);
+    }
+
+    /**
+     * Counts the chargable days between two dates for a charge profile straight off of the masks,
+     * see DayMask.countChargable. Gives the same count as a ChargeCalendarIndex of this calendar
+     * without building prefix sums.
+     *
+     * @param firstDay: The first day of the window, inclusive
+     * @param lastDay: The last day of the window, inclusive
+     * @param chargeProfile: The charge profile, see ChargeCalendarIndex.getChargeProfile
+     *
+     * @return: The # of chargable days for the profile, 0 if the window is empty.
+     */
+    public int countChargableDays(LocalDate firstDay, LocalDate lastDay, int chargeProfile) {
+        if (lastDay.isBefore(firstDay)) {
+            return 0;
+        }
+
+        int firstYear = firstDay.getYear();
+        int lastYear = lastDay.getYear();
+
+        // Window inside of a single year, the common case.
+        if (firstYear == lastYear) {
+            return countChargableDays(getYearMasks(firstYear), chargeProfile, firstDay.getDayOfYear(), lastDay.getDayOfYear());
+        }
+
+        // Rest of the first year, every full year in between, then the start of the last year.
+        int chargableDayCount = countChargableDays(getYearMasks(firstYear), chargeProfile, firstDay.getDayOfYear(), firstDay.lengthOfYear());
+        for (int year = firstYear + 1; year < lastYear; ++year) {
+            chargableDayCount += countChargableDays(getYearMasks(year), chargeProfile, 1, Year.of(year).length());
+        }
+        chargableDayCount += countChargableDays(getYearMasks(lastYear), chargeProfile, 1, lastDay.getDayOfYear());
+
+        return chargableDayCount;
+    }
+
+    /**
+     * Gets the holiday mask of a year, bit n being set when day of year n + 1 is a holiday.
+     * The mask is shared and must not be changed.
+     *
+     * @param year: The year to get the mask of
+     *
+     * @return: The holiday mask, see DayMask
+     */
+    long[] getHolidayMask(int year) {
+        return getYearMasks(year)[HOLIDAY_MASK];
+    }
+
+    /**
+     * Gets the ChargeCalendarIndex of this calendar, building it the first time. Kept here so the
+     * index lives exactly as long as the calendar.
+     *
+     * @return: The index
+     */
+    ChargeCalendarIndex getChargeCalendarIndex() {
+        ChargeCalendarIndex chargeCalendarIndex = theChargeCalendarIndex;
+
+        if (chargeCalendarIndex == null) {
+            synchronized (this) {
+                chargeCalendarIndex = theChargeCalendarIndex;
+                if (chargeCalendarIndex == null) {
+                    chargeCalendarIndex = new ChargeCalendarIndex(this);
+                    theChargeCalendarIndex = chargeCalendarIndex;
+                }
+            }
+        }
+
+        return chargeCalendarIndex;
+    }
+
+    /**
+     * Helper method to count the days set in one of the masks across a window.
+     */
+    private int countDays(LocalDate firstDay, LocalDate lastDay, int maskIndex) {
+        if (lastDay.isBefore(firstDay)) {
+            return 0;
+        }
+
+        int firstYear = firstDay.getYear();
+        int lastYear = lastDay.getYear();
+
+        // Window inside of a single year, the common case.
+        if (firstYear == lastYear) {
+            return DayMask.count(getYearMasks(firstYear)[maskIndex], firstDay.getDayOfYear(), lastDay.getDayOfYear());
+        }
+
+        // Rest of the first year, every full year in between, then the start of the last year.
+        int dayCount = DayMask.count(getYearMasks(firstYear)[maskIndex], firstDay.getDayOfYear(), firstDay.lengthOfYear());
+        for (int year = firstYear + 1; year < lastYear; ++year) {
+            dayCount += DayMask.count(getYearMasks(year)[maskIndex], 1, Year.of(year).length());
+        }
+        dayCount += DayMask.count(getYearMasks(lastYear)[maskIndex], 1, lastDay.getDayOfYear());
+
+        return dayCount;
+    }
+
+    /**
+     * Helper method to count the chargable days within a range of one year.
+     */
+    private static int countChargableDays(long[][] yearMasks, int chargeProfile, int firstDayOfYear, int lastDayOfYear) {
+        return DayMask.countChargable(yearMasks[WEEKDAY_MASK], yearMasks[WEEKEND_MASK], yearMasks[HOLIDAY_MASK], chargeProfile, firstDayOfYear, lastDayOfYear);
+    }
+
+    /**
+     * Helper method to get the masks of a year, from the cache when the year is in range and from
+     * the cycle cache otherwise, building them the first time a year of that place in the cycle is asked for.
+     */
+    private long[][] getYearMasks(int year) {
+        int cacheIndex = year - theFirstCachedYear;
+
+        if (cacheIndex >= 0 && cacheIndex < theCachedYearMasks.length) {
+            return theCachedYearMasks[cacheIndex];
+        }
+
+        int cycleIndex = Math.floorMod(year, ChargeCalendarIndex.CYCLE_YEAR_COUNT);
+        long[][] yearMasks = theCycleYearMasks.get(cycleIndex);
+        if (yearMasks == null) {
+            // Racing threads build the same masks, so whichever is kept doesn't matter
+            yearMasks = buildYearMasks(year);
+            theCycleYearMasks.set(cycleIndex, yearMasks);
+        }
+        return yearMasks;
+    }
+
+    /**
+     * Helper method to build the masks of a year from the rules.
+     *
+     * The holiday rules are placed in the years either side too, since an observed holiday can move
+     * across New Year's.
+     */
+    private long[][] buildYearMasks(int year) {
+        long[][] yearMasks = { DayMask.create(), DayMask.create(), DayMask.create(), DayMask.create() };
+
+        // Sort the days of the year by day of week, Monday is 0 and Sunday is 6.
+        int dayCount = Year.of(year).length();
+        int dayIndex = LocalDate.of(year, 1, 1).getDayOfWeek().getValue() - 1;
+        for (int dayOfYear = 1; dayOfYear <= dayCount; ++dayOfYear) {
+            DayMask.set(yearMasks[dayIndex >= 5 ? WEEKEND_MASK : WEEKDAY_MASK], dayOfYear);
+            dayIndex = dayIndex == 6 ? 0 : dayIndex + 1;
+        }
+
+        for (HolidayRule holidayRule : theHolidayRules) {
+            for (int ruleYear = year - 1; ruleYear <= year + 1; ++ruleYear) {
+                LocalDate holiday = holidayRule.getObservedDate(ruleYear);
+                if (holiday.getYear() != year) {
+                    continue;
+                }
+
+                DayMask.set(yearMasks[HOLIDAY_MASK], holiday.getDayOfYear());
+                DayOfWeek dayOfWeek = holiday.getDayOfWeek();
+                if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+                    DayMask.set(yearMasks[WEEKEND_HOLIDAY_MASK], holiday.getDayOfYear());
+                }
+            }
+        }
+
+        return yearMasks;
+    }
+
+    /**
+     * Getters
+     */
+    public String getName() { return theName; }
+    public List<HolidayRule> getHolidayRules() { return theHolidayRules; }
+    public int getFirstCachedYear() { return theFirstCachedYear; }
+    public int getLastCachedYear() { return theFirstCachedYear + theCachedYearMasks.length - 1; }
+
+    @Override
+    public String toString() {
+        return theName + " " + theHolidayRules;
+    }
+}
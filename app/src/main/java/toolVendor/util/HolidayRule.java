@@ -0,0 +1,144 @@
+package toolVendor.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * A rule placing one holiday in every year, for a HolidayCalendar.
+ *
+ * Three kinds of rules are supported:
+ *  - A fixed date, e.g. July 4th, optionally observed on the Friday before when it lands on a Saturday
+ *    and the Monday after when it lands on a Sunday.
+ *  - The nth day of week of a month, e.g. Labor day is the 1st Monday of September.
+ *  - The last day of week of a month, e.g. Memorial day is the last Monday of May.
+ */
+public class HolidayRule {
+    /**
+     * The kinds of rules
+     */
+    public enum RuleKind {
+        FIXED_DATE,
+        NTH_WEEKDAY,
+        LAST_WEEKDAY
+    }
+
+    // Member variables
+    private final String theName;
+    private final RuleKind theRuleKind;
+    private final Month theMonth;
+    private final int theDayOfMonth;
+    private final boolean theWeekendObserved;
+    private final DayOfWeek theDayOfWeek;
+    private final int theOccurrence;
+
+    /**
+     * Constructor, see the static factory methods.
+     */
+    private HolidayRule(String name, RuleKind ruleKind, Month month, int dayOfMonth, boolean weekendObserved, DayOfWeek dayOfWeek, int occurrence) {
+        theName = name;
+        theRuleKind = ruleKind;
+        theMonth = month;
+        theDayOfMonth = dayOfMonth;
+        theWeekendObserved = weekendObserved;
+        theDayOfWeek = dayOfWeek;
+        theOccurrence = occurrence;
+    }
+
+    /**
+     * Creates a rule for a holiday on the same date every year.
+     *
+     * @param name: Name of the holiday
+     * @param month: Month of the holiday
+     * @param dayOfMonth: Day of the month of the holiday
+     * @param weekendObserved: True to observe a Saturday holiday on Friday and a Sunday holiday on Monday
+     *
+     * @return: The rule
+     */
+    public static HolidayRule fixedDate(String name, Month month, int dayOfMonth, boolean weekendObserved) {
+        if (dayOfMonth < 1 || dayOfMonth > month.maxLength()) {
+            throw new IllegalArgumentException("Day " + dayOfMonth + " is not in " + month + ".");
+        }
+        return new HolidayRule(name, RuleKind.FIXED_DATE, month, dayOfMonth, weekendObserved, null, 0);
+    }
+
+    /**
+     * Creates a rule for a holiday on the nth day of week of a month.
+     *
+     * @param name: Name of the holiday
+     * @param month: Month of the holiday
+     * @param dayOfWeek: Day of week of the holiday
+     * @param occurrence: Which occurrence of the day of week, from 1 to 4
+     *
+     * @return: The rule
+     */
+    public static HolidayRule nthWeekday(String name, Month month, DayOfWeek dayOfWeek, int occurrence) {
+        // A 5th occurrence isn't in every month, use lastWeekday for those.
+        if (occurrence < 1 || occurrence > 4) {
+            throw new IllegalArgumentException("Occurrence " + occurrence + " should be between 1 and 4.");
+        }
+        return new HolidayRule(name, RuleKind.NTH_WEEKDAY, month, 0, false, dayOfWeek, occurrence);
+    }
+
+    /**
+     * Creates a rule for a holiday on the last day of week of a month.
+     *
+     * @param name: Name of the holiday
+     * @param month: Month of the holiday
+     * @param dayOfWeek: Day of week of the holiday
+     *
+     * @return: The rule
+     */
+    public static HolidayRule lastWeekday(String name, Month month, DayOfWeek dayOfWeek) {
+        return new HolidayRule(name, RuleKind.LAST_WEEKDAY, month, 0, false, dayOfWeek, -1);
+    }
+
+    /**
+     * Gets the day the holiday is observed on in a year.
+     *
+     * A fixed date observed on a weekday can move into the year before or after, e.g. a
+     * Saturday January 1st is observed on December 31st.
+     *
+     * @param year: The year to place the holiday in
+     *
+     * @return: The observed date
+     */
+    public LocalDate getObservedDate(int year) {
+        switch (theRuleKind) {
+            case FIXED_DATE:
+                // Leap day holidays fall back to the 28th.
+                LocalDate holiday = LocalDate.of(year, theMonth, Math.min(theDayOfMonth, theMonth.length(Year.isLeap(year))));
+                if (theWeekendObserved) {
+                    if (holiday.getDayOfWeek() == DayOfWeek.SATURDAY) {
+                        return holiday.minusDays(1);
+                    }
+                    else if (holiday.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                        return holiday.plusDays(1);
+                    }
+                }
+                return holiday;
+            case NTH_WEEKDAY:
+                return LocalDate.of(year, theMonth, 1).with(TemporalAdjusters.dayOfWeekInMonth(theOccurrence, theDayOfWeek));
+            default:
+                return LocalDate.of(year, theMonth, 1).with(TemporalAdjusters.lastInMonth(theDayOfWeek));
+        }
+    }
+
+    /**
+     * Getters
+     */
+    public String getName() { return theName; }
+    public RuleKind getRuleKind() { return theRuleKind; }
+    public Month getMonth() { return theMonth; }
+    public int getDayOfMonth() { return theDayOfMonth; }
+    public boolean isWeekendObserved() { return theWeekendObserved; }
+    public DayOfWeek getDayOfWeek() { return theDayOfWeek; }
+    public int getOccurrence() { return theOccurrence; }
+
+    @Override
+    public String toString() {
+        return theName;
+    }
+}
@@ -0,0 +1,172 @@
+package toolVendor.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Utility class for exact money arithmetic.
+ *
+ * Amounts are held as a long # of cents and percentages as an int # of basis points (1/100th of a percent),
+ * so pricing never goes through floating point. Wherever a value has to be rounded it's rounded half up,
+ * i.e. to the nearest cent with halves going away from zero.
+ */
+public class MoneyUtility {
+    // Cents in a dollar
+    public static final long CENTS_PER_DOLLAR = 100L;
+
+    // Basis points in 100%
+    public static final int BASIS_POINTS_PER_WHOLE = 10000;
+
+    /**
+     * Converts a dollar amount to cents, rounding half up.
+     *
+     * @param dollars: The dollar amount
+     *
+     * @return: The amount in cents
+     */
+    public static long toCents(double dollars) {
+        long cents = Math.round(Math.abs(dollars) * CENTS_PER_DOLLAR);
+        return dollars < 0 ? -cents : cents;
+    }
+
+    /**
+     * Parses a decimal dollar amount like "2.99" exactly, rounding half up past the cents.
+     *
+     * @param dollarString: The dollar amount
+     *
+     * @return: The amount in cents
+     *
+     * @throws NumberFormatException if the string isn't a decimal number.
+     */
+    public static long parseCents(String dollarString) {
+        return new BigDecimal(dollarString.trim()).setScale(2, RoundingMode.HALF_UP).movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Converts cents to a dollar amount, for callers that still want a double.
+     *
+     * @param cents: The amount in cents
+     *
+     * @return: The dollar amount
+     */
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Converts a percentage like 12.5 to basis points, rounding half up.
+     *
+     * @param percent: The percentage, where 20 == 20%
+     *
+     * @return: The percentage in basis points, where 2000 == 20%
+     */
+    public static int toBasisPoints(double percent) {
+        int basisPoints = (int) Math.round(Math.abs(percent) * 100.0);
+        return percent < 0 ? -basisPoints : basisPoints;
+    }
+
+    /**
+     * Takes a percentage of an amount, rounding half up to the cent.
+     *
+     * @param cents: The amount in cents
+     * @param basisPoints: The percentage in basis points
+     *
+     * @return: The percentage of the amount in cents
+     */
+    public static long percentageOf(long cents, int basisPoints) {
+        long scaledAmount = Math.multiplyExact(cents, (long) basisPoints);
+        long halfWhole = BASIS_POINTS_PER_WHOLE / 2;
+
+        if (scaledAmount >= 0) {
+            return (scaledAmount + halfWhole) / BASIS_POINTS_PER_WHOLE;
+        }
+        return -((-scaledAmount + halfWhole) / BASIS_POINTS_PER_WHOLE);
+    }
+
+    /**
+     * Multiplies an amount by a fraction exactly, rounding half up, e.g. to apply an exchange or tax rate.
+     * Products too large for a long are worked out with BigDecimal instead.
+     *
+     * @param amount: The amount, e.g. in cents
+     * @param numerator: What to multiply by
+     * @param denominator: What to divide by, must be positive
+     *
+     * @return: The amount times numerator over denominator, rounded half up
+     *
+     * @throws ArithmeticException if the result doesn't fit in a long.
+     */
+    public static long multiplyRoundHalfUp(long amount, long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Denominator of " + denominator + " should be positive.");
+        }
+
+        long product;
+        try {
+            product = Math.multiplyExact(amount, numerator);
+        }
+        catch (ArithmeticException e) {
+            return BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(numerator))
+                .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP).longValueExact();
+        }
+
+        // Round away from zero when the remainder is at least half the denominator
+        long quotient = product / denominator;
+        long remainder = Math.abs(product % denominator);
+        if (remainder >= denominator - remainder) {
+            quotient += product < 0 ? -1 : 1;
+        }
+        return quotient;
+    }
+
+    /**
+     * Formats cents as dollars with two decimals, e.g. 1234 as "12.34".
+     *
+     * @param cents: The amount in cents
+     *
+     * @return: The formatted amount, without a currency symbol
+     */
+    public static String formatCents(long cents) {
+        StringBuilder builder = new StringBuilder(AsciiFormatter.MAX_NUMBER_LENGTH);
+        try {
+            AsciiFormatter.appendCents(builder, cents);
+        }
+        catch (IOException e) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Formats an amount in a currency's minor units with its # of decimals, e.g. 1234 with 2 decimals as "12.34".
+     *
+     * @param minorUnits: The amount in minor units, e.g. cents or yen
+     * @param fractionDigits: The # of decimals of the currency
+     *
+     * @return: The formatted amount, without a currency symbol
+     */
+    public static String formatMinorUnits(long minorUnits, int fractionDigits) {
+        return BigDecimal.valueOf(minorUnits, fractionDigits).toPlainString();
+    }
+
+    /**
+     * Formats basis points as a percentage with one decimal, rounding half up, e.g. 1250 as "12.5".
+     *
+     * @param basisPoints: The percentage in basis points
+     *
+     * @return: The formatted percentage, without a percent sign
+     */
+    public static String formatPercent(int basisPoints) {
+        StringBuilder builder = new StringBuilder(AsciiFormatter.MAX_NUMBER_LENGTH);
+        try {
+            AsciiFormatter.appendPercent(builder, basisPoints);
+        }
+        catch (IOException e) {
+            // A StringBuilder never throws
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package toolVendor.util;
+
+import java.time.LocalDate;
+
+import toolVendor.data.tool.Tool;
+
+/**
+ * The days of a rental window sorted into weekdays, weekend days, and holidays, so the chargable days
+ * of any tool rented over the window can be worked out from the counts, see getChargableDays.
+ *
+ * Classifying a window is the only calendar work, tools rented together over it share it.
+ */
+public class RentalWindow {
+    // Member variables
+    private final LocalDate theCheckoutDate;
+    private final int theRentalDayCount;
+    private final int theWeekdayCount;
+    private final int theWeekendDayCount;
+    private final int theWeekdayHolidayCount;
+    private final int theWeekendHolidayCount;
+
+    /**
+     * Constructor, see classify.
+     */
+    private RentalWindow(LocalDate checkoutDate, int rentalDayCount, int weekdayCount, int weekendDayCount, int weekdayHolidayCount, int weekendHolidayCount) {
+        theCheckoutDate = checkoutDate;
+        theRentalDayCount = rentalDayCount;
+        theWeekdayCount = weekdayCount;
+        theWeekendDayCount = weekendDayCount;
+        theWeekdayHolidayCount = weekdayHolidayCount;
+        theWeekendHolidayCount = weekendHolidayCount;
+    }
+
+    /**
+     * Sorts the days of a rental window. Like CalendarUtility.getChargableDays, the window starts the
+     * day after the checkout date and includes the due date.
+     *
+     * @param checkoutDate: The checkout date
+     * @param rentalDayCount: The # of days rented
+     * @param holidayCalendar: The holidays observed where the tools are rented
+     *
+     * @return: The classified window
+     *
+     * @throws IllegalArgumentException if the # of days is negative.
+     */
+    public static RentalWindow classify(LocalDate checkoutDate, int rentalDayCount, HolidayCalendar holidayCalendar) {
+        if (rentalDayCount < 0) {
+            throw new IllegalArgumentException("Rental day count of " + rentalDayCount + " is negative.");
+        }
+        if (rentalDayCount == 0) {
+            return new RentalWindow(checkoutDate, 0, 0, 0, 0, 0);
+        }
+
+        LocalDate firstDay = checkoutDate.plusDays(1);
+        LocalDate lastDay = checkoutDate.plusDays(rentalDayCount);
+
+        int weekendDayCount = CalendarUtility.countWeekendDays(firstDay.getDayOfWeek(), rentalDayCount);
+        int holidayCount = holidayCalendar.countHolidays(firstDay, lastDay);
+        int weekendHolidayCount = holidayCalendar.countWeekendHolidays(firstDay, lastDay);
+
+        return new RentalWindow(checkoutDate, rentalDayCount, rentalDayCount - weekendDayCount, weekendDayCount,
+                                holidayCount - weekendHolidayCount, weekendHolidayCount);
+    }
+
+    /**
+     * Gets the # of chargable days for a tool rented over the window, from its charge flags alone.
+     *
+     * @param toolToRent: The tool
+     *
+     * @return: The # of chargable days, as given by CalendarUtility.getChargableDays
+     */
+    public int getChargableDays(Tool toolToRent) {
+        return CalendarUtility.combineChargableDays(theWeekdayCount, theWeekendDayCount, theWeekdayHolidayCount, theWeekendHolidayCount, toolToRent);
+    }
+
+    /**
+     * Getters
+     */
+    public LocalDate getCheckoutDate() { return theCheckoutDate; }
+    public int getRentalDayCount() { return theRentalDayCount; }
+    public LocalDate getReturnDate() { return CalendarUtility.getEndDate(theCheckoutDate, theRentalDayCount); }
+    public int getWeekdayCount() { return theWeekdayCount; }
+    public int getWeekendDayCount() { return theWeekendDayCount; }
+    public int getHolidayCount() { return theWeekdayHolidayCount + theWeekendHolidayCount; }
+    public int getWeekdayHolidayCount() { return theWeekdayHolidayCount; }
+    public int getWeekendHolidayCount() { return theWeekendHolidayCount; }
+}
@@ -2,15 +2,49 @@ package toolVendor;
 
 import org.junit.jupiter.api.Test;
 
+import toolVendor.data.agreement.AgreementAmendment;
 import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.agreement.RentalAgreementCache;
+import toolVendor.data.checkout.CheckoutErrorCode;
+import toolVendor.data.checkout.CheckoutRequest;
+import toolVendor.data.checkout.CheckoutResult;
+import toolVendor.data.inventory.InventoryLedger;
+import toolVendor.data.journal.AgreementJournal;
+import toolVendor.data.order.OrderInvoice;
+import toolVendor.data.order.OrderRequest;
+import toolVendor.data.order.OrderResult;
+import toolVendor.data.tool.ToolCatalog;
+import toolVendor.data.tool.ToolType;
 import toolVendor.exceptions.DiscountOutOfBoundsException;
 import toolVendor.exceptions.InvalidRentalDayException;
+import toolVendor.exceptions.OutOfStockException;
+import toolVendor.pricing.ChargeLocalizer;
+import toolVendor.pricing.ExchangeRateTable;
+import toolVendor.pricing.LocalCharge;
+import toolVendor.pricing.PricingRule;
+import toolVendor.pricing.PricingRuleSet;
+import toolVendor.pricing.TaxTable;
+import toolVendor.util.HolidayCalendar;
+import toolVendor.util.HolidayRule;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.InvalidParameterException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
 
 class ToolVendorTest {
     // Global testing variables to set up prior to tests 
@@ -226,7 +260,16 @@ class ToolVendorTest {
         });
 
         assertThrows(InvalidParameterException.class, () -> {
-            testToolVendor.checkoutTool("JAKR", null, 1, 0);
+            testToolVendor.checkoutTool("JAKR", (String) null, 1, 0);
+        });
+
+        assertThrows(InvalidParameterException.class, () -> {
+            testToolVendor.checkoutTool("JAKR", (LocalDate) null, 1, 0);
+        });
+
+        // Tool codes we don't rent
+        assertThrows(InvalidParameterException.class, () -> {
+            testToolVendor.checkoutTool("NONE", "11/7/23", 1, 0);
         });
     }
     
@@ -379,4 +422,429 @@ class ToolVendorTest {
             assertTrue(actualReceipt.equals(expectedReceipt));
         }
     }
+
+    /**
+     * Checking out with a LocalDate should give the same agreement as the string date.
+     */
+    @Test
+    public void testLocalDateCheckout(){
+        RentalAgreement testAgreement = testToolVendor.checkoutTool("CHNS", LocalDate.of(2015, 7, 2), 5, 25);
+        RentalAgreement testStringAgreement = testToolVendor.checkoutTool("CHNS", "7/2/15", 5, 25);
+
+        assertNotNull(testAgreement);
+        assertEquals(LocalDate.of(2015, 7, 7), testAgreement.getReturnDate());
+        assertEquals("07/02/15", testAgreement.getCheckoutDateString());
+        assertEquals(testStringAgreement.toString(), testAgreement.toString());
+    }
+
+    /**
+     * Batch checkouts report invalid requests in place and match single checkouts for valid ones.
+     */
+    @Test
+    public void testCheckoutBatch(){
+        List<CheckoutRequest> testRequests = new ArrayList<>();
+        testRequests.add(new CheckoutRequest("JAKR", "9/3/15", 5, 101));
+        testRequests.add(new CheckoutRequest("LADW", "7/2/20", 3, 10));
+        testRequests.add(new CheckoutRequest("NONE", "7/2/20", 3, 10));
+        testRequests.add(new CheckoutRequest("CHNS", "7/32/15", 5, 25));
+        testRequests.add(new CheckoutRequest("JAKD", LocalDate.of(2015, 9, 3), 6, 0));
+        testRequests.add(new CheckoutRequest("JAKR", "9/3/15", 0, 10));
+
+        List<CheckoutResult> testResults = testToolVendor.checkoutBatch(testRequests);
+        assertEquals(testRequests.size(), testResults.size());
+
+        assertFalse(testResults.get(0).isSuccess());
+        assertEquals("Discount of 101.0 is invalid. Please input a discount between 0 and 100 inclusively.", testResults.get(0).getErrorMessage());
+        assertEquals(testToolVendor.checkoutTool("LADW", "7/2/20", 3, 10).toString(), testResults.get(1).getRentalAgreement().toString());
+        assertFalse(testResults.get(2).isSuccess());
+        assertFalse(testResults.get(3).isSuccess());
+        assertEquals(testToolVendor.checkoutTool("JAKD", "9/3/15", 6, 0).toString(), testResults.get(4).getRentalAgreement().toString());
+        assertEquals("Rental day count of 0 is invalid. Please have at least one day for tool rental.", testResults.get(5).getErrorMessage());
+    }
+
+    /**
+     * Large batches run in parallel and keep the input order.
+     */
+    @Test
+    public void testLargeCheckoutBatch(){
+        String[] toolCodes = { "CHNS", "LADW", "JAKD", "JAKR" };
+        List<CheckoutRequest> testRequests = new ArrayList<>();
+        for (int i = 0; i < 5000; ++i) {
+            testRequests.add(new CheckoutRequest(toolCodes[i % 4], LocalDate.of(2020, 6, 1).plusDays(i % 97), 1 + i % 45, i % 3 * 10));
+        }
+
+        ExecutorService testExecutor = Executors.newFixedThreadPool(4);
+        try {
+            List<CheckoutResult> testResults = testToolVendor.checkoutBatch(testRequests, testExecutor);
+
+            for (int i = 0; i < testRequests.size(); ++i) {
+                CheckoutRequest testRequest = testRequests.get(i);
+                RentalAgreement expectedAgreement = testToolVendor.checkoutTool(testRequest.getToolCode(), testRequest.getCheckoutDate(), testRequest.getRentalDayCount(), testRequest.getDiscount());
+                assertEquals(expectedAgreement.toString(), testResults.get(i).getRentalAgreement().toString());
+            }
+        }
+        finally {
+            testExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Vendors in other regions charge by their own holidays, in single and batch checkouts.
+     */
+    @Test
+    public void testHolidayCalendar(){
+        HolidayCalendar christmasCalendar = new HolidayCalendar("Christmas only", Arrays.asList(
+            HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, true)));
+        ToolVendor christmasToolVendor = new ToolVendor(ToolCatalog::getDefaultCatalog, christmasCalendar);
+
+        // Christmas 2020 is a Friday, which the jackhammer doesn't charge for in this region.
+        RentalAgreement testAgreement = christmasToolVendor.checkoutTool("JAKR", "12/21/20", 5, 0);
+        assertEquals(3, testAgreement.getChargableDayCount());
+        assertEquals(4, testToolVendor.checkoutTool("JAKR", "12/21/20", 5, 0).getChargableDayCount());
+
+        // The 4th of July isn't a holiday here.
+        assertEquals(2, christmasToolVendor.checkoutTool("JAKR", "7/2/20", 4, 0).getChargableDayCount());
+
+        List<CheckoutResult> testResults = christmasToolVendor.checkoutBatch(Arrays.asList(new CheckoutRequest("JAKR", "12/21/20", 5, 0)));
+        assertEquals(3, testResults.get(0).getRentalAgreement().getChargableDayCount());
+    }
+
+    /**
+     * Bad input comes back as an error code instead of an exception, and exceptions can skip their stack traces.
+     */
+    @Test
+    public void testTryCheckoutTool(){
+        assertEquals(CheckoutErrorCode.MISSING_TOOL_CODE, testToolVendor.tryCheckoutTool(null, "7/2/20", 4, 0).getErrorCode());
+        assertEquals(CheckoutErrorCode.MISSING_CHECKOUT_DATE, testToolVendor.tryCheckoutTool("JAKR", (String) null, 4, 0).getErrorCode());
+        assertEquals(CheckoutErrorCode.INVALID_RENTAL_DAY_COUNT, testToolVendor.tryCheckoutTool("JAKR", "7/2/20", 0, 0).getErrorCode());
+        assertEquals(CheckoutErrorCode.DISCOUNT_OUT_OF_BOUNDS, testToolVendor.tryCheckoutTool("JAKR", "7/2/20", 4, Double.NaN).getErrorCode());
+        assertEquals(CheckoutErrorCode.INVALID_CHECKOUT_DATE, testToolVendor.tryCheckoutTool("JAKR", "13/2/20", 4, 0).getErrorCode());
+        assertEquals(CheckoutErrorCode.UNKNOWN_TOOL_CODE, testToolVendor.tryCheckoutTool("NONE", "7/2/20", 4, 0).getErrorCode());
+        assertEquals("Rental day count of -1 is invalid. Please have at least one day for tool rental.", testToolVendor.tryCheckoutTool("JAKR", "7/2/20", -1, 0).getErrorMessage());
+
+        CheckoutResult testResult = testToolVendor.tryCheckoutTool("JAKR", "7/2/20", 4, 50);
+        assertTrue(testResult.isSuccess());
+        assertNull(testResult.getErrorCode());
+        assertEquals(testToolVendor.checkoutTool("JAKR", "7/2/20", 4, 50).toString(), testResult.getRentalAgreement().toString());
+
+        assertThrows(DateTimeParseException.class, () -> testToolVendor.checkoutTool("JAKR", "13/2/20", 4, 0));
+
+        ToolVendor quietToolVendor = new ToolVendor();
+        quietToolVendor.setFillingStackTraces(false);
+        InvalidRentalDayException exception = assertThrows(InvalidRentalDayException.class, () -> quietToolVendor.checkoutTool("JAKR", "7/2/20", 0, 0));
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    /**
+     * With a ledger set, checkouts hold a unit and fail once every unit is out.
+     */
+    @Test
+    public void testInventoryLedger(){
+        ToolVendor stockedToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 1);
+        stockedToolVendor.setInventoryLedger(testLedger);
+
+        CheckoutResult testResult = stockedToolVendor.tryCheckoutTool("LADW", "7/2/20", 3, 10);
+        assertTrue(testResult.isSuccess());
+        assertEquals(LocalDate.of(2020, 7, 5), testResult.getReservation().getEndDate());
+        assertEquals(CheckoutErrorCode.OUT_OF_STOCK, stockedToolVendor.tryCheckoutTool("LADW", "7/4/20", 3, 10).getErrorCode());
+        assertThrows(OutOfStockException.class, () -> stockedToolVendor.checkoutTool("LADW", "7/4/20", 3, 10));
+        assertEquals(CheckoutErrorCode.OUT_OF_STOCK, stockedToolVendor.tryCheckoutTool("JAKR", "7/4/20", 3, 10).getErrorCode());
+
+        // Due back on the 5th, so it can go out again that day
+        assertTrue(stockedToolVendor.tryCheckoutTool("LADW", "7/5/20", 3, 10).isSuccess());
+
+        List<CheckoutResult> batchResults = stockedToolVendor.checkoutBatch(Arrays.asList(
+            new CheckoutRequest("LADW", "7/10/20", 2, 0),
+            new CheckoutRequest("LADW", "7/11/20", 2, 0)));
+        assertTrue(batchResults.get(0).isSuccess());
+        assertEquals(CheckoutErrorCode.OUT_OF_STOCK, batchResults.get(1).getErrorCode());
+        assertEquals(3, testLedger.getReservationCount());
+    }
+
+    /**
+     * A batch checkout that fails fails only its own result and lets go of its unit.
+     */
+    @Test
+    public void testBatchFailureReleases(@TempDir Path journalDirectory) throws IOException {
+        ToolVendor stockedToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 5);
+        stockedToolVendor.setInventoryLedger(testLedger);
+
+        // Appending to a closed journal throws
+        AgreementJournal closedJournal = new AgreementJournal(journalDirectory);
+        closedJournal.close();
+        stockedToolVendor.setAgreementJournal(closedJournal);
+
+        List<CheckoutResult> batchResults = stockedToolVendor.checkoutBatch(Arrays.asList(
+            new CheckoutRequest("LADW", "7/2/20", 3, 0),
+            new CheckoutRequest("LADW", "7/2/20", 4, 0),
+            new CheckoutRequest("NONE", "7/2/20", 3, 0)));
+        assertEquals(CheckoutErrorCode.CHECKOUT_FAILED, batchResults.get(0).getErrorCode());
+        assertEquals(CheckoutErrorCode.CHECKOUT_FAILED, batchResults.get(1).getErrorCode());
+        assertTrue(batchResults.get(0).getErrorMessage().contains("LADW"), batchResults.get(0).getErrorMessage());
+        assertEquals(CheckoutErrorCode.UNKNOWN_TOOL_CODE, batchResults.get(2).getErrorCode());
+        assertEquals(0, testLedger.getReservationCount());
+
+        // Cached quotes are journaled too
+        stockedToolVendor.setAgreementJournal(null);
+        stockedToolVendor.setAgreementCache(new RentalAgreementCache(16));
+        assertTrue(stockedToolVendor.tryCheckoutTool("LADW", "7/2/20", 3, 0).isSuccess());
+        stockedToolVendor.setAgreementJournal(closedJournal);
+        batchResults = stockedToolVendor.checkoutBatch(Arrays.asList(new CheckoutRequest("LADW", "7/2/20", 3, 0)));
+        assertEquals(CheckoutErrorCode.CHECKOUT_FAILED, batchResults.get(0).getErrorCode());
+        assertEquals(1, testLedger.getReservationCount());
+    }
+
+    /**
+     * Agreements are priced with the rules set when they're checked out, cached quotes included.
+     */
+    @Test
+    public void testPricingRules(){
+        ToolVendor pricedToolVendor = new ToolVendor();
+        pricedToolVendor.setAgreementCache(new RentalAgreementCache(16));
+
+        // 5 chargable days at $2.99
+        assertEquals(1495, pricedToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 0).getRentalAgreement().getInitialPriceCents());
+
+        PricingRuleSet weeklyRules = new PricingRuleSet(1, Arrays.asList(PricingRule.tier(ToolType.JACKHAMMER, null, 5, 1000)));
+        pricedToolVendor.setPricingRules(weeklyRules);
+        RentalAgreement testAgreement = pricedToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25).getRentalAgreement();
+        assertSame(weeklyRules, testAgreement.getPricingRules());
+        assertEquals(1000, testAgreement.getInitialPriceCents());
+        assertEquals(250, testAgreement.getDiscountAmountCents());
+        assertEquals(750, testAgreement.getFinalChargeCents());
+        assertSame(testAgreement, pricedToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25).getRentalAgreement());
+
+        List<CheckoutResult> batchResults = pricedToolVendor.checkoutBatch(Arrays.asList(
+            new CheckoutRequest("JAKR", "7/2/20", 9, 25),
+            new CheckoutRequest("JAKD", "7/2/20", 9, 0)));
+        assertSame(testAgreement, batchResults.get(0).getRentalAgreement());
+        assertEquals(1000, batchResults.get(1).getRentalAgreement().getInitialPriceCents());
+
+        // Swapping the rules out doesn't hand out quotes priced with them
+        pricedToolVendor.setPricingRules(null);
+        testAgreement = pricedToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 25).getRentalAgreement();
+        assertNull(testAgreement.getPricingRules());
+        assertEquals(1495, testAgreement.getInitialPriceCents());
+    }
+
+    /**
+     * Checkouts with a tax region are charged in its currency at the rates of the checkout date.
+     */
+    @Test
+    public void testTaxRegion(){
+        ToolVendor localToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("JAKR", 1);
+        testLedger.setUnitCount("JAKD", 1);
+        testLedger.setUnitCount("LADW", 1);
+        localToolVendor.setInventoryLedger(testLedger);
+        assertEquals(CheckoutErrorCode.UNKNOWN_TAX_REGION, localToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 0, "DE-BY").getErrorCode());
+
+        localToolVendor.setChargeLocalizer(new ChargeLocalizer(
+            ExchangeRateTable.builder()
+                .addRate("EUR", LocalDate.of(2020, 1, 1), LocalDate.of(2020, 6, 30), 900000)
+                .addRate("EUR", LocalDate.of(2020, 7, 1), null, 800000)
+                .build(),
+            TaxTable.builder().addRate("DE-BY", "EUR", LocalDate.of(2020, 1, 1), null, 190000).build()));
+
+        // 5 chargable days at $2.99 is EUR 11.96 at the July rate
+        CheckoutResult testResult = localToolVendor.tryCheckoutTool("JAKR", "7/2/20", 9, 0, "de-by");
+        assertTrue(testResult.isSuccess());
+        assertEquals(1495, testResult.getRentalAgreement().getFinalChargeCents());
+        LocalCharge localCharge = testResult.getLocalCharge();
+        assertEquals("DE-BY", localCharge.getTaxRegion());
+        assertEquals(1196, localCharge.getChargeMinorUnits());
+        assertEquals(227, localCharge.getTaxMinorUnits());
+        assertEquals(1423, localCharge.getTotalMinorUnits());
+        assertNull(localToolVendor.tryCheckoutTool("JAKD", "7/2/20", 9, 0).getLocalCharge());
+
+        // Rejected regions and dates don't hold a unit
+        assertEquals(CheckoutErrorCode.UNKNOWN_TAX_REGION, localToolVendor.tryCheckoutTool("LADW", "7/2/20", 3, 0, "FR-75").getErrorCode());
+        CheckoutResult earlyResult = localToolVendor.tryCheckoutTool("LADW", "12/2/19", 3, 0, "DE-BY");
+        assertEquals(CheckoutErrorCode.NO_RATES_IN_EFFECT, earlyResult.getErrorCode());
+        assertEquals("Tax region DE-BY has no exchange or tax rate in effect on 2019-12-02. Please try another date.", earlyResult.getErrorMessage());
+        assertTrue(localToolVendor.tryCheckoutTool("LADW", "12/2/19", 3, 0).isSuccess());
+    }
+
+    /**
+     * Extending and shortening count the changed days with the vendor's holidays.
+     */
+    @Test
+    public void testAmendRental(){
+        HolidayCalendar christmasCalendar = new HolidayCalendar("Christmas only", Arrays.asList(
+            HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, true)));
+        ToolVendor christmasToolVendor = new ToolVendor(ToolCatalog::getDefaultCatalog, christmasCalendar);
+
+        // Monday to Thursday, then the Friday Christmas that isn't charged
+        RentalAgreement testAgreement = christmasToolVendor.checkoutTool("JAKR", "12/20/20", 4, 0);
+        AgreementAmendment testAmendment = christmasToolVendor.extendRental(testAgreement, 1);
+        assertEquals(0, testAmendment.getChargableDayDelta());
+        assertEquals(1, testToolVendor.extendRental(testAgreement, 1).getChargableDayDelta());
+        assertEquals(christmasToolVendor.checkoutTool("JAKR", "12/20/20", 5, 0).toString(), testAmendment.getAmendedAgreement().toString());
+
+        assertEquals(-1, christmasToolVendor.shortenRental(testAmendment.getAmendedAgreement(), 2).getChargableDayDelta());
+        assertThrows(IllegalArgumentException.class, () -> christmasToolVendor.shortenRental(testAgreement, 4));
+    }
+
+    /**
+     * With a ledger set, extending keeps the rental's unit for the added days and shortening lets the taken off days go.
+     */
+    @Test
+    public void testAmendRentalStock(@TempDir Path journalDirectory) throws IOException {
+        ToolVendor stockedToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 1);
+        stockedToolVendor.setInventoryLedger(testLedger);
+
+        CheckoutResult firstResult = stockedToolVendor.tryCheckoutTool("LADW", "7/2/20", 3, 0);
+        CheckoutResult laterResult = stockedToolVendor.tryCheckoutTool("LADW", "7/7/20", 3, 0);
+        assertTrue(laterResult.isSuccess());
+
+        // The unit goes out again on the 7th, so the first rental can only run to then
+        assertThrows(IllegalArgumentException.class, () -> stockedToolVendor.extendRental(firstResult.getRentalAgreement(), 1));
+        assertThrows(IllegalArgumentException.class, () -> stockedToolVendor.extendRental(firstResult.getRentalAgreement(), laterResult.getReservation(), 1));
+        assertThrows(OutOfStockException.class, () -> stockedToolVendor.extendRental(firstResult.getRentalAgreement(), firstResult.getReservation(), 3));
+        AgreementAmendment extension = stockedToolVendor.extendRental(firstResult.getRentalAgreement(), firstResult.getReservation(), 2);
+        assertEquals(LocalDate.of(2020, 7, 7), extension.getReservation().getEndDate());
+        assertEquals(0, testLedger.getAvailableUnitCount("LADW", LocalDate.of(2020, 7, 6), LocalDate.of(2020, 7, 7)));
+        assertEquals(2, testLedger.getReservationCount());
+
+        AgreementAmendment shortening = stockedToolVendor.shortenRental(extension.getAmendedAgreement(), extension.getReservation(), 4);
+        assertEquals(LocalDate.of(2020, 7, 3), shortening.getReservation().getEndDate());
+        assertEquals(1, testLedger.getAvailableUnitCount("LADW", LocalDate.of(2020, 7, 3), LocalDate.of(2020, 7, 7)));
+        assertEquals(2, testLedger.getReservationCount());
+
+        // Amendments are journaled, and one that can't be leaves the unit as it was
+        try (AgreementJournal testJournal = new AgreementJournal(journalDirectory)) {
+            stockedToolVendor.setAgreementJournal(testJournal);
+            AgreementAmendment journaledExtension = stockedToolVendor.extendRental(shortening.getAmendedAgreement(), shortening.getReservation(), 1);
+            List<Integer> journaledDayCounts = new ArrayList<>();
+            testJournal.replay(agreementRecord -> journaledDayCounts.add(agreementRecord.getRentalDayCount()));
+            assertEquals(Arrays.asList(2), journaledDayCounts);
+
+            testJournal.close();
+            assertThrows(IllegalStateException.class, () -> stockedToolVendor.extendRental(journaledExtension.getAmendedAgreement(), journaledExtension.getReservation(), 1));
+            assertEquals(1, testLedger.getAvailableUnitCount("LADW", LocalDate.of(2020, 7, 4), LocalDate.of(2020, 7, 5)));
+            assertThrows(IllegalStateException.class, () -> stockedToolVendor.shortenRental(journaledExtension.getAmendedAgreement(), journaledExtension.getReservation(), 1));
+            assertEquals(0, testLedger.getAvailableUnitCount("LADW", LocalDate.of(2020, 7, 3), LocalDate.of(2020, 7, 4)));
+        }
+    }
+
+    /**
+     * Orders price every tool over the same days, with line and order discounts.
+     */
+    @Test
+    public void testCheckoutOrder() throws InvalidRentalDayException, DiscountOutOfBoundsException{
+        OrderRequest testOrder = OrderRequest.builder()
+            .setCheckoutDate("7/2/20")
+            .setRentalDayCount(4)
+            .setOrderDiscount(10)
+            .addLine("CHNS", 10)
+            .addLine("LADW")
+            .addLine("JAKR", 50)
+            .build();
+
+        OrderInvoice testInvoice = testToolVendor.checkoutOrder(testOrder);
+        assertEquals(3, testInvoice.getLineAgreements().size());
+        assertEquals(testToolVendor.checkoutTool("CHNS", "7/2/20", 4, 10).toString(), testInvoice.getLineAgreements().get(0).toString());
+        assertEquals(testToolVendor.checkoutTool("LADW", "7/2/20", 4, 0).toString(), testInvoice.getLineAgreements().get(1).toString());
+        assertEquals(testToolVendor.checkoutTool("JAKR", "7/2/20", 4, 50).toString(), testInvoice.getLineAgreements().get(2).toString());
+        assertEquals(1014, testInvoice.getSubtotalCents());
+        assertEquals(101, testInvoice.getOrderDiscountAmountCents());
+        assertEquals(913, testInvoice.getFinalChargeCents());
+        assertNull(testInvoice.getReservations());
+        assertEquals("Checkout date: 07/02/20\n" +
+                     "Due date: 07/06/20\n" +
+                     "Rental days: 4\n" +
+                     "Line 1: CHNS Chainsaw Stihl, 2 charge days, $2.98 less 10.0% is $2.68\n" +
+                     "Line 2: LADW Ladder Werner, 3 charge days, $5.97 less 0.0% is $5.97\n" +
+                     "Line 3: JAKR Jackhammer Ridgid, 1 charge days, $2.99 less 50.0% is $1.49\n" +
+                     "Subtotal: $10.14\n" +
+                     "Order discount percent: 10.0%\n" +
+                     "Order discount amount: $1.01\n" +
+                     "Final Charge: $9.13", testInvoice.toString());
+
+        // The first bad line or order parameter is reported
+        assertEquals(CheckoutErrorCode.EMPTY_ORDER, testToolVendor.tryCheckoutOrder(OrderRequest.builder().setCheckoutDate("7/2/20").setRentalDayCount(4).build()).getErrorCode());
+        OrderResult testResult = testToolVendor.tryCheckoutOrder(OrderRequest.builder().setCheckoutDate("7/2/20").setRentalDayCount(4).addLine("LADW").addLine("NONE").build());
+        assertEquals(CheckoutErrorCode.UNKNOWN_TOOL_CODE, testResult.getErrorCode());
+        assertEquals(1, testResult.getErrorLineIndex());
+        assertEquals(CheckoutErrorCode.DISCOUNT_OUT_OF_BOUNDS, testToolVendor.tryCheckoutOrder(OrderRequest.builder().setCheckoutDate("7/2/20").setRentalDayCount(4).setOrderDiscount(101).addLine("LADW").build()).getErrorCode());
+        assertThrows(DiscountOutOfBoundsException.class, () -> testToolVendor.checkoutOrder(OrderRequest.builder().setCheckoutDate("7/2/20").setRentalDayCount(4).addLine("LADW", -1).build()));
+        assertThrows(InvalidRentalDayException.class, () -> testToolVendor.checkoutOrder(OrderRequest.builder().setCheckoutDate("7/2/20").addLine("LADW").build()));
+        assertThrows(DateTimeParseException.class, () -> testToolVendor.checkoutOrder(OrderRequest.builder().setCheckoutDate("13/2/20").setRentalDayCount(4).addLine("LADW").build()));
+    }
+
+    /**
+     * Orders hold a unit of every tool, or none of them.
+     */
+    @Test
+    public void testCheckoutOrderStock(){
+        ToolVendor stockedToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 1);
+        testLedger.setUnitCount("JAKR", 1);
+        stockedToolVendor.setInventoryLedger(testLedger);
+
+        OrderRequest testOrder = OrderRequest.builder().setCheckoutDate(LocalDate.of(2020, 7, 2)).setRentalDayCount(3).addLine("LADW").addLine("JAKR").build();
+        OrderResult testResult = stockedToolVendor.tryCheckoutOrder(testOrder);
+        assertTrue(testResult.isSuccess());
+        assertEquals(2, testResult.getInvoice().getReservations().size());
+        assertEquals(2, testLedger.getReservationCount());
+
+        // The ladder is free again after the first order, the jackhammer isn't
+        OrderRequest laterOrder = OrderRequest.builder().setCheckoutDate(LocalDate.of(2020, 7, 4)).setRentalDayCount(3).addLine("LADW").addLine("JAKR").build();
+        testLedger.release(testResult.getInvoice().getReservations().get(0));
+        OrderResult laterResult = stockedToolVendor.tryCheckoutOrder(laterOrder);
+        assertEquals(CheckoutErrorCode.OUT_OF_STOCK, laterResult.getErrorCode());
+        assertEquals(1, laterResult.getErrorLineIndex());
+        assertEquals(1, testLedger.getReservationCount());
+    }
+
+    /**
+     * An order that can't be journaled lets go of every unit it held.
+     */
+    @Test
+    public void testCheckoutOrderJournalFailure(@TempDir Path journalDirectory) throws IOException {
+        ToolVendor stockedToolVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 1);
+        testLedger.setUnitCount("JAKR", 1);
+        stockedToolVendor.setInventoryLedger(testLedger);
+
+        AgreementJournal closedJournal = new AgreementJournal(journalDirectory);
+        closedJournal.close();
+        stockedToolVendor.setAgreementJournal(closedJournal);
+
+        OrderRequest testOrder = OrderRequest.builder().setCheckoutDate(LocalDate.of(2020, 7, 2)).setRentalDayCount(3).addLine("LADW").addLine("JAKR").build();
+        assertThrows(IllegalStateException.class, () -> stockedToolVendor.tryCheckoutOrder(testOrder));
+        assertEquals(0, testLedger.getReservationCount());
+    }
+
+    /**
+     * An order whose lines can't all be journaled leaves none of them in the journal.
+     */
+    @Test
+    public void testCheckoutOrderJournalRollFailure(@TempDir Path journalDirectory) throws IOException {
+        ToolVendor journaledToolVendor = new ToolVendor();
+
+        try (AgreementJournal testJournal = new AgreementJournal(journalDirectory, 2)) {
+            journaledToolVendor.setAgreementJournal(testJournal);
+            journaledToolVendor.checkoutTool("JAKR", "7/2/20", 3, 0);
+
+            // The next segment can't be opened, so only the first line would fit
+            Files.createDirectory(journalDirectory.resolve("agreements-0000000002.seg"));
+
+            OrderRequest testOrder = OrderRequest.builder().setCheckoutDate(LocalDate.of(2020, 7, 2)).setRentalDayCount(3).addLine("LADW").addLine("CHNS").build();
+            assertThrows(UncheckedIOException.class, () -> journaledToolVendor.tryCheckoutOrder(testOrder));
+
+            List<String> toolCodes = new ArrayList<>();
+            testJournal.replay(agreementRecord -> toolCodes.add(agreementRecord.getToolCode()));
+            assertEquals(Arrays.asList("JAKR"), toolCodes);
+        }
+    }
 }
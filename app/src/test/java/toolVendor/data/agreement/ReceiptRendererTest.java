@@ -0,0 +1,110 @@
+package toolVendor.data.agreement;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReceiptRendererTest {
+
+    /**
+     * Every form of rendering gives the same receipt as toString.
+     */
+    @Test
+    public void testRenderingFormsMatch() throws IOException {
+        RentalAgreement testAgreement = RentalAgreement.builder().setTool(new Tool("JAKR")).setCheckoutDate("7/2/20").setRentalDayCount(4).setDiscountRate(50).compute();
+
+        String expectedReceipt = "Tool Code: JAKR\n" + //
+                                 "Tool Type: Jackhammer\n" + //
+                                 "Tool Brand: Ridgid\n" + //
+                                 "Rental days: 4\n" + //
+                                 "Checkout date: 07/02/20\n" + //
+                                 "Due date: 07/06/20\n" + //
+                                 "Daily rental rate: $2.99\n" + //
+                                 "Charge days: 1\n" + //
+                                 "Pre-discount cost: $2.99\n" + //
+                                 "Discount percent: 50.0%\n" + //
+                                 "Discount amount: $1.50\n" + //
+                                 "Final Charge: $1.49";
+        assertEquals(expectedReceipt, testAgreement.toString());
+
+        StringWriter writer = new StringWriter();
+        ReceiptRenderer.render(testAgreement, writer);
+        assertEquals(expectedReceipt, writer.toString());
+
+        ByteBuffer buffer = ByteBuffer.allocate(ReceiptRenderer.getMaxReceiptBytes(testAgreement));
+        ReceiptRenderer.render(testAgreement, buffer);
+        assertEquals(expectedReceipt, new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Tool codes of any length and characters render the same in every form, the bytes being UTF-8.
+     */
+    @Test
+    public void testLongAndNonAsciiToolCodes() throws IOException {
+        String[] toolCodes = { "JACKHAMMER-HEAVY-DUTY-RIDGID-2020-EDITION-0001", "STAPLEGUN-\u00c9", "SAW-\u0130-\ud83d\udd28" };
+
+        for (String toolCode : toolCodes) {
+            Tool tool = new Tool(toolCode, ToolType.JACKHAMMER, ToolBrand.RIDGID, 299, true, false, false);
+            RentalAgreement testAgreement = RentalAgreement.builder().setTool(tool).setCheckoutDate("7/2/20").setRentalDayCount(4).setDiscountRate(50).compute();
+
+            String expectedReceipt = testAgreement.toString();
+            assertTrue(expectedReceipt.startsWith("Tool Code: " + toolCode + "\n"));
+
+            StringWriter writer = new StringWriter();
+            ReceiptRenderer.render(testAgreement, writer);
+            assertEquals(expectedReceipt, writer.toString());
+
+            ByteBuffer buffer = ByteBuffer.allocate(ReceiptRenderer.getMaxReceiptBytes(testAgreement));
+            ReceiptRenderer.render(testAgreement, buffer);
+            assertEquals(expectedReceipt, new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * A receipt bigger than the writer's buffer grows the buffer instead of failing.
+     */
+    @Test
+    public void testReceiptWriterGrowsForLongReceipts() throws IOException {
+        Tool tool = new Tool("LADDER-" + "W".repeat(300), ToolType.LADDER, ToolBrand.WERNER, 199, true, true, false);
+        RentalAgreement testAgreement = RentalAgreement.builder().setTool(tool).setCheckoutDate("7/2/20").setRentalDayCount(3).setDiscountRate(10).compute();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ReceiptWriter receiptWriter = new ReceiptWriter(Channels.newChannel(output), 64, new byte[] { '\n' })) {
+            receiptWriter.write(testAgreement);
+            receiptWriter.write(testAgreement);
+        }
+
+        assertEquals(testAgreement + "\n" + testAgreement, output.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The writer separates receipts and flushes across buffer refills.
+     */
+    @Test
+    public void testReceiptWriter() throws IOException {
+        RentalAgreement testAgreement = RentalAgreement.builder().setTool(new Tool("LADW")).setCheckoutDate("7/2/20").setRentalDayCount(3).setDiscountRate(10).compute();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StringBuilder expectedOutput = new StringBuilder();
+        try (ReceiptWriter receiptWriter = new ReceiptWriter(output)) {
+            for (int i = 0; i < 500; ++i) {
+                receiptWriter.write(testAgreement);
+                expectedOutput.append(i == 0 ? "" : "\n\n").append(testAgreement);
+            }
+            assertEquals(500, receiptWriter.getReceiptCount());
+        }
+
+        assertEquals(expectedOutput.toString(), output.toString(StandardCharsets.US_ASCII));
+    }
+}
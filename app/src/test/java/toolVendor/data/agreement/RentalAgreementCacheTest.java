@@ -0,0 +1,85 @@
+package toolVendor.data.agreement;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalAgreementCacheTest {
+
+    /**
+     * Helper to create an agreement.
+     */
+    private static RentalAgreement generate(Tool tool, LocalDate checkoutDate, int rentalDayCount, double discountRate) {
+        return RentalAgreement.builder().setTool(tool).setCheckoutDate(checkoutDate).setRentalDayCount(rentalDayCount).setDiscountRate(discountRate).compute();
+    }
+
+    /**
+     * Hits need the same key, tool instance, and discount.
+     */
+    @Test
+    public void testHitsAndMisses() {
+        RentalAgreementCache testCache = new RentalAgreementCache(100);
+        Tool testTool = new Tool("LADW");
+        LocalDate testDate = LocalDate.of(2020, 7, 2);
+        RentalAgreement testAgreement = generate(testTool, testDate, 3, 10);
+
+        assertNull(testCache.get(testTool, testDate, 3, 10));
+        testCache.put(testAgreement);
+        assertSame(testAgreement, testCache.get(testTool, testDate, 3, 10));
+        assertNull(testCache.get(testTool, testDate, 4, 10));
+        assertNull(testCache.get(testTool, testDate.plusDays(1), 3, 10));
+        assertNull(testCache.get(testTool, testDate, 3, 10.001));
+        // A reloaded catalog hands out a new Tool, possibly with a new rate.
+        assertNull(testCache.get(new Tool("LADW"), testDate, 3, 10));
+
+        assertEquals(1, testCache.getHitCount());
+        assertEquals(5, testCache.getMissCount());
+    }
+
+    /**
+     * The cache stays within its size, evicting the least recently used agreements, and drops expired ones.
+     */
+    @Test
+    public void testEviction() throws InterruptedException {
+        RentalAgreementCache testCache = new RentalAgreementCache(64);
+        Tool testTool = new Tool("JAKR");
+        LocalDate testDate = LocalDate.of(2021, 1, 1);
+
+        for (int i = 0; i < 1000; ++i) {
+            testCache.put(generate(testTool, testDate.plusDays(i), 5, 0));
+        }
+        assertTrue(testCache.size() <= 64);
+        assertEquals(1000 - testCache.size(), testCache.getEvictionCount());
+        assertNotNull(testCache.get(testTool, testDate.plusDays(999), 5, 0));
+
+        RentalAgreementCache expiringCache = new RentalAgreementCache(64, 1, TimeUnit.MILLISECONDS);
+        expiringCache.put(generate(testTool, testDate, 5, 0));
+        Thread.sleep(5);
+        assertNull(expiringCache.get(testTool, testDate, 5, 0));
+        assertEquals(1, expiringCache.getEvictionCount());
+        assertEquals(0, expiringCache.size());
+    }
+
+    /**
+     * The vendor hands back the cached agreement for a repeated quote.
+     */
+    @Test
+    public void testToolVendorCache() {
+        ToolVendor testToolVendor = new ToolVendor();
+        RentalAgreementCache testCache = new RentalAgreementCache(1000);
+        testToolVendor.setAgreementCache(testCache);
+
+        RentalAgreement firstAgreement = testToolVendor.checkoutTool("CHNS", "7/2/15", 5, 25);
+        RentalAgreement secondAgreement = testToolVendor.checkoutTool("CHNS", "07/02/2015", 5, 25);
+        assertSame(firstAgreement, secondAgreement);
+        assertNotSame(firstAgreement, testToolVendor.checkoutTool("CHNS", "7/2/15", 6, 25));
+        assertEquals(1, testCache.getHitCount());
+        assertEquals(2, testCache.getMissCount());
+    }
+}
@@ -0,0 +1,127 @@
+package toolVendor.data.agreement;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalAgreementTest {
+
+    /**
+     * The builder computes the whole agreement in one step.
+     */
+    @Test
+    public void testBuilder() {
+        RentalAgreement testAgreement = RentalAgreement.builder()
+            .setTool(new Tool("CHNS"))
+            .setCheckoutDate(LocalDate.of(2015, 7, 2))
+            .setRentalDayCount(5)
+            .setDiscountRate(25)
+            .compute();
+
+        assertEquals(LocalDate.of(2015, 7, 7), testAgreement.getReturnDate());
+        assertEquals(3, testAgreement.getChargableDayCount());
+        assertEquals(447, testAgreement.getInitialPriceCents());
+        assertEquals(112, testAgreement.getDiscountAmountCents());
+        assertEquals(335, testAgreement.getFinalChargeCents());
+
+        // A known chargable day count skips the calendar.
+        RentalAgreement presetAgreement = RentalAgreement.builder()
+            .setTool(new Tool("CHNS"))
+            .setCheckoutDate("7/2/15")
+            .setRentalDayCount(5)
+            .setChargableDayCount(4)
+            .compute();
+        assertEquals(596, presetAgreement.getFinalChargeCents());
+
+        assertThrows(IllegalStateException.class, () -> RentalAgreement.builder().setTool(new Tool("CHNS")).compute());
+        assertThrows(IllegalArgumentException.class, () -> RentalAgreement.builder().setChargableDayCount(-1));
+    }
+
+    /**
+     * The old two step API still gives the same agreement.
+     */
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedConstructor() {
+        RentalAgreement testAgreement = new RentalAgreement(new Tool("CHNS"), "7/2/15", 5, 25);
+        String receiptBeforeGenerating = testAgreement.toString();
+        testAgreement.generateAgreement();
+
+        RentalAgreement expectedAgreement = RentalAgreement.builder().setTool(new Tool("CHNS")).setCheckoutDate("7/2/15").setRentalDayCount(5).setDiscountRate(25).compute();
+        assertEquals(expectedAgreement.toString(), receiptBeforeGenerating);
+        assertEquals(expectedAgreement.toString(), testAgreement.toString());
+    }
+
+    /**
+     * Extending a rental only counts the added days, and lands on the same agreement as pricing the whole span.
+     */
+    @Test
+    public void testExtend() {
+        RentalAgreement testAgreement = RentalAgreement.builder().setTool(new Tool("CHNS")).setCheckoutDate("7/2/15").setRentalDayCount(5).setDiscountRate(25).compute();
+
+        // Wednesday to Friday are all charged
+        AgreementAmendment testAmendment = testAgreement.extend(3);
+        RentalAgreement extendedAgreement = testAmendment.getAmendedAgreement();
+        assertSame(testAgreement, testAmendment.getOriginalAgreement());
+        assertEquals(8, extendedAgreement.getRentalDayCount());
+        assertEquals(LocalDate.of(2015, 7, 10), extendedAgreement.getReturnDate());
+        assertEquals(3, testAmendment.getRentalDayDelta());
+        assertEquals(3, testAmendment.getChargableDayDelta());
+        assertEquals(6, extendedAgreement.getChargableDayCount());
+        assertEquals(670, extendedAgreement.getFinalChargeCents());
+        assertEquals(335, testAmendment.getChargeDeltaCents());
+        assertEquals(25, extendedAgreement.getDiscountRate());
+        assertEquals(5, testAgreement.getRentalDayCount());
+        assertEquals("Amended rental days: 5 to 8\n" +
+                     "Amended due date: 07/10/15\n" +
+                     "Charge days change: +3\n" +
+                     "Charge change: $3.35\n" +
+                     "Final Charge: $6.70", testAmendment.toString());
+
+        // Extending a day at a time over a year matches pricing the year in one go
+        for (String toolCode : new String[] { "CHNS", "LADW", "JAKD" }) {
+            RentalAgreement dailyAgreement = RentalAgreement.builder().setTool(new Tool(toolCode)).setCheckoutDate("12/30/19").setRentalDayCount(1).setDiscountRate(10).compute();
+            for (int day = 1; day < 400; ++day) {
+                dailyAgreement = dailyAgreement.extend(1).getAmendedAgreement();
+            }
+
+            RentalAgreement yearAgreement = RentalAgreement.builder().setTool(new Tool(toolCode)).setCheckoutDate("12/30/19").setRentalDayCount(400).setDiscountRate(10).compute();
+            assertEquals(yearAgreement.getChargableDayCount(), dailyAgreement.getChargableDayCount(), toolCode);
+            assertEquals(yearAgreement.getFinalChargeCents(), dailyAgreement.getFinalChargeCents(), toolCode);
+            assertEquals(yearAgreement.toString(), dailyAgreement.toString(), toolCode);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> testAgreement.extend(0));
+    }
+
+    /**
+     * Shortening a rental only counts the days taken off.
+     */
+    @Test
+    public void testShorten() {
+        RentalAgreement testAgreement = RentalAgreement.builder().setTool(new Tool("JAKR")).setCheckoutDate("9/3/15").setRentalDayCount(6).setDiscountRate(0).compute();
+
+        // Labor day and the weekend before it aren't charged for a jackhammer
+        AgreementAmendment testAmendment = testAgreement.shorten(4);
+        RentalAgreement shortenedAgreement = testAmendment.getAmendedAgreement();
+        assertEquals(2, shortenedAgreement.getRentalDayCount());
+        assertEquals(LocalDate.of(2015, 9, 5), shortenedAgreement.getReturnDate());
+        assertEquals(-4, testAmendment.getRentalDayDelta());
+        assertEquals(-2, testAmendment.getChargableDayDelta());
+        assertEquals(1, shortenedAgreement.getChargableDayCount());
+        assertEquals(-598, testAmendment.getChargeDeltaCents());
+        assertTrue(testAmendment.toString().contains("Charge days change: -2\nCharge change: -$5.98\n"), testAmendment.toString());
+
+        for (int fewerDayCount = 1; fewerDayCount < 6; ++fewerDayCount) {
+            RentalAgreement expectedAgreement = RentalAgreement.builder().setTool(new Tool("JAKR")).setCheckoutDate("9/3/15").setRentalDayCount(6 - fewerDayCount).compute();
+            assertEquals(expectedAgreement.toString(), testAgreement.shorten(fewerDayCount).getAmendedAgreement().toString());
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> testAgreement.shorten(0));
+        assertThrows(IllegalArgumentException.class, () -> testAgreement.shorten(6));
+    }
+}
@@ -0,0 +1,83 @@
+package toolVendor.data.analytics;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.analytics.AgreementColumnStore.Dimension;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementColumnStoreTest {
+
+    /**
+     * Group totals match summing the agreements one by one.
+     */
+    @Test
+    public void testGroupBy() {
+        ToolVendor testToolVendor = new ToolVendor();
+        AgreementColumnStore testStore = new AgreementColumnStore();
+        String[] toolCodes = { "CHNS", "LADW", "JAKD", "JAKR" };
+        LocalDate firstDate = LocalDate.of(2020, 1, 1);
+
+        long totalCents = 0;
+        long jackhammerCents = 0;
+        long marchCents = 0;
+        long ladderChargableDays = 0;
+        int rowCount = 200000;
+        for (int i = 0; i < rowCount; ++i) {
+            RentalAgreement rentalAgreement = testToolVendor.checkoutTool(toolCodes[i % 4], firstDate.plusDays(i % 365), 1 + i % 9, i % 50);
+            testStore.append(rentalAgreement);
+
+            totalCents += rentalAgreement.getFinalChargeCents();
+            if (rentalAgreement.getTool().getToolType() == ToolType.JACKHAMMER) {
+                jackhammerCents += rentalAgreement.getFinalChargeCents();
+            }
+            if (rentalAgreement.getCheckoutDate().getMonthValue() == 3) {
+                marchCents += rentalAgreement.getFinalChargeCents();
+            }
+            if (rentalAgreement.getTool().getToolType() == ToolType.LADDER) {
+                ladderChargableDays += rentalAgreement.getChargableDayCount();
+            }
+        }
+        assertEquals(rowCount, testStore.size());
+
+        List<RevenueGroup> grandTotal = testStore.groupBy();
+        assertEquals(1, grandTotal.size());
+        assertEquals(rowCount, grandTotal.get(0).getAgreementCount());
+        assertEquals(totalCents, grandTotal.get(0).getFinalChargeCents());
+
+        List<RevenueGroup> byType = testStore.groupBy(Dimension.TOOL_TYPE);
+        assertEquals(3, byType.size());
+        assertEquals(ToolType.CHAINSAW, byType.get(0).getToolType());
+        assertNull(byType.get(0).getMonth());
+        assertEquals(jackhammerCents, byType.get(2).getFinalChargeCents());
+        assertEquals(ladderChargableDays, byType.get(1).getChargableDayCount());
+
+        List<RevenueGroup> byMonth = testStore.groupBy(Dimension.MONTH);
+        assertEquals(12, byMonth.size());
+        assertEquals(YearMonth.of(2020, 3), byMonth.get(2).getMonth());
+        assertEquals(marchCents, byMonth.get(2).getFinalChargeCents());
+        assertEquals(marchCents, testStore.sumFinalChargeCents(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31)));
+        assertEquals(marchCents, testStore.groupBy(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31)).get(0).getFinalChargeCents());
+
+        // Brand by month, brand varies slowest
+        List<RevenueGroup> byBrandAndMonth = testStore.groupBy(Dimension.TOOL_BRAND, Dimension.MONTH);
+        assertEquals(4 * 12, byBrandAndMonth.size());
+        assertEquals(ToolBrand.STIHL, byBrandAndMonth.get(0).getToolBrand());
+        assertEquals(YearMonth.of(2020, 2), byBrandAndMonth.get(1).getMonth());
+        assertEquals(rowCount, byBrandAndMonth.stream().mapToLong(RevenueGroup::getAgreementCount).sum());
+
+        List<RevenueGroup> byCode = testStore.groupBy(Dimension.TOOL_CODE);
+        assertEquals("JAKR", byCode.get(3).getToolCode());
+        assertEquals(rowCount / 4, byCode.get(3).getAgreementCount());
+
+        assertThrows(IllegalArgumentException.class, () -> testStore.groupBy(Dimension.MONTH, Dimension.MONTH));
+    }
+}
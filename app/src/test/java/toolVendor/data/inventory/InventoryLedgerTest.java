@@ -0,0 +1,144 @@
+package toolVendor.data.inventory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryLedgerTest {
+
+    /**
+     * Overlapping rentals need different units, back to back rentals can share one.
+     */
+    @Test
+    public void testReserve() {
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("CHNS", 2);
+        LocalDate testDate = LocalDate.of(2020, 7, 2);
+
+        Reservation first = testLedger.reserve("CHNS", testDate, testDate.plusDays(5));
+        Reservation second = testLedger.reserve("chns", testDate.plusDays(2), testDate.plusDays(4));
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotEquals(first.getUnitIndex(), second.getUnitIndex());
+        assertEquals("CHNS", second.getToolCode());
+        assertEquals(testDate.plusDays(5), first.getEndDate());
+
+        // Both units are out on the 4th, unit 1 is back on the 6th
+        assertNull(testLedger.reserve("CHNS", testDate.plusDays(3), testDate.plusDays(6)));
+        assertEquals(1, testLedger.getAvailableUnitCount("CHNS", testDate.plusDays(4), testDate.plusDays(10)));
+        assertEquals(2, testLedger.getAvailableUnitCount("CHNS", testDate.plusDays(5), testDate.plusDays(10)));
+        assertNotNull(testLedger.reserve("CHNS", testDate.plusDays(5), testDate.plusDays(6)));
+
+        // Tools without units are never free
+        assertNull(testLedger.reserve("JAKR", testDate, testDate.plusDays(1)));
+        assertEquals(0, testLedger.getAvailableUnitCount("JAKR", testDate, testDate.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> testLedger.reserve("CHNS", testDate, testDate));
+        assertEquals(3, testLedger.getReservationCount());
+    }
+
+    /**
+     * Released units can be reserved again, and only empty units can be taken away.
+     */
+    @Test
+    public void testRelease() {
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("LADW", 1);
+        LocalDate testDate = LocalDate.of(2021, 3, 1);
+
+        Reservation reservation = testLedger.reserve("LADW", testDate, testDate.plusDays(3));
+        assertNull(testLedger.reserve("LADW", testDate.plusDays(1), testDate.plusDays(2)));
+        assertThrows(IllegalStateException.class, () -> testLedger.setUnitCount("LADW", 0));
+
+        assertTrue(testLedger.release(reservation));
+        assertFalse(testLedger.release(reservation));
+        assertEquals(0, testLedger.getReservationCount());
+        assertNotNull(testLedger.reserve("LADW", testDate.plusDays(1), testDate.plusDays(2)));
+    }
+
+    /**
+     * Threads racing for the same days never get the same unit.
+     */
+    @Test
+    public void testConcurrentReserve() throws InterruptedException {
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("JAKD", 50);
+        LocalDate testDate = LocalDate.of(2022, 1, 3);
+        ConcurrentLinkedQueue<Reservation> reservations = new ConcurrentLinkedQueue<>();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; ++t) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20; ++i) {
+                    Reservation reservation = testLedger.reserve("JAKD", testDate, testDate.plusDays(7));
+                    if (reservation != null) {
+                        reservations.add(reservation);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(50, reservations.size());
+        assertEquals(50, reservations.stream().mapToInt(Reservation::getUnitIndex).distinct().count());
+    }
+
+    /**
+     * Moving the end of a reservation keeps its unit and only grows into free days.
+     */
+    @Test
+    public void testChangeEndDate() {
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("JAKR", 1);
+        LocalDate testDate = LocalDate.of(2020, 7, 2);
+
+        Reservation firstReservation = testLedger.reserve("JAKR", testDate, testDate.plusDays(3));
+        Reservation laterReservation = testLedger.reserve("JAKR", testDate.plusDays(5), testDate.plusDays(8));
+        assertNull(testLedger.changeEndDate(firstReservation, testDate.plusDays(6)));
+
+        Reservation extendedReservation = testLedger.changeEndDate(firstReservation, testDate.plusDays(5));
+        assertEquals(testDate.plusDays(5), extendedReservation.getEndDate());
+        assertEquals(0, testLedger.getAvailableUnitCount("JAKR", testDate.plusDays(4), testDate.plusDays(5)));
+        assertThrows(IllegalArgumentException.class, () -> testLedger.changeEndDate(firstReservation, testDate.plusDays(4)));
+
+        Reservation shortenedReservation = testLedger.changeEndDate(laterReservation, testDate.plusDays(6));
+        assertEquals(1, testLedger.getAvailableUnitCount("JAKR", testDate.plusDays(6), testDate.plusDays(8)));
+        assertThrows(IllegalArgumentException.class, () -> testLedger.changeEndDate(shortenedReservation, testDate.plusDays(5)));
+        assertEquals(2, testLedger.getReservationCount());
+        assertTrue(testLedger.release(shortenedReservation));
+    }
+
+    /**
+     * Lookups stay correct with a lot of reservations per unit.
+     */
+    @Test
+    public void testManyReservations() {
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("CHNS", 10);
+        LocalDate testDate = LocalDate.of(2000, 1, 1);
+
+        // Every unit is out every other day, in random order
+        Random random = new Random(17);
+        int[] days = random.ints(0, 20000).distinct().limit(10000).map(day -> day * 2).toArray();
+        for (int day : days) {
+            for (int unit = 0; unit < 10; ++unit) {
+                assertNotNull(testLedger.reserve("CHNS", testDate.plusDays(day), testDate.plusDays(day + 1)));
+            }
+        }
+        assertEquals(100000, testLedger.getReservationCount());
+
+        int reservedDay = days[123];
+        assertEquals(0, testLedger.getAvailableUnitCount("CHNS", testDate.plusDays(reservedDay), testDate.plusDays(reservedDay + 1)));
+        assertEquals(10, testLedger.getAvailableUnitCount("CHNS", testDate.plusDays(reservedDay + 1), testDate.plusDays(reservedDay + 2)));
+        assertEquals(0, testLedger.getAvailableUnitCount("CHNS", testDate.plusDays(reservedDay - 1), testDate.plusDays(reservedDay + 2)));
+    }
+}
@@ -0,0 +1,206 @@
+package toolVendor.data.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.RentalAgreement;
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AgreementJournalTest {
+
+    /**
+     * Helper to create an agreement.
+     */
+    private static RentalAgreement generate(String toolCode, LocalDate checkoutDate, int rentalDayCount, double discountRate) {
+        return RentalAgreement.builder().setTool(new Tool(toolCode)).setCheckoutDate(checkoutDate).setRentalDayCount(rentalDayCount).setDiscountRate(discountRate).compute();
+    }
+
+    /**
+     * Helper to read back every record.
+     */
+    private static List<AgreementRecord> replay(AgreementJournal journal) throws IOException {
+        List<AgreementRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    /**
+     * Agreements appended together start a new segment rather than straddle two, and more than a segment's
+     * worth is turned away without appending anything.
+     */
+    @Test
+    public void testAppendAll(@TempDir Path testDirectory) throws IOException {
+        LocalDate testDate = LocalDate.of(2020, 7, 2);
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 4)) {
+            testJournal.append(generate("JAKR", testDate, 1, 0));
+            testJournal.append(generate("JAKR", testDate, 2, 0));
+            assertEquals(5, testJournal.appendAll(List.of(generate("LADW", testDate, 3, 0), generate("LADW", testDate, 4, 0), generate("LADW", testDate, 5, 0))));
+            assertThrows(IllegalArgumentException.class, () -> testJournal.appendAll(List.of(generate("CHNS", testDate, 6, 0), generate("CHNS", testDate, 7, 0),
+                generate("CHNS", testDate, 8, 0), generate("CHNS", testDate, 9, 0), generate("CHNS", testDate, 10, 0))));
+            assertEquals(5, testJournal.getAppendedCount());
+
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(5, records.size());
+            for (int i = 0; i < records.size(); ++i) {
+                assertEquals(i + 1, records.get(i).getRentalDayCount());
+            }
+        }
+
+        // The order went into the second segment whole
+        assertTrue(Files.exists(testDirectory.resolve("agreements-0000000002.seg")));
+        try (AgreementJournal reopenedJournal = new AgreementJournal(testDirectory, 4)) {
+            assertEquals(5, replay(reopenedJournal).size());
+        }
+    }
+
+    /**
+     * Records come back with the agreement's numbers, across segments and after reopening.
+     */
+    @Test
+    public void testAppendAndReplay(@TempDir Path testDirectory) throws IOException, InterruptedException {
+        LocalDate testDate = LocalDate.of(2020, 7, 2);
+        RentalAgreement testAgreement = generate("JAKR", testDate, 9, 25);
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 4)) {
+            assertEquals(1, testJournal.appendAndSync(testAgreement));
+            for (int i = 1; i < 10; ++i) {
+                testJournal.append(generate("LADW", testDate.plusDays(i), 3, 10));
+            }
+            testJournal.awaitDurable(10);
+            assertEquals(10, testJournal.getDurableCount());
+
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(10, records.size());
+            AgreementRecord firstRecord = records.get(0);
+            assertEquals("JAKR", firstRecord.getToolCode());
+            assertEquals(testDate, firstRecord.getCheckoutDate());
+            assertEquals(testAgreement.getReturnDate(), firstRecord.getReturnDate());
+            assertEquals(2500, firstRecord.getDiscountBasisPoints());
+            assertEquals(testAgreement.getChargableDayCount(), firstRecord.getChargableDayCount());
+            assertEquals(testAgreement.getFinalChargeCents(), firstRecord.getFinalChargeCents());
+            assertEquals(testDate.plusDays(9), records.get(9).getCheckoutDate());
+        }
+
+        // Reopening carries on after the last record
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 4)) {
+            testJournal.append(generate("CHNS", testDate, 5, 0));
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(11, records.size());
+            assertEquals("CHNS", records.get(10).getToolCode());
+        }
+    }
+
+    /**
+     * A torn record at the end of the last segment is dropped and written over.
+     */
+    @Test
+    public void testTornRecord(@TempDir Path testDirectory) throws IOException {
+        LocalDate testDate = LocalDate.of(2021, 1, 4);
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 16)) {
+            testJournal.append(generate("JAKD", testDate, 2, 0));
+            testJournal.append(generate("JAKD", testDate, 3, 0));
+        }
+
+        // Flip a byte of the second record
+        try (FileChannel segmentChannel = FileChannel.open(testDirectory.resolve("agreements-0000000001.seg"), StandardOpenOption.WRITE)) {
+            segmentChannel.write(ByteBuffer.wrap(new byte[] { 7 }), AgreementRecord.RECORD_SIZE + 8);
+        }
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 16)) {
+            assertEquals(1, replay(testJournal).size());
+            testJournal.append(generate("JAKD", testDate, 4, 0));
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(2, records.size());
+            assertEquals(4, records.get(1).getRentalDayCount());
+        }
+    }
+
+    /**
+     * Whole records after a torn one don't come back once the torn one is written over.
+     */
+    @Test
+    public void testTornRecordBeforeWholeRecords(@TempDir Path testDirectory) throws IOException {
+        LocalDate testDate = LocalDate.of(2021, 1, 4);
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 16)) {
+            for (int rentalDayCount = 1; rentalDayCount <= 3; ++rentalDayCount) {
+                testJournal.append(generate("JAKD", testDate, rentalDayCount, 0));
+            }
+        }
+
+        // Flip a byte of the second record
+        try (FileChannel segmentChannel = FileChannel.open(testDirectory.resolve("agreements-0000000001.seg"), StandardOpenOption.WRITE)) {
+            segmentChannel.write(ByteBuffer.wrap(new byte[] { 7 }), AgreementRecord.RECORD_SIZE + 8);
+        }
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 16)) {
+            testJournal.append(generate("JAKD", testDate, 9, 0));
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(2, records.size());
+            assertEquals(1, records.get(0).getRentalDayCount());
+            assertEquals(9, records.get(1).getRentalDayCount());
+        }
+
+        // Still the same after reopening
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 16)) {
+            assertEquals(2, replay(testJournal).size());
+        }
+    }
+
+    /**
+     * Compaction drops records from full segments only.
+     */
+    @Test
+    public void testCompact(@TempDir Path testDirectory) throws IOException {
+        LocalDate testDate = LocalDate.of(2022, 3, 1);
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 4)) {
+            for (int i = 0; i < 10; ++i) {
+                testJournal.append(generate("CHNS", testDate.plusDays(i), 1, 0));
+            }
+
+            // Drop everything returned before the 7th, the last 2 are in the open segment
+            LocalDate cutoff = testDate.plusDays(7);
+            assertEquals(6, testJournal.compact(agreementRecord -> !agreementRecord.getReturnDate().isBefore(cutoff)));
+            assertFalse(Files.exists(testDirectory.resolve("agreements-0000000001.seg")));
+
+            List<AgreementRecord> records = replay(testJournal);
+            assertEquals(4, records.size());
+            assertEquals(testDate.plusDays(6), records.get(0).getCheckoutDate());
+            assertEquals(testDate.plusDays(9), records.get(3).getCheckoutDate());
+
+            testJournal.append(generate("CHNS", testDate, 1, 0));
+            assertEquals(5, replay(testJournal).size());
+        }
+    }
+
+    /**
+     * The vendor appends every agreement it hands out.
+     */
+    @Test
+    public void testToolVendorJournal(@TempDir Path testDirectory) throws IOException {
+        ToolVendor testToolVendor = new ToolVendor();
+
+        try (AgreementJournal testJournal = new AgreementJournal(testDirectory, 64)) {
+            testToolVendor.setAgreementJournal(testJournal);
+            testToolVendor.checkoutTool("JAKR", "9/3/15", 5, 0);
+            testToolVendor.tryCheckoutTool("JAKR", "9/3/15", 0, 0);
+            assertEquals(1, replay(testJournal).size());
+        }
+    }
+}
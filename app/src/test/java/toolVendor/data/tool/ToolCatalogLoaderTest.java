@@ -0,0 +1,171 @@
+package toolVendor.data.tool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+class ToolCatalogLoaderTest {
+    // Global testing variables
+    private static String testCatalogCsv = "code,type,brand,dailyRate,weekday,weekend,holiday\n" + //
+            "# Built in tools\n" + //
+            "CHNS,CHAINSAW,STIHL,1.49,true,false,true\n" + //
+            "LADW,LADDER,WERNER,1.99,true,true,false\n" + //
+            "\n" + //
+            "jakd,Jackhammer,DeWalt,2.99,true,false,false\n";
+
+    /**
+     * Helper to check two tools match field by field
+     */
+    private static void assertSameTool(Tool expectedTool, Tool actualTool) {
+        assertNotNull(actualTool, expectedTool.getToolCode());
+        assertEquals(expectedTool.getToolCode(), actualTool.getToolCode());
+        assertEquals(expectedTool.getToolType(), actualTool.getToolType());
+        assertEquals(expectedTool.getToolBrand(), actualTool.getToolBrand());
+        assertEquals(expectedTool.getDailyChargeRateCents(), actualTool.getDailyChargeRateCents());
+        assertEquals(expectedTool.doWeekdayRatesApply(), actualTool.doWeekdayRatesApply());
+        assertEquals(expectedTool.doWeekendRatesApply(), actualTool.doWeekendRatesApply());
+        assertEquals(expectedTool.doHolidayRatesApply(), actualTool.doHolidayRatesApply());
+    }
+
+    /**
+     * Load the CSV, write it as binary, and load that back.
+     */
+    @Test
+    public void testCsvAndBinaryRoundTrip(@TempDir Path testDirectory) throws IOException {
+        Path testCsvFile = testDirectory.resolve("tools.csv");
+        Path testBinaryFile = testDirectory.resolve("tools.bin");
+        Files.write(testCsvFile, testCatalogCsv.getBytes(StandardCharsets.UTF_8));
+
+        ToolCatalog csvCatalog = ToolCatalogLoader.load(testCsvFile);
+        assertEquals(3, csvCatalog.size());
+        for (String toolCode : new String[] { "CHNS", "LADW", "JAKD" }) {
+            assertSameTool(new Tool(toolCode), csvCatalog.getTool(toolCode));
+        }
+
+        ToolCatalogLoader.writeBinary(csvCatalog, testBinaryFile);
+        ToolCatalog binaryCatalog = ToolCatalogLoader.load(testBinaryFile);
+        assertEquals(3, binaryCatalog.size());
+        for (Tool tool : csvCatalog.getTools()) {
+            assertSameTool(tool, binaryCatalog.getTool(tool.getToolCode()));
+        }
+    }
+
+    /**
+     * A large generated catalog should survive the binary round trip.
+     */
+    @Test
+    public void testLargeBinaryCatalog(@TempDir Path testDirectory) throws IOException {
+        // 4 character base 36 codes
+        List<Tool> tools = new ArrayList<>();
+        for (int i = 0; i < 100000; ++i) {
+            String toolCode = Integer.toString(46656 + i, 36).toUpperCase(Locale.ROOT);
+            tools.add(new Tool(toolCode, ToolType.LADDER, ToolBrand.WERNER, i % 1000, true, i % 2 == 0, i % 3 == 0));
+        }
+
+        Path testBinaryFile = testDirectory.resolve("tools.bin");
+        ToolCatalogLoader.writeBinary(new ToolCatalog(tools), testBinaryFile);
+        ToolCatalog binaryCatalog = ToolCatalogLoader.loadBinary(testBinaryFile);
+
+        assertEquals(tools.size(), binaryCatalog.size());
+        for (int i = 0; i < tools.size(); i += 997) {
+            assertSameTool(tools.get(i), binaryCatalog.getTool(tools.get(i).getToolCode()));
+        }
+    }
+
+    /**
+     * Binary records are read by the names in the file, not the order of the enumerations.
+     */
+    @Test
+    public void testBinaryNameTable(@TempDir Path testDirectory) throws IOException {
+        Path testBinaryFile = testDirectory.resolve("tools.bin");
+        String[] typeNames = { "LADDER", "CHAINSAW", "HOVERBOARD" };
+        String[] brandNames = { "WERNER", "STIHL" };
+
+        // A chainsaw by Stihl, then a hoverboard this build doesn't know
+        ByteBuffer nameTable = ByteBuffer.allocate(64);
+        for (String[] names : new String[][] { typeNames, brandNames }) {
+            nameTable.put((byte) names.length);
+            for (String name : names) {
+                nameTable.put((byte) name.length()).put(name.getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        nameTable.flip();
+        ByteBuffer catalogBytes = ByteBuffer.allocate(ToolCatalogLoader.BINARY_HEADER_SIZE + nameTable.remaining() + 2 * ToolCatalogLoader.BINARY_RECORD_SIZE);
+        catalogBytes.putInt(ToolCatalogLoader.BINARY_MAGIC).putShort(ToolCatalogLoader.BINARY_VERSION).putShort(ToolCatalogLoader.BINARY_RECORD_SIZE);
+        catalogBytes.putInt(1).putInt(nameTable.remaining()).put(nameTable);
+        catalogBytes.putInt(ToolCatalog.packToolCode("CHNS")).put((byte) 1).put((byte) 1).put((byte) 5).put((byte) 0).putLong(149);
+        catalogBytes.putInt(ToolCatalog.packToolCode("HOVR")).put((byte) 2).put((byte) 0).put((byte) 1).put((byte) 0).putLong(999);
+        Files.write(testBinaryFile, catalogBytes.array());
+
+        assertSameTool(new Tool("CHNS"), ToolCatalogLoader.load(testBinaryFile).getTool("CHNS"));
+
+        // Only a record using an unknown name fails
+        catalogBytes.putInt(8, 2);
+        Files.write(testBinaryFile, catalogBytes.array());
+        IOException exception = assertThrows(IOException.class, () -> ToolCatalogLoader.load(testBinaryFile));
+        assertTrue(exception.getMessage().contains("HOVERBOARD"), exception.getMessage());
+
+        // Version 1 stored enumeration ordinals
+        catalogBytes.putShort(4, (short) 1);
+        Files.write(testBinaryFile, catalogBytes.array());
+        assertThrows(IOException.class, () -> ToolCatalogLoader.load(testBinaryFile));
+    }
+
+    /**
+     * Malformed files are reported with an IOException.
+     */
+    @Test
+    public void testMalformedCsv(@TempDir Path testDirectory) throws IOException {
+        Path testCsvFile = testDirectory.resolve("tools.csv");
+
+        Files.write(testCsvFile, "CHNS,CHAINSAW,STIHL,1.49,true,false\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ToolCatalogLoader.load(testCsvFile));
+
+        Files.write(testCsvFile, "CHNS,SAW,STIHL,1.49,true,false,true\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ToolCatalogLoader.load(testCsvFile));
+
+        Files.write(testCsvFile, "CHNS,CHAINSAW,STIHL,1.49,yes,false,true\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> ToolCatalogLoader.load(testCsvFile));
+    }
+
+    /**
+     * The reloading catalog swaps in changes and keeps the old catalog on a bad reload.
+     */
+    @Test
+    public void testReloadingCatalog(@TempDir Path testDirectory) throws IOException {
+        Path testCsvFile = testDirectory.resolve("tools.csv");
+        Files.write(testCsvFile, testCatalogCsv.getBytes(StandardCharsets.UTF_8));
+
+        try (ReloadingToolCatalog testCatalog = new ReloadingToolCatalog(testCsvFile)) {
+            ToolCatalog firstCatalog = testCatalog.get();
+            assertFalse(testCatalog.checkForChanges());
+            assertNull(firstCatalog.getTool("JAKR"));
+
+            // Add a tool
+            Files.write(testCsvFile, (testCatalogCsv + "JAKR,JACKHAMMER,RIDGID,2.99,true,false,false\n").getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(testCsvFile, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+            assertTrue(testCatalog.checkForChanges());
+            assertNotNull(testCatalog.get().getTool("JAKR"));
+            assertNull(firstCatalog.getTool("JAKR"));
+
+            // Break the file, the last good catalog stays
+            ToolCatalog goodCatalog = testCatalog.get();
+            Files.write(testCsvFile, "broken".getBytes(StandardCharsets.UTF_8));
+            Files.setLastModifiedTime(testCsvFile, FileTime.fromMillis(System.currentTimeMillis() + 4000));
+            assertFalse(testCatalog.checkForChanges());
+            assertSame(goodCatalog, testCatalog.get());
+            assertNotNull(testCatalog.getLastReloadError());
+        }
+    }
+}
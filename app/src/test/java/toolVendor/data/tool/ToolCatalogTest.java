@@ -0,0 +1,63 @@
+package toolVendor.data.tool;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+class ToolCatalogTest {
+
+    /**
+     * Lookups should ignore case and hand back the same shared tool every time.
+     */
+    @Test
+    public void testDefaultCatalogLookup() {
+        ToolCatalog testCatalog = ToolCatalog.getDefaultCatalog();
+
+        for (String toolCode : new String[] { "CHNS", "LADW", "JAKD", "JAKR" }) {
+            Tool testTool = testCatalog.getTool(toolCode);
+            Tool expectedTool = new Tool(toolCode);
+
+            assertNotNull(testTool, toolCode);
+            assertSame(testTool, testCatalog.getTool(toolCode.toLowerCase()));
+            assertEquals(expectedTool.getToolCode(), testTool.getToolCode());
+            assertEquals(expectedTool.getToolType(), testTool.getToolType());
+            assertEquals(expectedTool.getToolBrand(), testTool.getToolBrand());
+            assertEquals(expectedTool.getDailyChargeRate(), testTool.getDailyChargeRate());
+        }
+
+        assertSame(testCatalog.getTool("JAKR"), testCatalog.getTool("jAkR"));
+        assertEquals(4, testCatalog.size());
+    }
+
+    /**
+     * Unknown and malformed codes aren't found.
+     */
+    @Test
+    public void testUnknownCodes() {
+        ToolCatalog testCatalog = ToolCatalog.getDefaultCatalog();
+
+        assertNull(testCatalog.getTool("NONE"));
+        assertNull(testCatalog.getTool(""));
+        assertNull(testCatalog.getTool("JAKRR"));
+        assertNull(testCatalog.getTool("JA R"));
+        assertNull(testCatalog.getTool((String) null));
+    }
+
+    /**
+     * Invalid and duplicate codes can't be put in a catalog.
+     */
+    @Test
+    public void testInvalidCatalogs() {
+        Tool testTool = new Tool("LADW");
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ToolCatalog(Arrays.asList(testTool, new Tool(testTool)));
+        });
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            new ToolCatalog(Arrays.asList(new Tool("TOOLONG")));
+        });
+    }
+}
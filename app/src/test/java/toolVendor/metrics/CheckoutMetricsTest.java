@@ -0,0 +1,133 @@
+package toolVendor.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.checkout.CheckoutErrorCode;
+import toolVendor.data.checkout.CheckoutRequest;
+import toolVendor.data.inventory.InventoryLedger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutMetricsTest {
+
+    /**
+     * Nothing is recorded until the metrics are switched on.
+     */
+    @Test
+    public void testDisabled() {
+        ToolVendor testVendor = new ToolVendor();
+        CheckoutMetrics testMetrics = new CheckoutMetrics();
+        testVendor.setCheckoutMetrics(testMetrics);
+
+        assertFalse(testMetrics.isEnabled());
+        assertTrue(testVendor.tryCheckoutTool("JAKR", "7/2/20", 4, 50).isSuccess());
+        assertFalse(CheckoutMetrics.startTimer(testMetrics).isTiming());
+        assertFalse(CheckoutMetrics.startTimer(null).isTiming());
+
+        assertEquals(0, testMetrics.getCheckoutCount());
+        assertEquals(0, testMetrics.getStageHistogram(CheckoutStage.TOTAL).getCount());
+    }
+
+    /**
+     * Single checkouts are timed per stage and counted per tool code and error code.
+     */
+    @Test
+    public void testCheckoutStages() {
+        ToolVendor testVendor = new ToolVendor();
+        CheckoutMetrics testMetrics = new CheckoutMetrics();
+        testMetrics.setEnabled(true);
+        testVendor.setCheckoutMetrics(testMetrics);
+
+        assertTrue(testVendor.tryCheckoutTool("JAKR", "7/2/20", 4, 50).isSuccess());
+        assertTrue(testVendor.tryCheckoutTool("LADW", LocalDate.of(2020, 7, 2), 3, 10).isSuccess());
+        assertEquals(CheckoutErrorCode.UNKNOWN_TOOL_CODE, testVendor.tryCheckoutTool("NOPE", "7/2/20", 4, 0).getErrorCode());
+        assertEquals(CheckoutErrorCode.INVALID_CHECKOUT_DATE, testVendor.tryCheckoutTool("JAKR", "13/45/20", 4, 0).getErrorCode());
+
+        assertEquals(4, testMetrics.getStageHistogram(CheckoutStage.TOTAL).getCount());
+        assertEquals(2, testMetrics.getStageHistogram(CheckoutStage.PARSE_DATE).getCount());
+        assertEquals(2, testMetrics.getStageHistogram(CheckoutStage.LOOKUP_TOOL).getCount());
+        assertEquals(2, testMetrics.getStageHistogram(CheckoutStage.COUNT_DAYS).getCount());
+        assertEquals(2, testMetrics.getStageHistogram(CheckoutStage.PRICE).getCount());
+
+        // No stock or journal, so nothing to reserve or append
+        assertEquals(0, testMetrics.getStageHistogram(CheckoutStage.RESERVE).getCount());
+        assertEquals(0, testMetrics.getStageHistogram(CheckoutStage.JOURNAL).getCount());
+
+        assertEquals(2, testMetrics.getCheckoutCount());
+        assertEquals(1, testMetrics.getCheckoutCount("JAKR"));
+        assertEquals(1, testMetrics.getCheckoutCountsByToolCode().get("LADW").longValue());
+        assertEquals(2, testMetrics.getErrorCount());
+        assertEquals(1, testMetrics.getErrorCount(CheckoutErrorCode.UNKNOWN_TOOL_CODE));
+        assertEquals(0, testMetrics.getErrorCountsByCode().get("OUT_OF_STOCK").longValue());
+
+        String dump = testMetrics.dump();
+        assertTrue(dump.contains("TOTAL"));
+        assertTrue(dump.contains("JAKR 1"));
+        assertTrue(dump.contains("UNKNOWN_TOOL_CODE 1"));
+
+        testMetrics.reset();
+        assertEquals(0, testMetrics.getCheckoutCount());
+        assertEquals(0, testMetrics.getErrorCount());
+        assertEquals(0, testMetrics.getStageCounts().get("TOTAL").longValue());
+    }
+
+    /**
+     * Reservations are timed when stock is tracked, and batches are counted without timing.
+     */
+    @Test
+    public void testReserveAndBatch() {
+        ToolVendor testVendor = new ToolVendor();
+        InventoryLedger testLedger = new InventoryLedger();
+        testLedger.setUnitCount("CHNS", 1);
+        testVendor.setInventoryLedger(testLedger);
+        CheckoutMetrics testMetrics = new CheckoutMetrics();
+        testMetrics.setEnabled(true);
+        testVendor.setCheckoutMetrics(testMetrics);
+
+        assertTrue(testVendor.tryCheckoutTool("CHNS", "7/2/20", 4, 0).isSuccess());
+        assertEquals(CheckoutErrorCode.OUT_OF_STOCK, testVendor.tryCheckoutTool("CHNS", "7/3/20", 1, 0).getErrorCode());
+        assertEquals(1, testMetrics.getStageHistogram(CheckoutStage.RESERVE).getCount());
+
+        testVendor.checkoutBatch(List.of(
+            new CheckoutRequest("CHNS", "8/2/20", 2, 0),
+            new CheckoutRequest("CHNS", "8/3/20", 2, 0),
+            new CheckoutRequest("JAKR", "8/3/20", 2, 0)));
+        assertEquals(2, testMetrics.getCheckoutCount("CHNS"));
+        assertEquals(3, testMetrics.getErrorCount(CheckoutErrorCode.OUT_OF_STOCK));
+        assertEquals(2, testMetrics.getStageHistogram(CheckoutStage.TOTAL).getCount());
+    }
+
+    /**
+     * The metrics can be read and switched off through JMX.
+     */
+    @Test
+    public void testMBean() throws Exception {
+        CheckoutMetrics testMetrics = new CheckoutMetrics();
+        testMetrics.setEnabled(true);
+        ObjectName objectName = testMetrics.registerMBean("CheckoutMetricsTest");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            assertEquals(Boolean.TRUE, mBeanServer.getAttribute(objectName, "Enabled"));
+            assertEquals(0L, mBeanServer.getAttribute(objectName, "CheckoutCount"));
+
+            mBeanServer.setAttribute(objectName, new Attribute("Enabled", false));
+            assertFalse(testMetrics.isEnabled());
+
+            String dump = (String) mBeanServer.invoke(objectName, "dump", null, null);
+            assertTrue(dump.startsWith("Checkout metrics (off)"));
+        }
+        finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package toolVendor.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    /**
+     * Small values are exact, larger ones land in a bucket within about 3% of them.
+     */
+    @Test
+    public void testBuckets() {
+        for (long value = 0; value < 64; ++value) {
+            assertEquals(value, LatencyHistogram.getBucketHighestValue(LatencyHistogram.getBucketIndex(value)));
+        }
+
+        for (long value = 64; value < LatencyHistogram.MAX_TRACKABLE_NANOS; value = value * 3 / 2 + 7) {
+            int bucketIndex = LatencyHistogram.getBucketIndex(value);
+            long highestValue = LatencyHistogram.getBucketHighestValue(bucketIndex);
+            assertTrue(highestValue >= value, "bucket of " + value + " ends at " + highestValue);
+            assertTrue(highestValue - value <= value / 32, "bucket of " + value + " ends at " + highestValue);
+            assertEquals(bucketIndex + 1, LatencyHistogram.getBucketIndex(highestValue + 1));
+        }
+    }
+
+    /**
+     * Percentiles come from the bucket the rank falls in, capped by the largest value.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram testHistogram = new LatencyHistogram();
+        assertEquals(0, testHistogram.getValueAtPercentile(99.0));
+        assertEquals(0.0, testHistogram.getMeanNanos());
+
+        for (long value = 1; value <= 1000; ++value) {
+            testHistogram.record(value * 1000);
+        }
+        testHistogram.record(-5);
+
+        assertEquals(1001, testHistogram.getCount());
+        assertEquals(1_000_000, testHistogram.getMaxNanos());
+        assertEquals(1_000_000, testHistogram.getValueAtPercentile(100.0));
+        assertEquals(0, testHistogram.getValueAtPercentile(0.0));
+
+        long p50 = testHistogram.getValueAtPercentile(50.0);
+        long p99 = testHistogram.getValueAtPercentile(99.0);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 33 / 32, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(500_500_000.0 / 1001, testHistogram.getMeanNanos(), 0.001);
+
+        testHistogram.reset();
+        assertEquals(0, testHistogram.getCount());
+        assertEquals(0, testHistogram.getMaxNanos());
+        assertEquals(0, testHistogram.getValueAtPercentile(50.0));
+    }
+
+    /**
+     * Threads recording at once don't lose counts.
+     */
+    @Test
+    public void testConcurrentRecord() throws InterruptedException {
+        LatencyHistogram testHistogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 25000; ++i) {
+                    testHistogram.record(i % 100);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100000, testHistogram.getCount());
+        assertEquals(99, testHistogram.getMaxNanos());
+        assertEquals(99, testHistogram.getValueAtPercentile(100.0));
+    }
+}
@@ -0,0 +1,160 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChargeLocalizerTest {
+    private static final LocalDate JANUARY_FIRST = LocalDate.of(2020, 1, 1);
+    private static final LocalDate JUNE_LAST = LocalDate.of(2020, 6, 30);
+    private static final LocalDate JULY_FIRST = LocalDate.of(2020, 7, 1);
+
+    /**
+     * Helper method to build rates for euros, yen, and US dollars.
+     */
+    private static ChargeLocalizer createTestLocalizer() {
+        ExchangeRateTable exchangeRates = ExchangeRateTable.builder()
+            .addRate("EUR", JANUARY_FIRST, JUNE_LAST, 900000)
+            .addRate("EUR", JULY_FIRST, null, 921345)
+            .addRate("JPY", JANUARY_FIRST, null, 107530000)
+            .build();
+        TaxTable taxRates = TaxTable.builder()
+            .addRate("DE-BY", "EUR", JANUARY_FIRST, null, 190000)
+            .addRate("DE-BY", "EUR", JULY_FIRST, LocalDate.of(2020, 12, 31), 160000)
+            .addRate("JP-13", "JPY", JANUARY_FIRST, null, 100000)
+            .addRate("US-NY", "USD", JANUARY_FIRST, null, 88750)
+            .build();
+        return new ChargeLocalizer(exchangeRates, taxRates);
+    }
+
+    /**
+     * Conversions round half up to the decimals of the currency.
+     */
+    @Test
+    public void testConvert() {
+        assertEquals(1842, ExchangeRateTable.convert(1999, 921345, 2));
+        assertEquals(2150, ExchangeRateTable.convert(1999, 107530000, 0));
+        assertEquals(54, ExchangeRateTable.convert(50, 107530000, 0));
+        assertEquals(1999, ExchangeRateTable.convert(1999, ExchangeRateTable.RATE_SCALE, 2));
+        assertEquals(19990, ExchangeRateTable.convert(1999, ExchangeRateTable.RATE_SCALE, 3));
+
+        // A 1 cent charge at half a unit per dollar rounds up
+        assertEquals(1, ExchangeRateTable.convert(1, 500000, 2));
+        assertEquals(73, TaxTable.taxOf(1000, 72500));
+        assertEquals(89, TaxTable.taxOf(1000, 88750));
+        assertEquals(0, TaxTable.taxOf(4, 88750));
+
+        // Large amounts don't overflow
+        assertEquals(Long.MAX_VALUE / 2 + 1, ExchangeRateTable.convert(Long.MAX_VALUE, 500000, 2));
+    }
+
+    /**
+     * Rates follow their effective dates, later ranges overriding earlier ones.
+     */
+    @Test
+    public void testEffectiveDates() {
+        ChargeLocalizer testLocalizer = createTestLocalizer();
+        ExchangeRateTable exchangeRates = testLocalizer.getExchangeRateTable();
+        TaxTable taxRates = testLocalizer.getTaxTable();
+        int euroIndex = exchangeRates.getCurrencyIndex("EUR");
+        int bavariaIndex = taxRates.getRegionIndex("de-by");
+
+        assertEquals(-1, exchangeRates.getRateMicros(euroIndex, JANUARY_FIRST.minusDays(1).toEpochDay()));
+        assertEquals(900000, exchangeRates.getRateMicros(euroIndex, JUNE_LAST.toEpochDay()));
+        assertEquals(921345, exchangeRates.getRateMicros(euroIndex, JULY_FIRST.toEpochDay()));
+        assertEquals(921345, exchangeRates.getRateMicros(euroIndex, LocalDate.of(2030, 1, 1).toEpochDay()));
+        assertEquals(ExchangeRateTable.RATE_SCALE, exchangeRates.getRateMicros(exchangeRates.getCurrencyIndex("USD"), JANUARY_FIRST.toEpochDay()));
+        assertEquals(-1, exchangeRates.getCurrencyIndex("GBP"));
+
+        // The temporary cut ends and the open ended rate comes back
+        assertEquals(190000, taxRates.getRateMicros(bavariaIndex, JUNE_LAST.toEpochDay()));
+        assertEquals(160000, taxRates.getRateMicros(bavariaIndex, JULY_FIRST.toEpochDay()));
+        assertEquals(190000, taxRates.getRateMicros(bavariaIndex, LocalDate.of(2021, 1, 1).toEpochDay()));
+        assertEquals(-1, taxRates.getRegionIndex("FR-75"));
+        assertEquals(-1, taxRates.getRegionIndex(null));
+
+        assertFalse(testLocalizer.hasRates(bavariaIndex, LocalDate.of(2019, 12, 31).toEpochDay()));
+        assertTrue(testLocalizer.hasRates(bavariaIndex, JANUARY_FIRST.toEpochDay()));
+    }
+
+    /**
+     * Charges are converted, then taxed, at the rates of their day.
+     */
+    @Test
+    public void testLocalize() {
+        ChargeLocalizer testLocalizer = createTestLocalizer();
+
+        LocalCharge euroCharge = testLocalizer.localize(1999, JULY_FIRST.toEpochDay(), testLocalizer.getRegionIndex("DE-BY"));
+        assertEquals("DE-BY", euroCharge.getTaxRegion());
+        assertEquals("EUR", euroCharge.getCurrency().getCurrencyCode());
+        assertEquals(1842, euroCharge.getChargeMinorUnits());
+        assertEquals(295, euroCharge.getTaxMinorUnits());
+        assertEquals(2137, euroCharge.getTotalMinorUnits());
+        assertEquals("Tax region: DE-BY\n" +
+                     "Exchange rate: 0.921345 EUR/USD\n" +
+                     "Local charge: EUR 18.42\n" +
+                     "Tax rate: 16%\n" +
+                     "Tax amount: EUR 2.95\n" +
+                     "Total due: EUR 21.37", euroCharge.toString());
+
+        LocalCharge yenCharge = testLocalizer.localize(1999, JULY_FIRST.toEpochDay(), testLocalizer.getRegionIndex("JP-13"));
+        assertEquals(2150, yenCharge.getChargeMinorUnits());
+        assertEquals(215, yenCharge.getTaxMinorUnits());
+        assertTrue(yenCharge.toString().contains("Total due: JPY 2365"), yenCharge.toString());
+
+        LocalCharge dollarCharge = testLocalizer.localize(1000, JULY_FIRST.toEpochDay(), testLocalizer.getRegionIndex("US-NY"));
+        assertEquals(1000, dollarCharge.getChargeMinorUnits());
+        assertEquals(89, dollarCharge.getTaxMinorUnits());
+        assertTrue(dollarCharge.toString().contains("Tax rate: 8.875%"), dollarCharge.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> testLocalizer.localize(1999, LocalDate.of(2019, 12, 31).toEpochDay(), 0));
+    }
+
+    /**
+     * Localizing many charges at once matches localizing them one at a time.
+     */
+    @Test
+    public void testLocalizeAll() {
+        ChargeLocalizer testLocalizer = createTestLocalizer();
+        int count = 1000;
+        long[] finalChargeCents = new long[count];
+        int[] checkoutEpochDays = new int[count];
+        int[] regionIndexes = new int[count];
+        for (int i = 0; i < count; ++i) {
+            finalChargeCents[i] = 17L * i + 3;
+            checkoutEpochDays[i] = (int) JANUARY_FIRST.plusDays(i % 400).toEpochDay();
+            regionIndexes[i] = i % testLocalizer.getTaxTable().size();
+        }
+
+        long[] chargeMinorUnits = new long[count];
+        long[] taxMinorUnits = new long[count];
+        testLocalizer.localizeAll(finalChargeCents, checkoutEpochDays, regionIndexes, count, chargeMinorUnits, taxMinorUnits);
+
+        for (int i = 0; i < count; ++i) {
+            LocalCharge expectedCharge = testLocalizer.localize(finalChargeCents[i], checkoutEpochDays[i], regionIndexes[i]);
+            assertEquals(expectedCharge.getChargeMinorUnits(), chargeMinorUnits[i]);
+            assertEquals(expectedCharge.getTaxMinorUnits(), taxMinorUnits[i]);
+        }
+    }
+
+    /**
+     * Tables reject rates that can't be applied.
+     */
+    @Test
+    public void testInvalidRates() {
+        assertThrows(IllegalArgumentException.class, () -> ExchangeRateTable.builder().addRate("USD", JANUARY_FIRST, null, 1000000));
+        assertThrows(IllegalArgumentException.class, () -> ExchangeRateTable.builder().addRate("EUR", JANUARY_FIRST, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> ExchangeRateTable.builder().addRate("EUR", JULY_FIRST, JUNE_LAST, 900000));
+        assertThrows(IllegalArgumentException.class, () -> ExchangeRateTable.builder().addRate("XYZ", JANUARY_FIRST, null, 900000));
+        assertThrows(IllegalArgumentException.class, () -> TaxTable.builder().addRate("DE-BY", "EUR", JANUARY_FIRST, null, -1));
+        assertThrows(IllegalArgumentException.class, () -> TaxTable.builder()
+            .addRate("DE-BY", "EUR", JANUARY_FIRST, null, 190000)
+            .addRate("DE-BY", "USD", JULY_FIRST, null, 160000));
+
+        // Regions can't charge in currencies without rates
+        TaxTable poundTaxRates = TaxTable.builder().addRate("GB-LND", "GBP", JANUARY_FIRST, null, 200000).build();
+        assertThrows(IllegalArgumentException.class, () -> new ChargeLocalizer(ExchangeRateTable.builder().build(), poundTaxRates));
+    }
+}
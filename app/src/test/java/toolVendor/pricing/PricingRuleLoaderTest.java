@@ -0,0 +1,82 @@
+package toolVendor.pricing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingRuleLoaderTest {
+
+    /**
+     * Every kind of rule loads from CSV.
+     */
+    @Test
+    public void testLoad(@TempDir Path testDirectory) throws IOException {
+        Path testRulesFile = testDirectory.resolve("rules.csv");
+        Files.write(testRulesFile, String.join("\n",
+            "# Summer rules",
+            "version,7",
+            "kind,type,brand,first,last,days,amount",
+            "TIER,LADDER,*,,,7,9.99",
+            "MINIMUM,,,,,,4.99",
+            "PROMOTION,*,stihl,2020-07-01,2020-07-31,,10",
+            "SURCHARGE,*,*,2020-12-20,,,12.5",
+            "").getBytes(StandardCharsets.UTF_8));
+
+        PricingRuleSet testRules = PricingRuleLoader.load(testRulesFile);
+        assertEquals(7, testRules.getVersion());
+        assertEquals(4, testRules.size());
+
+        PricingRule tierRule = testRules.getRules().get(0);
+        assertEquals(PricingRule.Kind.TIER, tierRule.getKind());
+        assertEquals(ToolType.LADDER, tierRule.getToolType());
+        assertNull(tierRule.getToolBrand());
+        assertEquals(7, tierRule.getDayCount());
+        assertEquals(999, tierRule.getAmountCents());
+
+        PricingRule promotionRule = testRules.getRules().get(2);
+        assertEquals(ToolBrand.STIHL, promotionRule.getToolBrand());
+        assertEquals(LocalDate.of(2020, 7, 31), promotionRule.getLastDate());
+        assertEquals(1000, promotionRule.getBasisPoints());
+        assertEquals(1250, testRules.getRules().get(3).getBasisPoints());
+        assertNull(testRules.getRules().get(3).getLastDate());
+
+        assertEquals(999 + 199, testRules.getPriceCents(new Tool("LADW"), LocalDate.of(2020, 6, 1), 8));
+        assertEquals(499, testRules.getPriceCents(new Tool("CHNS"), LocalDate.of(2020, 7, 2), 1));
+    }
+
+    /**
+     * Malformed files report the file and line.
+     */
+    @Test
+    public void testMalformed(@TempDir Path testDirectory) throws IOException {
+        Path testRulesFile = testDirectory.resolve("rules.csv");
+
+        Files.write(testRulesFile, "TIER,LADDER,*,,,7,9.99\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> PricingRuleLoader.load(testRulesFile));
+
+        Files.write(testRulesFile, "# No rules yet\n".getBytes(StandardCharsets.UTF_8));
+        IOException exception = assertThrows(IOException.class, () -> PricingRuleLoader.load(testRulesFile));
+        assertTrue(exception.getMessage().contains("no version"), exception.getMessage());
+
+        Files.write(testRulesFile, "version,1\nDISCOUNT,*,*,,,,10\n".getBytes(StandardCharsets.UTF_8));
+        exception = assertThrows(IOException.class, () -> PricingRuleLoader.load(testRulesFile));
+        assertTrue(exception.getMessage().contains("line 2"), exception.getMessage());
+
+        Files.write(testRulesFile, "version,1\nPROMOTION,*,*,2020-13-01,,,10\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> PricingRuleLoader.load(testRulesFile));
+
+        Files.write(testRulesFile, "version,1\nTIER,*,*,,,7\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> PricingRuleLoader.load(testRulesFile));
+    }
+}
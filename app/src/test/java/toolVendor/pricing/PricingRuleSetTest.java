@@ -0,0 +1,109 @@
+package toolVendor.pricing;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+import toolVendor.data.tool.ToolBrand;
+import toolVendor.data.tool.ToolType;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingRuleSetTest {
+    private static final Tool CHAINSAW = new Tool("CHNS");
+    private static final Tool LADDER = new Tool("LADW");
+    private static final Tool RIDGID_JACKHAMMER = new Tool("JAKR");
+    private static final Tool DEWALT_JACKHAMMER = new Tool("JAKD");
+
+    private static final List<PricingRule> TEST_RULES = Arrays.asList(
+        PricingRule.tier(ToolType.JACKHAMMER, ToolBrand.RIDGID, 7, 1200),
+        PricingRule.tier(ToolType.JACKHAMMER, null, 7, 1500),
+        PricingRule.tier(ToolType.LADDER, null, 7, 999),
+        PricingRule.tier(ToolType.LADDER, null, 30, 3500),
+        PricingRule.minimum(null, null, 500),
+        PricingRule.minimum(ToolType.JACKHAMMER, ToolBrand.RIDGID, 1000),
+        PricingRule.promotion(null, ToolBrand.STIHL, LocalDate.of(2020, 7, 1), LocalDate.of(2020, 7, 31), 1000),
+        PricingRule.promotion(null, null, LocalDate.of(2020, 7, 15), LocalDate.of(2020, 8, 15), 500),
+        PricingRule.surcharge(null, null, LocalDate.of(2020, 12, 20), null, 1500),
+        PricingRule.surcharge(ToolType.LADDER, null, LocalDate.of(2020, 12, 24), LocalDate.of(2020, 12, 26), 1000));
+
+    /**
+     * Tiers charge the largest blocks first, the most specific tier of a length winning.
+     */
+    @Test
+    public void testTiers() {
+        PricingRuleSet testRules = new PricingRuleSet(1, TEST_RULES);
+        LocalDate testDate = LocalDate.of(2020, 6, 1);
+
+        // A month, a week, and 3 days at $1.99
+        assertEquals(3500 + 999 + 597, testRules.getPriceCents(LADDER, testDate, 40));
+        assertEquals(2 * 999, testRules.getPriceCents(LADDER, testDate, 14));
+        assertEquals(1200 + 3 * 299, testRules.getPriceCents(RIDGID_JACKHAMMER, testDate, 10));
+        assertEquals(1500 + 3 * 299, testRules.getPriceCents(DEWALT_JACKHAMMER, testDate, 10));
+        assertEquals(6 * 149, testRules.getPriceCents(CHAINSAW, testDate, 6));
+    }
+
+    /**
+     * The most specific minimum applies, even with no chargable days.
+     */
+    @Test
+    public void testMinimums() {
+        PricingRuleSet testRules = new PricingRuleSet(1, TEST_RULES);
+        LocalDate testDate = LocalDate.of(2020, 6, 1);
+
+        assertEquals(1000, testRules.getPriceCents(RIDGID_JACKHAMMER, testDate, 1));
+        assertEquals(299 * 2, testRules.getPriceCents(DEWALT_JACKHAMMER, testDate, 2));
+        assertEquals(500, testRules.getPriceCents(CHAINSAW, testDate, 1));
+        assertEquals(500, testRules.getPriceCents(CHAINSAW, testDate, 0));
+    }
+
+    /**
+     * Only the largest promotion running applies, and running surcharges add up.
+     */
+    @Test
+    public void testDateRanges() {
+        PricingRuleSet testRules = new PricingRuleSet(1, TEST_RULES);
+
+        assertEquals(1490, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 6, 30), 10));
+        assertEquals(1490 - 149, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 7, 1), 10));
+        assertEquals(1490 - 149, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 7, 20), 10));
+        assertEquals(1490 - 75, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 8, 1), 10));
+        assertEquals(1490 - 75, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 8, 15), 10));
+        assertEquals(1490, testRules.getPriceCents(CHAINSAW, LocalDate.of(2020, 8, 16), 10));
+
+        assertEquals(5096, testRules.getPriceCents(LADDER, LocalDate.of(2020, 12, 19), 40));
+        assertEquals(5096 + 1274, testRules.getPriceCents(LADDER, LocalDate.of(2020, 12, 25), 40));
+        assertEquals(5096 + 764, testRules.getPriceCents(LADDER, LocalDate.of(2020, 12, 27), 40));
+        assertEquals(5096 + 764, testRules.getPriceCents(LADDER, LocalDate.of(2030, 1, 1), 40));
+
+        // Surcharges go on before the promotion comes off
+        PricingRuleSet combinedRules = new PricingRuleSet(2, Arrays.asList(
+            PricingRule.surcharge(null, null, null, null, 1000),
+            PricingRule.promotion(null, null, null, null, 5000)));
+        assertEquals(1100 - 550, combinedRules.getPriceCents(new Tool("LADW", ToolType.LADDER, ToolBrand.WERNER, 100, true, true, false), LocalDate.of(2020, 1, 1), 10));
+    }
+
+    /**
+     * Rule sets keep their version and rules, and bad rules are turned away.
+     */
+    @Test
+    public void testRuleSet() {
+        PricingRuleSet testRules = new PricingRuleSet(42, TEST_RULES);
+        assertEquals(42, testRules.getVersion());
+        assertEquals(TEST_RULES.size(), testRules.size());
+        assertEquals(TEST_RULES, testRules.getRules());
+        assertThrows(UnsupportedOperationException.class, () -> testRules.getRules().clear());
+        assertEquals(4, testRules.getMatchingRules(ToolType.CHAINSAW, ToolBrand.STIHL).size());
+
+        // An empty rule set charges the daily rates
+        assertEquals(5 * 299, new PricingRuleSet(0, List.of()).getPriceCents(RIDGID_JACKHAMMER, LocalDate.of(2020, 7, 2), 5));
+
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.tier(null, null, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.minimum(null, null, -1));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.promotion(null, null, null, null, 10001));
+        assertThrows(IllegalArgumentException.class, () -> PricingRule.surcharge(null, null, LocalDate.of(2020, 2, 1), LocalDate.of(2020, 1, 1), 100));
+    }
+}
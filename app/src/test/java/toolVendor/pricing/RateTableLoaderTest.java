@@ -0,0 +1,81 @@
+package toolVendor.pricing;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableLoaderTest {
+
+    /**
+     * Exchange and tax rates load from CSV.
+     */
+    @Test
+    public void testLoad(@TempDir Path testRatesDirectory) throws IOException {
+        Path exchangeRatesFile = testRatesDirectory.resolve("exchangeRates.csv");
+        Path taxRatesFile = testRatesDirectory.resolve("taxRates.csv");
+        Files.write(exchangeRatesFile, String.join("\n",
+            "currency,first,last,rate",
+            "# Second quarter",
+            "EUR,2020-04-01,2020-06-30,0.9",
+            "EUR,2020-07-01,,0.921345",
+            "",
+            "JPY, 2020-04-01 ,,107.53",
+            "").getBytes(StandardCharsets.UTF_8));
+        Files.write(taxRatesFile, String.join("\n",
+            "region,currency,first,last,percent",
+            "us-ny,USD,2020-01-01,,8.875",
+            "DE-BY,EUR,2020-04-01,,19",
+            "DE-BY,EUR,2020-07-01,2020-12-31,16",
+            "").getBytes(StandardCharsets.UTF_8));
+
+        ExchangeRateTable exchangeRates = RateTableLoader.loadExchangeRates(exchangeRatesFile);
+        assertEquals(3, exchangeRates.size());
+        assertEquals(900000, exchangeRates.getRateMicros(exchangeRates.getCurrencyIndex("EUR"), LocalDate.of(2020, 6, 30).toEpochDay()));
+        assertEquals(921345, exchangeRates.getRateMicros(exchangeRates.getCurrencyIndex("EUR"), LocalDate.of(2020, 7, 1).toEpochDay()));
+        assertEquals(107530000, exchangeRates.getRateMicros(exchangeRates.getCurrencyIndex("JPY"), LocalDate.of(2020, 7, 1).toEpochDay()));
+
+        TaxTable taxRates = RateTableLoader.loadTaxRates(taxRatesFile);
+        assertEquals(2, taxRates.size());
+        assertEquals("US-NY", taxRates.getRegion(taxRates.getRegionIndex("US-NY")));
+        assertEquals(88750, taxRates.getRateMicros(taxRates.getRegionIndex("US-NY"), LocalDate.of(2020, 7, 1).toEpochDay()));
+        assertEquals(160000, taxRates.getRateMicros(taxRates.getRegionIndex("DE-BY"), LocalDate.of(2020, 7, 1).toEpochDay()));
+
+        ChargeLocalizer testLocalizer = new ChargeLocalizer(exchangeRates, taxRates);
+        assertEquals(2137, testLocalizer.localize(1999, LocalDate.of(2020, 7, 1).toEpochDay(), testLocalizer.getRegionIndex("DE-BY")).getTotalMinorUnits());
+    }
+
+    /**
+     * Malformed files report the file and line.
+     */
+    @Test
+    public void testMalformed(@TempDir Path testRatesDirectory) throws IOException {
+        Path testRatesFile = testRatesDirectory.resolve("rates.csv");
+
+        Files.write(testRatesFile, "EUR,2020-01-01,,0.9,extra\n".getBytes(StandardCharsets.UTF_8));
+        IOException exception = assertThrows(IOException.class, () -> RateTableLoader.loadExchangeRates(testRatesFile));
+        assertTrue(exception.getMessage().contains("line 1"), exception.getMessage());
+
+        Files.write(testRatesFile, "# Rates\nEUR,2020-01-01,,zero\n".getBytes(StandardCharsets.UTF_8));
+        exception = assertThrows(IOException.class, () -> RateTableLoader.loadExchangeRates(testRatesFile));
+        assertTrue(exception.getMessage().contains("line 2"), exception.getMessage());
+
+        Files.write(testRatesFile, "ABC,2020-01-01,,0.9\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> RateTableLoader.loadExchangeRates(testRatesFile));
+
+        Files.write(testRatesFile, "EUR,2020-02-30,,0.9\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> RateTableLoader.loadExchangeRates(testRatesFile));
+
+        Files.write(testRatesFile, "US-NY,USD,2020-01-01,,-1\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> RateTableLoader.loadTaxRates(testRatesFile));
+
+        Files.write(testRatesFile, "US-NY,USD,2020-01-01\n".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> RateTableLoader.loadTaxRates(testRatesFile));
+    }
+}
@@ -0,0 +1,77 @@
+package toolVendor.reprice;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.ToolVendor;
+import toolVendor.data.agreement.RentalAgreement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkRepricerTest {
+
+    /**
+     * Helper to run the repricer over a string.
+     */
+    private static String reprice(BulkRepricer bulkRepricer, String requests, RepriceStats[] repriceStats) throws IOException, InterruptedException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        repriceStats[0] = bulkRepricer.reprice(Channels.newChannel(new ByteArrayInputStream(requests.getBytes(StandardCharsets.US_ASCII))), Channels.newChannel(output));
+        return output.toString("US-ASCII");
+    }
+
+    /**
+     * Result lines match the vendor and keep the input order, across batches much smaller than the input.
+     */
+    @Test
+    public void testResultLines() throws IOException, InterruptedException {
+        ToolVendor testToolVendor = new ToolVendor();
+        String[] toolCodes = { "CHNS", "LADW", "JAKD", "JAKR" };
+
+        StringBuilder requests = new StringBuilder("tool,date,days,discount\r\n");
+        StringBuilder expected = new StringBuilder("tool,date,days,discount,status,charge_days,pre_discount,discount_amount,final_charge\n");
+        for (int i = 0; i < 500; ++i) {
+            String line = toolCodes[i % 4] + ",7/" + (1 + i % 28) + "/20," + (1 + i % 9) + "," + (i % 40) + ".5";
+            requests.append(line).append(i % 2 == 0 ? "\n" : "\r\n");
+
+            RentalAgreement rentalAgreement = testToolVendor.checkoutTool(toolCodes[i % 4], "7/" + (1 + i % 28) + "/20", 1 + i % 9, (i % 40) + 0.5);
+            expected.append(line).append(",OK,").append(rentalAgreement.getChargableDayCount())
+                .append(',').append(String.format("%.2f", rentalAgreement.getInitialPrice()))
+                .append(',').append(String.format("%.2f", rentalAgreement.getDiscountAmount()))
+                .append(',').append(String.format("%.2f", rentalAgreement.getFinalCharge())).append('\n');
+        }
+        requests.append("\nJAKR,9/3/15,0,10\nNONE,9/3/15,5,10\nJAKR,13/3/15,5,10\n,9/3/15,5,10\nJAKR,9/3/15,five,10\nJAKR,9/3/15,5");
+        expected.append("JAKR,9/3/15,0,10,INVALID_RENTAL_DAY_COUNT,,,,\n")
+            .append("NONE,9/3/15,5,10,UNKNOWN_TOOL_CODE,,,,\n")
+            .append("JAKR,13/3/15,5,10,INVALID_CHECKOUT_DATE,,,,\n")
+            .append(",9/3/15,5,10,MISSING_TOOL_CODE,,,,\n")
+            .append("JAKR,9/3/15,five,10,MALFORMED_LINE,,,,\n")
+            .append("JAKR,9/3/15,5,MALFORMED_LINE,,,,\n");
+
+        RepriceStats[] repriceStats = new RepriceStats[1];
+        assertEquals(expected.toString(), reprice(new BulkRepricer(testToolVendor, 4, false, 64), requests.toString(), repriceStats));
+        assertEquals(506, repriceStats[0].getLineCount());
+        assertEquals(500, repriceStats[0].getPricedCount());
+        assertEquals(6, repriceStats[0].getRejectedCount());
+        assertEquals(requests.length(), repriceStats[0].getBytesRead());
+    }
+
+    /**
+     * Receipts mode writes the receipt of each request.
+     */
+    @Test
+    public void testReceipts() throws IOException, InterruptedException {
+        ToolVendor testToolVendor = new ToolVendor();
+        RepriceStats[] repriceStats = new RepriceStats[1];
+
+        String receipts = reprice(new BulkRepricer(testToolVendor, 2, true, 16), "JAKR,9/3/15,5,20\nLADW,7/2/20,3,10\nJAKR,9/3/15,5,101\n", repriceStats);
+        assertEquals(testToolVendor.checkoutTool("JAKR", "9/3/15", 5, 20) + "\n\n" +
+                     testToolVendor.checkoutTool("LADW", "7/2/20", 3, 10) + "\n\n" +
+                     "Rejected: JAKR,9/3/15,5,101 (DISCOUNT_OUT_OF_BOUNDS)\n\n", receipts);
+        assertEquals(2, repriceStats[0].getPricedCount());
+    }
+}
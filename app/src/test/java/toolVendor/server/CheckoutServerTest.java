@@ -0,0 +1,162 @@
+package toolVendor.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.ToolVendor;
+import toolVendor.metrics.CheckoutMetrics;
+import toolVendor.metrics.CheckoutStage;
+import toolVendor.pricing.ChargeLocalizer;
+import toolVendor.pricing.ExchangeRateTable;
+import toolVendor.pricing.TaxTable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CheckoutServerTest {
+
+    /**
+     * Helper to make a request, returning the status and body.
+     */
+    private static String[] request(CheckoutServer checkoutServer, String method, String pathAndQuery, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + checkoutServer.getPort() + pathAndQuery).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream requestBody = connection.getOutputStream()) {
+                requestBody.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream responseBody = new ByteArrayOutputStream();
+        try (InputStream responseStream = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            responseStream.transferTo(responseBody);
+        }
+        return new String[] { String.valueOf(status), responseBody.toString(StandardCharsets.UTF_8) };
+    }
+
+    /**
+     * Checkout, receipt, and batch endpoints answer like the vendor does.
+     */
+    @Test
+    public void testEndpoints() throws IOException {
+        ToolVendor testToolVendor = new ToolVendor();
+
+        try (CheckoutServer checkoutServer = new CheckoutServer(testToolVendor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8)) {
+            checkoutServer.start();
+
+            String[] response = request(checkoutServer, "GET", "/checkout?tool=JAKR&date=7%2F2%2F20&days=4&discount=50", null);
+            assertEquals("200", response[0]);
+            assertEquals("{\"success\":true,\"agreement\":{\"toolCode\":\"JAKR\",\"toolType\":\"Jackhammer\",\"toolBrand\":\"Ridgid\","
+                         + "\"rentalDays\":4,\"checkoutDate\":\"2020-07-02\",\"dueDate\":\"2020-07-06\",\"dailyRentalRate\":2.99,"
+                         + "\"chargeDays\":1,\"preDiscountCost\":2.99,\"discountPercent\":50.00,\"discountAmount\":1.50,\"finalCharge\":1.49}}", response[1]);
+
+            response = request(checkoutServer, "GET", "/checkout?tool=JAKR&date=7/2/20&days=0", null);
+            assertEquals("400", response[0]);
+            assertTrue(response[1].contains("\"error\":\"INVALID_RENTAL_DAY_COUNT\""), response[1]);
+
+            response = request(checkoutServer, "GET", "/receipt?tool=JAKR&date=7/2/20&days=4&discount=50", null);
+            assertEquals("200", response[0]);
+            assertEquals(testToolVendor.checkoutTool("JAKR", "7/2/20", 4, 50).toString(), response[1]);
+
+            response = request(checkoutServer, "POST", "/checkout/batch", "tool,date,days,discount\nLADW,7/2/20,3,10\nNONE,7/2/20,3,10\n");
+            assertEquals("200", response[0]);
+            assertTrue(response[1].startsWith("[{\"success\":true,\"agreement\":{\"toolCode\":\"LADW\""), response[1]);
+            assertTrue(response[1].endsWith("{\"success\":false,\"error\":\"UNKNOWN_TOOL_CODE\",\"message\":\"Tool code NONE is not a tool we rent. Please provide a valid tool code.\"}]"), response[1]);
+
+            assertEquals("400", request(checkoutServer, "POST", "/checkout/batch", "LADW,7/2/20,three,10\n")[0]);
+            assertEquals("405", request(checkoutServer, "GET", "/checkout/batch", null)[0]);
+            assertEquals("404", request(checkoutServer, "GET", "/nothing", null)[0]);
+        }
+    }
+
+    /**
+     * Batches over the line or byte limit are turned away with a 413 without checking anything out.
+     */
+    @Test
+    public void testBatchLimits() throws IOException {
+        ToolVendor testToolVendor = new ToolVendor();
+
+        try (CheckoutServer checkoutServer = new CheckoutServer(testToolVendor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8)) {
+            checkoutServer.start();
+
+            String batchLine = "LADW,7/2/20,3,10\n";
+            String[] response = request(checkoutServer, "POST", "/checkout/batch", batchLine.repeat(CheckoutServer.MAX_BATCH_LINES));
+            assertEquals("200", response[0]);
+
+            response = request(checkoutServer, "POST", "/checkout/batch", batchLine.repeat(CheckoutServer.MAX_BATCH_LINES + 1));
+            assertEquals("413", response[0]);
+            assertTrue(response[1].contains("\"error\":\"BATCH_TOO_LARGE\""), response[1]);
+
+            // Blank lines don't count as checkouts, but still count against the byte limit
+            response = request(checkoutServer, "POST", "/checkout/batch", batchLine + "\n".repeat(CheckoutServer.MAX_BATCH_BYTES));
+            assertEquals("413", response[0]);
+            assertTrue(response[1].contains("\"error\":\"BATCH_TOO_LARGE\""), response[1]);
+        }
+    }
+
+    /**
+     * Receipts time their rendering, and the metrics can be read as text.
+     */
+    @Test
+    public void testMetrics() throws IOException {
+        ToolVendor testToolVendor = new ToolVendor();
+
+        try (CheckoutServer checkoutServer = new CheckoutServer(testToolVendor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8)) {
+            checkoutServer.start();
+            assertEquals("404", request(checkoutServer, "GET", "/metrics", null)[0]);
+
+            CheckoutMetrics testMetrics = new CheckoutMetrics();
+            testMetrics.setEnabled(true);
+            testToolVendor.setCheckoutMetrics(testMetrics);
+
+            assertEquals("200", request(checkoutServer, "GET", "/receipt?tool=JAKR&date=7/2/20&days=4&discount=50", null)[0]);
+            assertEquals(1, testMetrics.getStageHistogram(CheckoutStage.RENDER).getCount());
+
+            String[] response = request(checkoutServer, "GET", "/metrics", null);
+            assertEquals("200", response[0]);
+            assertTrue(response[1].contains("JAKR 1"), response[1]);
+            assertEquals("405", request(checkoutServer, "POST", "/metrics", "")[0]);
+        }
+    }
+
+    /**
+     * Checkouts with a region are charged in its currency.
+     */
+    @Test
+    public void testRegion() throws IOException {
+        ToolVendor testToolVendor = new ToolVendor();
+        testToolVendor.setChargeLocalizer(new ChargeLocalizer(
+            ExchangeRateTable.builder().addRate("JPY", LocalDate.of(2020, 1, 1), null, 107530000).build(),
+            TaxTable.builder().addRate("JP-13", "JPY", LocalDate.of(2020, 1, 1), null, 100000).build()));
+
+        try (CheckoutServer checkoutServer = new CheckoutServer(testToolVendor, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 8)) {
+            checkoutServer.start();
+
+            String[] response = request(checkoutServer, "GET", "/checkout?tool=JAKR&date=7/2/20&days=4&discount=50&region=JP-13", null);
+            assertEquals("200", response[0]);
+            assertTrue(response[1].endsWith("\"finalCharge\":1.49},\"localCharge\":{\"taxRegion\":\"JP-13\",\"currency\":\"JPY\","
+                                            + "\"exchangeRateMicros\":107530000,\"taxRateMicros\":100000,\"chargeMinorUnits\":160,"
+                                            + "\"taxMinorUnits\":16,\"totalMinorUnits\":176}}"), response[1]);
+
+            response = request(checkoutServer, "GET", "/receipt?tool=JAKR&date=7/2/20&days=4&discount=50&region=JP-13", null);
+            assertEquals("200", response[0]);
+            assertTrue(response[1].startsWith(testToolVendor.checkoutTool("JAKR", "7/2/20", 4, 50).toString()), response[1]);
+            assertTrue(response[1].endsWith("\nTotal due: JPY 176"), response[1]);
+
+            response = request(checkoutServer, "GET", "/checkout?tool=JAKR&date=7/2/20&days=4&region=FR-75", null);
+            assertEquals("400", response[0]);
+            assertTrue(response[1].contains("\"error\":\"UNKNOWN_TAX_REGION\""), response[1]);
+        }
+    }
+}
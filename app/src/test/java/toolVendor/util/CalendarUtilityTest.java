@@ -0,0 +1,169 @@
+package toolVendor.util;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+class CalendarUtilityTest {
+    // Global testing variables
+    private static String[] testToolCodes = {
+        "CHNS",
+        "LADW",
+        "JAKD",
+        "JAKR",
+        "NONE"
+    };
+    private static DateTimeFormatter testFormatter = DateTimeFormatter.ofPattern("MM/dd/yy");
+
+    /**
+     * Reference implementation that examines the rental window one day at a time.
+     */
+    private static int countChargableDaysDayByDay(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent) {
+        int chargableDayCount = 0;
+
+        for (int i = 1; i <= numberOfDaysFromStart; ++i) {
+            LocalDate dateToExamine = startDate.plusDays(i);
+            boolean isFourthOfJuly = CalendarUtility.isFourthOfJulyHoliday(dateToExamine);
+            boolean isLaborDay = CalendarUtility.isLaborDay(dateToExamine);
+            DayOfWeek dayOfWeekForDate = dateToExamine.getDayOfWeek();
+            boolean isWeekend = dayOfWeekForDate == DayOfWeek.SATURDAY || dayOfWeekForDate == DayOfWeek.SUNDAY;
+
+            if (toolToRent.doHolidayRatesApply() && (isFourthOfJuly || isLaborDay)) {
+                chargableDayCount++;
+            }
+            else if (toolToRent.doWeekendRatesApply() && isWeekend && !isFourthOfJuly) {
+                chargableDayCount++;
+            }
+            else if (toolToRent.doWeekdayRatesApply() && !isWeekend && !isLaborDay && !isFourthOfJuly) {
+                chargableDayCount++;
+            }
+        }
+
+        return chargableDayCount;
+    }
+
+    /**
+     * The indexed and closed form counts should match the day by day count for every tool around the holidays.
+     */
+    @Test
+    public void testChargableDaysMatchDayByDayCount() {
+        for (String toolCode : testToolCodes) {
+            Tool testTool = new Tool(toolCode);
+
+            for (int year = 2014; year <= 2025; ++year) {
+                // Start in late June so windows cover both holidays and the year boundary.
+                LocalDate startDate = LocalDate.of(year, 6, 25);
+                for (int offset = 0; offset < 80; offset += 3) {
+                    LocalDate testStartDate = startDate.plusDays(offset);
+                    String testStartDateString = testStartDate.format(testFormatter);
+
+                    for (int dayCount = 1; dayCount <= 200; dayCount += 7) {
+                        int expectedCount = countChargableDaysDayByDay(testStartDate, dayCount, testTool);
+                        int actualCount = CalendarUtility.getChargableDays(testStartDateString, dayCount, testTool);
+                        assertEquals(expectedCount, actualCount, toolCode + " " + testStartDateString + " " + dayCount);
+
+                        actualCount = CalendarUtility.getChargableDaysClosedForm(testStartDateString, dayCount, testTool);
+                        assertEquals(expectedCount, actualCount, toolCode + " " + testStartDateString + " " + dayCount);
+
+                        actualCount = CalendarUtility.getChargableDaysBitmask(testStartDate, dayCount, testTool);
+                        assertEquals(expectedCount, actualCount, toolCode + " " + testStartDateString + " " + dayCount);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Long, multi-year rentals should match the day by day count too.
+     */
+    @Test
+    public void testMultiYearChargableDays() {
+        for (String toolCode : testToolCodes) {
+            Tool testTool = new Tool(toolCode);
+            LocalDate testStartDate = LocalDate.of(2015, 9, 3);
+
+            for (int dayCount : new int[] { 365, 366, 1000, 3650 }) {
+                int expectedCount = countChargableDaysDayByDay(testStartDate, dayCount, testTool);
+                int actualCount = CalendarUtility.getChargableDays("09/03/15", dayCount, testTool);
+                assertEquals(expectedCount, actualCount, toolCode + " " + dayCount);
+
+                actualCount = CalendarUtility.getChargableDaysClosedForm("09/03/15", dayCount, testTool);
+                assertEquals(expectedCount, actualCount, toolCode + " " + dayCount);
+
+                actualCount = CalendarUtility.getChargableDaysBitmask(testStartDate, dayCount, testTool);
+                assertEquals(expectedCount, actualCount, toolCode + " " + dayCount);
+            }
+        }
+    }
+
+    /**
+     * Test the index on its own, including empty windows and every charge profile.
+     */
+    @Test
+    public void testChargeCalendarIndex() {
+        ChargeCalendarIndex testIndex = new ChargeCalendarIndex();
+        LocalDate firstDay = LocalDate.of(2020, 7, 1);
+        LocalDate lastDay = LocalDate.of(2021, 9, 10);
+
+        // 2020-07-01 through 2021-09-10 has 437 days, 124 of them on a weekend and 4 holidays.
+        assertEquals(0, testIndex.getChargableDays(lastDay, firstDay, ChargeCalendarIndex.WEEKDAY_PROFILE_BIT));
+        assertEquals(309, testIndex.getChargableDays(firstDay, lastDay, ChargeCalendarIndex.WEEKDAY_PROFILE_BIT));
+        assertEquals(124, testIndex.getChargableDays(firstDay, lastDay, ChargeCalendarIndex.WEEKEND_PROFILE_BIT));
+        assertEquals(4, testIndex.getChargableDays(firstDay, lastDay, ChargeCalendarIndex.HOLIDAY_PROFILE_BIT));
+        assertEquals(437, testIndex.getChargableDays(firstDay, lastDay, ChargeCalendarIndex.PROFILE_COUNT - 1));
+        assertEquals(1, testIndex.getChargableDays(firstDay, firstDay, ChargeCalendarIndex.WEEKDAY_PROFILE_BIT));
+    }
+
+    /**
+     * Test the index across centuries and years outside of its cached range
+     */
+    @Test
+    public void testChargeCalendarIndexLongWindows() {
+        HolidayCalendar defaultCalendar = HolidayCalendar.getDefaultCalendar();
+        HolidayCalendar narrowCalendar = new HolidayCalendar("Narrow", defaultCalendar.getHolidayRules(), 2020, 2021);
+        ChargeCalendarIndex narrowIndex = ChargeCalendarIndex.getIndex(narrowCalendar);
+        assertSame(narrowIndex, ChargeCalendarIndex.getIndex(narrowCalendar));
+        assertSame(narrowCalendar, narrowIndex.getHolidayCalendar());
+
+        LocalDate[][] testWindows = {
+            { LocalDate.of(1890, 3, 15), LocalDate.of(2730, 11, 2) },
+            { LocalDate.of(2019, 12, 31), LocalDate.of(2022, 1, 1) },
+            { LocalDate.of(2100, 2, 28), LocalDate.of(2100, 3, 1) },
+            { LocalDate.of(1601, 1, 1), LocalDate.of(2400, 12, 31) },
+            { LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1).plusDays(10_000_000) },
+        };
+        for (LocalDate[] testWindow : testWindows) {
+            for (int chargeProfile = 0; chargeProfile < ChargeCalendarIndex.PROFILE_COUNT; ++chargeProfile) {
+                int expectedCount = defaultCalendar.countChargableDays(testWindow[0], testWindow[1], chargeProfile);
+                assertEquals(expectedCount, narrowIndex.getChargableDays(testWindow[0], testWindow[1], chargeProfile));
+                assertEquals(expectedCount, ChargeCalendarIndex.getDefaultIndex().getChargableDays(testWindow[0], testWindow[1], chargeProfile));
+            }
+        }
+
+        // The longest rental allowed
+        LocalDate checkoutDate = LocalDate.of(2020, 1, 1);
+        LocalDate lastDay = checkoutDate.plusDays(Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, ChargeCalendarIndex.getDefaultIndex().getChargableDays(checkoutDate.plusDays(1), lastDay, ChargeCalendarIndex.PROFILE_COUNT - 1));
+    }
+
+    /**
+     * Test the observed holiday dates
+     */
+    @Test
+    public void testObservedHolidays() {
+        // The 4th falls on a Saturday in 2015 and a Sunday in 2021
+        assertEquals(LocalDate.of(2015, 7, 3), CalendarUtility.getObservedFourthOfJuly(2015));
+        assertEquals(LocalDate.of(2021, 7, 5), CalendarUtility.getObservedFourthOfJuly(2021));
+        assertEquals(LocalDate.of(2023, 7, 4), CalendarUtility.getObservedFourthOfJuly(2023));
+
+        // Labor day on the 1st and on the 7th
+        assertEquals(LocalDate.of(2014, 9, 1), CalendarUtility.getLaborDay(2014));
+        assertEquals(LocalDate.of(2020, 9, 7), CalendarUtility.getLaborDay(2020));
+    }
+}
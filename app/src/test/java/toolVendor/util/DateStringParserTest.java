@@ -0,0 +1,82 @@
+package toolVendor.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+class DateStringParserTest {
+    // Global testing variables
+    private static String[] testValidDateStrings = {
+        "6/12/23",
+        "06/12/23",
+        "6/2/23",
+        "06/02/23",
+        "6/12/2023",
+        "06/12/2023",
+        "12/31/99",
+        "2/29/24",
+        "2/30/23"
+    };
+    private static String[] testInvalidDateStrings = {
+        "",
+        "6/12",
+        "6-12-23",
+        "13/1/23",
+        "0/1/23",
+        "1/0/23",
+        "1/32/23",
+        "123/1/23",
+        "1/1/123",
+        "1/1/12345",
+        "1/1/23/",
+        "a/1/23",
+        " 1/1/23"
+    };
+
+    /**
+     * The parser should agree with parsing through the DateTimeFormatter patterns.
+     */
+    @Test
+    public void testValidDates() {
+        for (String dateString : testValidDateStrings) {
+            DateTimeFormatter formatter = CalendarUtility.generateFormatterBasedonDateString(dateString);
+            assertNotNull(formatter, dateString);
+
+            LocalDate expectedDate = LocalDate.parse(dateString, formatter);
+            assertEquals(expectedDate, DateStringParser.parseLocalDate(dateString), dateString);
+            assertEquals(expectedDate.toEpochDay(), DateStringParser.parseEpochDay(dateString), dateString);
+        }
+
+        // Days past the end of the month move back to the last day
+        assertEquals(LocalDate.of(2023, 2, 28), DateStringParser.parseLocalDate("2/30/23"));
+    }
+
+    /**
+     * Invalid dates are reported without throwing.
+     */
+    @Test
+    public void testInvalidDates() {
+        for (String dateString : testInvalidDateStrings) {
+            assertEquals(DateStringParser.INVALID_EPOCH_DAY, DateStringParser.parseEpochDay(dateString), dateString);
+            assertNull(DateStringParser.parseLocalDate(dateString), dateString);
+            assertNull(CalendarUtility.generateFormatterBasedonDateString(dateString), dateString);
+        }
+
+        assertNull(DateStringParser.parseLocalDate(null));
+    }
+
+    /**
+     * Epoch days should match LocalDate over a few centuries.
+     */
+    @Test
+    public void testEpochDayConversion() {
+        for (LocalDate date = LocalDate.of(1890, 1, 1); date.getYear() < 2110; date = date.plusDays(1)) {
+            long expectedEpochDay = date.toEpochDay();
+            long actualEpochDay = DateStringParser.toEpochDay(date.getYear(), date.getMonthValue(), date.getDayOfMonth());
+            assertEquals(expectedEpochDay, actualEpochDay, date.toString());
+        }
+    }
+}
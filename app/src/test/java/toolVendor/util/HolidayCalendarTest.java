@@ -0,0 +1,133 @@
+package toolVendor.util;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+
+class HolidayCalendarTest {
+    // A calendar using every kind of rule, with holidays that land on weekends and across New Year's.
+    private static HolidayCalendar testCalendar = new HolidayCalendar("Test", Arrays.asList(
+        HolidayRule.fixedDate("New Year's Day", Month.JANUARY, 1, true),
+        HolidayRule.lastWeekday("Memorial Day", Month.MAY, DayOfWeek.MONDAY),
+        HolidayRule.nthWeekday("Thanksgiving", Month.NOVEMBER, DayOfWeek.THURSDAY, 4),
+        HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, false)), 2015, 2025);
+
+    /**
+     * Reference implementation that examines the rental window one day at a time.
+     */
+    private static int countChargableDaysDayByDay(LocalDate startDate, int numberOfDaysFromStart, Tool toolToRent, HolidayCalendar holidayCalendar) {
+        int chargableDayCount = 0;
+
+        for (int i = 1; i <= numberOfDaysFromStart; ++i) {
+            LocalDate dateToExamine = startDate.plusDays(i);
+            DayOfWeek dayOfWeek = dateToExamine.getDayOfWeek();
+
+            if (holidayCalendar.isHoliday(dateToExamine)) {
+                chargableDayCount += toolToRent.doHolidayRatesApply() ? 1 : 0;
+            }
+            else if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
+                chargableDayCount += toolToRent.doWeekendRatesApply() ? 1 : 0;
+            }
+            else {
+                chargableDayCount += toolToRent.doWeekdayRatesApply() ? 1 : 0;
+            }
+        }
+
+        return chargableDayCount;
+    }
+
+    /**
+     * The default calendar should match the original 4th of July and Labor day checks.
+     */
+    @Test
+    public void testDefaultCalendarMatchesHolidayChecks() {
+        HolidayCalendar defaultCalendar = HolidayCalendar.getDefaultCalendar();
+
+        // Past the cached range on both ends too.
+        for (LocalDate date = LocalDate.of(1940, 1, 1); date.getYear() <= 2160; date = date.plusDays(1)) {
+            boolean expectedHoliday = CalendarUtility.isFourthOfJulyHoliday(date) || CalendarUtility.isLaborDay(date);
+            assertEquals(expectedHoliday, defaultCalendar.isHoliday(date), date.toString());
+        }
+    }
+
+    /**
+     * Each kind of rule lands on the right day.
+     */
+    @Test
+    public void testRules() {
+        // A Saturday New Year's Day is observed the Friday before, in the previous year.
+        assertTrue(testCalendar.isHoliday(LocalDate.of(2021, 12, 31)));
+        assertFalse(testCalendar.isHoliday(LocalDate.of(2022, 1, 1)));
+        // A Sunday New Year's Day is observed the Monday after.
+        assertTrue(testCalendar.isHoliday(LocalDate.of(2023, 1, 2)));
+        assertTrue(testCalendar.isHoliday(LocalDate.of(2020, 5, 25)));
+        assertTrue(testCalendar.isHoliday(LocalDate.of(2020, 11, 26)));
+        // Christmas isn't moved off of the weekend.
+        assertTrue(testCalendar.isHoliday(LocalDate.of(2021, 12, 25)));
+        assertFalse(testCalendar.isHoliday(LocalDate.of(2021, 12, 24)));
+
+        assertEquals(LocalDate.of(2024, 9, 2), HolidayRule.nthWeekday("Labor Day", Month.SEPTEMBER, DayOfWeek.MONDAY, 1).getObservedDate(2024));
+        assertThrows(IllegalArgumentException.class, () -> HolidayRule.nthWeekday("Bad", Month.MAY, DayOfWeek.MONDAY, 5));
+        assertThrows(IllegalArgumentException.class, () -> HolidayRule.fixedDate("Bad", Month.APRIL, 31, true));
+    }
+
+    /**
+     * Counting over the masks should match checking every day, including weekend holidays.
+     */
+    @Test
+    public void testCounts() {
+        for (String toolCode : new String[] { "CHNS", "LADW", "JAKR" }) {
+            Tool testTool = new Tool(toolCode);
+
+            for (int year = 2012; year <= 2027; year += 3) {
+                LocalDate startDate = LocalDate.of(year, 5, 1);
+                for (int offset = 0; offset < 300; offset += 11) {
+                    LocalDate testStartDate = startDate.plusDays(offset);
+
+                    for (int dayCount = 1; dayCount <= 800; dayCount += 37) {
+                        int expectedHolidays = 0;
+                        for (int i = 1; i <= dayCount; ++i) {
+                            expectedHolidays += testCalendar.isHoliday(testStartDate.plusDays(i)) ? 1 : 0;
+                        }
+                        assertEquals(expectedHolidays, testCalendar.countHolidays(testStartDate.plusDays(1), testStartDate.plusDays(dayCount)));
+
+                        int expectedCount = countChargableDaysDayByDay(testStartDate, dayCount, testTool, testCalendar);
+                        assertEquals(expectedCount, CalendarUtility.getChargableDays(testStartDate, dayCount, testTool, testCalendar), toolCode + " " + testStartDate + " " + dayCount);
+                        assertEquals(expectedCount, CalendarUtility.getChargableDaysClosedForm(testStartDate, dayCount, testTool, testCalendar), toolCode + " " + testStartDate + " " + dayCount);
+                        assertEquals(expectedCount, CalendarUtility.getChargableDaysBitmask(testStartDate, dayCount, testTool, testCalendar), toolCode + " " + testStartDate + " " + dayCount);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Years outside of the cached range are built once per place in the 400 year cycle, and count the
+     * same as when they're cached up front.
+     */
+    @Test
+    public void testYearsOutsideOfCachedRange() {
+        HolidayCalendar cachedCalendar = new HolidayCalendar("Cached", testCalendar.getHolidayRules(), 2395, 2435);
+
+        for (int year = 2400; year <= 2430; ++year) {
+            assertSame(testCalendar.getHolidayMask(year), testCalendar.getHolidayMask(year));
+            assertSame(testCalendar.getHolidayMask(year), testCalendar.getHolidayMask(year - 800));
+            assertArrayEquals(cachedCalendar.getHolidayMask(year), testCalendar.getHolidayMask(year));
+
+            LocalDate firstDay = LocalDate.of(year, 1, 1);
+            LocalDate lastDay = LocalDate.of(year, 12, 31);
+            assertEquals(cachedCalendar.countHolidays(firstDay, lastDay), testCalendar.countHolidays(firstDay, lastDay));
+            assertEquals(cachedCalendar.countWeekendHolidays(firstDay, lastDay), testCalendar.countWeekendHolidays(firstDay, lastDay));
+            for (int chargeProfile = 0; chargeProfile < ChargeCalendarIndex.PROFILE_COUNT; ++chargeProfile) {
+                assertEquals(cachedCalendar.countChargableDays(firstDay, lastDay, chargeProfile), testCalendar.countChargableDays(firstDay, lastDay, chargeProfile));
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package toolVendor.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyUtilityTest {
+
+    /**
+     * Percentages round half up to the cent without floating point drift.
+     */
+    @Test
+    public void testPercentageOf() {
+        // 50% of $40.23 is $20.115, doubles used to round this down to $20.11
+        assertEquals(2012, MoneyUtility.percentageOf(4023, 5000));
+        // 25% of $4.47 is $1.1175
+        assertEquals(112, MoneyUtility.percentageOf(447, 2500));
+        assertEquals(373, MoneyUtility.percentageOf(745, 5000));
+        assertEquals(0, MoneyUtility.percentageOf(598, 0));
+        assertEquals(598, MoneyUtility.percentageOf(598, 10000));
+        assertEquals(-150, MoneyUtility.percentageOf(-299, 5000));
+    }
+
+    /**
+     * Conversions in and out of cents and basis points
+     */
+    @Test
+    public void testConversions() {
+        assertEquals(149, MoneyUtility.toCents(1.49));
+        assertEquals(-299, MoneyUtility.toCents(-2.99));
+        assertEquals(199, MoneyUtility.parseCents("1.99"));
+        assertEquals(200, MoneyUtility.parseCents(" 1.995 "));
+        assertEquals(1250, MoneyUtility.toBasisPoints(12.5));
+        assertEquals(2.99, MoneyUtility.toDollars(299));
+        assertThrows(NumberFormatException.class, () -> MoneyUtility.parseCents("two"));
+    }
+
+    /**
+     * Formatting should look like %.2f and %.1f
+     */
+    @Test
+    public void testFormatting() {
+        assertEquals("0.00", MoneyUtility.formatCents(0));
+        assertEquals("0.05", MoneyUtility.formatCents(5));
+        assertEquals("14.95", MoneyUtility.formatCents(1495));
+        assertEquals("-1.50", MoneyUtility.formatCents(-150));
+        assertEquals("0.0", MoneyUtility.formatPercent(0));
+        assertEquals("12.5", MoneyUtility.formatPercent(1250));
+        assertEquals("12.3", MoneyUtility.formatPercent(1225));
+        assertEquals("100.0", MoneyUtility.formatPercent(10000));
+        assertEquals("-92233720368547758.08", MoneyUtility.formatCents(Long.MIN_VALUE));
+    }
+}
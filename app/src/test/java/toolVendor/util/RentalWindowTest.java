@@ -0,0 +1,58 @@
+package toolVendor.util;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import toolVendor.data.tool.Tool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RentalWindowTest {
+    private static final String[] TEST_TOOL_CODES = { "CHNS", "LADW", "JAKD", "JAKR" };
+
+    /**
+     * The 4th of July weekend in 2020 has the observed holiday on the Friday.
+     */
+    @Test
+    public void testClassify() {
+        RentalWindow testWindow = RentalWindow.classify(LocalDate.of(2020, 7, 2), 4, HolidayCalendar.getDefaultCalendar());
+        assertEquals(LocalDate.of(2020, 7, 6), testWindow.getReturnDate());
+        assertEquals(2, testWindow.getWeekdayCount());
+        assertEquals(2, testWindow.getWeekendDayCount());
+        assertEquals(1, testWindow.getWeekdayHolidayCount());
+        assertEquals(0, testWindow.getWeekendHolidayCount());
+
+        assertEquals(2, testWindow.getChargableDays(new Tool("CHNS")));
+        assertEquals(3, testWindow.getChargableDays(new Tool("LADW")));
+        assertEquals(1, testWindow.getChargableDays(new Tool("JAKR")));
+
+        assertEquals(0, RentalWindow.classify(LocalDate.of(2020, 7, 2), 0, HolidayCalendar.getDefaultCalendar()).getChargableDays(new Tool("LADW")));
+        assertThrows(IllegalArgumentException.class, () -> RentalWindow.classify(LocalDate.of(2020, 7, 2), -1, HolidayCalendar.getDefaultCalendar()));
+    }
+
+    /**
+     * Every tool's chargable days from one classified window match counting the window for the tool,
+     * including a Christmas that lands on a Saturday in 2021.
+     */
+    @Test
+    public void testMatchesChargableDays() {
+        HolidayCalendar christmasCalendar = new HolidayCalendar("Christmas only", Arrays.asList(
+            HolidayRule.fixedDate("Christmas", Month.DECEMBER, 25, false)));
+
+        for (HolidayCalendar holidayCalendar : new HolidayCalendar[] { HolidayCalendar.getDefaultCalendar(), christmasCalendar }) {
+            for (LocalDate checkoutDate = LocalDate.of(2020, 6, 20); checkoutDate.isBefore(LocalDate.of(2022, 1, 10)); checkoutDate = checkoutDate.plusDays(3)) {
+                for (int rentalDayCount = 1; rentalDayCount <= 60; rentalDayCount += 7) {
+                    RentalWindow testWindow = RentalWindow.classify(checkoutDate, rentalDayCount, holidayCalendar);
+                    for (String toolCode : TEST_TOOL_CODES) {
+                        Tool testTool = new Tool(toolCode);
+                        assertEquals(CalendarUtility.getChargableDays(checkoutDate, rentalDayCount, testTool, holidayCalendar),
+                                     testWindow.getChargableDays(testTool), toolCode + " " + checkoutDate + " " + rentalDayCount);
+                    }
+                }
+            }
+        }
+    }
+}